@@ -0,0 +1,120 @@
+package de.unistuttgart.iste.meitrex.quiz_service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates synthetic quizzes and inputs of arbitrary size for the benchmarks.
+ * The questions cycle through all question types, so every quiz contains a similar share of each type.
+ */
+public final class SyntheticQuizzes {
+
+    private SyntheticQuizzes() {
+    }
+
+    public static QuizEntity createQuiz(final int numberOfQuestions, final QuestionPoolingMode questionPoolingMode) {
+        final List<QuestionEntity> questions = new ArrayList<>(numberOfQuestions);
+        for (int number = 1; number <= numberOfQuestions; number++) {
+            questions.add(createQuestion(number));
+        }
+
+        return QuizEntity.builder()
+                .assessmentId(UUID.randomUUID())
+                .courseId(UUID.randomUUID())
+                .questionPool(questions)
+                .questionPoolingMode(questionPoolingMode)
+                .numberOfRandomlySelectedQuestions(Math.max(1, numberOfQuestions / 2))
+                .requiredCorrectAnswers(numberOfQuestions / 2)
+                .build();
+    }
+
+    public static QuestionEntity createQuestion(final int number) {
+        final UUID itemId = UUID.randomUUID();
+        final String text = "{\"text\": \"Question " + number + "\"}";
+        return switch (number % 6) {
+            case 0 -> MultipleChoiceQuestionEntity.builder()
+                    .itemId(itemId).number(number).type(QuestionType.MULTIPLE_CHOICE).text(text).hint("hint")
+                    .answers(new ArrayList<>(List.of(
+                            new MultipleChoiceAnswerEmbeddable("correct", true, "feedback"),
+                            new MultipleChoiceAnswerEmbeddable("wrong", false, "feedback"),
+                            new MultipleChoiceAnswerEmbeddable("also wrong", false, null))))
+                    .build();
+            case 1 -> AssociationQuestionEntity.builder()
+                    .itemId(itemId).number(number).type(QuestionType.ASSOCIATION).text(text)
+                    .correctAssociations(new ArrayList<>(List.of(
+                            new AssociationEmbeddable("a", "1", "feedback"),
+                            new AssociationEmbeddable("b", "2", "feedback"),
+                            new AssociationEmbeddable("c", "3", null))))
+                    .build();
+            case 2 -> ClozeQuestionEntity.builder()
+                    .itemId(itemId).number(number).type(QuestionType.CLOZE).showBlanksList(true)
+                    .clozeElements(new ArrayList<>(List.of(
+                            new ClozeElementEmbeddable(1, ClozeElementType.TEXT, "The answer is ", null, null),
+                            new ClozeElementEmbeddable(2, ClozeElementType.BLANK, null, "42", "feedback"),
+                            new ClozeElementEmbeddable(3, ClozeElementType.TEXT, " and not ", null, null),
+                            new ClozeElementEmbeddable(4, ClozeElementType.BLANK, null, "43", null))))
+                    .additionalWrongAnswers(new ArrayList<>(List.of("41", "44")))
+                    .build();
+            case 3 -> ExactAnswerQuestionEntity.builder()
+                    .itemId(itemId).number(number).type(QuestionType.EXACT_ANSWER).text(text)
+                    .correctAnswers(new ArrayList<>(List.of("answer", "other answer"))).caseSensitive(false)
+                    .feedback("feedback")
+                    .build();
+            case 4 -> NumericQuestionEntity.builder()
+                    .itemId(itemId).number(number).type(QuestionType.NUMERIC).text(text)
+                    .correctAnswer(42).tolerance(0.5).feedback("feedback")
+                    .build();
+            default -> SelfAssessmentQuestionEntity.builder()
+                    .itemId(itemId).number(number).type(QuestionType.SELF_ASSESSMENT).text(text)
+                    .solutionSuggestion("solution")
+                    .build();
+        };
+    }
+
+    public static CreateMultipleChoiceQuestionInput createMultipleChoiceQuestionInput(final int numberOfAnswers) {
+        final List<MultipleChoiceAnswerInput> answers = new ArrayList<>(numberOfAnswers);
+        for (int i = 0; i < numberOfAnswers; i++) {
+            // the only correct answer is the last one, so validators have to look at all answers
+            answers.add(new MultipleChoiceAnswerInput("answer " + i, i == numberOfAnswers - 1, null));
+        }
+        return CreateMultipleChoiceQuestionInput.builder()
+                .setItemId(UUID.randomUUID())
+                .setText("text")
+                .setAnswers(answers)
+                .build();
+    }
+
+    public static CreateClozeQuestionInput createClozeQuestionInput(final int numberOfElements) {
+        final List<ClozeElementInput> elements = new ArrayList<>(numberOfElements);
+        for (int i = 0; i < numberOfElements; i++) {
+            elements.add(i % 2 == 0
+                    ? new ClozeElementInput(ClozeElementType.TEXT, "text " + i, null, null)
+                    : new ClozeElementInput(ClozeElementType.BLANK, null, "blank " + i, "feedback"));
+        }
+        return CreateClozeQuestionInput.builder()
+                .setItemId(UUID.randomUUID())
+                .setClozeElements(elements)
+                .setAdditionalWrongAnswers(List.of())
+                .setShowBlanksList(true)
+                .build();
+    }
+
+    public static CreateAssociationQuestionInput createAssociationQuestionInput(final int numberOfAssociations) {
+        final List<AssociationInput> associations = new ArrayList<>(numberOfAssociations);
+        for (int i = 0; i < numberOfAssociations; i++) {
+            associations.add(AssociationInput.builder()
+                    .setLeft("left " + i)
+                    .setRight("right " + i)
+                    .build());
+        }
+        return CreateAssociationQuestionInput.builder()
+                .setItemId(UUID.randomUUID())
+                .setText("text")
+                .setCorrectAssociations(associations)
+                .build();
+    }
+}
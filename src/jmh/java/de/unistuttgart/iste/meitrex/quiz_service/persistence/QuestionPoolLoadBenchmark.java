@@ -0,0 +1,229 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of loading the question pool of a quiz with the old TABLE_PER_CLASS layout,
+ * which requires a UNION ALL over one table per question type, and the SINGLE_TABLE layout.
+ * <p>
+ * Both layouts are created side by side in a PostgreSQL test container, in the schemas "table_per_class" and
+ * "single_table". The queries are the ones Hibernate generates for the two inheritance strategies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionPoolLoadBenchmark {
+
+    private static final String[] QUESTION_TABLES = {
+            "multiple_choice_question", "cloze_question", "association_question",
+            "exact_answer_question", "numeric_question", "self_assessment_question"
+    };
+
+    private static final String[] DISCRIMINATORS = {
+            "MultipleChoiceQuestion", "ClozeQuestion", "AssociationQuestion",
+            "ExactAnswerQuestion", "NumericQuestion", "SelfAssessmentQuestion"
+    };
+
+    private static final String TABLE_PER_CLASS_QUERY = """
+            select q.* from table_per_class.quiz_question_pool p
+            join (
+                select item_id, number, type, hint, text, null::boolean as show_blanks_list,
+                       null::boolean as case_sensitive, null::text as feedback, null::float8 as correct_answer,
+                       null::float8 as tolerance, null::text as solution_suggestion, 1 as clazz_
+                from table_per_class.multiple_choice_question
+                union all
+                select item_id, number, type, hint, null::text, show_blanks_list, null::boolean, null::text,
+                       null::float8, null::float8, null::text, 2
+                from table_per_class.cloze_question
+                union all
+                select item_id, number, type, hint, text, null::boolean, null::boolean, null::text,
+                       null::float8, null::float8, null::text, 3
+                from table_per_class.association_question
+                union all
+                select item_id, number, type, hint, text, null::boolean, case_sensitive, feedback,
+                       null::float8, null::float8, null::text, 4
+                from table_per_class.exact_answer_question
+                union all
+                select item_id, number, type, hint, text, null::boolean, null::boolean, feedback,
+                       correct_answer, tolerance, null::text, 5
+                from table_per_class.numeric_question
+                union all
+                select item_id, number, type, hint, text, null::boolean, null::boolean, null::text,
+                       null::float8, null::float8, solution_suggestion, 6
+                from table_per_class.self_assessment_question
+            ) q on q.item_id = p.question_pool_item_id
+            where p.quiz_assessment_id = ?
+            order by q.number
+            """;
+
+    private static final String SINGLE_TABLE_QUERY = """
+            select q.* from single_table.quiz_question_pool p
+            join single_table.question q on q.item_id = p.question_pool_item_id
+            where p.quiz_assessment_id = ?
+            order by q.number
+            """;
+
+    @Param({"200"})
+    private int numberOfQuizzes;
+
+    @Param({"30", "300"})
+    private int questionsPerQuiz;
+
+    private PostgreSQLContainer<?> container;
+    private Connection connection;
+    private PreparedStatement tablePerClassStatement;
+    private PreparedStatement singleTableStatement;
+    private final List<UUID> quizIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        container = new PostgreSQLContainer<>("postgres:16-alpine");
+        container.start();
+        connection = DriverManager.getConnection(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+
+        createTablePerClassSchema();
+        createSingleTableSchema();
+        insertQuizzes();
+
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+
+        tablePerClassStatement = connection.prepareStatement(TABLE_PER_CLASS_QUERY);
+        singleTableStatement = connection.prepareStatement(SINGLE_TABLE_QUERY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        container.stop();
+    }
+
+    @Benchmark
+    public void loadQuestionPoolTablePerClass(final Blackhole blackhole) throws SQLException {
+        loadQuestionPool(tablePerClassStatement, blackhole);
+    }
+
+    @Benchmark
+    public void loadQuestionPoolSingleTable(final Blackhole blackhole) throws SQLException {
+        loadQuestionPool(singleTableStatement, blackhole);
+    }
+
+    private void loadQuestionPool(final PreparedStatement statement, final Blackhole blackhole) throws SQLException {
+        statement.setObject(1, quizIds.get(ThreadLocalRandom.current().nextInt(quizIds.size())));
+        try (final ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getObject("item_id"));
+                blackhole.consume(resultSet.getString("text"));
+            }
+        }
+    }
+
+    private void createTablePerClassSchema() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("create schema table_per_class");
+            for (final String table : QUESTION_TABLES) {
+                statement.execute("create table table_per_class." + table + """
+                         (item_id uuid primary key, number int not null, type smallint, hint text, text text,
+                          show_blanks_list boolean, case_sensitive boolean, feedback text, correct_answer float8,
+                          tolerance float8, solution_suggestion text)
+                        """);
+            }
+            // without index on the quiz id, as generated by hibernate for the old mapping
+            statement.execute("""
+                    create table table_per_class.quiz_question_pool
+                    (quiz_assessment_id uuid not null, question_pool_item_id uuid not null unique)
+                    """);
+        }
+    }
+
+    private void createSingleTableSchema() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("create schema single_table");
+            statement.execute("""
+                    create table single_table.question
+                    (dtype varchar(31) not null, item_id uuid primary key, number int not null, type smallint,
+                     hint text, text text, show_blanks_list boolean, case_sensitive boolean, feedback text,
+                     correct_answer float8, tolerance float8, solution_suggestion text)
+                    """);
+            statement.execute("""
+                    create table single_table.quiz_question_pool
+                    (quiz_assessment_id uuid not null, question_pool_item_id uuid not null unique)
+                    """);
+            statement.execute("""
+                    create index idx_quiz_question_pool_quiz_assessment_id
+                    on single_table.quiz_question_pool (quiz_assessment_id)
+                    """);
+        }
+    }
+
+    private void insertQuizzes() throws SQLException {
+        connection.setAutoCommit(false);
+
+        final List<PreparedStatement> tablePerClassInserts = new ArrayList<>();
+        for (final String table : QUESTION_TABLES) {
+            tablePerClassInserts.add(connection.prepareStatement("insert into table_per_class." + table
+                                                                 + " (item_id, number, type, hint, text) values (?, ?, ?, ?, ?)"));
+        }
+        try (final PreparedStatement singleTableInsert = connection.prepareStatement(
+                "insert into single_table.question (dtype, item_id, number, type, hint, text) values (?, ?, ?, ?, ?, ?)");
+             final PreparedStatement tablePerClassPoolInsert = connection.prepareStatement(
+                     "insert into table_per_class.quiz_question_pool values (?, ?)");
+             final PreparedStatement singleTablePoolInsert = connection.prepareStatement(
+                     "insert into single_table.quiz_question_pool values (?, ?)")) {
+
+            for (int quiz = 0; quiz < numberOfQuizzes; quiz++) {
+                final UUID quizId = UUID.randomUUID();
+                quizIds.add(quizId);
+
+                for (int number = 1; number <= questionsPerQuiz; number++) {
+                    final UUID itemId = UUID.randomUUID();
+                    final int type = number % QUESTION_TABLES.length;
+                    final String text = "Question text " + number;
+
+                    final PreparedStatement tablePerClassInsert = tablePerClassInserts.get(type);
+                    tablePerClassInsert.setObject(1, itemId);
+                    tablePerClassInsert.setInt(2, number);
+                    tablePerClassInsert.setInt(3, type);
+                    tablePerClassInsert.setString(4, "hint");
+                    tablePerClassInsert.setString(5, text);
+                    tablePerClassInsert.addBatch();
+
+                    singleTableInsert.setString(1, DISCRIMINATORS[type]);
+                    singleTableInsert.setObject(2, itemId);
+                    singleTableInsert.setInt(3, number);
+                    singleTableInsert.setInt(4, type);
+                    singleTableInsert.setString(5, "hint");
+                    singleTableInsert.setString(6, text);
+                    singleTableInsert.addBatch();
+
+                    for (final PreparedStatement poolInsert : List.of(tablePerClassPoolInsert, singleTablePoolInsert)) {
+                        poolInsert.setObject(1, quizId);
+                        poolInsert.setObject(2, itemId);
+                        poolInsert.addBatch();
+                    }
+                }
+            }
+
+            for (final PreparedStatement tablePerClassInsert : tablePerClassInserts) {
+                tablePerClassInsert.executeBatch();
+                tablePerClassInsert.close();
+            }
+            singleTableInsert.executeBatch();
+            tablePerClassPoolInsert.executeBatch();
+            singleTablePoolInsert.executeBatch();
+        }
+
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,214 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence;
+
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of deleting all quizzes of a content-changed event with the statements Hibernate issues
+ * when the quizzes are deleted by id, i.e., loading every quiz and deleting its questions and element collections
+ * row by row, and with the chunked set-based statements of {@code QuizService#deleteQuizzesWhenQuizContentIsDeleted}.
+ * <p>
+ * The tables are created in a PostgreSQL test container as generated by Hibernate and refilled before every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class QuizBulkDeleteBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int ANSWERS_PER_QUESTION = 4;
+
+    @Param({"200"})
+    private int numberOfQuizzes;
+
+    @Param({"30"})
+    private int questionsPerQuiz;
+
+    private PostgreSQLContainer<?> container;
+    private Connection connection;
+    private final List<UUID> quizIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        container = new PostgreSQLContainer<>("postgres:16-alpine");
+        container.start();
+        connection = DriverManager.getConnection(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+        createSchema();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        container.stop();
+    }
+
+    @Setup(Level.Invocation)
+    public void insertQuizzes() throws SQLException {
+        quizIds.clear();
+        connection.setAutoCommit(false);
+
+        try (final PreparedStatement quizInsert = connection.prepareStatement("insert into quiz values (?)");
+             final PreparedStatement questionInsert = connection.prepareStatement(
+                     "insert into question (item_id, number, text) values (?, ?, ?)");
+             final PreparedStatement poolInsert = connection.prepareStatement("insert into quiz_question_pool values (?, ?)");
+             final PreparedStatement answerInsert = connection.prepareStatement(
+                     "insert into multiple_choice_question_answers values (?, ?)")) {
+
+            for (int quiz = 0; quiz < numberOfQuizzes; quiz++) {
+                final UUID quizId = UUID.randomUUID();
+                quizIds.add(quizId);
+                quizInsert.setObject(1, quizId);
+                quizInsert.addBatch();
+
+                for (int number = 1; number <= questionsPerQuiz; number++) {
+                    final UUID itemId = UUID.randomUUID();
+                    questionInsert.setObject(1, itemId);
+                    questionInsert.setInt(2, number);
+                    questionInsert.setString(3, "Question text " + number);
+                    questionInsert.addBatch();
+
+                    poolInsert.setObject(1, quizId);
+                    poolInsert.setObject(2, itemId);
+                    poolInsert.addBatch();
+
+                    for (int answer = 0; answer < ANSWERS_PER_QUESTION; answer++) {
+                        answerInsert.setObject(1, itemId);
+                        answerInsert.setString(2, "Answer " + answer);
+                        answerInsert.addBatch();
+                    }
+                }
+            }
+
+            quizInsert.executeBatch();
+            questionInsert.executeBatch();
+            poolInsert.executeBatch();
+            answerInsert.executeBatch();
+        }
+
+        connection.commit();
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+    }
+
+    @Benchmark
+    public void deleteRowByRow() throws SQLException {
+        try (final PreparedStatement selectQuestions = connection.prepareStatement(
+                "select question_pool_item_id from quiz_question_pool where quiz_assessment_id = ?");
+             final PreparedStatement deleteAnswers = connection.prepareStatement(
+                     "delete from multiple_choice_question_answers where multiple_choice_question_item_id = ?");
+             final PreparedStatement deletePool = connection.prepareStatement(
+                     "delete from quiz_question_pool where quiz_assessment_id = ?");
+             final PreparedStatement deleteQuestion = connection.prepareStatement("delete from question where item_id = ?");
+             final PreparedStatement deleteQuiz = connection.prepareStatement("delete from quiz where assessment_id = ?")) {
+
+            for (final UUID quizId : quizIds) {
+                final List<UUID> questionIds = new ArrayList<>();
+                selectQuestions.setObject(1, quizId);
+                try (final ResultSet resultSet = selectQuestions.executeQuery()) {
+                    while (resultSet.next()) {
+                        questionIds.add(resultSet.getObject(1, UUID.class));
+                    }
+                }
+
+                // hibernate orders the statements of a flush: collections first, then the entities in batches
+                for (final UUID questionId : questionIds) {
+                    deleteAnswers.setObject(1, questionId);
+                    deleteAnswers.addBatch();
+                }
+                deleteAnswers.executeBatch();
+
+                deletePool.setObject(1, quizId);
+                deletePool.executeUpdate();
+
+                for (final UUID questionId : questionIds) {
+                    deleteQuestion.setObject(1, questionId);
+                    deleteQuestion.addBatch();
+                }
+                deleteQuestion.executeBatch();
+
+                deleteQuiz.setObject(1, quizId);
+                deleteQuiz.executeUpdate();
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void deleteSetBased() throws SQLException {
+        try (final PreparedStatement selectQuestions = connection.prepareStatement(
+                "select question_pool_item_id from quiz_question_pool where quiz_assessment_id = any (?)");
+             final PreparedStatement deletePools = connection.prepareStatement(
+                     "delete from quiz_question_pool where quiz_assessment_id = any (?)");
+             final PreparedStatement deleteAnswers = connection.prepareStatement(
+                     "delete from multiple_choice_question_answers where multiple_choice_question_item_id = any (?)");
+             final PreparedStatement deleteQuestions = connection.prepareStatement(
+                     "delete from question where item_id = any (?)");
+             final PreparedStatement deleteQuizzes = connection.prepareStatement(
+                     "delete from quiz where assessment_id = any (?)")) {
+
+            for (final List<UUID> quizChunk : chunks(quizIds)) {
+                final Array quizIdArray = connection.createArrayOf("uuid", quizChunk.toArray());
+
+                final List<UUID> questionIds = new ArrayList<>();
+                selectQuestions.setArray(1, quizIdArray);
+                try (final ResultSet resultSet = selectQuestions.executeQuery()) {
+                    while (resultSet.next()) {
+                        questionIds.add(resultSet.getObject(1, UUID.class));
+                    }
+                }
+
+                deletePools.setArray(1, quizIdArray);
+                deletePools.executeUpdate();
+
+                for (final List<UUID> questionChunk : chunks(questionIds)) {
+                    final Array questionIdArray = connection.createArrayOf("uuid", questionChunk.toArray());
+                    deleteAnswers.setArray(1, questionIdArray);
+                    deleteAnswers.executeUpdate();
+                    deleteQuestions.setArray(1, questionIdArray);
+                    deleteQuestions.executeUpdate();
+                }
+
+                deleteQuizzes.setArray(1, quizIdArray);
+                deleteQuizzes.executeUpdate();
+            }
+        }
+        connection.commit();
+    }
+
+    private static List<List<UUID>> chunks(final List<UUID> ids) {
+        final List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private void createSchema() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("create table quiz (assessment_id uuid primary key)");
+            statement.execute("create table question (item_id uuid primary key, number int not null, text text)");
+            statement.execute("""
+                    create table quiz_question_pool
+                    (quiz_assessment_id uuid not null references quiz,
+                     question_pool_item_id uuid not null unique references question)
+                    """);
+            statement.execute("""
+                    create index idx_quiz_question_pool_quiz_assessment_id
+                    on quiz_question_pool (quiz_assessment_id)
+                    """);
+            statement.execute("""
+                    create table multiple_choice_question_answers
+                    (multiple_choice_question_item_id uuid not null references question, answer_text text)
+                    """);
+        }
+    }
+}
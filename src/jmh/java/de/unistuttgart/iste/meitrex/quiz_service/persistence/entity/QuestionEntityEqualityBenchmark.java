@@ -0,0 +1,58 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.SyntheticQuizzes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations that use {@link QuestionEntity#equals} and {@link QuestionEntity#hashCode}
+ * on the question pool of a quiz: searching a question with {@link List#indexOf}, collecting the questions
+ * in a hash set, and comparing two quizzes, e.g., by Lombok's equals of {@link QuizEntity}.
+ * <p>
+ * The results can be compared with a run of this benchmark on a version with content-based equality.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionEntityEqualityBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int numberOfQuestions;
+
+    private QuizEntity quizEntity;
+    private QuizEntity otherQuizEntity;
+    private QuestionEntity lastQuestion;
+
+    @Setup
+    public void setup() {
+        quizEntity = SyntheticQuizzes.createQuiz(numberOfQuestions, QuestionPoolingMode.ORDERED);
+        // same questions, but different instances
+        otherQuizEntity = SyntheticQuizzes.createQuiz(numberOfQuestions, QuestionPoolingMode.ORDERED);
+        otherQuizEntity.setAssessmentId(quizEntity.getAssessmentId());
+        otherQuizEntity.setCourseId(quizEntity.getCourseId());
+        for (int i = 0; i < numberOfQuestions; i++) {
+            otherQuizEntity.getQuestionPool().get(i).setItemId(quizEntity.getQuestionPool().get(i).getItemId());
+        }
+        lastQuestion = otherQuizEntity.getQuestionPool().get(numberOfQuestions - 1);
+    }
+
+    @Benchmark
+    public int indexOfLastQuestion() {
+        return quizEntity.getQuestionPool().indexOf(lastQuestion);
+    }
+
+    @Benchmark
+    public Set<QuestionEntity> collectQuestionsInHashSet() {
+        return new HashSet<>(quizEntity.getQuestionPool());
+    }
+
+    @Benchmark
+    public boolean compareQuizzes() {
+        return quizEntity.equals(otherQuizEntity);
+    }
+}
@@ -0,0 +1,89 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.SyntheticQuizzes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lookups of questions in the question pool of a quiz through the {@link QuestionPoolIndex}
+ * with the linear searches that were used before. Every benchmark looks up every question of the quiz once,
+ * like the handling of a completion of all questions, or switches all pairs of neighbouring questions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionPoolIndexBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int numberOfQuestions;
+
+    private QuizEntity quizEntity;
+    private List<UUID> questionIds;
+
+    @Setup
+    public void setup() {
+        quizEntity = SyntheticQuizzes.createQuiz(numberOfQuestions, QuestionPoolingMode.ORDERED);
+        questionIds = quizEntity.getQuestionPool().stream().map(QuestionEntity::getItemId).toList();
+    }
+
+    @Benchmark
+    public void findAllQuestionsByIdIndexed(final Blackhole blackhole) {
+        for (final UUID questionId : questionIds) {
+            blackhole.consume(quizEntity.findQuestionById(questionId));
+        }
+    }
+
+    @Benchmark
+    public void findAllQuestionsByIdLinear(final Blackhole blackhole) {
+        for (final UUID questionId : questionIds) {
+            blackhole.consume(quizEntity.getQuestionPool().stream()
+                    .filter(q -> q.getItemId().equals(questionId))
+                    .findFirst());
+        }
+    }
+
+    @Benchmark
+    public void findAllQuestionsByNumberIndexed(final Blackhole blackhole) {
+        for (int number = 1; number <= numberOfQuestions; number++) {
+            blackhole.consume(quizEntity.findQuestionByNumber(number));
+        }
+    }
+
+    @Benchmark
+    public void findAllQuestionsByNumberLinear(final Blackhole blackhole) {
+        for (int number = 1; number <= numberOfQuestions; number++) {
+            final int n = number;
+            blackhole.consume(quizEntity.getQuestionPool().stream()
+                    .filter(q -> q.getNumber() == n)
+                    .findFirst());
+        }
+    }
+
+    @Benchmark
+    public void switchAllNeighboursIndexed() {
+        for (int number = 1; number < numberOfQuestions; number++) {
+            final QuestionEntity first = quizEntity.findQuestionByNumber(number).orElseThrow();
+            final QuestionEntity second = quizEntity.findQuestionByNumber(number + 1).orElseThrow();
+            quizEntity.switchQuestions(first, second);
+        }
+    }
+
+    @Benchmark
+    public void switchAllNeighboursLinear() {
+        final List<QuestionEntity> pool = quizEntity.getQuestionPool();
+        for (int number = 1; number < numberOfQuestions; number++) {
+            final int n = number;
+            final QuestionEntity first = pool.stream().filter(q -> q.getNumber() == n).findFirst().orElseThrow();
+            final QuestionEntity second = pool.stream().filter(q -> q.getNumber() == n + 1).findFirst().orElseThrow();
+            first.setNumber(n + 1);
+            second.setNumber(n);
+            Collections.swap(pool, pool.indexOf(first), pool.indexOf(second));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper;
+
+import de.unistuttgart.iste.meitrex.generated.dto.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the compile-time generated {@link QuestionMapper} with the reflection-based
+ * {@link ModelMapper}, configured like the former ModelMapperConfiguration bean, for the mappings that
+ * were previously done with ModelMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QuestionMapperBenchmark {
+
+    /**
+     * Number of questions of each type that are mapped per invocation.
+     */
+    @Param({"10", "100"})
+    private int questionsPerType;
+
+    private final QuestionMapper questionMapper = Mappers.getMapper(QuestionMapper.class);
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private List<QuestionEntity> questions;
+    private List<CreateMultipleChoiceQuestionInput> inputs;
+
+    @Setup
+    public void setup() {
+        questions = new ArrayList<>();
+        inputs = new ArrayList<>();
+        for (int i = 0; i < questionsPerType; i++) {
+            questions.add(MultipleChoiceQuestionEntity.builder()
+                    .itemId(UUID.randomUUID()).number(i).type(QuestionType.MULTIPLE_CHOICE).text("text").hint("hint")
+                    .answers(List.of(
+                            new MultipleChoiceAnswerEmbeddable("correct", true, "feedback"),
+                            new MultipleChoiceAnswerEmbeddable("wrong", false, "feedback")))
+                    .build());
+            questions.add(AssociationQuestionEntity.builder()
+                    .itemId(UUID.randomUUID()).number(i).type(QuestionType.ASSOCIATION).text("text")
+                    .correctAssociations(List.of(
+                            new AssociationEmbeddable("a", "1", "feedback"),
+                            new AssociationEmbeddable("b", "2", "feedback")))
+                    .build());
+            questions.add(ClozeQuestionEntity.builder()
+                    .itemId(UUID.randomUUID()).number(i).type(QuestionType.CLOZE).showBlanksList(true)
+                    .clozeElements(List.of(
+                            new ClozeElementEmbeddable(1, ClozeElementType.TEXT, "text", null, null),
+                            new ClozeElementEmbeddable(2, ClozeElementType.BLANK, null, "answer", "feedback")))
+                    .additionalWrongAnswers(List.of("wrong"))
+                    .build());
+            questions.add(ExactAnswerQuestionEntity.builder()
+                    .itemId(UUID.randomUUID()).number(i).type(QuestionType.EXACT_ANSWER).text("text")
+                    .correctAnswers(List.of("answer")).caseSensitive(false).feedback("feedback")
+                    .build());
+            questions.add(NumericQuestionEntity.builder()
+                    .itemId(UUID.randomUUID()).number(i).type(QuestionType.NUMERIC).text("text")
+                    .correctAnswer(42).tolerance(0.5).feedback("feedback")
+                    .build());
+            questions.add(SelfAssessmentQuestionEntity.builder()
+                    .itemId(UUID.randomUUID()).number(i).type(QuestionType.SELF_ASSESSMENT).text("text")
+                    .solutionSuggestion("solution")
+                    .build());
+
+            inputs.add(CreateMultipleChoiceQuestionInput.builder()
+                    .setItemId(UUID.randomUUID())
+                    .setNumber(i)
+                    .setText("text")
+                    .setAnswers(List.of(
+                            new MultipleChoiceAnswerInput("correct", true, "feedback"),
+                            new MultipleChoiceAnswerInput("wrong", false, "feedback")))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void entityToDtoMapStruct(final Blackhole blackhole) {
+        for (final QuestionEntity question : questions) {
+            blackhole.consume(switch (question) {
+                case final MultipleChoiceQuestionEntity q -> questionMapper.multipleChoiceQuestionEntityToDto(q);
+                case final AssociationQuestionEntity q -> questionMapper.associationQuestionEntityToDto(q);
+                case final ClozeQuestionEntity q -> q.getClozeElements().stream()
+                        .map(element -> element.getType() == ClozeElementType.TEXT
+                                ? questionMapper.clozeElementEmbeddableToTextElementDto(element)
+                                : questionMapper.clozeElementEmbeddableToBlankElementDto(element))
+                        .toList();
+                case final ExactAnswerQuestionEntity q -> questionMapper.exactAnswerQuestionEntityToDto(q);
+                case final NumericQuestionEntity q -> questionMapper.numericQuestionEntityToDto(q);
+                case final SelfAssessmentQuestionEntity q -> questionMapper.selfAssessmentQuestionEntityToDto(q);
+                default -> throw new IllegalStateException();
+            });
+        }
+    }
+
+    @Benchmark
+    public void entityToDtoModelMapper(final Blackhole blackhole) {
+        for (final QuestionEntity question : questions) {
+            blackhole.consume(switch (question) {
+                case final MultipleChoiceQuestionEntity q -> modelMapper.map(q, MultipleChoiceQuestion.class);
+                case final AssociationQuestionEntity q -> modelMapper.map(q, AssociationQuestion.class);
+                case final ClozeQuestionEntity q -> q.getClozeElements().stream()
+                        .map(element -> element.getType() == ClozeElementType.TEXT
+                                ? modelMapper.map(element, ClozeTextElement.class)
+                                : modelMapper.map(element, ClozeBlankElement.class))
+                        .toList();
+                case final ExactAnswerQuestionEntity q -> modelMapper.map(q, ExactAnswerQuestion.class);
+                case final NumericQuestionEntity q -> modelMapper.map(q, NumericQuestion.class);
+                case final SelfAssessmentQuestionEntity q -> modelMapper.map(q, SelfAssessmentQuestion.class);
+                default -> throw new IllegalStateException();
+            });
+        }
+    }
+
+    @Benchmark
+    public void inputToEntityMapStruct(final Blackhole blackhole) {
+        for (final CreateMultipleChoiceQuestionInput input : inputs) {
+            blackhole.consume(questionMapper.multipleChoiceQuestionInputToEntity(input));
+        }
+    }
+
+    @Benchmark
+    public void inputToEntityModelMapper(final Blackhole blackhole) {
+        for (final CreateMultipleChoiceQuestionInput input : inputs) {
+            blackhole.consume(modelMapper.map(input, MultipleChoiceQuestionEntity.class));
+        }
+    }
+}
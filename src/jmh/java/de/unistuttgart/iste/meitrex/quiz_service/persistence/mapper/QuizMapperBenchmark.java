@@ -0,0 +1,52 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.generated.dto.Quiz;
+import de.unistuttgart.iste.meitrex.quiz_service.SyntheticQuizzes;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of quizzes to DTOs, which happens on every quiz read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuizMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int numberOfQuestions;
+
+    @Param({"ORDERED", "RANDOM"})
+    private QuestionPoolingMode questionPoolingMode;
+
+    private final QuizMapper quizMapper = new QuizMapper(Mappers.getMapper(QuestionMapper.class));
+
+    private QuizEntity quizEntity;
+    private Quiz cacheableQuiz;
+
+    @Setup
+    public void setup() {
+        quizEntity = SyntheticQuizzes.createQuiz(numberOfQuestions, questionPoolingMode);
+        cacheableQuiz = quizMapper.entityToCacheableDto(quizEntity);
+    }
+
+    @Benchmark
+    public Quiz entityToDto() {
+        return quizMapper.entityToDto(quizEntity);
+    }
+
+    @Benchmark
+    public Quiz randomize() {
+        return quizMapper.randomize(cacheableQuiz);
+    }
+
+    @Benchmark
+    public Quiz selectQuestionsInQuiz() {
+        return quizMapper.selectQuestionsInQuiz(cacheableQuiz, 42, Map.of());
+    }
+}
@@ -0,0 +1,80 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.UserQuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.SeededRandomization;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the selection of questions in ADAPTIVE question pooling mode, once including the calculation of the
+ * weights from the precomputed aggregates and once with the weights already calculated, compared to the uniform
+ * selection of the RANDOM mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdaptiveSelectionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int numberOfQuestions;
+
+    @Param({"10", "20"})
+    private int numberOfSelectedQuestions;
+
+    private List<UUID> questionIds;
+    private Map<UUID, QuestionAggregateEntity> questionAggregates;
+    private Map<UUID, UserQuestionAggregateEntity> userAggregates;
+    private Map<UUID, Double> weights;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final UUID userId = UUID.randomUUID();
+        questionIds = new ArrayList<>(numberOfQuestions);
+        questionAggregates = HashMap.newHashMap(numberOfQuestions);
+        userAggregates = HashMap.newHashMap(numberOfQuestions);
+        for (int i = 0; i < numberOfQuestions; i++) {
+            final UUID questionId = UUID.randomUUID();
+            questionIds.add(questionId);
+            final int attempts = random.nextInt(1000);
+            questionAggregates.put(questionId,
+                    new QuestionAggregateEntity(questionId, attempts, random.nextInt(attempts + 1), attempts / 2));
+            // the user answered only some of the questions
+            if (random.nextBoolean()) {
+                final int userAttempts = random.nextInt(5) + 1;
+                userAggregates.put(questionId, new UserQuestionAggregateEntity(userId, questionId, userAttempts,
+                        random.nextInt(userAttempts + 1)));
+            }
+        }
+        weights = HashMap.newHashMap(numberOfQuestions);
+        for (final UUID questionId : questionIds) {
+            weights.put(questionId, QuestionStatisticService.adaptiveWeight(
+                    questionAggregates.get(questionId), userAggregates.get(questionId)));
+        }
+    }
+
+    @Benchmark
+    public List<UUID> adaptiveSelectionWithWeightCalculation() {
+        final Map<UUID, Double> calculatedWeights = HashMap.newHashMap(numberOfQuestions);
+        for (final UUID questionId : questionIds) {
+            calculatedWeights.put(questionId, QuestionStatisticService.adaptiveWeight(
+                    questionAggregates.get(questionId), userAggregates.get(questionId)));
+        }
+        return SeededRandomization.weightedSample(questionIds, numberOfSelectedQuestions, calculatedWeights::get,
+                new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public List<UUID> adaptiveSelection() {
+        return SeededRandomization.weightedSample(questionIds, numberOfSelectedQuestions, weights::get,
+                new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public List<UUID> uniformSelection() {
+        return SeededRandomization.sample(questionIds, numberOfSelectedQuestions, new SplittableRandom(42));
+    }
+}
@@ -0,0 +1,85 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching an answer with typos against many accepted answers, once with the compiled
+ * {@link AnswerMatcher} and once by computing the full Levenshtein distance to every accepted answer.
+ * The accepted answers share common prefixes, like the variants of an answer usually do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnswerMatcherBenchmark {
+
+    private static final AnswerMatcher.Options OPTIONS = new AnswerMatcher.Options(false, true, 2);
+
+    @Param({"10", "100", "1000"})
+    private int acceptedAnswers;
+
+    @Param({"match", "mismatch"})
+    private String answerKind;
+
+    private List<String> normalizedAnswers;
+    private AnswerMatcher matcher;
+    private String answer;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final List<String> answers = new ArrayList<>(acceptedAnswers);
+        for (int i = 0; i < acceptedAnswers; i++) {
+            answers.add("mitochondrial membrane " + random.nextInt(100_000) + " potential");
+        }
+        normalizedAnswers = answers.stream()
+                .map(acceptedAnswer -> AnswerMatcher.normalize(acceptedAnswer, OPTIONS))
+                .toList();
+        matcher = AnswerMatcher.compile(answers, OPTIONS);
+
+        final String lastAnswer = answers.get(answers.size() - 1);
+        answer = answerKind.equals("match")
+                // two typos in the last accepted answer
+                ? lastAnswer.replace("mitochondrial", "mitokondrial").replace("potential", "potentiel")
+                : "cell wall";
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        return matcher.matches(answer);
+    }
+
+    @Benchmark
+    public boolean levenshteinPerAnswer() {
+        final String normalizedAnswer = AnswerMatcher.normalize(answer, OPTIONS);
+        for (final String acceptedAnswer : normalizedAnswers) {
+            if (levenshteinDistance(acceptedAnswer, normalizedAnswer) <= OPTIONS.maximumEditDistance()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int levenshteinDistance(final String a, final String b) {
+        int[] previousRow = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                final int substitutionCost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previousRow[j] + 1), previousRow[j - 1] + substitutionCost);
+            }
+            final int[] swap = previousRow;
+            previousRow = row;
+            row = swap;
+        }
+        return previousRow[b.length()];
+    }
+}
@@ -0,0 +1,85 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.generated.dto.SubmittedAnswerInput;
+import de.unistuttgart.iste.meitrex.generated.dto.SubmittedAssociationInput;
+import de.unistuttgart.iste.meitrex.quiz_service.SyntheticQuizzes;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures grading the submitted answers of a quiz completion against the compiled {@link QuestionAnswerKey}s,
+ * and compiling the answer keys of a quiz, which is done once per quiz when the keys are not cached.
+ * Half of the submitted answers are correct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuestionAnswerKeyBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<QuestionEntity> questions;
+    private List<QuestionAnswerKey> answerKeys;
+    private List<SubmittedAnswerInput> answers;
+
+    @Setup
+    public void setup() {
+        final QuizEntity quizEntity = SyntheticQuizzes.createQuiz(size, QuestionPoolingMode.ORDERED);
+        questions = quizEntity.getQuestionPool();
+        answerKeys = questions.stream().map(QuestionAnswerKey::of).toList();
+        answers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            answers.add(createAnswer(questions.get(i), i % 2 == 0));
+        }
+    }
+
+    @Benchmark
+    public void gradeCompletion(final Blackhole blackhole) {
+        for (int i = 0; i < answerKeys.size(); i++) {
+            blackhole.consume(answerKeys.get(i).grade(answers.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void compileAnswerKeys(final Blackhole blackhole) {
+        for (final QuestionEntity question : questions) {
+            blackhole.consume(QuestionAnswerKey.of(question));
+        }
+    }
+
+    /**
+     * Creates an answer to a question of {@link SyntheticQuizzes}.
+     */
+    private static SubmittedAnswerInput createAnswer(final QuestionEntity question, final boolean correct) {
+        return switch (question) {
+            case MultipleChoiceQuestionEntity ignored -> SubmittedAnswerInput.builder()
+                    .setSelectedAnswers(List.of(correct ? 0 : 1))
+                    .build();
+            case AssociationQuestionEntity ignored -> SubmittedAnswerInput.builder()
+                    .setAssociations(List.of(
+                            new SubmittedAssociationInput("a", "1"),
+                            new SubmittedAssociationInput("b", correct ? "2" : "3"),
+                            new SubmittedAssociationInput("c", correct ? "3" : "2")))
+                    .build();
+            case ClozeQuestionEntity ignored -> SubmittedAnswerInput.builder()
+                    .setBlankAnswers(List.of("42", correct ? "43" : "44"))
+                    .build();
+            case ExactAnswerQuestionEntity ignored -> SubmittedAnswerInput.builder()
+                    .setText(correct ? " Other  Answer " : "wrong answer")
+                    .build();
+            case NumericQuestionEntity ignored -> SubmittedAnswerInput.builder()
+                    .setNumber(correct ? 42.3 : 43.0)
+                    .build();
+            default -> SubmittedAnswerInput.builder()
+                    .setText("self-assessed")
+                    .build();
+        };
+    }
+}
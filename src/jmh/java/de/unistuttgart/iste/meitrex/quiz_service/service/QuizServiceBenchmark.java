@@ -0,0 +1,60 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.SyntheticQuizzes;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parts of the quiz service that do not access the database:
+ * the rendering and hashing of the task information on quiz modifications and the correctness calculation
+ * on every quiz completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuizServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int numberOfQuestions;
+
+    @Param({"ORDERED", "RANDOM"})
+    private QuestionPoolingMode questionPoolingMode;
+
+    // the benchmarked methods do not use any of the dependencies
+    private final QuizService quizService = new QuizService(null, null, null, null, null, null, null, null, null, null);
+    // only the rendering and hashing are benchmarked, which do not use the repository
+    private final TaskInformationGenerator taskInformationGenerator = new TaskInformationGenerator(null);
+
+    private QuizEntity quizEntity;
+    private QuizAnswerKey answerKey;
+
+    @Setup
+    public void setup() {
+        quizEntity = SyntheticQuizzes.createQuiz(numberOfQuestions, questionPoolingMode);
+        answerKey = QuizAnswerKey.of(quizEntity);
+    }
+
+    @Benchmark
+    public void renderTaskInformation(final Blackhole blackhole) {
+        for (final QuestionEntity question : quizEntity.getQuestionPool()) {
+            blackhole.consume(taskInformationGenerator.renderTaskInformation(question));
+        }
+    }
+
+    @Benchmark
+    public void contentHash(final Blackhole blackhole) {
+        for (final QuestionEntity question : quizEntity.getQuestionPool()) {
+            blackhole.consume(taskInformationGenerator.contentHash(question));
+        }
+    }
+
+    @Benchmark
+    public double calculateCorrectness() {
+        return quizService.calculateCorrectness(numberOfQuestions / 2.0, answerKey);
+    }
+}
@@ -0,0 +1,61 @@
+package de.unistuttgart.iste.meitrex.quiz_service.validation;
+
+import de.unistuttgart.iste.meitrex.generated.dto.CreateAssociationQuestionInput;
+import de.unistuttgart.iste.meitrex.generated.dto.CreateClozeQuestionInput;
+import de.unistuttgart.iste.meitrex.generated.dto.CreateMultipleChoiceQuestionInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.SyntheticQuizzes;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validation of question inputs. The size parameter is used both for the number of questions in
+ * the quiz and for the number of answers, cloze elements and associations of the validated inputs.
+ * All inputs are valid, so every validation has to look at all elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuizValidatorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private final QuizValidator quizValidator = new QuizValidator();
+
+    private QuizEntity quizEntity;
+    private CreateMultipleChoiceQuestionInput multipleChoiceQuestionInput;
+    private CreateClozeQuestionInput clozeQuestionInput;
+    private CreateAssociationQuestionInput associationQuestionInput;
+
+    @Setup
+    public void setup() {
+        quizEntity = SyntheticQuizzes.createQuiz(size, QuestionPoolingMode.ORDERED);
+        multipleChoiceQuestionInput = SyntheticQuizzes.createMultipleChoiceQuestionInput(size);
+        clozeQuestionInput = SyntheticQuizzes.createClozeQuestionInput(size);
+        associationQuestionInput = SyntheticQuizzes.createAssociationQuestionInput(size);
+    }
+
+    @Benchmark
+    public void checkNumberIsUnique() {
+        // a number that is not used yet, so all questions have to be checked
+        quizValidator.checkNumberIsUnique(quizEntity, size + 1);
+    }
+
+    @Benchmark
+    public void validateCreateMultipleChoiceQuestionInput() {
+        quizValidator.validateCreateMultipleChoiceQuestionInput(multipleChoiceQuestionInput);
+    }
+
+    @Benchmark
+    public void validateCreateClozeQuestionInput() {
+        quizValidator.validateCreateClozeQuestionInput(clozeQuestionInput);
+    }
+
+    @Benchmark
+    public void validateCreateAssociationQuestionInput() {
+        quizValidator.validateCreateAssociationQuestionInput(associationQuestionInput);
+    }
+}
@@ -0,0 +1,12 @@
+package de.unistuttgart.iste.meitrex.quiz_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled tasks, e.g., the {@link de.unistuttgart.iste.meitrex.quiz_service.service.OutboxRelay}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,81 @@
+package de.unistuttgart.iste.meitrex.quiz_service.controller;
+
+import de.unistuttgart.iste.meitrex.generated.dto.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuestionStatisticService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves the on-demand statistics field of all question types.
+ * The statistics of all questions in a response are loaded in a single query per question type.
+ */
+@Controller
+@RequiredArgsConstructor
+public class QuestionStatisticsController {
+
+    private static final String FIELD_NAME = "statistics";
+
+    private final QuestionStatisticService questionStatisticService;
+
+    @BatchMapping(typeName = "MultipleChoiceQuestion", field = FIELD_NAME)
+    public List<QuestionStatistics> multipleChoiceQuestionStatistics(final List<MultipleChoiceQuestion> questions) {
+        return statisticsOf(questions);
+    }
+
+    @BatchMapping(typeName = "ClozeQuestion", field = FIELD_NAME)
+    public List<QuestionStatistics> clozeQuestionStatistics(final List<ClozeQuestion> questions) {
+        return statisticsOf(questions);
+    }
+
+    @BatchMapping(typeName = "AssociationQuestion", field = FIELD_NAME)
+    public List<QuestionStatistics> associationQuestionStatistics(final List<AssociationQuestion> questions) {
+        return statisticsOf(questions);
+    }
+
+    @BatchMapping(typeName = "ExactAnswerQuestion", field = FIELD_NAME)
+    public List<QuestionStatistics> exactAnswerQuestionStatistics(final List<ExactAnswerQuestion> questions) {
+        return statisticsOf(questions);
+    }
+
+    @BatchMapping(typeName = "NumericQuestion", field = FIELD_NAME)
+    public List<QuestionStatistics> numericQuestionStatistics(final List<NumericQuestion> questions) {
+        return statisticsOf(questions);
+    }
+
+    @BatchMapping(typeName = "SelfAssessmentQuestion", field = FIELD_NAME)
+    public List<QuestionStatistics> selfAssessmentQuestionStatistics(final List<SelfAssessmentQuestion> questions) {
+        return statisticsOf(questions);
+    }
+
+    private List<QuestionStatistics> statisticsOf(final List<? extends Question> questions) {
+        final Map<UUID, QuestionAggregateEntity> aggregates = questionStatisticService.getPrecomputedAggregates(
+                questions.stream().map(Question::getItemId).distinct().toList());
+
+        return questions.stream()
+                .map(question -> toDto(aggregates.get(question.getItemId())))
+                .toList();
+    }
+
+    private static QuestionStatistics toDto(final QuestionAggregateEntity aggregate) {
+        if (aggregate == null) {
+            return QuestionStatistics.builder()
+                    .setAttempts(0)
+                    .setCorrectAttempts(0)
+                    .setCorrectRate(null)
+                    .setDistinctUsers(0)
+                    .build();
+        }
+        return QuestionStatistics.builder()
+                .setAttempts(Math.toIntExact(aggregate.getAttempts()))
+                .setCorrectAttempts(Math.toIntExact(aggregate.getCorrectAttempts()))
+                .setCorrectRate(aggregate.getCorrectRate())
+                .setDistinctUsers(Math.toIntExact(aggregate.getDistinctUsers()))
+                .build();
+    }
+}
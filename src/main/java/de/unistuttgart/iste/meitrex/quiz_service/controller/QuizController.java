@@ -2,6 +2,10 @@ package de.unistuttgart.iste.meitrex.quiz_service.controller;
 
 
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuizMapper;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizAnswerKey;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizCompletionService;
 import de.unistuttgart.iste.meitrex.quiz_service.service.QuizService;
 
 import de.unistuttgart.iste.meitrex.common.exception.NoAccessToCourseException;
@@ -12,12 +16,14 @@ import de.unistuttgart.iste.meitrex.generated.dto.*;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
 import de.unistuttgart.iste.meitrex.quiz_service.service.QuizService;
 
+import graphql.execution.DataFetcherResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.*;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static de.unistuttgart.iste.meitrex.common.user_handling.UserCourseAccessValidator.validateUserHasAccessToCourse;
@@ -30,23 +36,38 @@ public class QuizController {
     private static final String QUIZ_MUTATION_NAME = "QuizMutation";
 
     private final QuizService quizService;
+    private final QuizCompletionService quizCompletionService;
+    private final QuizMapper quizMapper;
 
+    /**
+     * Returns the headers of the requested quizzes. Their questions are only loaded if they are requested,
+     * see {@link QuizQuestionsController}.
+     */
     @QueryMapping
-    public List<Quiz> findQuizzesByAssessmentIds(@Argument final List<UUID> assessmentIds,
-                                                 @ContextValue final LoggedInUser currentUser) {
-        return quizService.findQuizzesByAssessmentIds(assessmentIds).stream()
-                .map(quiz -> {
-                    if (quiz == null) {
+    public DataFetcherResult<List<Quiz>> findQuizzesByAssessmentIds(@Argument final List<UUID> assessmentIds,
+                                                                    @ContextValue final LoggedInUser currentUser) {
+        final Map<UUID, QuizHeader> headers
+                = quizService.findQuizHeadersByAssessmentIds(assessmentIds, currentUser.getId());
+
+        final List<Quiz> quizzes = assessmentIds.stream()
+                .map(assessmentId -> {
+                    final QuizHeader header = headers.get(assessmentId);
+                    if (header == null) {
                         return null;
                     }
                     try {
-                        validateUserHasAccessToCourse(currentUser, UserRoleInCourse.STUDENT, quiz.getCourseId());
-                        return quiz;
+                        validateUserHasAccessToCourse(currentUser, UserRoleInCourse.STUDENT, header.courseId());
+                        return quizMapper.headerToDto(header);
                     } catch (final NoAccessToCourseException ex) {
                         return null;
                     }
                 })
                 .toList();
+
+        return DataFetcherResult.<List<Quiz>>newResult()
+                .data(quizzes)
+                .localContext(new QuizQuestionsController.RequestedQuizzes(currentUser.getId(), headers))
+                .build();
     }
 
     @MutationMapping(name = "_internal_noauth_createQuiz")
@@ -142,6 +163,11 @@ public class QuizController {
         return quizService.switchQuestions(quizMutation.getAssessmentId(), firstNumber, secondNumber);
     }
 
+    @SchemaMapping(typeName = QUIZ_MUTATION_NAME)
+    public Quiz _internal_noauth_applyQuestionOperations(@Argument final List<QuestionOperationInput> operations, final QuizMutation quizMutation) {
+        return quizService.applyQuestionOperations(quizMutation.getAssessmentId(), operations);
+    }
+
     @SchemaMapping(typeName = QUIZ_MUTATION_NAME)
     public Quiz setRequiredCorrectAnswers(@Argument final int requiredCorrectAnswers, final QuizMutation quizMutation) {
         return quizService.setRequiredCorrectAnswers(quizMutation.getAssessmentId(), requiredCorrectAnswers);
@@ -160,11 +186,11 @@ public class QuizController {
     @MutationMapping
     public QuizCompletionFeedback logQuizCompleted(@Argument final QuizCompletedInput input,
                                                    @ContextValue final LoggedInUser currentUser) {
-        final QuizEntity quiz = quizService.requireQuizExists(input.getQuizId());
+        final QuizAnswerKey answerKey = quizCompletionService.requireAnswerKey(input.getQuizId());
 
-        validateUserHasAccessToCourse(currentUser, UserRoleInCourse.STUDENT, quiz.getCourseId());
+        validateUserHasAccessToCourse(currentUser, UserRoleInCourse.STUDENT, answerKey.courseId());
 
-        return quizService.publishProgress(input, currentUser.getId());
+        return quizCompletionService.logQuizCompleted(input, answerKey, currentUser.getId());
     }
 
 }
@@ -0,0 +1,102 @@
+package de.unistuttgart.iste.meitrex.quiz_service.controller;
+
+import de.unistuttgart.iste.meitrex.generated.dto.Question;
+import de.unistuttgart.iste.meitrex.generated.dto.Quiz;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizService;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the question fields of quizzes returned by the "findQuizzesByAssessmentIds" query.
+ * <p>
+ * The query only reads the headers of the quizzes, see {@link QuizService#findQuizHeadersByAssessmentIds}.
+ * The questions are loaded and randomized only if "questionPool" or "selectedQuestions" is requested,
+ * for all quizzes in a response at once and only once for both fields, see {@link QuizService#findRandomizedQuizzes}.
+ * Most quizzes returned by mutations already contain their questions and are resolved directly. Mutations that
+ * modify the questions with set-based statements return quizzes without questions, see
+ * {@link QuizService#removeQuestion}. Their questions are loaded only if they are requested,
+ * see {@link QuizService#findQuizzesWithQuestions}.
+ */
+@Controller
+public class QuizQuestionsController {
+
+    private static final String TYPE_NAME = "Quiz";
+    private static final String RANDOMIZED_QUIZ_LOADER = "randomizedQuiz";
+    private static final String MUTATED_QUIZ_LOADER = "mutatedQuiz";
+
+    public QuizQuestionsController(final QuizService quizService, final BatchLoaderRegistry batchLoaderRegistry) {
+        batchLoaderRegistry.<UserQuiz, Quiz>forName(RANDOMIZED_QUIZ_LOADER)
+                .registerMappedBatchLoader((keys, environment) -> Mono.fromSupplier(
+                        () -> loadRandomizedQuizzes(quizService, keys)));
+        batchLoaderRegistry.<UUID, Quiz>forName(MUTATED_QUIZ_LOADER)
+                .registerMappedBatchLoader((assessmentIds, environment) -> Mono.fromSupplier(
+                        () -> quizService.findQuizzesWithQuestions(assessmentIds)));
+    }
+
+    @SchemaMapping(typeName = TYPE_NAME)
+    public CompletableFuture<List<Question>> questionPool(final Quiz quiz, final DataFetchingEnvironment environment) {
+        return completeQuiz(quiz, environment).thenApply(
+                completeQuiz -> completeQuiz == null ? List.of() : completeQuiz.getQuestionPool());
+    }
+
+    @SchemaMapping(typeName = TYPE_NAME)
+    public CompletableFuture<List<Question>> selectedQuestions(final Quiz quiz, final DataFetchingEnvironment environment) {
+        return completeQuiz(quiz, environment).thenApply(
+                completeQuiz -> completeQuiz == null ? List.of() : completeQuiz.getSelectedQuestions());
+    }
+
+    /**
+     * @return the given quiz if it already contains its questions, otherwise the randomized quiz of the user
+     * or, for quizzes returned by mutations, the modified quiz.
+     * Completes with null if the quiz was deleted after its header was read.
+     */
+    private CompletableFuture<Quiz> completeQuiz(final Quiz quiz, final DataFetchingEnvironment environment) {
+        if (quiz.getQuestionPool() != null) {
+            return CompletableFuture.completedFuture(quiz);
+        }
+        if (!(environment.getLocalContext() instanceof final RequestedQuizzes requestedQuizzes)) {
+            final DataLoader<UUID, Quiz> loader = environment.getDataLoader(MUTATED_QUIZ_LOADER);
+            return loader.load(quiz.getAssessmentId());
+        }
+        final DataLoader<UserQuiz, Quiz> loader = environment.getDataLoader(RANDOMIZED_QUIZ_LOADER);
+        return loader.load(new UserQuiz(requestedQuizzes.userId(),
+                requestedQuizzes.headers().get(quiz.getAssessmentId())));
+    }
+
+    private static Map<UserQuiz, Quiz> loadRandomizedQuizzes(final QuizService quizService, final Set<UserQuiz> keys) {
+        final Map<UserQuiz, Quiz> result = HashMap.newHashMap(keys.size());
+        // all keys of a request belong to the same user, grouping is only a safeguard
+        keys.stream().collect(Collectors.groupingBy(UserQuiz::userId)).forEach((userId, userQuizzes) -> {
+            final Map<UUID, Quiz> quizzes = quizService.findRandomizedQuizzes(
+                    userQuizzes.stream().map(UserQuiz::header).toList(), userId);
+            for (final UserQuiz userQuiz : userQuizzes) {
+                result.put(userQuiz, quizzes.get(userQuiz.header().assessmentId()));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The local context of the quizzes returned by the "findQuizzesByAssessmentIds" query.
+     *
+     * @param userId  the id of the user the quizzes are shown to
+     * @param headers the headers of the returned quizzes, by assessment id
+     */
+    record RequestedQuizzes(UUID userId, Map<UUID, QuizHeader> headers) {
+    }
+
+    /**
+     * Key of the data loader, a quiz randomized for a user.
+     */
+    private record UserQuiz(UUID userId, QuizHeader header) {
+    }
+}
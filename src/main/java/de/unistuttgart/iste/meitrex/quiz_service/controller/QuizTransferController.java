@@ -0,0 +1,49 @@
+package de.unistuttgart.iste.meitrex.quiz_service.controller;
+
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizTransferService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller Class to export and import all quizzes of a course as NDJSON, see {@link QuizTransferService}.
+ * ️⚠️ These endpoints are only accessible internally in the system and do not check any permissions. ⚠️
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/quiz-service/courses/{courseId}/quizzes")
+public class QuizTransferController {
+
+    private final QuizTransferService quizTransferService;
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportQuizzes(@PathVariable final UUID courseId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> quizTransferService.exportCourse(courseId, outputStream));
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public List<QuizTransferService.ImportedQuiz> importQuizzes(@PathVariable final UUID courseId,
+                                                                final InputStream inputStream) throws IOException {
+        return quizTransferService.importCourse(courseId, inputStream);
+    }
+
+    @ExceptionHandler({ValidationException.class, JsonProcessingException.class})
+    public ResponseEntity<String> handleInvalidImport(final Exception e) {
+        log.warn("Invalid quiz import: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
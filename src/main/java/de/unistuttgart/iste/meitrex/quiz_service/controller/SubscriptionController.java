@@ -1,39 +1,56 @@
 package de.unistuttgart.iste.meitrex.quiz_service.controller;
 
 
+import de.unistuttgart.iste.meitrex.quiz_service.service.CloudEventProcessor;
 import de.unistuttgart.iste.meitrex.quiz_service.service.QuizService;
 import de.unistuttgart.iste.meitrex.common.event.ContentChangeEvent;
 
 import io.dapr.Topic;
 import io.dapr.client.domain.CloudEvent;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller Class listening to a dapr Topic.
+ * <p>
+ * The events are processed by the {@link CloudEventProcessor}. The response tells Dapr whether to retry the event:
+ * failed and rejected events are answered with an error status and the status "RETRY",
+ * incomplete events with the status "DROP", see the
+ * <a href="https://docs.dapr.io/reference/api/pubsub_api/#expected-http-response">Dapr pub/sub API</a>.
  */
-@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class SubscriptionController {
 
+    private static final String CONTENT_CHANGED_TOPIC = "content-changed";
+
     private final QuizService quizService;
+    private final CloudEventProcessor cloudEventProcessor;
 
-    @Topic(name = "content-changed", pubsubName = "meitrex")
+    @Topic(name = CONTENT_CHANGED_TOPIC, pubsubName = "meitrex")
     @PostMapping(path = "/quiz-service/content-changed-pubsub")
-    public Mono<Void> updateAssociation(@RequestBody final CloudEvent<ContentChangeEvent> cloudEvent) {
-
-        return Mono.fromRunnable(() -> {
-            try {
-                quizService.deleteQuizzesWhenQuizContentIsDeleted(cloudEvent.getData());
-            } catch (final Exception e) {
-                log.error("Error while processing content-changes event. {}", e.getMessage());
-            }
-        });
+    public CompletableFuture<ResponseEntity<Map<String, String>>> updateAssociation(
+            @RequestBody final CloudEvent<ContentChangeEvent> cloudEvent) {
+
+        return cloudEventProcessor.process(CONTENT_CHANGED_TOPIC, cloudEvent.getId(),
+                        () -> quizService.deleteQuizzesWhenQuizContentIsDeleted(cloudEvent.getData()))
+                .thenApply(SubscriptionController::toResponse);
+    }
+
+    private static ResponseEntity<Map<String, String>> toResponse(final CloudEventProcessor.Result result) {
+        return switch (result) {
+            case PROCESSED, DUPLICATE -> ResponseEntity.ok(Map.of("status", "SUCCESS"));
+            case DROPPED -> ResponseEntity.ok(Map.of("status", "DROP"));
+            case FAILED -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "RETRY"));
+            case REJECTED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "RETRY"));
+        };
     }
 
 }
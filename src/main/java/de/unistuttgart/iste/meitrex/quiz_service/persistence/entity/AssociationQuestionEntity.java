@@ -1,8 +1,10 @@
 package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -13,7 +15,6 @@ import java.util.List;
 @ToString(callSuper = true)
 @Getter
 @Setter
-@EqualsAndHashCode(callSuper = true)
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -23,6 +24,7 @@ public class AssociationQuestionEntity extends QuestionEntity {
     private String text;
 
     @ElementCollection
+    @CollectionTable(name = "association_question_correct_associations", joinColumns = @JoinColumn(name = "association_question_item_id"))
     @Builder.Default
     private List<AssociationEmbeddable> correctAssociations = new ArrayList<>();
 
@@ -1,9 +1,11 @@
 package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
 
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -14,20 +16,27 @@ import java.util.List;
 @ToString(callSuper = true)
 @Getter
 @Setter
-@EqualsAndHashCode(callSuper = true)
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
 public class ClozeQuestionEntity extends QuestionEntity {
 
     @ElementCollection
+    @CollectionTable(name = "cloze_question_cloze_elements", joinColumns = @JoinColumn(name = "cloze_question_item_id"))
     @Builder.Default
     private List<ClozeElementEmbeddable> clozeElements = new ArrayList<>();
 
     @ElementCollection
+    @CollectionTable(name = "cloze_question_additional_wrong_answers", joinColumns = @JoinColumn(name = "cloze_question_item_id"))
     @Builder.Default
     private List<String> additionalWrongAnswers = new ArrayList<>();
 
     @Column(nullable = false)
     private boolean showBlanksList;
+
+    @Column(nullable = false)
+    private boolean ignoreSpellingVariants;
+
+    @Column(nullable = false)
+    private int maximumEditDistance;
 }
@@ -1,8 +1,10 @@
 package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -12,7 +14,6 @@ import java.util.List;
 @ToString(callSuper = true)
 @Getter
 @Setter
-@EqualsAndHashCode(callSuper = true)
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -22,11 +23,18 @@ public class ExactAnswerQuestionEntity extends QuestionEntity {
     private String text;
 
     @ElementCollection
+    @CollectionTable(name = "exact_answer_question_correct_answers", joinColumns = @JoinColumn(name = "exact_answer_question_item_id"))
     private List<String> correctAnswers;
 
     @Column(nullable = false)
     private boolean caseSensitive;
 
+    @Column(nullable = false)
+    private boolean ignoreSpellingVariants;
+
+    @Column(nullable = false)
+    private int maximumEditDistance;
+
     @Column(nullable = true, columnDefinition = "TEXT")
     private String feedback;
 }
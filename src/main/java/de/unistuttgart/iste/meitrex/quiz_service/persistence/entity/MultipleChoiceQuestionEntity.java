@@ -9,7 +9,6 @@ import lombok.experimental.SuperBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 @Entity(name = "MultipleChoiceQuestion")
 @ToString(callSuper = true)
@@ -27,6 +26,7 @@ public class MultipleChoiceQuestionEntity extends QuestionEntity {
     private String text;
 
     @ElementCollection
+    @CollectionTable(name = "multiple_choice_question_answers", joinColumns = @JoinColumn(name = "multiple_choice_question_item_id"))
     @Builder.Default
     private List<MultipleChoiceAnswerEmbeddable> answers = new ArrayList<>();
 
@@ -35,26 +35,4 @@ public class MultipleChoiceQuestionEntity extends QuestionEntity {
                 .filter(MultipleChoiceAnswerEmbeddable::isCorrect)
                 .count();
     }
-
-    // custom equals method because the answers list is not compared correctly
-
-    @Override
-    public boolean equals(final Object o) {
-        if (this == o) return true;
-        if (!(o instanceof final MultipleChoiceQuestionEntity that)) return false;
-        if (!super.equals(o)) return false;
-        if (!Objects.equals(text, that.text)) return false;
-
-        // list equals does not work for some reason
-        if (answers.size() != that.answers.size()) return false;
-        for (int i = 0; i < answers.size(); i++) {
-            if (!answers.get(i).equals(that.answers.get(i))) return false;
-        }
-        return true;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), text, answers);
-    }
 }
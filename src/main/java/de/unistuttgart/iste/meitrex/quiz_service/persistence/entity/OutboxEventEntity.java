@@ -0,0 +1,104 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * An event that was created in a transaction and still has to be published to Dapr.
+ * Rows are written in the same transaction as the changes that caused the event and deleted
+ * by the {@link de.unistuttgart.iste.meitrex.quiz_service.service.OutboxRelay} once the event was published.
+ * <p>
+ * Events with a {@link #coalescingKey} are coalesced: there is at most one row per key, and further changes
+ * only postpone the row and increment its {@link #revision}, see
+ * {@link de.unistuttgart.iste.meitrex.quiz_service.service.EventOutbox#scheduleAssessmentContentMutated}.
+ */
+@Entity(name = "OutboxEvent")
+@Table(name = "outbox_event",
+        indexes = @Index(name = "idx_outbox_event_next_attempt_at", columnList = "next_attempt_at"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_event_coalescing_key", columnNames = "coalescing_key"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "event_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EventType eventType;
+
+    /**
+     * The event, serialized as JSON.
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    /**
+     * Number of failed attempts to publish the event.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * The event is not published before this time, used for the backoff after failed attempts.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * Key of a coalesced event, e.g., the id of the modified quiz. Null for events that are not coalesced.
+     */
+    @Column(name = "coalescing_key")
+    private UUID coalescingKey;
+
+    /**
+     * Number of changes that were coalesced into this event after it was created. The relay only deletes
+     * the event if the revision did not change while the event was published.
+     */
+    @Column(name = "revision", nullable = false)
+    private int revision;
+
+    /**
+     * The event is claimed by a relay until this time and is not published by another relay in the meantime.
+     * Null if the event is not claimed. Expired claims, e.g., of a relay that crashed, are ignored.
+     */
+    @Column(name = "claimed_until")
+    private OffsetDateTime claimedUntil;
+
+    /**
+     * Number of items of an {@link EventType#ITEMS_CHANGED} event that were already published,
+     * so that a retry continues with the next item.
+     */
+    @Column(name = "published_items", nullable = false)
+    private int publishedItems;
+
+    public enum EventType {
+        /**
+         * Coalesced per quiz, the payload is the id of the quiz. The event itself is generated from the state of
+         * the quiz when it is published.
+         */
+        ASSESSMENT_CONTENT_MUTATED,
+        ITEM_CHANGED,
+        USER_WORKED_ON_CONTENT,
+        /**
+         * Changes of multiple items with the same operation, e.g., the deletion of all questions of a quiz,
+         * stored as a single event and published item by item.
+         */
+        ITEMS_CHANGED
+    }
+}
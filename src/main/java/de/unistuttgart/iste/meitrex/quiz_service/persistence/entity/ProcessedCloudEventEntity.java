@@ -0,0 +1,38 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A CloudEvent that was received from Dapr and processed successfully. Stored in the same transaction as the changes
+ * of the event handler, so redeliveries of the event are recognized and not processed again.
+ * Rows are deleted by the {@link de.unistuttgart.iste.meitrex.quiz_service.service.CloudEventProcessor}
+ * after the retention period.
+ */
+@Entity(name = "ProcessedCloudEvent")
+@Table(name = "processed_cloud_event",
+        indexes = @Index(name = "idx_processed_cloud_event_processed_at", columnList = "processed_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedCloudEventEntity {
+
+    /**
+     * The id of the CloudEvent, unique per source.
+     */
+    @Id
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "processed_at", nullable = false)
+    private OffsetDateTime processedAt;
+}
@@ -0,0 +1,51 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Precomputed answer statistics of a question over all users.
+ * <p>
+ * The counters are incremented with atomic upserts whenever a question is answered,
+ * see {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionAggregateRepository},
+ * so reading them does not depend on the number of answers.
+ */
+@Entity(name = "QuestionAggregate")
+@Table(name = "question_aggregate")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionAggregateEntity {
+
+    @Id
+    @Column(name = "question_id")
+    private UUID questionId;
+
+    @Column(name = "attempts", nullable = false)
+    private long attempts;
+
+    @Column(name = "correct_attempts", nullable = false)
+    private long correctAttempts;
+
+    @Column(name = "distinct_users", nullable = false)
+    private long distinctUsers;
+
+    /**
+     * @return the share of correct attempts, or null if the question was never answered
+     */
+    public Double getCorrectRate() {
+        if (attempts == 0) {
+            return null;
+        }
+        return (double) correctAttempts / attempts;
+    }
+}
@@ -3,19 +3,24 @@ package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
 import de.unistuttgart.iste.meitrex.generated.dto.QuestionType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * Base class of all question types.
+ * <p>
+ * All question types are stored in a single table, distinguished by the discriminator column.
+ * This way, the question pool of a quiz can be loaded with a single index-backed join instead of
+ * a union over one table per question type.
+ */
 @Entity(name = "Question")
 @Data
-@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "dtype")
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,33 +39,21 @@ public class QuestionEntity {
     @Column(nullable = true, columnDefinition = "TEXT")
     private String hint;
 
-    @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name = "question_id")
-    @Builder.Default
-    private List<QuestionStatisticEntity> questionStatistics = new ArrayList<>();
-
-    // Generated with IntelliJ
-    // necessary because lomboks equal did not work (for some reason)
+    /**
+     * Questions are equal if they have the same id, independent of their content, so comparisons
+     * do not depend on the size of the question. Questions without id are only equal to themselves.
+     * Use a content comparison to check whether two questions have the same content.
+     */
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        final QuestionEntity that = (QuestionEntity) o;
-        if (getNumber() != that.getNumber()) return false;
-        if (!Objects.equals(getItemId(), that.getItemId())) return false;
-        if (getType() != that.getType()) return false;
-        if (!(Objects.equals(getHint(), that.getHint()))) return false;
-
-        // list equals does not work for some reason
-        if (questionStatistics.size() != that.questionStatistics.size()) return false;
-        for (int i = 0; i < questionStatistics.size(); i++) {
-            if (!questionStatistics.get(i).equals(that.questionStatistics.get(i))) return false;
-        }
-        return true;
+        // instanceof instead of getClass() because of hibernate proxies
+        if (!(o instanceof final QuestionEntity that)) return false;
+        return getItemId() != null && getItemId().equals(that.getItemId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getItemId(), getNumber(), getType(), getHint(), getQuestionStatistics());
+        return Objects.hashCode(getItemId());
     }
 }
@@ -0,0 +1,155 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Index of a question pool, mapping the item ids and numbers of the questions to their positions in the pool.
+ * <p>
+ * The index is kept up-to-date by the modification methods of {@link QuizEntity}. To stay correct if the
+ * question pool is modified directly, every hit is verified against the pool and the index is rebuilt if the
+ * hit is outdated. A miss leads to a rebuild if the pool was replaced, its size changed, or it contained
+ * questions without an id when the index was built, e.g., questions that were not persisted yet.
+ */
+class QuestionPoolIndex {
+
+    private List<QuestionEntity> indexedPool;
+    private int indexedSize;
+    private boolean containsQuestionsWithoutId;
+
+    private final Map<UUID, Integer> positionsById = new HashMap<>();
+    private final Map<Integer, Integer> positionsByNumber = new HashMap<>();
+
+    /**
+     * @return the position of the question with the given id, or -1 if there is no such question
+     */
+    int positionOfId(final List<QuestionEntity> pool, final UUID itemId) {
+        int position = lookupId(pool, itemId);
+        if (position == -1 && isOutdated(pool)) {
+            rebuild(pool);
+            position = lookupId(pool, itemId);
+        }
+        return position;
+    }
+
+    /**
+     * @return the position of the question with the given number, or -1 if there is no such question
+     */
+    int positionOfNumber(final List<QuestionEntity> pool, final int number) {
+        int position = lookupNumber(pool, number);
+        if (position == -1 && isOutdated(pool)) {
+            rebuild(pool);
+            position = lookupNumber(pool, number);
+        }
+        return position;
+    }
+
+    /**
+     * Updates the index after the given question was appended to the pool.
+     */
+    void added(final List<QuestionEntity> pool, final QuestionEntity question) {
+        if (isOutdated(pool, pool.size() - 1)) {
+            rebuild(pool);
+            return;
+        }
+        put(question, pool.size() - 1);
+        indexedSize = pool.size();
+    }
+
+    /**
+     * Updates the index after the question at the given position was replaced.
+     */
+    void replaced(final QuestionEntity oldQuestion, final QuestionEntity newQuestion, final int position) {
+        remove(oldQuestion, position);
+        put(newQuestion, position);
+    }
+
+    /**
+     * Updates the index after the questions at the given positions swapped their positions and their numbers.
+     * As the numbers moved together with the positions, only the positions of the ids change.
+     */
+    void swapped(final QuestionEntity first, final int firstPosition,
+                 final QuestionEntity second, final int secondPosition) {
+        if (first.getItemId() == null || second.getItemId() == null) {
+            containsQuestionsWithoutId = true;
+            return;
+        }
+        positionsById.put(first.getItemId(), secondPosition);
+        positionsById.put(second.getItemId(), firstPosition);
+    }
+
+    /**
+     * Marks the index as outdated, e.g., after a question was removed and the following questions moved.
+     */
+    void invalidate() {
+        indexedPool = null;
+    }
+
+    private int lookupId(final List<QuestionEntity> pool, final UUID itemId) {
+        if (pool != indexedPool) {
+            rebuild(pool);
+        }
+        final Integer position = positionsById.get(itemId);
+        if (position == null) {
+            return -1;
+        }
+        if (position >= pool.size() || !itemId.equals(pool.get(position).getItemId())) {
+            rebuild(pool);
+            return positionsById.getOrDefault(itemId, -1);
+        }
+        return position;
+    }
+
+    private int lookupNumber(final List<QuestionEntity> pool, final int number) {
+        if (pool != indexedPool) {
+            rebuild(pool);
+        }
+        final Integer position = positionsByNumber.get(number);
+        if (position == null) {
+            return -1;
+        }
+        if (position >= pool.size() || pool.get(position).getNumber() != number) {
+            rebuild(pool);
+            return positionsByNumber.getOrDefault(number, -1);
+        }
+        return position;
+    }
+
+    private boolean isOutdated(final List<QuestionEntity> pool) {
+        return isOutdated(pool, pool.size());
+    }
+
+    private boolean isOutdated(final List<QuestionEntity> pool, final int expectedSize) {
+        return pool != indexedPool || indexedSize != expectedSize || containsQuestionsWithoutId;
+    }
+
+    private void rebuild(final List<QuestionEntity> pool) {
+        positionsById.clear();
+        positionsByNumber.clear();
+        containsQuestionsWithoutId = false;
+        for (int position = 0; position < pool.size(); position++) {
+            put(pool.get(position), position);
+        }
+        indexedPool = pool;
+        indexedSize = pool.size();
+    }
+
+    private void put(final QuestionEntity question, final int position) {
+        if (question.getItemId() == null) {
+            containsQuestionsWithoutId = true;
+        } else {
+            positionsById.put(question.getItemId(), position);
+        }
+        // if numbers are not unique, the first question with the number is found, like a linear search would
+        positionsByNumber.putIfAbsent(question.getNumber(), position);
+    }
+
+    private void remove(final QuestionEntity question, final int position) {
+        if (question.getItemId() != null) {
+            positionsById.remove(question.getItemId(), position);
+        }
+        positionsByNumber.remove(question.getNumber(), position);
+    }
+}
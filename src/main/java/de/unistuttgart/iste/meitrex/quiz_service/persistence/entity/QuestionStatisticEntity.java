@@ -1,17 +1,28 @@
 package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
 
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.Id;
+import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
+/**
+ * A single answer of a user to a question.
+ * <p>
+ * Question statistics form an append-only log: rows are only ever inserted, never updated, and they are
+ * not part of the quiz aggregate, i.e., they are never loaded together with a quiz.
+ * Rows are only deleted together with the question they belong to.
+ * Aggregated values can be queried via the
+ * {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionStatisticRepository}.
+ */
 @Entity(name = "QuestionStatistic")
+@Table(indexes = {
+        @Index(name = "idx_question_statistic_question_id", columnList = "question_id"),
+        @Index(name = "idx_question_statistic_user_id_quiz_id", columnList = "user_id, quiz_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,9 +36,15 @@ public class QuestionStatisticEntity {
     @Column(name = "question_id")
     private UUID questionId;
 
-    @Column
+    @Column(name = "quiz_id")
+    private UUID quizId;
+
+    @Column(name = "user_id")
     private UUID userId;
 
     @Column
     private boolean answeredCorrectly;
+
+    @Column
+    private OffsetDateTime createdAt;
 }
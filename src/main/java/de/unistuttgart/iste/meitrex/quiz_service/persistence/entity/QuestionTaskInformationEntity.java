@@ -0,0 +1,36 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * The rendered textual representation of a question, as sent with the AssessmentContentMutatedEvent,
+ * together with the SHA-256 hash of the question content it was rendered from.
+ * See {@link de.unistuttgart.iste.meitrex.quiz_service.service.TaskInformationGenerator}.
+ */
+@Entity(name = "QuestionTaskInformation")
+@Table(name = "question_task_information")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionTaskInformationEntity {
+
+    @Id
+    @Column(name = "item_id")
+    private UUID itemId;
+
+    @Column(name = "content_hash", nullable = false)
+    private byte[] contentHash;
+
+    @Column(name = "text", nullable = false, columnDefinition = "TEXT")
+    private String text;
+}
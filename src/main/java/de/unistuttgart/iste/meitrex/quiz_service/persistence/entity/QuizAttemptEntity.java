@@ -0,0 +1,60 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The number of completed attempts of a user for a quiz. The number of completed attempts identifies the current
+ * attempt of the user, which determines the randomization of the quiz shown to the user, see
+ * {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.SeededRandomization}.
+ * <p>
+ * The questions selected for the current attempt are stored when the attempt is shown for the first time,
+ * so the attempt is shown and graded with the same questions, even if the question pool or the adaptive weights
+ * of the questions change in the meantime. The selection is reset when the attempt is completed.
+ */
+@Entity(name = "QuizAttempt")
+@Table(name = "quiz_attempt",
+        indexes = @Index(name = "idx_quiz_attempt_quiz_id", columnList = "quiz_id"))
+@IdClass(QuizAttemptEntity.PrimaryKey.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizAttemptEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "quiz_id")
+    private UUID quizId;
+
+    @Column(name = "completed_attempts", nullable = false)
+    private long completedAttempts;
+
+    /**
+     * The ids of the questions selected for the current attempt, in the order they are shown,
+     * or null if the current attempt was not shown yet.
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "selected_question_ids")
+    private List<UUID> selectedQuestionIds;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PrimaryKey implements Serializable {
+        private UUID userId;
+        private UUID quizId;
+    }
+}
@@ -2,13 +2,19 @@ package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
 
 import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Entity(name = "Quiz")
@@ -25,6 +31,10 @@ public class QuizEntity {
     private UUID courseId;
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinTable(name = "quiz_question_pool",
+            joinColumns = @JoinColumn(name = "quiz_assessment_id"),
+            inverseJoinColumns = @JoinColumn(name = "question_pool_item_id"),
+            indexes = @Index(name = "idx_quiz_question_pool_quiz_assessment_id", columnList = "quiz_assessment_id"))
     @OrderBy("number ASC")
     @Builder.Default
     private List<QuestionEntity> questionPool = new ArrayList<>();
@@ -40,4 +50,106 @@ public class QuizEntity {
     @Column(nullable = true)
     @Builder.Default
     private Integer numberOfRandomlySelectedQuestions = null;
+
+    /**
+     * Incremented on every modification of the quiz or its questions, always atomically with
+     * {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository#incrementVersion}.
+     * Used to detect stale entries in the {@link de.unistuttgart.iste.meitrex.quiz_service.service.QuizDtoCache}.
+     * This is not a JPA version, i.e., it is not used for optimistic locking.
+     */
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Index of the question pool by item id and number, built lazily.
+     * The modification methods below keep it up-to-date, see {@link QuestionPoolIndex}.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient QuestionPoolIndex questionPoolIndex;
+
+    public Optional<QuestionEntity> findQuestionById(final UUID itemId) {
+        final int position = questionPoolIndex().positionOfId(questionPool, itemId);
+        return position == -1 ? Optional.empty() : Optional.of(questionPool.get(position));
+    }
+
+    public Optional<QuestionEntity> findQuestionByNumber(final int number) {
+        final int position = questionPoolIndex().positionOfNumber(questionPool, number);
+        return position == -1 ? Optional.empty() : Optional.of(questionPool.get(position));
+    }
+
+    public boolean containsQuestionNumber(final int number) {
+        return questionPoolIndex().positionOfNumber(questionPool, number) != -1;
+    }
+
+    /**
+     * Appends a question to the question pool.
+     */
+    public void addQuestion(final QuestionEntity question) {
+        questionPool.add(question);
+        questionPoolIndex().added(questionPool, question);
+    }
+
+    /**
+     * Replaces a question of the question pool with another question at the same position.
+     *
+     * @throws IllegalArgumentException if the question to replace is not part of the question pool
+     */
+    public void replaceQuestion(final QuestionEntity oldQuestion, final QuestionEntity newQuestion) {
+        final int position = requirePosition(oldQuestion);
+        questionPool.set(position, newQuestion);
+        questionPoolIndex().replaced(oldQuestion, newQuestion, position);
+    }
+
+    /**
+     * Removes a question from the question pool.
+     * The numbers of the other questions are not changed.
+     *
+     * @throws IllegalArgumentException if the question is not part of the question pool
+     */
+    public void removeQuestion(final QuestionEntity question) {
+        questionPool.remove(requirePosition(question));
+        // all following questions moved
+        questionPoolIndex().invalidate();
+    }
+
+    /**
+     * Switches the positions and the numbers of two questions of the question pool.
+     *
+     * @throws IllegalArgumentException if one of the questions is not part of the question pool
+     */
+    public void switchQuestions(final QuestionEntity first, final QuestionEntity second) {
+        final int firstPosition = requirePosition(first);
+        final int secondPosition = requirePosition(second);
+
+        final int firstNumber = first.getNumber();
+        first.setNumber(second.getNumber());
+        second.setNumber(firstNumber);
+        Collections.swap(questionPool, firstPosition, secondPosition);
+
+        questionPoolIndex().swapped(first, firstPosition, second, secondPosition);
+    }
+
+    private int requirePosition(final QuestionEntity question) {
+        final int position = questionPoolIndex().positionOfNumber(questionPool, question.getNumber());
+        if (position != -1 && questionPool.get(position) == question) {
+            return position;
+        }
+        // fall back to a search by identity, e.g., if numbers are not unique
+        for (int i = 0; i < questionPool.size(); i++) {
+            if (questionPool.get(i) == question) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Question is not part of the question pool of quiz " + assessmentId);
+    }
+
+    private QuestionPoolIndex questionPoolIndex() {
+        if (questionPoolIndex == null) {
+            questionPoolIndex = new QuestionPoolIndex();
+        }
+        return questionPoolIndex;
+    }
 }
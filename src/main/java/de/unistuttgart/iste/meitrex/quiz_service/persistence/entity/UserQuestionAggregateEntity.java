@@ -0,0 +1,47 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Precomputed answer statistics of a single user for a single question.
+ * Maintained incrementally together with the {@link QuestionAggregateEntity}.
+ */
+@Entity(name = "UserQuestionAggregate")
+@Table(name = "user_question_aggregate",
+        indexes = @Index(name = "idx_user_question_aggregate_question_id", columnList = "question_id"))
+@IdClass(UserQuestionAggregateEntity.PrimaryKey.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserQuestionAggregateEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "question_id")
+    private UUID questionId;
+
+    @Column(name = "attempts", nullable = false)
+    private long attempts;
+
+    @Column(name = "correct_attempts", nullable = false)
+    private long correctAttempts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PrimaryKey implements Serializable {
+        private UUID userId;
+        private UUID questionId;
+    }
+}
@@ -0,0 +1,98 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper;
+
+import de.unistuttgart.iste.meitrex.generated.dto.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Property-by-property mappings between the question entities, the generated DTOs and the generated inputs.
+ * The implementation is generated by MapStruct at compile time, so no reflection is involved at runtime.
+ * <p>
+ * Mappings that need custom logic, e.g., for the {@link ClozeElement} interface or the question type,
+ * are implemented in {@link QuizMapper}, which is the mapper the rest of the service should use.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        // the builders of the generated DTOs and the lombok super builders of the entities are not needed,
+        // all of them have setters
+        builder = @Builder(disableBuilder = true),
+        // e.g. the randomized fields of the DTOs are set by the QuizMapper
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface QuestionMapper {
+
+    // entity -> DTO
+
+    MultipleChoiceQuestion multipleChoiceQuestionEntityToDto(MultipleChoiceQuestionEntity entity);
+
+    MultipleChoiceAnswer multipleChoiceAnswerEmbeddableToDto(MultipleChoiceAnswerEmbeddable embeddable);
+
+    AssociationQuestion associationQuestionEntityToDto(AssociationQuestionEntity entity);
+
+    SingleAssociation associationEmbeddableToDto(AssociationEmbeddable embeddable);
+
+    ClozeTextElement clozeElementEmbeddableToTextElementDto(ClozeElementEmbeddable embeddable);
+
+    ClozeBlankElement clozeElementEmbeddableToBlankElementDto(ClozeElementEmbeddable embeddable);
+
+    NumericQuestion numericQuestionEntityToDto(NumericQuestionEntity entity);
+
+    ExactAnswerQuestion exactAnswerQuestionEntityToDto(ExactAnswerQuestionEntity entity);
+
+    SelfAssessmentQuestion selfAssessmentQuestionEntityToDto(SelfAssessmentQuestionEntity entity);
+
+    // DTO -> DTO, deep copies of cached DTOs, lists are copied element by element
+
+    MultipleChoiceQuestion copyMultipleChoiceQuestion(MultipleChoiceQuestion question);
+
+    MultipleChoiceAnswer copyMultipleChoiceAnswer(MultipleChoiceAnswer answer);
+
+    AssociationQuestion copyAssociationQuestion(AssociationQuestion question);
+
+    SingleAssociation copySingleAssociation(SingleAssociation association);
+
+    ClozeTextElement copyClozeTextElement(ClozeTextElement element);
+
+    ClozeBlankElement copyClozeBlankElement(ClozeBlankElement element);
+
+    NumericQuestion copyNumericQuestion(NumericQuestion question);
+
+    ExactAnswerQuestion copyExactAnswerQuestion(ExactAnswerQuestion question);
+
+    SelfAssessmentQuestion copySelfAssessmentQuestion(SelfAssessmentQuestion question);
+
+    // input -> entity
+
+    QuizEntity createQuizInputToEntity(CreateQuizInput input);
+
+    MultipleChoiceQuestionEntity multipleChoiceQuestionInputToEntity(CreateMultipleChoiceQuestionInput input);
+
+    MultipleChoiceQuestionEntity multipleChoiceQuestionInputToEntity(UpdateMultipleChoiceQuestionInput input);
+
+    MultipleChoiceAnswerEmbeddable multipleChoiceAnswerInputToEmbeddable(MultipleChoiceAnswerInput input);
+
+    ClozeQuestionEntity clozeQuestionInputToEntity(CreateClozeQuestionInput input);
+
+    ClozeQuestionEntity clozeQuestionInputToEntity(UpdateClozeQuestionInput input);
+
+    ClozeElementEmbeddable clozeElementInputToEmbeddable(ClozeElementInput input);
+
+    AssociationQuestionEntity associationQuestionInputToEntity(CreateAssociationQuestionInput input);
+
+    AssociationQuestionEntity associationQuestionInputToEntity(UpdateAssociationQuestionInput input);
+
+    AssociationEmbeddable associationInputToEmbeddable(AssociationInput input);
+
+    ExactAnswerQuestionEntity exactAnswerQuestionInputToEntity(CreateExactAnswerQuestionInput input);
+
+    ExactAnswerQuestionEntity exactAnswerQuestionInputToEntity(UpdateExactAnswerQuestionInput input);
+
+    NumericQuestionEntity numericQuestionInputToEntity(CreateNumericQuestionInput input);
+
+    NumericQuestionEntity numericQuestionInputToEntity(UpdateNumericQuestionInput input);
+
+    SelfAssessmentQuestionEntity selfAssessmentQuestionInputToEntity(CreateSelfAssessmentQuestionInput input);
+
+    SelfAssessmentQuestionEntity selfAssessmentQuestionInputToEntity(UpdateSelfAssessmentQuestionInput input);
+}
@@ -4,28 +4,47 @@ import de.unistuttgart.iste.meitrex.generated.dto.*;
 
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizGradingHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader;
 
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 @RequiredArgsConstructor
 public class QuizMapper {
 
-    private final ModelMapper mapper;
+    private final QuestionMapper mapper;
 
     /**
-     * Maps a quiz entity to a quiz dto but does not set {@link Quiz#getSelectedQuestions()}.
+     * Maps a quiz entity to a quiz dto, including a randomization with a random seed,
+     * see {@link #randomize(Quiz)}.
      */
     public Quiz entityToDto(final QuizEntity entity) {
-        // manual mapping necessary because of QuestionInterface
-        // which cannot automatically be mapped by model mapper
-        final Quiz result = Quiz.builder()
+        return randomize(entityToCacheableDto(entity));
+    }
+
+    /**
+     * Maps a quiz entity to a quiz dto without any randomization.
+     * {@link Quiz#getSelectedQuestions()} is not set, the blanks of cloze questions and the sides of
+     * association questions are in their original order.
+     * <p>
+     * The result only depends on the entity and can therefore be cached. It must not be returned to clients
+     * directly, use {@link #randomize(Quiz)} to create a randomized copy.
+     */
+    public Quiz entityToCacheableDto(final QuizEntity entity) {
+        // manual mapping necessary because of the Question interface
+        return Quiz.builder()
                 .setCourseId(entity.getCourseId())
                 .setAssessmentId(entity.getAssessmentId())
                 .setQuestionPoolingMode(entity.getQuestionPoolingMode())
@@ -33,35 +52,194 @@ public class QuizMapper {
                 .setRequiredCorrectAnswers(entity.getRequiredCorrectAnswers())
                 .setQuestionPool(entity.getQuestionPool().stream().map(this::questionEntityToDto).toList())
                 .build();
-        return selectQuestionsInQuiz(result);
     }
 
     /**
-     * Selects the questions for a quiz based on the question pooling mode.
+     * Maps the header of a quiz to a quiz dto without questions.
+     * {@link Quiz#getQuestionPool()} and {@link Quiz#getSelectedQuestions()} are not set, they are resolved
+     * separately when they are requested.
+     */
+    public Quiz headerToDto(final QuizHeader header) {
+        return Quiz.builder()
+                .setCourseId(header.courseId())
+                .setAssessmentId(header.assessmentId())
+                .setQuestionPoolingMode(header.questionPoolingMode())
+                .setNumberOfRandomlySelectedQuestions(header.numberOfRandomlySelectedQuestions())
+                .setRequiredCorrectAnswers(header.requiredCorrectAnswers())
+                .build();
+    }
+
+    /**
+     * Maps the scalar fields of a quiz to a quiz dto without questions, see {@link #headerToDto(QuizHeader)}.
+     */
+    public Quiz headerToDto(final QuizGradingHeader header) {
+        return Quiz.builder()
+                .setCourseId(header.courseId())
+                .setAssessmentId(header.assessmentId())
+                .setQuestionPoolingMode(header.questionPoolingMode())
+                .setNumberOfRandomlySelectedQuestions(header.numberOfRandomlySelectedQuestions())
+                .setRequiredCorrectAnswers(header.requiredCorrectAnswers())
+                .build();
+    }
+
+    /**
+     * Creates a randomized copy of a quiz dto with a random seed, see {@link #randomize(Quiz, long)}.
+     *
+     * @param quiz the quiz to copy
+     * @return the randomized copy
+     */
+    public Quiz randomize(final Quiz quiz) {
+        return randomize(quiz, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a randomized copy of a quiz dto without adaptive weights, see {@link #randomize(Quiz, long, Map)}.
+     *
+     * @param quiz the quiz to copy
+     * @param seed the seed of the randomization
+     * @return the randomized copy
+     */
+    public Quiz randomize(final Quiz quiz, final long seed) {
+        return randomize(quiz, seed, Map.of());
+    }
+
+    /**
+     * Creates a randomized copy of a quiz dto created by {@link #entityToCacheableDto(QuizEntity)}.
+     * The given quiz is not modified.
      * <p>
-     * If the question pooling mode is {@link QuestionPoolingMode#ORDERED}, all questions are selected
-     * and the order is preserved.
-     * If the question pooling mode is {@link QuestionPoolingMode#RANDOM}, the questions are shuffled
-     * and the number of questions is limited to {@link Quiz#getNumberOfRandomlySelectedQuestions()}.
+     * The blanks of cloze questions and the sides of association questions are shuffled, and the
+     * selected questions are chosen, see {@link #selectQuestionsInQuiz(Quiz, long, Map)}.
+     * All questions are deep copies, so the copy can be modified, e.g., by a data fetcher, without affecting
+     * the given quiz, which is usually shared through the {@link de.unistuttgart.iste.meitrex.quiz_service.service.QuizDtoCache}.
+     * The result only depends on the arguments, see {@link SeededRandomization}.
      *
-     * @param quiz the quiz
-     * @return the quiz with the selected questions
+     * @param quiz            the quiz to copy
+     * @param seed            the seed of the randomization
+     * @param adaptiveWeights the weights of the questions by their id, only used in
+     *                        {@link QuestionPoolingMode#ADAPTIVE} mode
+     * @return the randomized copy
      */
-    private Quiz selectQuestionsInQuiz(final Quiz quiz) {
-        if (quiz.getQuestionPoolingMode() == QuestionPoolingMode.ORDERED) {
-            quiz.setSelectedQuestions(quiz.getQuestionPool());
-            return quiz;
+    public Quiz randomize(final Quiz quiz, final long seed, final Map<UUID, Double> adaptiveWeights) {
+        return selectQuestionsInQuiz(copyWithRandomizedQuestions(quiz, seed), seed, adaptiveWeights);
+    }
+
+    /**
+     * Creates a randomized copy of a quiz dto like {@link #randomize(Quiz, long, Map)}, but with the given
+     * selected questions instead of a new selection, e.g., the stored selection of an attempt of a user.
+     * Selected questions that are no longer part of the question pool are omitted.
+     *
+     * @param quiz                the quiz to copy
+     * @param seed                the seed of the randomization of the blanks and association sides
+     * @param selectedQuestionIds the ids of the selected questions, in the order they are shown
+     * @return the randomized copy
+     */
+    public Quiz randomizeWithSelection(final Quiz quiz, final long seed, final List<UUID> selectedQuestionIds) {
+        final Quiz result = copyWithRandomizedQuestions(quiz, seed);
+        final Map<UUID, Question> questionsById = HashMap.newHashMap(result.getQuestionPool().size());
+        for (final Question question : result.getQuestionPool()) {
+            questionsById.put(question.getItemId(), question);
         }
+        result.setSelectedQuestions(selectedQuestionIds.stream()
+                .map(questionsById::get)
+                .filter(Objects::nonNull)
+                .toList());
+        return result;
+    }
 
-        int limit = quiz.getQuestionPool().size();
-        if (quiz.getNumberOfRandomlySelectedQuestions() != null) {
-            limit = Math.min(limit, quiz.getNumberOfRandomlySelectedQuestions());
+    private Quiz copyWithRandomizedQuestions(final Quiz quiz, final long seed) {
+        return Quiz.builder()
+                .setCourseId(quiz.getCourseId())
+                .setAssessmentId(quiz.getAssessmentId())
+                .setQuestionPoolingMode(quiz.getQuestionPoolingMode())
+                .setNumberOfRandomlySelectedQuestions(quiz.getNumberOfRandomlySelectedQuestions())
+                .setRequiredCorrectAnswers(quiz.getRequiredCorrectAnswers())
+                .setQuestionPool(quiz.getQuestionPool().stream()
+                        .map(question -> randomizeQuestion(question, seed))
+                        .toList())
+                .build();
+    }
+
+    private Question randomizeQuestion(final Question question, final long quizSeed) {
+        if (question instanceof final ClozeQuestion clozeQuestion) {
+            final SplittableRandom random
+                    = new SplittableRandom(SeededRandomization.seed(quizSeed, clozeQuestion.getItemId()));
+            final List<String> allBlanks = SeededRandomization.shuffle(clozeQuestion.getAllBlanks(), random);
+
+            return ClozeQuestion.builder()
+                    .setType(clozeQuestion.getType())
+                    .setNumber(clozeQuestion.getNumber())
+                    .setItemId(clozeQuestion.getItemId())
+                    .setShowBlanksList(clozeQuestion.getShowBlanksList())
+                    .setIgnoreSpellingVariants(clozeQuestion.getIgnoreSpellingVariants())
+                    .setMaximumEditDistance(clozeQuestion.getMaximumEditDistance())
+                    .setAdditionalWrongAnswers(new ArrayList<>(clozeQuestion.getAdditionalWrongAnswers()))
+                    .setClozeElements(clozeQuestion.getClozeElements().stream()
+                            .map(this::copyClozeElement)
+                            .toList())
+                    .setHint(clozeQuestion.getHint())
+                    .setAllBlanks(allBlanks)
+                    .build();
+        }
+        if (question instanceof final AssociationQuestion associationQuestion) {
+            final SplittableRandom random
+                    = new SplittableRandom(SeededRandomization.seed(quizSeed, associationQuestion.getItemId()));
+            final List<String> leftSide = SeededRandomization.shuffle(associationQuestion.getLeftSide(), random);
+            final List<String> rightSide = SeededRandomization.shuffle(associationQuestion.getRightSide(), random);
+
+            final AssociationQuestion result = mapper.copyAssociationQuestion(associationQuestion);
+            result.setLeftSide(leftSide);
+            result.setRightSide(rightSide);
+            return result;
+        }
+        if (question instanceof final MultipleChoiceQuestion multipleChoiceQuestion) {
+            return mapper.copyMultipleChoiceQuestion(multipleChoiceQuestion);
+        }
+        if (question instanceof final SelfAssessmentQuestion selfAssessmentQuestion) {
+            return mapper.copySelfAssessmentQuestion(selfAssessmentQuestion);
+        }
+        if (question instanceof final NumericQuestion numericQuestion) {
+            return mapper.copyNumericQuestion(numericQuestion);
+        }
+        if (question instanceof final ExactAnswerQuestion exactAnswerQuestion) {
+            return mapper.copyExactAnswerQuestion(exactAnswerQuestion);
         }
 
-        final List<Question> pool = new ArrayList<>(quiz.getQuestionPool());
-        Collections.shuffle(pool);
-        quiz.setSelectedQuestions(pool.subList(0, limit));
+        // add other question types here
+        throw new IllegalArgumentException("Unknown question type: " + question.getType());
+    }
 
+    private ClozeElement copyClozeElement(final ClozeElement clozeElement) {
+        if (clozeElement instanceof final ClozeTextElement clozeTextElement) {
+            return mapper.copyClozeTextElement(clozeTextElement);
+        }
+        return mapper.copyClozeBlankElement((ClozeBlankElement) clozeElement);
+    }
+
+    /**
+     * Selects the questions for a quiz based on the question pooling mode.
+     * <p>
+     * If the question pooling mode is {@link QuestionPoolingMode#ORDERED}, all questions are selected
+     * and the order is preserved.
+     * If the question pooling mode is {@link QuestionPoolingMode#RANDOM},
+     * {@link Quiz#getNumberOfRandomlySelectedQuestions()} questions are drawn in random order, without copying
+     * the question pool, see {@link SeededRandomization#sample}.
+     * If the question pooling mode is {@link QuestionPoolingMode#ADAPTIVE}, the questions are drawn with
+     * probabilities proportional to their adaptive weights, see {@link SeededRandomization#weightedSample}.
+     * Questions without a weight get the weight 1. The same selection is recomputed when the attempt is graded,
+     * see {@link SeededRandomization#selectQuestions}.
+     *
+     * @param quiz            the quiz
+     * @param seed            the seed of the randomization
+     * @param adaptiveWeights the weights of the questions by their id
+     * @return the quiz with the selected questions
+     */
+    // package-private for the QuizMapperBenchmark
+    Quiz selectQuestionsInQuiz(final Quiz quiz, final long seed, final Map<UUID, Double> adaptiveWeights) {
+        quiz.setSelectedQuestions(SeededRandomization.selectQuestions(quiz.getQuestionPool(),
+                quiz.getQuestionPoolingMode(),
+                quiz.getNumberOfRandomlySelectedQuestions(),
+                question -> adaptiveWeights.getOrDefault(question.getItemId(), 1.0),
+                seed));
         return quiz;
     }
 
@@ -90,18 +268,19 @@ public class QuizMapper {
     }
 
     public MultipleChoiceQuestion multipleChoiceQuestionEntityToDto(final MultipleChoiceQuestionEntity multipleChoiceQuestionEntity) {
-        return mapper.map(multipleChoiceQuestionEntity, MultipleChoiceQuestion.class);
+        return mapper.multipleChoiceQuestionEntityToDto(multipleChoiceQuestionEntity);
     }
 
     public ClozeQuestion clozeQuestionEntityToDto(final ClozeQuestionEntity clozeQuestionEntity) {
-        // manual mapping necessary because of ClozeElement interface
-        // which cannot automatically be mapped by model mapper
+        // manual mapping necessary because of the ClozeElement interface
         final ClozeQuestion result = ClozeQuestion.builder()
                 .setType(QuestionType.CLOZE)
                 .setNumber(clozeQuestionEntity.getNumber())
                 .setItemId(clozeQuestionEntity.getItemId())
                 .setShowBlanksList(clozeQuestionEntity.isShowBlanksList())
-                .setAdditionalWrongAnswers(clozeQuestionEntity.getAdditionalWrongAnswers())
+                .setIgnoreSpellingVariants(clozeQuestionEntity.isIgnoreSpellingVariants())
+                .setMaximumEditDistance(clozeQuestionEntity.getMaximumEditDistance())
+                .setAdditionalWrongAnswers(new ArrayList<>(clozeQuestionEntity.getAdditionalWrongAnswers()))
                 .setClozeElements(clozeQuestionEntity.getClozeElements().stream()
                         .map(this::clozeElementEntityToDto)
                         .toList())
@@ -117,21 +296,21 @@ public class QuizMapper {
                 .map(ClozeBlankElement::getCorrectAnswer)
                 .forEach(allBlanks::add);
 
-        Collections.shuffle(allBlanks);
-        result.setAllBlanks(allBlanks);
+        // shuffled per request, see randomize
+        result.setAllBlanks(Collections.unmodifiableList(allBlanks));
 
         return result;
     }
 
     private ClozeElement clozeElementEntityToDto(final ClozeElementEmbeddable clozeElementEmbeddable) {
         if (clozeElementEmbeddable.getType() == ClozeElementType.TEXT) {
-            return mapper.map(clozeElementEmbeddable, ClozeTextElement.class);
+            return mapper.clozeElementEmbeddableToTextElementDto(clozeElementEmbeddable);
         }
-        return mapper.map(clozeElementEmbeddable, ClozeBlankElement.class);
+        return mapper.clozeElementEmbeddableToBlankElementDto(clozeElementEmbeddable);
     }
 
     private AssociationQuestion associationQuestionEntityToDto(final AssociationQuestionEntity associationQuestionEntity) {
-        final AssociationQuestion result = mapper.map(associationQuestionEntity, AssociationQuestion.class);
+        final AssociationQuestion result = mapper.associationQuestionEntityToDto(associationQuestionEntity);
 
         final List<String> leftSide = new ArrayList<>(result.getCorrectAssociations().size());
         final List<String> rightSide = new ArrayList<>(result.getCorrectAssociations().size());
@@ -141,52 +320,50 @@ public class QuizMapper {
             rightSide.add(association.getRight());
         }
 
-        Collections.shuffle(leftSide);
-        Collections.shuffle(rightSide);
-
-        result.setLeftSide(leftSide);
-        result.setRightSide(rightSide);
+        // shuffled per request, see randomize
+        result.setLeftSide(Collections.unmodifiableList(leftSide));
+        result.setRightSide(Collections.unmodifiableList(rightSide));
 
         return result;
     }
 
     private NumericQuestion numericQuestionEntityToDto(final NumericQuestionEntity numericQuestionEntity) {
-        return mapper.map(numericQuestionEntity, NumericQuestion.class);
+        return mapper.numericQuestionEntityToDto(numericQuestionEntity);
     }
 
     private ExactAnswerQuestion exactAnswerQuestionEntityToDto(final ExactAnswerQuestionEntity exactAnswerQuestionEntity) {
-        return mapper.map(exactAnswerQuestionEntity, ExactAnswerQuestion.class);
+        return mapper.exactAnswerQuestionEntityToDto(exactAnswerQuestionEntity);
     }
 
     public SelfAssessmentQuestion selfAssessmentQuestionEntityToDto(final SelfAssessmentQuestionEntity selfAssessmentQuestionEntity) {
-        return mapper.map(selfAssessmentQuestionEntity, SelfAssessmentQuestion.class);
+        return mapper.selfAssessmentQuestionEntityToDto(selfAssessmentQuestionEntity);
     }
 
     public QuizEntity createQuizInputToEntity(final CreateQuizInput createQuizInput) {
-        return mapper.map(createQuizInput, QuizEntity.class);
+        return mapper.createQuizInputToEntity(createQuizInput);
     }
 
     public QuestionEntity multipleChoiceQuestionInputToEntity(final CreateMultipleChoiceQuestionInput input) {
-        final MultipleChoiceQuestionEntity result = mapper.map(input, MultipleChoiceQuestionEntity.class);
+        final MultipleChoiceQuestionEntity result = mapper.multipleChoiceQuestionInputToEntity(input);
         result.setType(QuestionType.MULTIPLE_CHOICE);
         return result;
     }
 
     public QuestionEntity multipleChoiceQuestionInputToEntity(final UpdateMultipleChoiceQuestionInput input) {
-        final MultipleChoiceQuestionEntity result = mapper.map(input, MultipleChoiceQuestionEntity.class);
+        final MultipleChoiceQuestionEntity result = mapper.multipleChoiceQuestionInputToEntity(input);
         result.setType(QuestionType.MULTIPLE_CHOICE);
         return result;
     }
 
     public QuestionEntity clozeQuestionInputToEntity(final CreateClozeQuestionInput input) {
-        final var result = mapper.map(input, ClozeQuestionEntity.class);
+        final var result = mapper.clozeQuestionInputToEntity(input);
         result.setType(QuestionType.CLOZE);
         setPositionNumbersInClozeElements(result.getClozeElements());
         return result;
     }
 
     public QuestionEntity clozeQuestionInputToEntity(final UpdateClozeQuestionInput input) {
-        final var result = mapper.map(input, ClozeQuestionEntity.class);
+        final var result = mapper.clozeQuestionInputToEntity(input);
         result.setType(QuestionType.CLOZE);
         setPositionNumbersInClozeElements(result.getClozeElements());
         return result;
@@ -200,49 +377,49 @@ public class QuizMapper {
     }
 
     public QuestionEntity associationQuestionInputToEntity(final CreateAssociationQuestionInput input) {
-        final var result = mapper.map(input, AssociationQuestionEntity.class);
+        final var result = mapper.associationQuestionInputToEntity(input);
         result.setType(QuestionType.ASSOCIATION);
         return result;
     }
 
     public QuestionEntity associationQuestionInputToEntity(final UpdateAssociationQuestionInput input) {
-        final var result = mapper.map(input, AssociationQuestionEntity.class);
+        final var result = mapper.associationQuestionInputToEntity(input);
         result.setType(QuestionType.ASSOCIATION);
         return result;
     }
 
     public QuestionEntity exactAnswerQuestionInputToEntity(final CreateExactAnswerQuestionInput input) {
-        final var result = mapper.map(input, ExactAnswerQuestionEntity.class);
+        final var result = mapper.exactAnswerQuestionInputToEntity(input);
         result.setType(QuestionType.EXACT_ANSWER);
         return result;
     }
 
     public QuestionEntity exactAnswerQuestionInputToEntity(final UpdateExactAnswerQuestionInput input) {
-        final var result = mapper.map(input, ExactAnswerQuestionEntity.class);
+        final var result = mapper.exactAnswerQuestionInputToEntity(input);
         result.setType(QuestionType.EXACT_ANSWER);
         return result;
     }
 
     public QuestionEntity numericQuestionInputToEntity(final CreateNumericQuestionInput input) {
-        final var result = mapper.map(input, NumericQuestionEntity.class);
+        final var result = mapper.numericQuestionInputToEntity(input);
         result.setType(QuestionType.NUMERIC);
         return result;
     }
 
     public QuestionEntity numericQuestionInputToEntity(final UpdateNumericQuestionInput input) {
-        final var result = mapper.map(input, NumericQuestionEntity.class);
+        final var result = mapper.numericQuestionInputToEntity(input);
         result.setType(QuestionType.NUMERIC);
         return result;
     }
 
     public QuestionEntity selfAssessmentQuestionInputToEntity(final CreateSelfAssessmentQuestionInput input) {
-        final var result = mapper.map(input, SelfAssessmentQuestionEntity.class);
+        final var result = mapper.selfAssessmentQuestionInputToEntity(input);
         result.setType(QuestionType.SELF_ASSESSMENT);
         return result;
     }
 
     public QuestionEntity selfAssessmentQuestionInputToEntity(final UpdateSelfAssessmentQuestionInput input) {
-        final var result = mapper.map(input, SelfAssessmentQuestionEntity.class);
+        final var result = mapper.selfAssessmentQuestionInputToEntity(input);
         result.setType(QuestionType.SELF_ASSESSMENT);
         return result;
     }
@@ -0,0 +1,223 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Deterministic randomization of quizzes. All random choices are derived from a seed, so the same seed always
+ * results in the same selection and order of questions, blanks and association sides.
+ * <p>
+ * For quizzes shown to a user, the seed is derived from the user, the quiz and the attempt of the user,
+ * see {@link #seed(UUID, UUID, long)}. Reloading the quiz therefore shows the same questions until the user
+ * completes the attempt, and the questions shown in an attempt can be reproduced later.
+ */
+public final class SeededRandomization {
+
+    private SeededRandomization() {
+        // utility class
+    }
+
+    /**
+     * @param userId  the id of the user
+     * @param quizId  the id of the quiz
+     * @param attempt the number of completed attempts of the user for the quiz
+     * @return the seed of the randomization of the quiz for the attempt of the user
+     */
+    public static long seed(final UUID userId, final UUID quizId, final long attempt) {
+        long seed = mix(userId.getMostSignificantBits());
+        seed = mix(seed ^ userId.getLeastSignificantBits());
+        seed = mix(seed ^ quizId.getMostSignificantBits());
+        seed = mix(seed ^ quizId.getLeastSignificantBits());
+        return mix(seed ^ attempt);
+    }
+
+    /**
+     * Derives the seed of a single question from the seed of the quiz, so that the order of the blanks or
+     * association sides of a question does not depend on the other questions of the quiz.
+     *
+     * @param quizSeed   the seed of the quiz
+     * @param questionId the id of the question
+     * @return the seed of the question
+     */
+    public static long seed(final long quizSeed, final UUID questionId) {
+        return mix(mix(quizSeed ^ questionId.getMostSignificantBits()) ^ questionId.getLeastSignificantBits());
+    }
+
+    /**
+     * Selects the questions of a quiz attempt from the question pool, depending on the question pooling mode.
+     * <p>
+     * In {@link QuestionPoolingMode#ORDERED} mode, all questions are selected in their order. In
+     * {@link QuestionPoolingMode#RANDOM} mode, {@code numberOfRandomlySelectedQuestions} questions are drawn in
+     * random order, see {@link #sample}. In {@link QuestionPoolingMode#ADAPTIVE} mode, the questions are drawn with
+     * probabilities proportional to their weights, see {@link #weightedSample}.
+     * <p>
+     * The selection only depends on the size and order of the question pool, the weights and the seed, so the
+     * questions shown to a user can be recomputed from the ids of the questions alone when the attempt is graded.
+     *
+     * @param questionPool                      the question pool, ordered by question number
+     * @param questionPoolingMode               the question pooling mode of the quiz
+     * @param numberOfRandomlySelectedQuestions the number of questions to draw, null to draw all questions
+     * @param weight                            the adaptive weight of a question, only used in ADAPTIVE mode
+     * @param seed                              the seed of the attempt, see {@link #seed(UUID, UUID, long)}
+     * @return the selected questions
+     */
+    public static <T> List<T> selectQuestions(final List<T> questionPool,
+                                              final QuestionPoolingMode questionPoolingMode,
+                                              final Integer numberOfRandomlySelectedQuestions,
+                                              final ToDoubleFunction<? super T> weight,
+                                              final long seed) {
+        if (questionPoolingMode == QuestionPoolingMode.ORDERED) {
+            return questionPool;
+        }
+
+        int limit = questionPool.size();
+        if (numberOfRandomlySelectedQuestions != null) {
+            limit = Math.min(limit, numberOfRandomlySelectedQuestions);
+        }
+
+        final SplittableRandom random = new SplittableRandom(seed);
+        if (questionPoolingMode == QuestionPoolingMode.ADAPTIVE) {
+            return weightedSample(questionPool, limit, weight, random);
+        }
+        return sample(questionPool, limit, random);
+    }
+
+    /**
+     * Draws a random sample from a list, in random order.
+     * <p>
+     * This is a partial Fisher-Yates shuffle that only performs the first {@code count} steps. The swapped
+     * positions are kept in a map instead of a copy of the list, so drawing k elements takes O(k) time and
+     * memory, independent of the size of the list.
+     *
+     * @param list   the list to draw from, not modified
+     * @param count  the number of elements to draw, at most the size of the list
+     * @param random the source of randomness
+     * @return the drawn elements
+     */
+    public static <T> List<T> sample(final List<T> list, final int count, final RandomGenerator random) {
+        final List<T> result = new ArrayList<>(count);
+        // position -> index of the element that was swapped to this position
+        final Map<Integer, Integer> swapped = HashMap.newHashMap(count);
+        for (int i = 0; i < count; i++) {
+            final int j = i + random.nextInt(list.size() - i);
+            final int elementAtI = swapped.getOrDefault(i, i);
+            result.add(list.get(swapped.getOrDefault(j, j)));
+            swapped.put(j, elementAtI);
+        }
+        return result;
+    }
+
+    /**
+     * Draws a weighted random sample from a list, without replacement. The elements are ordered by their random
+     * keys, so elements with higher weights tend to come first.
+     * <p>
+     * This is the algorithm of Efraimidis and Spirakis: every element gets the key {@code u^(1/w)} for a uniform
+     * random number u and its weight w, and the elements with the largest keys are drawn. The keys are compared
+     * as {@code ln(u)/w} to avoid underflow for large weights. Only the {@code count} largest keys are kept in a
+     * heap, so drawing k of n elements takes O(n log k) time and O(k) memory.
+     *
+     * @param list   the list to draw from, not modified
+     * @param count  the number of elements to draw, at most the size of the list
+     * @param weight the weight of an element, must be positive
+     * @param random the source of randomness
+     * @return the drawn elements
+     */
+    public static <T> List<T> weightedSample(final List<T> list,
+                                             final int count,
+                                             final ToDoubleFunction<? super T> weight,
+                                             final RandomGenerator random) {
+        if (count == 0) {
+            return new ArrayList<>(0);
+        }
+        // min-heap of the largest keys seen so far, the smallest of them at the root
+        final double[] heapKeys = new double[count];
+        final int[] heapIndices = new int[count];
+        int heapSize = 0;
+
+        for (int i = 0; i < list.size(); i++) {
+            // nextDouble() is in [0, 1), ln(0) would be -infinity for every weight
+            final double key = Math.log(1 - random.nextDouble()) / weight.applyAsDouble(list.get(i));
+            if (heapSize < count) {
+                heapKeys[heapSize] = key;
+                heapIndices[heapSize] = i;
+                siftUp(heapKeys, heapIndices, heapSize);
+                heapSize++;
+            } else if (key > heapKeys[0]) {
+                heapKeys[0] = key;
+                heapIndices[0] = i;
+                siftDown(heapKeys, heapIndices, heapSize);
+            }
+        }
+
+        // removing the root repeatedly yields the keys in ascending order
+        final List<T> result = new ArrayList<>(Collections.nCopies(heapSize, null));
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result.set(i, list.get(heapIndices[0]));
+            heapKeys[0] = heapKeys[i];
+            heapIndices[0] = heapIndices[i];
+            siftDown(heapKeys, heapIndices, i);
+        }
+        return result;
+    }
+
+    private static void siftUp(final double[] keys, final int[] indices, final int position) {
+        int child = position;
+        while (child > 0) {
+            final int parent = (child - 1) / 2;
+            if (keys[parent] <= keys[child]) {
+                return;
+            }
+            swap(keys, indices, parent, child);
+            child = parent;
+        }
+    }
+
+    private static void siftDown(final double[] keys, final int[] indices, final int size) {
+        int parent = 0;
+        while (true) {
+            final int left = 2 * parent + 1;
+            if (left >= size) {
+                return;
+            }
+            final int right = left + 1;
+            final int smallest = right < size && keys[right] < keys[left] ? right : left;
+            if (keys[parent] <= keys[smallest]) {
+                return;
+            }
+            swap(keys, indices, parent, smallest);
+            parent = smallest;
+        }
+    }
+
+    private static void swap(final double[] keys, final int[] indices, final int i, final int j) {
+        final double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        final int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+    }
+
+    /**
+     * @param list   the list to shuffle, not modified
+     * @param random the source of randomness
+     * @return a shuffled copy of the list
+     */
+    public static <T> List<T> shuffle(final List<T> list, final RandomGenerator random) {
+        final List<T> result = new ArrayList<>(list);
+        Collections.shuffle(result, random);
+        return result;
+    }
+
+    /**
+     * The finalizer of the SplitMix64 generator, which spreads every input bit over all output bits.
+     */
+    private static long mix(final long value) {
+        long z = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
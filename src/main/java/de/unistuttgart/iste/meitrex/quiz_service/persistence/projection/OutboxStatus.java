@@ -0,0 +1,12 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.projection;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The current state of the event outbox.
+ *
+ * @param pendingEvents   number of events that were not published yet
+ * @param oldestCreatedAt creation time of the oldest event that was not published yet, null if there is none
+ */
+public record OutboxStatus(long pendingEvents, OffsetDateTime oldestCreatedAt) {
+}
@@ -0,0 +1,14 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.projection;
+
+import java.util.UUID;
+
+/**
+ * Aggregated answer statistics of a single question over all users.
+ *
+ * @param questionId      the id of the question
+ * @param attempts        how often the question was answered
+ * @param correctAttempts how often the question was answered correctly
+ * @param distinctUsers   how many different users answered the question
+ */
+public record QuestionStatisticAggregate(UUID questionId, long attempts, long correctAttempts, long distinctUsers) {
+}
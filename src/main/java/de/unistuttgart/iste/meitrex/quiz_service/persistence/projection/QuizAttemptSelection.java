@@ -0,0 +1,15 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.projection;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The current attempt of a user for a quiz, see
+ * {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizAttemptEntity}.
+ *
+ * @param completedAttempts   the number of completed attempts of the user for the quiz
+ * @param selectedQuestionIds the ids of the questions selected for the current attempt,
+ *                            null if the current attempt was not shown yet
+ */
+public record QuizAttemptSelection(long completedAttempts, List<UUID> selectedQuestionIds) {
+}
@@ -0,0 +1,23 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.projection;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+
+import java.util.UUID;
+
+/**
+ * The scalar fields of a quiz that are needed to score a quiz completion.
+ *
+ * @param assessmentId                      the id of the quiz
+ * @param courseId                          the id of the course the quiz belongs to
+ * @param requiredCorrectAnswers            the number of correct answers required to pass the quiz
+ * @param questionPoolingMode               the question pooling mode of the quiz
+ * @param numberOfRandomlySelectedQuestions the number of randomly selected questions, may be null
+ * @param version                           the version of the quiz the fields were read from
+ */
+public record QuizGradingHeader(UUID assessmentId,
+                                UUID courseId,
+                                int requiredCorrectAnswers,
+                                QuestionPoolingMode questionPoolingMode,
+                                Integer numberOfRandomlySelectedQuestions,
+                                long version) {
+}
@@ -0,0 +1,32 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.projection;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The scalar fields of a quiz that can be shown without loading its questions, together with the current version
+ * of the quiz and the current attempt of the requesting user.
+ *
+ * @param assessmentId                      the id of the quiz
+ * @param courseId                          the id of the course the quiz belongs to
+ * @param requiredCorrectAnswers            the number of correct answers required to pass the quiz
+ * @param questionPoolingMode               the question pooling mode of the quiz
+ * @param numberOfRandomlySelectedQuestions the number of randomly selected questions, may be null
+ * @param version                           the version of the quiz, see
+ *                                          {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity#getVersion()}
+ * @param completedAttempts                 the number of completed attempts of the user for the quiz, see
+ *                                          {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizAttemptEntity}
+ * @param selectedQuestionIds               the ids of the questions selected for the current attempt of the user,
+ *                                          null if they were not selected yet
+ */
+public record QuizHeader(UUID assessmentId,
+                         UUID courseId,
+                         int requiredCorrectAnswers,
+                         QuestionPoolingMode questionPoolingMode,
+                         Integer numberOfRandomlySelectedQuestions,
+                         long version,
+                         long completedAttempts,
+                         List<UUID> selectedQuestionIds) {
+}
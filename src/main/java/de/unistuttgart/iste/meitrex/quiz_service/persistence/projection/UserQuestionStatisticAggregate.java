@@ -0,0 +1,14 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.projection;
+
+import java.util.UUID;
+
+/**
+ * Aggregated answer statistics of a single user for a single question.
+ *
+ * @param userId          the id of the user
+ * @param questionId      the id of the question
+ * @param attempts        how often the user answered the question
+ * @param correctAttempts how often the user answered the question correctly
+ */
+public record UserQuestionStatisticAggregate(UUID userId, UUID questionId, long attempts, long correctAttempts) {
+}
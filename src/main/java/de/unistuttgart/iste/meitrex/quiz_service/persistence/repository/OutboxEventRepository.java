@@ -0,0 +1,118 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.OutboxEventEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, UUID> {
+
+    /**
+     * Returns the oldest events that are due for publishing and not claimed by a relay, and locks them until the
+     * end of the transaction, so that they can be claimed. Events that are locked by another transaction, e.g.,
+     * by the relay of another instance, are skipped.
+     *
+     * @param now   the current time
+     * @param limit the maximum number of events to return
+     * @return the locked events, oldest first
+     */
+    @Query(value = """
+            select * from outbox_event
+            where next_attempt_at <= :now
+              and (claimed_until is null or claimed_until <= :now)
+            order by created_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OutboxEventEntity> lockDueEvents(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /**
+     * Postpones the coalesced event with the given key, if it exists, and increments its revision.
+     * The event is due at the given time, but not later than the maximum delay after it was created.
+     * Events that are waiting for a retry keep their backoff.
+     *
+     * @return the number of updated events, 0 or 1
+     */
+    @Modifying
+    @Query(value = """
+            update outbox_event
+            set revision = revision + 1,
+                next_attempt_at = case
+                    when attempts > 0 then next_attempt_at
+                    else least(cast(:dueAt as timestamp with time zone),
+                               created_at + make_interval(secs => :maxDelaySeconds))
+                end
+            where coalescing_key = :coalescingKey
+            """, nativeQuery = true)
+    int postponeCoalescedEvent(@Param("coalescingKey") UUID coalescingKey,
+                               @Param("dueAt") OffsetDateTime dueAt,
+                               @Param("maxDelaySeconds") double maxDelaySeconds);
+
+    /**
+     * Inserts a coalesced event. If an event with the same key was inserted concurrently, only its revision
+     * is incremented.
+     */
+    @Modifying
+    @Query(value = """
+            insert into outbox_event (id, event_type, payload, created_at, attempts, next_attempt_at,
+                                      coalescing_key, revision, published_items)
+            values (:id, :eventType, :payload, :now, 0, :dueAt, :coalescingKey, 0, 0)
+            on conflict (coalescing_key) do update set revision = outbox_event.revision + 1
+            """, nativeQuery = true)
+    void insertCoalescedEvent(@Param("id") UUID id,
+                              @Param("eventType") String eventType,
+                              @Param("payload") String payload,
+                              @Param("coalescingKey") UUID coalescingKey,
+                              @Param("now") OffsetDateTime now,
+                              @Param("dueAt") OffsetDateTime dueAt);
+
+    /**
+     * Deletes a published event, unless further changes were coalesced into it while it was published.
+     *
+     * @return the number of deleted events, 0 if the revision changed
+     */
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id = :id and e.revision = :revision")
+    int deletePublished(@Param("id") UUID id, @Param("revision") int revision);
+
+    /**
+     * Releases the claim of an event, so that it is published again when it is due.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id = :id")
+    void releaseClaim(@Param("id") UUID id);
+
+    /**
+     * Records a failed attempt to publish an event and releases its claim.
+     */
+    @Modifying
+    @Query("""
+            update OutboxEvent e
+            set e.attempts = :attempts,
+                e.nextAttemptAt = :nextAttemptAt,
+                e.lastError = :lastError,
+                e.publishedItems = :publishedItems,
+                e.claimedUntil = null
+            where e.id = :id
+            """)
+    void recordFailedAttempt(@Param("id") UUID id,
+                             @Param("attempts") int attempts,
+                             @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+                             @Param("lastError") String lastError,
+                             @Param("publishedItems") int publishedItems);
+
+    @Query("""
+            select new de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.OutboxStatus(
+                count(e), min(e.createdAt))
+            from OutboxEvent e
+            """)
+    OutboxStatus getStatus();
+}
@@ -0,0 +1,24 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.ProcessedCloudEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface ProcessedCloudEventRepository extends JpaRepository<ProcessedCloudEventEntity, String> {
+
+    /**
+     * Deletes the processed events that were processed before the given time.
+     *
+     * @param processedBefore the oldest processing time that is kept
+     * @return the number of deleted events
+     */
+    @Modifying
+    @Query("delete from ProcessedCloudEvent e where e.processedAt < :processedBefore")
+    int deleteProcessedBefore(@Param("processedBefore") OffsetDateTime processedBefore);
+}
@@ -0,0 +1,84 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.UserQuestionAggregateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the precomputed per-question answer statistics.
+ * The counters are only ever changed with atomic upserts, never by loading, modifying and saving an entity.
+ */
+@Repository
+public interface QuestionAggregateRepository extends JpaRepository<QuestionAggregateEntity, UUID> {
+
+    /**
+     * Atomically adds the attempts of a user for several questions to the aggregates of the user and of the
+     * questions, creating the aggregates if necessary, with a single statement.
+     * <p>
+     * Both tables are upserted with one multi-row statement each, in the order of the question ids, so concurrent
+     * calls lock the rows in the same order and cannot deadlock. The user is counted as a new user of a question
+     * if the attempts of the user for the question consist only of the added ones.
+     * Every question id must be contained at most once, the arrays are aligned by index.
+     *
+     * @param userId          the id of the user
+     * @param questionIds     the ids of the answered questions
+     * @param attempts        the number of attempts per question
+     * @param correctAttempts the number of correct attempts per question
+     * @return the number of updated question aggregates
+     */
+    @Modifying
+    @Query(value = """
+            with answered as (
+                select question_id, attempts, correct_attempts
+                from unnest(cast(:questionIds as uuid[]), cast(:attempts as integer[]), cast(:correctAttempts as integer[]))
+                    as t(question_id, attempts, correct_attempts)
+            ), user_aggregates as (
+                insert into user_question_aggregate (user_id, question_id, attempts, correct_attempts)
+                select :userId, answered.question_id, answered.attempts, answered.correct_attempts
+                from answered
+                order by answered.question_id
+                on conflict (user_id, question_id) do update set
+                    attempts = user_question_aggregate.attempts + excluded.attempts,
+                    correct_attempts = user_question_aggregate.correct_attempts + excluded.correct_attempts
+                returning question_id, attempts
+            )
+            insert into question_aggregate (question_id, attempts, correct_attempts, distinct_users)
+            select answered.question_id, answered.attempts, answered.correct_attempts,
+                   case when user_aggregates.attempts = answered.attempts then 1 else 0 end
+            from answered
+            join user_aggregates on user_aggregates.question_id = answered.question_id
+            order by answered.question_id
+            on conflict (question_id) do update set
+                attempts = question_aggregate.attempts + excluded.attempts,
+                correct_attempts = question_aggregate.correct_attempts + excluded.correct_attempts,
+                distinct_users = question_aggregate.distinct_users + excluded.distinct_users
+            """, nativeQuery = true)
+    int addAttempts(@Param("userId") UUID userId,
+                    @Param("questionIds") UUID[] questionIds,
+                    @Param("attempts") Integer[] attempts,
+                    @Param("correctAttempts") Integer[] correctAttempts);
+
+    /**
+     * Returns the aggregates of a user for the given questions. Questions that were never answered by the user
+     * are not contained in the result.
+     */
+    @Query("select a from UserQuestionAggregate a where a.userId = :userId and a.questionId in :questionIds")
+    List<UserQuestionAggregateEntity> findUserAggregates(@Param("userId") UUID userId,
+                                                         @Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying
+    @Query("delete from QuestionAggregate a where a.questionId in :questionIds")
+    void deleteAllByQuestionIdIn(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying
+    @Query("delete from UserQuestionAggregate a where a.questionId in :questionIds")
+    void deleteAllUserAggregatesByQuestionIdIn(@Param("questionIds") Collection<UUID> questionIds);
+}
@@ -0,0 +1,98 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Repository for set-based modifications of questions that do not need to load the quiz aggregate.
+ * Usually, questions are modified through their quiz, see {@link QuizRepository}.
+ * <p>
+ * The modifying queries flush pending changes before and clear the persistence context afterward,
+ * so loaded quizzes must be reloaded to see the modifications.
+ * <p>
+ * The native queries reference the element collection tables of the question types by name,
+ * which is why the question entities declare their collection tables explicitly.
+ */
+@Repository
+public interface QuestionRepository extends JpaRepository<QuestionEntity, UUID> {
+
+    /**
+     * Removes the question with the given id from the question pool of its quiz, without deleting the question.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from quiz_question_pool where question_pool_item_id = :questionId", nativeQuery = true)
+    void removeFromQuestionPool(@Param("questionId") UUID questionId);
+
+    /**
+     * Decrements the numbers of all questions of a quiz with a number greater than the given number
+     * in a single statement, used to close the gap after a question was removed.
+     *
+     * @param quizId the id of the quiz
+     * @param number the number of the removed question
+     * @return the number of renumbered questions
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Question question
+            set question.number = question.number - 1
+            where question.number > :number
+            and question.itemId in (
+                select poolQuestion.itemId from Quiz quiz join quiz.questionPool poolQuestion
+                where quiz.assessmentId = :quizId)
+            """)
+    int decrementNumbersAfter(@Param("quizId") UUID quizId, @Param("number") int number);
+
+    /**
+     * Deletes the given questions together with their element collections, with one statement per table
+     * and without loading the questions. The questions must already be removed from their question pools.
+     *
+     * @param questionIds the ids of the questions to delete
+     */
+    default void deleteAllByIdWithElementCollections(final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        deleteMultipleChoiceAnswers(questionIds);
+        deleteClozeElements(questionIds);
+        deleteClozeAdditionalWrongAnswers(questionIds);
+        deleteAssociations(questionIds);
+        deleteExactAnswers(questionIds);
+        deleteQuestionRows(questionIds);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from multiple_choice_question_answers where multiple_choice_question_item_id in :questionIds",
+            nativeQuery = true)
+    void deleteMultipleChoiceAnswers(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from cloze_question_cloze_elements where cloze_question_item_id in :questionIds",
+            nativeQuery = true)
+    void deleteClozeElements(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from cloze_question_additional_wrong_answers where cloze_question_item_id in :questionIds",
+            nativeQuery = true)
+    void deleteClozeAdditionalWrongAnswers(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from association_question_correct_associations where association_question_item_id in :questionIds",
+            nativeQuery = true)
+    void deleteAssociations(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from exact_answer_question_correct_answers where exact_answer_question_item_id in :questionIds",
+            nativeQuery = true)
+    void deleteExactAnswers(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from question where item_id in :questionIds", nativeQuery = true)
+    void deleteQuestionRows(@Param("questionIds") Collection<UUID> questionIds);
+}
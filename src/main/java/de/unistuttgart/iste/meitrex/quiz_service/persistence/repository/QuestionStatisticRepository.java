@@ -0,0 +1,51 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionStatisticEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuestionStatisticAggregate;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.UserQuestionStatisticAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the append-only log of question statistics.
+ * Inserts are batched by hibernate, see {@code hibernate.jdbc.batch_size} in the application properties.
+ */
+@Repository
+public interface QuestionStatisticRepository extends JpaRepository<QuestionStatisticEntity, UUID> {
+
+    @Query("""
+            select new de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuestionStatisticAggregate(
+                s.questionId,
+                count(s),
+                sum(case when s.answeredCorrectly = true then 1 else 0 end),
+                count(distinct s.userId))
+            from QuestionStatistic s
+            where s.questionId in :questionIds
+            group by s.questionId
+            """)
+    List<QuestionStatisticAggregate> aggregateByQuestionIds(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Query("""
+            select new de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.UserQuestionStatisticAggregate(
+                s.userId,
+                s.questionId,
+                count(s),
+                sum(case when s.answeredCorrectly = true then 1 else 0 end))
+            from QuestionStatistic s
+            where s.userId = :userId and s.questionId in :questionIds
+            group by s.userId, s.questionId
+            """)
+    List<UserQuestionStatisticAggregate> aggregateByUserIdAndQuestionIds(@Param("userId") UUID userId,
+                                                                         @Param("questionIds") Collection<UUID> questionIds);
+
+    @Modifying
+    @Query("delete from QuestionStatistic s where s.questionId in :questionIds")
+    int deleteAllByQuestionIdIn(@Param("questionIds") Collection<UUID> questionIds);
+}
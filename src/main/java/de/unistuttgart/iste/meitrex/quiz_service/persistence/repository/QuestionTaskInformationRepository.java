@@ -0,0 +1,30 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionTaskInformationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface QuestionTaskInformationRepository extends JpaRepository<QuestionTaskInformationEntity, UUID> {
+
+    /**
+     * Stores the rendered text of a question, replacing a previously stored text.
+     * Uses an upsert so that concurrent generations for the same question do not fail.
+     */
+    @Modifying
+    @Query(value = """
+            insert into question_task_information (item_id, content_hash, text)
+            values (:itemId, :contentHash, :text)
+            on conflict (item_id) do update set
+                content_hash = excluded.content_hash,
+                text = excluded.text
+            """, nativeQuery = true)
+    void upsert(@Param("itemId") UUID itemId,
+                @Param("contentHash") byte[] contentHash,
+                @Param("text") String text);
+}
@@ -0,0 +1,78 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizAttemptEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizAttemptSelection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for the completed attempts of users for quizzes.
+ * The counters are only ever changed with atomic upserts, never by loading, modifying and saving an entity.
+ */
+@Repository
+public interface QuizAttemptRepository extends JpaRepository<QuizAttemptEntity, QuizAttemptEntity.PrimaryKey> {
+
+    /**
+     * Atomically adds a completed attempt of a user for a quiz, creating the counter if necessary.
+     * The selected questions of the completed attempt are reset, the next attempt is selected when it is shown.
+     *
+     * @param userId the id of the user
+     * @param quizId the id of the completed quiz
+     */
+    @Modifying
+    @Query(value = """
+            insert into quiz_attempt (user_id, quiz_id, completed_attempts)
+            values (:userId, :quizId, 1)
+            on conflict (user_id, quiz_id) do update set
+                completed_attempts = quiz_attempt.completed_attempts + 1,
+                selected_question_ids = null
+            """, nativeQuery = true)
+    void addCompletedAttempt(@Param("userId") UUID userId, @Param("quizId") UUID quizId);
+
+    /**
+     * Atomically stores the selected questions of the current attempt of a user, unless questions were already
+     * selected for the attempt, e.g., by a concurrent request, or the attempt was completed in the meantime.
+     *
+     * @param userId              the id of the user
+     * @param quizId              the id of the quiz
+     * @param completedAttempts   the number of completed attempts the selection was computed for
+     * @param selectedQuestionIds the ids of the selected questions
+     * @return 1 if the selection was stored, 0 otherwise
+     */
+    @Modifying
+    @Query(value = """
+            insert into quiz_attempt (user_id, quiz_id, completed_attempts, selected_question_ids)
+            values (:userId, :quizId, :completedAttempts, cast(:selectedQuestionIds as uuid[]))
+            on conflict (user_id, quiz_id) do update set
+                selected_question_ids = excluded.selected_question_ids
+            where quiz_attempt.selected_question_ids is null
+                and quiz_attempt.completed_attempts = excluded.completed_attempts
+            """, nativeQuery = true)
+    int saveSelectedQuestionIdsIfAbsent(@Param("userId") UUID userId,
+                                        @Param("quizId") UUID quizId,
+                                        @Param("completedAttempts") long completedAttempts,
+                                        @Param("selectedQuestionIds") UUID[] selectedQuestionIds);
+
+    /**
+     * Returns the number of completed attempts and the selected questions of the current attempt of a user
+     * for a quiz, without loading the entity into the persistence context.
+     */
+    @Query("""
+            select new de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizAttemptSelection(
+                a.completedAttempts, a.selectedQuestionIds)
+            from QuizAttempt a
+            where a.userId = :userId and a.quizId = :quizId
+            """)
+    Optional<QuizAttemptSelection> findSelection(@Param("userId") UUID userId, @Param("quizId") UUID quizId);
+
+    @Modifying
+    @Query("delete from QuizAttempt a where a.quizId in :quizIds")
+    void deleteAllByQuizIdIn(@Param("quizIds") Collection<UUID> quizIds);
+}
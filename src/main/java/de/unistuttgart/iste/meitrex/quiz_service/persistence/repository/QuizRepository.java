@@ -1,12 +1,169 @@
 package de.unistuttgart.iste.meitrex.quiz_service.persistence.repository;
 
-import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizGradingHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface QuizRepository extends JpaRepository<QuizEntity, UUID> {
 
+    /**
+     * The smallest UUID in the order of the database, precedes all assessment ids.
+     */
+    UUID FIRST_ASSESSMENT_ID = new UUID(0, 0);
+
+    /**
+     * Loads all quizzes with the given ids together with their question pools and all element collections
+     * of the questions in a fixed number of queries, independent of the number of quizzes and questions.
+     * <p>
+     * The quizzes and their question pools are loaded in a single query. Afterwards, each element collection
+     * is initialized by a separate fetch-join query over all loaded questions. Fetching every collection in one
+     * query is not possible as Hibernate cannot fetch multiple bags at once, and it would result in a cartesian product.
+     * <p>
+     * Quizzes that do not exist are omitted from the result, the order of the result is not defined.
+     *
+     * @param assessmentIds the ids of the quizzes to load
+     * @return the found quizzes with initialized question pools and element collections
+     */
+    default List<QuizEntity> findAllByIdWithQuestions(final Collection<UUID> assessmentIds) {
+        if (assessmentIds.isEmpty()) {
+            return List.of();
+        }
+
+        final List<QuizEntity> quizzes = findAllWithQuestionPoolByIdIn(assessmentIds);
+
+        final List<UUID> questionIds = quizzes.stream()
+                .flatMap(quiz -> quiz.getQuestionPool().stream())
+                .map(QuestionEntity::getItemId)
+                .toList();
+        if (questionIds.isEmpty()) {
+            return quizzes;
+        }
+
+        // the results of these queries are not needed, the queries initialize the collections of the
+        // question entities that are already part of the persistence context
+        fetchMultipleChoiceAnswers(questionIds);
+        fetchClozeElements(questionIds);
+        fetchClozeAdditionalWrongAnswers(questionIds);
+        fetchAssociationCorrectAssociations(questionIds);
+        fetchExactAnswerCorrectAnswers(questionIds);
+
+        return quizzes;
+    }
+
+    @Query("select q from Quiz q left join fetch q.questionPool where q.assessmentId in :assessmentIds")
+    List<QuizEntity> findAllWithQuestionPoolByIdIn(@Param("assessmentIds") Collection<UUID> assessmentIds);
+
+    @Query("select q from MultipleChoiceQuestion q left join fetch q.answers where q.itemId in :questionIds")
+    List<MultipleChoiceQuestionEntity> fetchMultipleChoiceAnswers(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Query("select q from ClozeQuestion q left join fetch q.clozeElements where q.itemId in :questionIds")
+    List<ClozeQuestionEntity> fetchClozeElements(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Query("select q from ClozeQuestion q left join fetch q.additionalWrongAnswers where q.itemId in :questionIds")
+    List<ClozeQuestionEntity> fetchClozeAdditionalWrongAnswers(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Query("select q from AssociationQuestion q left join fetch q.correctAssociations where q.itemId in :questionIds")
+    List<AssociationQuestionEntity> fetchAssociationCorrectAssociations(@Param("questionIds") Collection<UUID> questionIds);
+
+    @Query("select q from ExactAnswerQuestion q left join fetch q.correctAnswers where q.itemId in :questionIds")
+    List<ExactAnswerQuestionEntity> fetchExactAnswerCorrectAnswers(@Param("questionIds") Collection<UUID> questionIds);
+
+    /**
+     * Returns the ids of all questions in the question pools of the quizzes with the given ids, ordered by their
+     * number, without loading the quizzes or questions themselves.
+     */
+    @Query("select question.itemId from Quiz q join q.questionPool question where q.assessmentId in :assessmentIds order by question.number")
+    List<UUID> findQuestionIdsByAssessmentIdIn(@Param("assessmentIds") Collection<UUID> assessmentIds);
+
+    /**
+     * Returns the id of the question with the given number in the question pool of the given quiz,
+     * without loading the quiz or its questions.
+     */
+    @Query("""
+            select question.itemId from Quiz q join q.questionPool question
+            where q.assessmentId = :assessmentId and question.number = :number
+            """)
+    Optional<UUID> findQuestionIdByNumber(@Param("assessmentId") UUID assessmentId, @Param("number") int number);
+
+    /**
+     * Increments the version of the quiz without loading it,
+     * used for modifications that are applied with set-based statements.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Quiz q set q.version = q.version + 1 where q.assessmentId = :assessmentId")
+    void incrementVersion(@Param("assessmentId") UUID assessmentId);
+
+    /**
+     * Removes all questions from the question pools of the given quizzes, without deleting the questions.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from quiz_question_pool where quiz_assessment_id in :assessmentIds", nativeQuery = true)
+    void deleteQuestionPoolsByAssessmentIdIn(@Param("assessmentIds") Collection<UUID> assessmentIds);
+
+    /**
+     * Deletes the given quizzes with a single statement, without loading them.
+     * Their question pools must already be deleted, see {@link #deleteQuestionPoolsByAssessmentIdIn}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from quiz where assessment_id in :assessmentIds", nativeQuery = true)
+    void deleteQuizRowsByAssessmentIdIn(@Param("assessmentIds") Collection<UUID> assessmentIds);
+
+    /**
+     * Returns the ids of the quizzes of the given course that follow the given id, ordered by id,
+     * without loading the quizzes themselves. Used to page through the quizzes of a course by id.
+     *
+     * @param courseId the id of the course
+     * @param after    the last id of the previous page, use {@link #FIRST_ASSESSMENT_ID} for the first page
+     * @param limit    the maximum number of ids
+     */
+    @Query("select q.assessmentId from Quiz q where q.courseId = :courseId and q.assessmentId > :after order by q.assessmentId")
+    List<UUID> findAssessmentIdsByCourseIdAfter(@Param("courseId") UUID courseId, @Param("after") UUID after, Limit limit);
+
+    /**
+     * Returns the scalar fields and the current versions of the quizzes with the given ids and the current
+     * attempts of the given user, without loading the quizzes themselves or their questions.
+     * Quizzes that do not exist are omitted from the result.
+     */
+    @Query("""
+            select new de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader(
+                q.assessmentId, q.courseId, q.requiredCorrectAnswers, q.questionPoolingMode,
+                q.numberOfRandomlySelectedQuestions, q.version, coalesce(a.completedAttempts, 0L), a.selectedQuestionIds)
+            from Quiz q
+            left join QuizAttempt a on a.quizId = q.assessmentId and a.userId = :userId
+            where q.assessmentId in :assessmentIds
+            """)
+    List<QuizHeader> findHeadersByAssessmentIdIn(@Param("assessmentIds") Collection<UUID> assessmentIds,
+                                                 @Param("userId") UUID userId);
+
+    /**
+     * Returns the fields of the quiz with the given id that are needed to score a quiz completion,
+     * without loading the quiz or its questions.
+     */
+    @Query("""
+            select new de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizGradingHeader(
+                q.assessmentId, q.courseId, q.requiredCorrectAnswers, q.questionPoolingMode, q.numberOfRandomlySelectedQuestions,
+                q.version)
+            from Quiz q
+            where q.assessmentId = :assessmentId
+            """)
+    Optional<QuizGradingHeader> findGradingHeaderById(@Param("assessmentId") UUID assessmentId);
+
+    /**
+     * Returns the current version of the quiz with the given id, used to detect stale cached answer keys.
+     */
+    @Query("select q.version from Quiz q where q.assessmentId = :assessmentId")
+    Optional<Long> findVersionById(@Param("assessmentId") UUID assessmentId);
+
 }
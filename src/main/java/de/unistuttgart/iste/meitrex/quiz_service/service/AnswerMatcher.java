@@ -0,0 +1,226 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Matches text answers against a fixed set of accepted answers, tolerating differences in whitespace, case,
+ * spelling variants and typos, depending on the options.
+ * <p>
+ * The accepted answers are normalized once when the matcher is compiled. Exact matches of the normalized answer are
+ * found with a hash lookup. If typos are tolerated, the accepted answers are additionally stored in a trie, which is
+ * searched with the rows of the Levenshtein distance matrix: every branch of the trie is abandoned as soon as the
+ * distance of its prefix exceeds the maximum edit distance. Accepted answers with a common prefix therefore share
+ * the work, and answers that differ early are never compared completely.
+ * <p>
+ * Matchers are immutable and thread-safe.
+ */
+public final class AnswerMatcher {
+
+    /**
+     * The highest maximum edit distance that can be configured for a question.
+     */
+    public static final int MAX_EDIT_DISTANCE = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final Options options;
+    private final Set<String> acceptedAnswers;
+    private final TrieNode trie;
+
+    private AnswerMatcher(final Options options, final Set<String> acceptedAnswers, final TrieNode trie) {
+        this.options = options;
+        this.acceptedAnswers = acceptedAnswers;
+        this.trie = trie;
+    }
+
+    /**
+     * Compiles a matcher for the given accepted answers.
+     *
+     * @param acceptedAnswers the accepted answers, as entered by the author of the question
+     * @param options         the matching options
+     * @return the compiled matcher
+     */
+    public static AnswerMatcher compile(final Collection<String> acceptedAnswers, final Options options) {
+        final Set<String> normalizedAnswers = new HashSet<>();
+        for (final String acceptedAnswer : acceptedAnswers) {
+            normalizedAnswers.add(normalize(acceptedAnswer, options));
+        }
+
+        TrieNode trie = null;
+        if (options.maximumEditDistance() > 0) {
+            final TrieNode.Builder builder = new TrieNode.Builder();
+            normalizedAnswers.forEach(builder::add);
+            trie = builder.build();
+        }
+        return new AnswerMatcher(options, Set.copyOf(normalizedAnswers), trie);
+    }
+
+    /**
+     * @param answer the answer of the user
+     * @return true if the normalized answer has at most the maximum edit distance to one of the accepted answers
+     */
+    public boolean matches(final String answer) {
+        final String normalizedAnswer = normalize(answer, options);
+        if (acceptedAnswers.contains(normalizedAnswer)) {
+            return true;
+        }
+        if (trie == null) {
+            return false;
+        }
+
+        final int[] firstRow = new int[normalizedAnswer.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        for (int i = 0; i < trie.labels.length; i++) {
+            if (searchWithinDistance(trie.children[i], trie.labels[i], normalizedAnswer, firstRow)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the next row of the Levenshtein distance matrix for the given trie node and descends into its
+     * children while the distance can still be within the maximum edit distance.
+     */
+    private boolean searchWithinDistance(final TrieNode node, final char label, final String answer, final int[] previousRow) {
+        final int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int minimumDistance = row[0];
+
+        for (int i = 1; i < row.length; i++) {
+            final int substitutionCost = answer.charAt(i - 1) == label ? 0 : 1;
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), previousRow[i - 1] + substitutionCost);
+            minimumDistance = Math.min(minimumDistance, row[i]);
+        }
+
+        if (node.terminal && row[row.length - 1] <= options.maximumEditDistance()) {
+            return true;
+        }
+        if (minimumDistance > options.maximumEditDistance()) {
+            return false;
+        }
+        for (int i = 0; i < node.labels.length; i++) {
+            if (searchWithinDistance(node.children[i], node.labels[i], answer, row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normalizes an answer: trims it and collapses all whitespace to single spaces, converts it to lower case unless
+     * the options are case-sensitive, and replaces spelling variants if the options ignore them.
+     *
+     * @param text    the answer
+     * @param options the matching options
+     * @return the normalized answer
+     */
+    public static String normalize(final String text, final Options options) {
+        String result = text;
+        if (options.ignoreSpellingVariants()) {
+            result = replaceSpellingVariants(result);
+        }
+
+        final StringBuilder normalized = new StringBuilder(result.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < result.length(); i++) {
+            final char c = result.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = !normalized.isEmpty();
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(options.caseSensitive() ? c : Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Replaces German umlauts and the sharp s by their common transcriptions, e.g., "Mueller" for "Müller",
+     * and removes all other diacritics, e.g., "Pere" for "Père".
+     */
+    private static String replaceSpellingVariants(final String text) {
+        final StringBuilder replaced = new StringBuilder(text.length() + 4);
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case 'ä' -> replaced.append("ae");
+                case 'ö' -> replaced.append("oe");
+                case 'ü' -> replaced.append("ue");
+                case 'Ä' -> replaced.append("Ae");
+                case 'Ö' -> replaced.append("Oe");
+                case 'Ü' -> replaced.append("Ue");
+                case 'ß' -> replaced.append("ss");
+                default -> replaced.append(c);
+            }
+        }
+        return COMBINING_MARKS.matcher(Normalizer.normalize(replaced, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Options of the matching of a question.
+     *
+     * @param caseSensitive          whether the case of the answer must match
+     * @param ignoreSpellingVariants whether umlauts may be transcribed and diacritics may be omitted
+     * @param maximumEditDistance    the maximum number of inserted, deleted or substituted characters,
+     *                               between 0 and {@link #MAX_EDIT_DISTANCE}
+     */
+    public record Options(boolean caseSensitive, boolean ignoreSpellingVariants, int maximumEditDistance) {
+
+        public static final Options EXACT = new Options(true, false, 0);
+
+        public Options {
+            if (maximumEditDistance < 0 || maximumEditDistance > MAX_EDIT_DISTANCE) {
+                throw new IllegalArgumentException("The maximum edit distance must be between 0 and "
+                                                   + MAX_EDIT_DISTANCE + ", but was " + maximumEditDistance);
+            }
+        }
+    }
+
+    /**
+     * Node of the trie of the accepted answers. The children are stored in arrays, sorted by their label.
+     */
+    private static final class TrieNode {
+        private final char[] labels;
+        private final TrieNode[] children;
+        private final boolean terminal;
+
+        private TrieNode(final char[] labels, final TrieNode[] children, final boolean terminal) {
+            this.labels = labels;
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        private static final class Builder {
+            private final SortedMap<Character, Builder> children = new TreeMap<>();
+            private boolean terminal;
+
+            void add(final String word) {
+                Builder node = this;
+                for (int i = 0; i < word.length(); i++) {
+                    node = node.children.computeIfAbsent(word.charAt(i), c -> new Builder());
+                }
+                node.terminal = true;
+            }
+
+            TrieNode build() {
+                final char[] labels = new char[children.size()];
+                final TrieNode[] builtChildren = new TrieNode[children.size()];
+                int i = 0;
+                for (final Map.Entry<Character, Builder> child : children.entrySet()) {
+                    labels[i] = child.getKey();
+                    builtChildren[i] = child.getValue().build();
+                    i++;
+                }
+                return new TrieNode(labels, builtChildren, terminal);
+            }
+        }
+    }
+}
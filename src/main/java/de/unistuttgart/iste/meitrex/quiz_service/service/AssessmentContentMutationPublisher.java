@@ -0,0 +1,125 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.AssessmentContentMutatedEvent;
+import de.unistuttgart.iste.meitrex.common.event.AssessmentType;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Publishes {@link AssessmentContentMutatedEvent}s for modified quizzes, coalescing bursts of modifications.
+ * <p>
+ * Every modification stores a pending event for the quiz in the {@link EventOutbox}, in the modifying transaction,
+ * so no events are published for rolled back modifications and no event is lost if the application stops.
+ * The event is due after the configured quiet window. Every further modification within the window postpones
+ * the pending event instead of storing a new one, so e.g. reordering many questions results in a single event.
+ * To guarantee that events are published eventually even if a quiz is modified continuously, an event is never
+ * delayed longer than the configured maximum delay. A quiet window of zero makes every event due immediately.
+ * <p>
+ * The event content, i.e., the task information, is generated by the {@link OutboxRelay} when the event is
+ * published, from the then-current state of the quiz, see {@link #createEvent}. If the quiz was deleted in the
+ * meantime, no event is published.
+ */
+@Slf4j
+@Component
+public class AssessmentContentMutationPublisher {
+
+    private static final String METRIC_NAME = "quiz_service.assessment_content_mutated.events";
+
+    private final QuizRepository quizRepository;
+    private final TaskInformationGenerator taskInformationGenerator;
+    private final EventOutbox eventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration quietWindow;
+    private final Duration maxDelay;
+
+    private final Counter publishedCounter;
+    private final Counter suppressedCounter;
+
+    public AssessmentContentMutationPublisher(
+            final QuizRepository quizRepository,
+            final TaskInformationGenerator taskInformationGenerator,
+            final EventOutbox eventOutbox,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            @Value("${quiz_service.assessment-content-mutated.quiet-window:PT2S}") final Duration quietWindow,
+            @Value("${quiz_service.assessment-content-mutated.max-delay:PT30S}") final Duration maxDelay) {
+        this.quizRepository = quizRepository;
+        this.taskInformationGenerator = taskInformationGenerator;
+        this.eventOutbox = eventOutbox;
+        // the event is generated by the relay, never as part of another transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.quietWindow = quietWindow;
+        this.maxDelay = maxDelay;
+
+        this.publishedCounter = Counter.builder(METRIC_NAME)
+                .tag("result", "published")
+                .description("AssessmentContentMutatedEvents that were published")
+                .register(meterRegistry);
+        this.suppressedCounter = Counter.builder(METRIC_NAME)
+                .tag("result", "suppressed")
+                .description("AssessmentContentMutatedEvents that were coalesced into a pending event")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a pending event for the quiz with the given id in the current transaction,
+     * or postpones the pending event of the quiz, see {@link EventOutbox#scheduleAssessmentContentMutated}.
+     *
+     * @param assessmentId the id of the modified quiz
+     */
+    public void scheduleEvent(final UUID assessmentId) {
+        if (eventOutbox.scheduleAssessmentContentMutated(assessmentId, quietWindow, maxDelay)) {
+            suppressedCounter.increment();
+        }
+    }
+
+    /**
+     * Generates the event for the quiz with the given id from its current state, in a new transaction.
+     * The generated task information is stored, see {@link TaskInformationGenerator}.
+     *
+     * @param assessmentId the id of the quiz
+     * @return the event, or empty if the quiz was deleted
+     */
+    public Optional<AssessmentContentMutatedEvent> createEvent(final UUID assessmentId) {
+        final Optional<AssessmentContentMutatedEvent> event = transactionTemplate.execute(status -> {
+            final List<QuizEntity> quizzes = quizRepository.findAllByIdWithQuestions(List.of(assessmentId));
+            if (quizzes.isEmpty()) {
+                return Optional.empty();
+            }
+            final QuizEntity quiz = quizzes.get(0);
+            return Optional.of(new AssessmentContentMutatedEvent(
+                    quiz.getCourseId(),
+                    quiz.getAssessmentId(),
+                    AssessmentType.QUIZ,
+                    taskInformationGenerator.generateTaskInformation(quiz)));
+        });
+
+        if (event == null || event.isEmpty()) {
+            log.debug("Quiz {} was deleted before its AssessmentContentMutatedEvent was published", assessmentId);
+            return Optional.empty();
+        }
+        return event;
+    }
+
+    /**
+     * Counts a published event. Called by the {@link OutboxRelay} after the event was handed to the topic publisher
+     * successfully, so events whose publication failed and is retried are not counted.
+     */
+    public void recordPublished() {
+        publishedCounter.increment();
+    }
+}
@@ -0,0 +1,213 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.exception.IncompleteEventMessageException;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.ProcessedCloudEventEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.ProcessedCloudEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the handlers of the events that are received from Dapr pub/sub topics.
+ * <p>
+ * The handlers run on a dedicated thread pool with a fixed number of threads and a bounded queue, instead of the
+ * request threads. If the queue is full, the event is rejected right away, so Dapr redelivers it later instead of
+ * piling up blocked requests.
+ * <p>
+ * Every event is processed in a single transaction together with a {@link ProcessedCloudEventEntity} for its
+ * CloudEvent id. Redeliveries of an event that was already processed are recognized by the id and skipped.
+ * If the handler fails, the transaction is rolled back, so a redelivery processes the event again.
+ * The ids are kept for the configured retention period, which must be longer than the redelivery window of Dapr.
+ */
+@Slf4j
+@Component
+public class CloudEventProcessor {
+
+    private static final String METRIC_PREFIX = "quiz_service.pubsub.";
+
+    private final ProcessedCloudEventRepository processedCloudEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration retention;
+
+    private final ThreadPoolExecutor executor;
+
+    public CloudEventProcessor(
+            final ProcessedCloudEventRepository processedCloudEventRepository,
+            final TransactionTemplate transactionTemplate,
+            final MeterRegistry meterRegistry,
+            @Value("${quiz_service.pubsub.concurrency:4}") final int concurrency,
+            @Value("${quiz_service.pubsub.queue-capacity:100}") final int queueCapacity,
+            @Value("${quiz_service.pubsub.processed-event-retention:P7D}") final Duration retention) {
+        this.processedCloudEventRepository = processedCloudEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "pubsub-handler-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder(METRIC_PREFIX + "queue.size", executor, pool -> pool.getQueue().size())
+                .description("Received events waiting for a handler thread")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Events that are being processed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the processing of an event.
+     *
+     * @param topic   the topic the event was received from, used for the metrics
+     * @param eventId the id of the CloudEvent, or null if the event has no id, in which case redeliveries
+     *                are not recognized
+     * @param handler the handler of the event, runs in the transaction of the event
+     * @return the result of the processing, completed when the handler finished or the event was rejected
+     */
+    public CompletableFuture<Result> process(final String topic, final String eventId, final EventHandler handler) {
+        final long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                final Result result = processInTransaction(topic, eventId, handler);
+                handlerTimer(topic, result).record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return result;
+            }, executor);
+        } catch (final RejectedExecutionException e) {
+            log.warn("Rejected event {} of topic {}, too many events are being processed", eventId, topic);
+            handlerTimer(topic, Result.REJECTED).record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            return CompletableFuture.completedFuture(Result.REJECTED);
+        }
+    }
+
+    private Result processInTransaction(final String topic, final String eventId, final EventHandler handler) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (eventId != null && processedCloudEventRepository.existsById(eventId)) {
+                    log.info("Skipping event {} of topic {}, it was already processed", eventId, topic);
+                    return Result.DUPLICATE;
+                }
+
+                try {
+                    handler.handle();
+                } catch (final Exception e) {
+                    throw new HandlerException(e);
+                }
+
+                if (eventId != null) {
+                    processedCloudEventRepository.save(ProcessedCloudEventEntity.builder()
+                            .eventId(eventId)
+                            .topic(topic)
+                            .processedAt(OffsetDateTime.now())
+                            .build());
+                }
+                return Result.PROCESSED;
+            });
+        } catch (final HandlerException e) {
+            if (e.getCause() instanceof IncompleteEventMessageException) {
+                log.error("Dropping incomplete event {} of topic {}: {}", eventId, topic, e.getCause().getMessage());
+                return Result.DROPPED;
+            }
+            log.error("Failed to process event {} of topic {}", eventId, topic, e.getCause());
+            return Result.FAILED;
+        } catch (final Exception e) {
+            // e.g., a concurrent redelivery of the same event was committed first
+            log.error("Failed to process event {} of topic {}", eventId, topic, e);
+            return Result.FAILED;
+        }
+    }
+
+    /**
+     * Deletes the ids of the processed events that are older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${quiz_service.pubsub.cleanup-interval:PT1H}")
+    public void deleteExpiredProcessedEvents() {
+        final Integer deleted = transactionTemplate.execute(status ->
+                processedCloudEventRepository.deleteProcessedBefore(OffsetDateTime.now().minus(retention)));
+        log.debug("Deleted {} expired processed events", deleted);
+    }
+
+    /**
+     * Stops accepting events and waits for the events that are being processed.
+     * Queued events that are not processed until then are redelivered by Dapr.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private Timer handlerTimer(final String topic, final Result result) {
+        return Timer.builder(METRIC_PREFIX + "handler")
+                .tag("topic", topic)
+                .tag("result", result.name().toLowerCase())
+                .description("Time from receiving an event until its processing finished, including the queueing time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Handler of a received event.
+     */
+    @FunctionalInterface
+    public interface EventHandler {
+        void handle() throws Exception;
+    }
+
+    /**
+     * The result of processing an event.
+     */
+    public enum Result {
+        /**
+         * The event was processed successfully.
+         */
+        PROCESSED,
+        /**
+         * The event was already processed before and was skipped.
+         */
+        DUPLICATE,
+        /**
+         * The event is incomplete and can never be processed.
+         */
+        DROPPED,
+        /**
+         * The handler failed, the event should be redelivered.
+         */
+        FAILED,
+        /**
+         * The event was not processed because too many events are being processed, it should be redelivered.
+         */
+        REJECTED
+    }
+
+    /**
+     * Carries the exception of a handler through the transaction template.
+     */
+    private static class HandlerException extends RuntimeException {
+        HandlerException(final Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.unistuttgart.iste.meitrex.common.event.AssessmentContentMutatedEvent;
+import de.unistuttgart.iste.meitrex.common.event.ContentProgressedEvent;
+import de.unistuttgart.iste.meitrex.common.event.CrudOperation;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.OutboxEventEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.OutboxEventEntity.EventType;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.OutboxEventRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional outbox for the events of this service. Offers the same operations as the
+ * {@link de.unistuttgart.iste.meitrex.common.dapr.TopicPublisher}, but instead of publishing the events directly,
+ * they are stored in the outbox table in the current transaction. This way, events are only published if the
+ * transaction is committed, and no Dapr call is made while the transaction holds database connections and locks.
+ * <p>
+ * The events are published asynchronously by the {@link OutboxRelay}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class EventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stores a pending {@link AssessmentContentMutatedEvent} for the given quiz, due after the quiet window.
+     * If an event for the quiz is already pending, it is postponed instead, but not later than the maximum delay
+     * after it was stored. The event itself is generated when it is published, see
+     * {@link AssessmentContentMutationPublisher#createEvent}.
+     *
+     * @param assessmentId the id of the modified quiz
+     * @param quietWindow  the delay of the event after the modification
+     * @param maxDelay     the maximum delay of the event after the first modification
+     * @return true if the modification was coalesced into an already pending event
+     */
+    public boolean scheduleAssessmentContentMutated(final UUID assessmentId,
+                                                    final Duration quietWindow,
+                                                    final Duration maxDelay) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        final OffsetDateTime dueAt = now.plus(quietWindow);
+        if (outboxEventRepository.postponeCoalescedEvent(assessmentId, dueAt, maxDelay.toMillis() / 1000.0) > 0) {
+            return true;
+        }
+        outboxEventRepository.insertCoalescedEvent(UUID.randomUUID(), EventType.ASSESSMENT_CONTENT_MUTATED.name(),
+                assessmentId.toString(), assessmentId, now, dueAt);
+        return false;
+    }
+
+    public void notifyItemChanges(final UUID itemId, final CrudOperation operation) {
+        add(EventType.ITEM_CHANGED, new ItemChangedEvent(itemId, operation));
+    }
+
+    /**
+     * Stores the changes of all given items as a single event, instead of one event per item.
+     * Nothing is stored if no item ids are given.
+     */
+    public void notifyItemsChanged(final Collection<UUID> itemIds, final CrudOperation operation) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        add(EventType.ITEMS_CHANGED, new ItemsChangedEvent(List.copyOf(itemIds), operation));
+    }
+
+    public void notifyUserWorkedOnContent(final ContentProgressedEvent event) {
+        add(EventType.USER_WORKED_ON_CONTENT, event);
+    }
+
+    private void add(final EventType eventType, final Object event) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        outboxEventRepository.save(OutboxEventEntity.builder()
+                .eventType(eventType)
+                .payload(serialize(event))
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+
+    private String serialize(final Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException("Event could not be serialized: " + event, e);
+        }
+    }
+
+    /**
+     * Payload of an {@link EventType#ITEM_CHANGED} event, the arguments of
+     * {@link de.unistuttgart.iste.meitrex.common.dapr.TopicPublisher#notifyItemChanges(UUID, CrudOperation)}.
+     */
+    record ItemChangedEvent(UUID itemId, CrudOperation operation) {
+    }
+
+    /**
+     * Payload of an {@link EventType#ITEMS_CHANGED} event.
+     */
+    record ItemsChangedEvent(List<UUID> itemIds, CrudOperation operation) {
+    }
+}
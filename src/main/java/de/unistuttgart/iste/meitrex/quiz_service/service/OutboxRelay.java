@@ -0,0 +1,233 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.unistuttgart.iste.meitrex.common.dapr.TopicPublisher;
+import de.unistuttgart.iste.meitrex.common.event.AssessmentContentMutatedEvent;
+import de.unistuttgart.iste.meitrex.common.event.ContentProgressedEvent;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.OutboxEventEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.OutboxStatus;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the events of the {@link EventOutbox} to Dapr.
+ * <p>
+ * The relay runs periodically and publishes due events in batches, oldest first. Published events are deleted
+ * from the outbox. If publishing an event fails, it is retried with exponential backoff, starting with the
+ * initial backoff and doubling after every failed attempt up to the maximum backoff.
+ * Events are delivered at least once: if the application stops after publishing an event but before the deletion
+ * is committed, the event is published again. Events are not ordered strictly if an event has to be retried.
+ * <p>
+ * Every batch is claimed in a short transaction: the due events are locked with {@code FOR UPDATE SKIP LOCKED}
+ * and marked as claimed for the claim duration, so multiple instances of the service can run the relay
+ * concurrently without publishing the same event twice. The events are published outside of any transaction,
+ * so a slow broker does not hold database connections or locks. Afterward, every event is deleted or its failure
+ * is recorded in another short transaction. Events of a relay that stopped are claimed again after the claim
+ * expired.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String METRIC_PREFIX = "quiz_service.outbox.";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TopicPublisher topicPublisher;
+    private final ObjectMapper objectMapper;
+    private final AssessmentContentMutationPublisher assessmentContentMutationPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimDuration;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(
+            final OutboxEventRepository outboxEventRepository,
+            final TopicPublisher topicPublisher,
+            final ObjectMapper objectMapper,
+            final AssessmentContentMutationPublisher assessmentContentMutationPublisher,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            @Value("${quiz_service.outbox.batch-size:100}") final int batchSize,
+            @Value("${quiz_service.outbox.claim-duration:PT1M}") final Duration claimDuration,
+            @Value("${quiz_service.outbox.initial-backoff:PT1S}") final Duration initialBackoff,
+            @Value("${quiz_service.outbox.max-backoff:PT5M}") final Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.topicPublisher = topicPublisher;
+        this.objectMapper = objectMapper;
+        this.assessmentContentMutationPublisher = assessmentContentMutationPublisher;
+        // claims and results are committed independently of any transaction of the caller
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.claimDuration = claimDuration;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        this.publishedCounter = Counter.builder(METRIC_PREFIX + "events")
+                .tag("result", "published")
+                .description("Outbox events that were published")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + "events")
+                .tag("result", "failed")
+                .description("Failed attempts to publish an outbox event")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events that were not published yet")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "lag.seconds", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest outbox event that was not published yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes all due events, batch by batch, until no due event is left or a batch contained failures.
+     */
+    @Scheduled(fixedDelayString = "${quiz_service.outbox.relay-interval:PT1S}")
+    public void relayPendingEvents() {
+        boolean continueRelaying = true;
+        while (continueRelaying) {
+            continueRelaying = relayBatch();
+        }
+        updateStatusMetrics();
+    }
+
+    /**
+     * @return true if the batch was full and all of its events were published, i.e., more events may be due
+     */
+    private boolean relayBatch() {
+        final List<OutboxEventEntity> events = transactionTemplate.execute(status -> claimDueEvents());
+        if (events == null) {
+            return false;
+        }
+
+        boolean allPublished = true;
+        for (final OutboxEventEntity event : events) {
+            allPublished &= relay(event);
+        }
+        return allPublished && events.size() == batchSize;
+    }
+
+    private List<OutboxEventEntity> claimDueEvents() {
+        final OffsetDateTime now = OffsetDateTime.now();
+        final List<OutboxEventEntity> events = outboxEventRepository.lockDueEvents(now, batchSize);
+        for (final OutboxEventEntity event : events) {
+            event.setClaimedUntil(now.plus(claimDuration));
+        }
+        return events;
+    }
+
+    /**
+     * Publishes a claimed event outside of any transaction and stores the result.
+     *
+     * @return true if the event was published
+     */
+    private boolean relay(final OutboxEventEntity event) {
+        try {
+            publish(event);
+        } catch (final Exception e) {
+            log.warn("Failed to publish outbox event {} of type {}, attempt {}",
+                    event.getId(), event.getEventType(), event.getAttempts() + 1, e);
+            final int attempts = event.getAttempts() + 1;
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.recordFailedAttempt(
+                    event.getId(),
+                    attempts,
+                    OffsetDateTime.now().plus(backoff(attempts)),
+                    e.toString(),
+                    event.getPublishedItems()));
+            failedCounter.increment();
+            return false;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (outboxEventRepository.deletePublished(event.getId(), event.getRevision()) == 0) {
+                // the event was postponed while it was published, it is published again when it is due
+                outboxEventRepository.releaseClaim(event.getId());
+            }
+        });
+        publishedCounter.increment();
+        return true;
+    }
+
+    private void publish(final OutboxEventEntity event) throws JsonProcessingException {
+        switch (event.getEventType()) {
+            case ASSESSMENT_CONTENT_MUTATED -> {
+                final Optional<AssessmentContentMutatedEvent> assessmentContentMutatedEvent;
+                if (event.getCoalescingKey() == null) {
+                    // stored before events were coalesced in the outbox, the payload is the event itself
+                    assessmentContentMutatedEvent = Optional.of(
+                            objectMapper.readValue(event.getPayload(), AssessmentContentMutatedEvent.class));
+                } else {
+                    assessmentContentMutatedEvent
+                            = assessmentContentMutationPublisher.createEvent(event.getCoalescingKey());
+                }
+                if (assessmentContentMutatedEvent.isPresent()) {
+                    topicPublisher.notifyAssessmentContentMutated(assessmentContentMutatedEvent.get());
+                    assessmentContentMutationPublisher.recordPublished();
+                }
+            }
+            case ITEM_CHANGED -> {
+                final EventOutbox.ItemChangedEvent itemChangedEvent
+                        = objectMapper.readValue(event.getPayload(), EventOutbox.ItemChangedEvent.class);
+                topicPublisher.notifyItemChanges(itemChangedEvent.itemId(), itemChangedEvent.operation());
+            }
+            case ITEMS_CHANGED -> {
+                // subscribers expect one message per item, and the topic publisher has no batch operation.
+                // The progress is recorded, so a retry continues with the first item that was not published.
+                final EventOutbox.ItemsChangedEvent itemsChangedEvent
+                        = objectMapper.readValue(event.getPayload(), EventOutbox.ItemsChangedEvent.class);
+                final List<UUID> itemIds = itemsChangedEvent.itemIds();
+                for (int i = event.getPublishedItems(); i < itemIds.size(); i++) {
+                    topicPublisher.notifyItemChanges(itemIds.get(i), itemsChangedEvent.operation());
+                    event.setPublishedItems(i + 1);
+                }
+            }
+            case USER_WORKED_ON_CONTENT -> topicPublisher.notifyUserWorkedOnContent(
+                    objectMapper.readValue(event.getPayload(), ContentProgressedEvent.class));
+        }
+    }
+
+    /**
+     * @param attempts the number of failed attempts, at least 1
+     * @return the delay before the next attempt
+     */
+    Duration backoff(final int attempts) {
+        final int doublings = Math.min(attempts - 1, 30);
+        final Duration backoff = initialBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void updateStatusMetrics() {
+        try {
+            final OutboxStatus status = outboxEventRepository.getStatus();
+            pendingEvents.set(status.pendingEvents());
+            lagMillis.set(status.oldestCreatedAt() == null
+                    ? 0
+                    : Math.max(0, Duration.between(status.oldestCreatedAt(), OffsetDateTime.now()).toMillis()));
+        } catch (final Exception e) {
+            log.warn("Failed to update outbox metrics", e);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.ClozeElementType;
+import de.unistuttgart.iste.meitrex.generated.dto.SubmittedAnswerInput;
+import de.unistuttgart.iste.meitrex.generated.dto.SubmittedAssociationInput;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+
+import java.util.*;
+
+/**
+ * The precompiled answer key of a single question, used to grade the raw answers submitted by users.
+ * <p>
+ * Answer keys are immutable and do not reference the question entity, so they can be cached and shared between
+ * threads. Everything that does not depend on the submitted answer is done when the key is compiled with
+ * {@link #of(QuestionEntity)}, e.g., the correct answers of multiple choice questions are stored as bit set
+ * and the accepted answers of exact answer questions and cloze blanks are compiled to {@link AnswerMatcher}s.
+ * <p>
+ * Text answers are compared after trimming and collapsing whitespace. Exact answers are compared case-insensitively
+ * unless the question is case-sensitive, cloze blanks are always compared case-insensitively. Exact answers and cloze
+ * blanks additionally tolerate spelling variants and typos up to the maximum edit distance, if configured in the
+ * question.
+ */
+public sealed interface QuestionAnswerKey {
+
+    /**
+     * @return the id of the question
+     */
+    UUID questionId();
+
+    /**
+     * Grades a submitted answer. Fields of the answer that do not belong to the type of the question are ignored.
+     *
+     * @param answer the submitted answer
+     * @return whether the answer is correct, or an empty optional if the question cannot be graded by the service,
+     * i.e., for self-assessment questions
+     */
+    Optional<Boolean> grade(SubmittedAnswerInput answer);
+
+    /**
+     * @return whether submitted answers to the question can be graded by the service,
+     * false only for self-assessment questions
+     */
+    default boolean isGradable() {
+        return true;
+    }
+
+    /**
+     * Compiles the answer key of a question.
+     *
+     * @param question the question, with its element collections loaded
+     * @return the answer key of the question
+     */
+    static QuestionAnswerKey of(final QuestionEntity question) {
+        return switch (question) {
+            case MultipleChoiceQuestionEntity multipleChoice -> MultipleChoice.of(multipleChoice);
+            case ClozeQuestionEntity cloze -> Cloze.of(cloze);
+            case AssociationQuestionEntity association -> Association.of(association);
+            case ExactAnswerQuestionEntity exactAnswer -> ExactAnswer.of(exactAnswer);
+            case NumericQuestionEntity numeric -> Numeric.of(numeric);
+            case SelfAssessmentQuestionEntity selfAssessment -> new SelfAssessment(selfAssessment.getItemId());
+            default -> throw new IllegalArgumentException("Unknown question type: " + question.getClass());
+        };
+    }
+
+    /**
+     * Correct if exactly the correct answers are selected.
+     */
+    final class MultipleChoice implements QuestionAnswerKey {
+        private final UUID questionId;
+        private final int numberOfAnswers;
+        private final BitSet correctAnswers;
+
+        private MultipleChoice(final UUID questionId, final int numberOfAnswers, final BitSet correctAnswers) {
+            this.questionId = questionId;
+            this.numberOfAnswers = numberOfAnswers;
+            this.correctAnswers = correctAnswers;
+        }
+
+        static MultipleChoice of(final MultipleChoiceQuestionEntity question) {
+            final List<MultipleChoiceAnswerEmbeddable> answers = question.getAnswers();
+            final BitSet correctAnswers = new BitSet(answers.size());
+            for (int i = 0; i < answers.size(); i++) {
+                correctAnswers.set(i, answers.get(i).isCorrect());
+            }
+            return new MultipleChoice(question.getItemId(), answers.size(), correctAnswers);
+        }
+
+        @Override
+        public UUID questionId() {
+            return questionId;
+        }
+
+        @Override
+        public Optional<Boolean> grade(final SubmittedAnswerInput answer) {
+            final List<Integer> selectedAnswers = answer.getSelectedAnswers();
+            if (selectedAnswers == null || selectedAnswers.size() != correctAnswers.cardinality()) {
+                return Optional.of(false);
+            }
+            final BitSet selected = new BitSet(numberOfAnswers);
+            for (final int selectedAnswer : selectedAnswers) {
+                if (selectedAnswer < 0 || selectedAnswer >= numberOfAnswers) {
+                    return Optional.of(false);
+                }
+                selected.set(selectedAnswer);
+            }
+            return Optional.of(selected.equals(correctAnswers));
+        }
+    }
+
+    /**
+     * Correct if every blank is filled with its correct answer.
+     */
+    final class Cloze implements QuestionAnswerKey {
+        private final UUID questionId;
+        private final AnswerMatcher[] blankMatchers;
+
+        private Cloze(final UUID questionId, final AnswerMatcher[] blankMatchers) {
+            this.questionId = questionId;
+            this.blankMatchers = blankMatchers;
+        }
+
+        static Cloze of(final ClozeQuestionEntity question) {
+            final AnswerMatcher.Options options = new AnswerMatcher.Options(false,
+                    question.isIgnoreSpellingVariants(), question.getMaximumEditDistance());
+            return new Cloze(question.getItemId(), question.getClozeElements().stream()
+                    .filter(element -> element.getType() == ClozeElementType.BLANK)
+                    .map(element -> AnswerMatcher.compile(List.of(element.getCorrectAnswer()), options))
+                    .toArray(AnswerMatcher[]::new));
+        }
+
+        @Override
+        public UUID questionId() {
+            return questionId;
+        }
+
+        @Override
+        public Optional<Boolean> grade(final SubmittedAnswerInput answer) {
+            final List<String> blankAnswers = answer.getBlankAnswers();
+            if (blankAnswers == null || blankAnswers.size() != blankMatchers.length) {
+                return Optional.of(false);
+            }
+            for (int i = 0; i < blankMatchers.length; i++) {
+                if (!blankMatchers[i].matches(blankAnswers.get(i))) {
+                    return Optional.of(false);
+                }
+            }
+            return Optional.of(true);
+        }
+    }
+
+    /**
+     * Correct if exactly the correct associations are made, in any order.
+     */
+    final class Association implements QuestionAnswerKey {
+        private final UUID questionId;
+        private final Map<String, String> correctRightSideByLeftSide;
+
+        private Association(final UUID questionId, final Map<String, String> correctRightSideByLeftSide) {
+            this.questionId = questionId;
+            this.correctRightSideByLeftSide = correctRightSideByLeftSide;
+        }
+
+        static Association of(final AssociationQuestionEntity question) {
+            final Map<String, String> correctRightSideByLeftSide = new HashMap<>();
+            for (final AssociationEmbeddable association : question.getCorrectAssociations()) {
+                correctRightSideByLeftSide.put(normalize(association.getLeft()),
+                        normalize(association.getRight()));
+            }
+            return new Association(question.getItemId(), Map.copyOf(correctRightSideByLeftSide));
+        }
+
+        @Override
+        public UUID questionId() {
+            return questionId;
+        }
+
+        @Override
+        public Optional<Boolean> grade(final SubmittedAnswerInput answer) {
+            final List<SubmittedAssociationInput> associations = answer.getAssociations();
+            if (associations == null || associations.size() != correctRightSideByLeftSide.size()) {
+                return Optional.of(false);
+            }
+            final Set<String> associatedLeftSides = new HashSet<>();
+            for (final SubmittedAssociationInput association : associations) {
+                final String left = normalize(association.getLeft());
+                // every left side must be associated exactly once
+                if (!associatedLeftSides.add(left)
+                    || !normalize(association.getRight()).equals(correctRightSideByLeftSide.get(left))) {
+                    return Optional.of(false);
+                }
+            }
+            return Optional.of(true);
+        }
+
+        private static String normalize(final String text) {
+            return AnswerMatcher.normalize(text, AnswerMatcher.Options.EXACT);
+        }
+    }
+
+    /**
+     * Correct if the answer matches one of the accepted answers.
+     */
+    final class ExactAnswer implements QuestionAnswerKey {
+        private final UUID questionId;
+        private final AnswerMatcher matcher;
+
+        private ExactAnswer(final UUID questionId, final AnswerMatcher matcher) {
+            this.questionId = questionId;
+            this.matcher = matcher;
+        }
+
+        static ExactAnswer of(final ExactAnswerQuestionEntity question) {
+            return new ExactAnswer(question.getItemId(), AnswerMatcher.compile(question.getCorrectAnswers(),
+                    new AnswerMatcher.Options(question.isCaseSensitive(), question.isIgnoreSpellingVariants(),
+                            question.getMaximumEditDistance())));
+        }
+
+        @Override
+        public UUID questionId() {
+            return questionId;
+        }
+
+        @Override
+        public Optional<Boolean> grade(final SubmittedAnswerInput answer) {
+            return Optional.of(answer.getText() != null && matcher.matches(answer.getText()));
+        }
+    }
+
+    /**
+     * Correct if the answer lies within the tolerance around the correct answer, bounds included.
+     */
+    final class Numeric implements QuestionAnswerKey {
+        private final UUID questionId;
+        private final double lowerBound;
+        private final double upperBound;
+
+        private Numeric(final UUID questionId, final double lowerBound, final double upperBound) {
+            this.questionId = questionId;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+
+        static Numeric of(final NumericQuestionEntity question) {
+            final double tolerance = Math.abs(question.getTolerance());
+            return new Numeric(question.getItemId(),
+                    question.getCorrectAnswer() - tolerance,
+                    question.getCorrectAnswer() + tolerance);
+        }
+
+        @Override
+        public UUID questionId() {
+            return questionId;
+        }
+
+        @Override
+        public Optional<Boolean> grade(final SubmittedAnswerInput answer) {
+            final Double number = answer.getNumber();
+            return Optional.of(number != null && number >= lowerBound && number <= upperBound);
+        }
+    }
+
+    /**
+     * Self-assessment questions are assessed by the user, so they cannot be graded by the service.
+     */
+    record SelfAssessment(UUID questionId) implements QuestionAnswerKey {
+        @Override
+        public Optional<Boolean> grade(final SubmittedAnswerInput answer) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean isGradable() {
+            return false;
+        }
+    }
+}
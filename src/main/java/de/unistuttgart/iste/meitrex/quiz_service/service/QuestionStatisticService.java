@@ -0,0 +1,275 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionStatisticEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.UserQuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuestionStatisticAggregate;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizAttemptSelection;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.UserQuestionStatisticAggregate;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionAggregateRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionStatisticRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizAttemptRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the append-only log of answers to questions and the precomputed aggregates derived from it.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class QuestionStatisticService {
+
+    private final QuestionStatisticRepository questionStatisticRepository;
+    private final QuestionAggregateRepository questionAggregateRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+
+    /**
+     * Appends one statistic entry per completed question to the log
+     * and incrementally updates the precomputed aggregates of the questions.
+     * The entries are inserted in JDBC batches, the aggregates are updated with a single statement,
+     * see {@link QuestionAggregateRepository#addAttempts}.
+     * <p>
+     * The completed attempt of the user is not counted here, see {@link #addCompletedAttempt}.
+     *
+     * @param quizId             the id of the quiz the questions belong to
+     * @param userId             the id of the user who completed the questions
+     * @param completedQuestions the completed questions
+     */
+    public void logCompletedQuestions(final UUID quizId,
+                                      final UUID userId,
+                                      final List<QuestionCompletedInput> completedQuestions) {
+        final OffsetDateTime now = OffsetDateTime.now();
+
+        final List<QuestionStatisticEntity> statistics = completedQuestions.stream()
+                .map(completedQuestion -> QuestionStatisticEntity.builder()
+                        .questionId(completedQuestion.getQuestionId())
+                        .quizId(quizId)
+                        .userId(userId)
+                        .answeredCorrectly(completedQuestion.getCorrect())
+                        .createdAt(now)
+                        .build())
+                .toList();
+
+        questionStatisticRepository.saveAll(statistics);
+
+        addToAggregates(userId, completedQuestions);
+    }
+
+    /**
+     * Counts a completed attempt of the user for the quiz, so the next attempt is randomized differently
+     * and the selection stored for the completed attempt is discarded.
+     * This is a single-row upsert, so it is cheap enough to run on the request thread even if the statistics
+     * of the attempt are stored in the background.
+     *
+     * @param userId the id of the user who completed the quiz
+     * @param quizId the id of the quiz
+     */
+    public void addCompletedAttempt(final UUID userId, final UUID quizId) {
+        quizAttemptRepository.addCompletedAttempt(userId, quizId);
+    }
+
+    private void addToAggregates(final UUID userId, final List<QuestionCompletedInput> completedQuestions) {
+        if (completedQuestions.isEmpty()) {
+            return;
+        }
+        // one entry per question, a single upsert must not update a row twice. The order is deterministic,
+        // the statement itself sorts the rows in the order of the database
+        final SortedMap<UUID, int[]> attemptsByQuestionId = new TreeMap<>();
+        for (final QuestionCompletedInput completedQuestion : completedQuestions) {
+            final int[] attempts = attemptsByQuestionId.computeIfAbsent(completedQuestion.getQuestionId(),
+                    questionId -> new int[2]);
+            attempts[0]++;
+            if (Boolean.TRUE.equals(completedQuestion.getCorrect())) {
+                attempts[1]++;
+            }
+        }
+
+        final int size = attemptsByQuestionId.size();
+        final UUID[] questionIds = new UUID[size];
+        final Integer[] attempts = new Integer[size];
+        final Integer[] correctAttempts = new Integer[size];
+        int i = 0;
+        for (final Map.Entry<UUID, int[]> entry : attemptsByQuestionId.entrySet()) {
+            questionIds[i] = entry.getKey();
+            attempts[i] = entry.getValue()[0];
+            correctAttempts[i] = entry.getValue()[1];
+            i++;
+        }
+        questionAggregateRepository.addAttempts(userId, questionIds, attempts, correctAttempts);
+    }
+
+    /**
+     * Returns the precomputed aggregates of the given questions.
+     * In contrast to {@link #getAggregatesForQuestions(Collection)}, this does not scan the log
+     * but only reads one row per question.
+     * Questions that were never answered are not contained in the result.
+     *
+     * @param questionIds the ids of the questions
+     * @return the precomputed aggregates, by question id
+     */
+    public Map<UUID, QuestionAggregateEntity> getPrecomputedAggregates(final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return Map.of();
+        }
+        return questionAggregateRepository.findAllById(questionIds).stream()
+                .collect(Collectors.toMap(QuestionAggregateEntity::getQuestionId, Function.identity()));
+    }
+
+    /**
+     * Returns the aggregated statistics over all users for the given questions.
+     * Questions that were never answered are not contained in the result.
+     *
+     * @param questionIds the ids of the questions
+     * @return the aggregated statistics, by question id
+     */
+    public Map<UUID, QuestionStatisticAggregate> getAggregatesForQuestions(final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return Map.of();
+        }
+        return questionStatisticRepository.aggregateByQuestionIds(questionIds).stream()
+                .collect(Collectors.toMap(QuestionStatisticAggregate::questionId, Function.identity()));
+    }
+
+    /**
+     * Returns the aggregated statistics of a single user for the given questions.
+     * Questions that were never answered by the user are not contained in the result.
+     *
+     * @param userId      the id of the user
+     * @param questionIds the ids of the questions
+     * @return the aggregated statistics of the user, by question id
+     */
+    public Map<UUID, UserQuestionStatisticAggregate> getAggregatesForUser(final UUID userId,
+                                                                          final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return Map.of();
+        }
+        return questionStatisticRepository.aggregateByUserIdAndQuestionIds(userId, questionIds).stream()
+                .collect(Collectors.toMap(UserQuestionStatisticAggregate::questionId, Function.identity()));
+    }
+
+    /**
+     * Returns the weights of the given questions for the adaptive question selection of a user,
+     * see {@link #adaptiveWeight}. Only the precomputed aggregates of the questions and of the user are read,
+     * i.e., at most one row per question each.
+     *
+     * @param userId      the id of the user the questions are selected for
+     * @param questionIds the ids of the questions
+     * @return the weight of every given question, by question id
+     */
+    public Map<UUID, Double> getAdaptiveWeights(final UUID userId, final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return Map.of();
+        }
+        final Map<UUID, QuestionAggregateEntity> questionAggregates = getPrecomputedAggregates(questionIds);
+        final Map<UUID, UserQuestionAggregateEntity> userAggregates = questionAggregateRepository
+                .findUserAggregates(userId, questionIds).stream()
+                .collect(Collectors.toMap(UserQuestionAggregateEntity::getQuestionId, Function.identity()));
+
+        final Map<UUID, Double> weights = HashMap.newHashMap(questionIds.size());
+        for (final UUID questionId : questionIds) {
+            weights.put(questionId, adaptiveWeight(questionAggregates.get(questionId), userAggregates.get(questionId)));
+        }
+        return weights;
+    }
+
+    /**
+     * Calculates the weight of a question for the adaptive question selection, i.e., how much more likely the
+     * question is selected than a question with weight 1.
+     * <p>
+     * The weight is the product of the difficulty of the question over all users and the need of the user to
+     * practice it. Both are estimated from the share of correct attempts, with one correct and one wrong attempt
+     * added, so that questions without attempts are estimated as 0.5. The resulting weight lies between 0.25 for
+     * easy questions the user has mastered and 2.25 for hard questions the user always answered wrong.
+     *
+     * @param questionAggregate the aggregate of the question over all users, null if it was never answered
+     * @param userAggregate     the aggregate of the question for the user, null if the user never answered it
+     * @return the weight of the question, always positive
+     */
+    static double adaptiveWeight(final QuestionAggregateEntity questionAggregate,
+                                 final UserQuestionAggregateEntity userAggregate) {
+        final double difficulty = questionAggregate == null
+                ? 0.5
+                : 1 - smoothedCorrectRate(questionAggregate.getCorrectAttempts(), questionAggregate.getAttempts());
+        final double mastery = userAggregate == null
+                ? 0.5
+                : smoothedCorrectRate(userAggregate.getCorrectAttempts(), userAggregate.getAttempts());
+        return (0.5 + difficulty) * (1.5 - mastery);
+    }
+
+    private static double smoothedCorrectRate(final long correctAttempts, final long attempts) {
+        return (correctAttempts + 1.0) / (attempts + 2.0);
+    }
+
+    /**
+     * Deletes all statistics of the given questions, used when the questions are deleted.
+     *
+     * @param questionIds the ids of the deleted questions
+     */
+    public void deleteStatisticsOfQuestions(final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        questionStatisticRepository.deleteAllByQuestionIdIn(questionIds);
+        questionAggregateRepository.deleteAllUserAggregatesByQuestionIdIn(questionIds);
+        questionAggregateRepository.deleteAllByQuestionIdIn(questionIds);
+    }
+
+    /**
+     * Returns the current attempt of a user for a quiz, i.e., the number of completed attempts and the questions
+     * selected for the attempt the user currently works on.
+     *
+     * @param userId the id of the user
+     * @param quizId the id of the quiz
+     * @return the current attempt, empty if the user never completed the quiz and it was never shown to the user
+     * with stored selected questions
+     */
+    public Optional<QuizAttemptSelection> findCurrentAttempt(final UUID userId, final UUID quizId) {
+        return quizAttemptRepository.findSelection(userId, quizId);
+    }
+
+    /**
+     * Stores the questions selected for the current attempt of a user, so the attempt is shown and graded with the
+     * same questions. If questions were already selected for the attempt, e.g., by a concurrent request,
+     * the existing selection is kept and returned instead.
+     *
+     * @param userId              the id of the user
+     * @param quizId              the id of the quiz
+     * @param completedAttempts   the number of completed attempts the selection was computed for
+     * @param selectedQuestionIds the ids of the selected questions, in the order they are shown
+     * @return the selection of the attempt
+     */
+    public List<UUID> saveSelectedQuestionIds(final UUID userId,
+                                              final UUID quizId,
+                                              final long completedAttempts,
+                                              final List<UUID> selectedQuestionIds) {
+        if (quizAttemptRepository.saveSelectedQuestionIdsIfAbsent(userId, quizId, completedAttempts,
+                selectedQuestionIds.toArray(UUID[]::new)) == 1) {
+            return selectedQuestionIds;
+        }
+        // if the attempt was completed in the meantime, the selection is stored with the next attempt
+        return findCurrentAttempt(userId, quizId)
+                .filter(attempt -> attempt.completedAttempts() == completedAttempts)
+                .map(QuizAttemptSelection::selectedQuestionIds)
+                .orElse(selectedQuestionIds);
+    }
+
+    /**
+     * Deletes the completed attempts of all users for the given quizzes, used when the quizzes are deleted.
+     *
+     * @param quizIds the ids of the deleted quizzes
+     */
+    public void deleteAttemptsOfQuizzes(final Collection<UUID> quizIds) {
+        if (quizIds.isEmpty()) {
+            return;
+        }
+        quizAttemptRepository.deleteAllByQuizIdIn(quizIds);
+    }
+}
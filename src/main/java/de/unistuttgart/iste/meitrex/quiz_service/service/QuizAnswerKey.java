@@ -0,0 +1,205 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.ContentProgressedEvent;
+import de.unistuttgart.iste.meitrex.common.event.Response;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletionFeedback;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.SeededRandomization;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizGradingHeader;
+import jakarta.persistence.EntityNotFoundException;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static de.unistuttgart.iste.meitrex.common.util.MeitrexCollectionUtils.count;
+import static de.unistuttgart.iste.meitrex.common.util.MeitrexCollectionUtils.countAsInt;
+
+/**
+ * The part of a quiz that is needed to validate and score a quiz completion,
+ * without the contents of the questions.
+ *
+ * @param assessmentId                      the id of the quiz
+ * @param courseId                          the id of the course the quiz belongs to
+ * @param requiredCorrectAnswers            the number of correct answers required to pass the quiz
+ * @param questionPoolingMode               the question pooling mode of the quiz
+ * @param numberOfRandomlySelectedQuestions the number of randomly selected questions, may be null
+ * @param questionPoolSize                  the number of questions in the question pool
+ * @param questionIds                       the ids of all questions in the question pool
+ * @param questionPool                      the ids of all questions in the question pool, ordered by number,
+ *                                          used to recompute the selected questions of an attempt
+ * @param version                           the version of the quiz the answer key was created from,
+ *                                          see {@link QuizAnswerKeyCache}
+ */
+public record QuizAnswerKey(UUID assessmentId,
+                            UUID courseId,
+                            int requiredCorrectAnswers,
+                            QuestionPoolingMode questionPoolingMode,
+                            Integer numberOfRandomlySelectedQuestions,
+                            int questionPoolSize,
+                            Set<UUID> questionIds,
+                            List<UUID> questionPool,
+                            long version) {
+
+    /**
+     * Creates the answer key of a quiz from the grading projection of the quiz.
+     *
+     * @param header      the scalar fields of the quiz
+     * @param questionIds the ids of all questions in the question pool of the quiz, ordered by number
+     * @return the answer key of the quiz
+     */
+    public static QuizAnswerKey of(final QuizGradingHeader header, final List<UUID> questionIds) {
+        return new QuizAnswerKey(
+                header.assessmentId(),
+                header.courseId(),
+                header.requiredCorrectAnswers(),
+                header.questionPoolingMode(),
+                header.numberOfRandomlySelectedQuestions(),
+                questionIds.size(),
+                new HashSet<>(questionIds),
+                List.copyOf(questionIds),
+                header.version());
+    }
+
+    public static QuizAnswerKey of(final QuizEntity quizEntity) {
+        return new QuizAnswerKey(
+                quizEntity.getAssessmentId(),
+                quizEntity.getCourseId(),
+                quizEntity.getRequiredCorrectAnswers(),
+                quizEntity.getQuestionPoolingMode(),
+                quizEntity.getNumberOfRandomlySelectedQuestions(),
+                quizEntity.getQuestionPool().size(),
+                quizEntity.getQuestionPool().stream()
+                        .map(QuestionEntity::getItemId)
+                        .collect(Collectors.toSet()),
+                quizEntity.getQuestionPool().stream()
+                        .map(QuestionEntity::getItemId)
+                        .toList(),
+                quizEntity.getVersion());
+    }
+
+    /**
+     * Recomputes the questions that were selected for an attempt of a user, i.e., the questions the user was shown,
+     * with the same seed as {@link QuizService#findRandomizedQuizzes}. Only used if no selection was stored for
+     * the attempt, see {@link QuizService#findSelectedQuestionIds}.
+     *
+     * @param userId            the id of the user
+     * @param completedAttempts the number of completed attempts of the user before the graded attempt
+     * @param adaptiveWeights   the adaptive weights of the questions by id, only used in ADAPTIVE mode
+     * @return the ids of the selected questions
+     */
+    public Set<UUID> selectedQuestionIds(final UUID userId,
+                                         final long completedAttempts,
+                                         final Map<UUID, Double> adaptiveWeights) {
+        if (questionPoolingMode == QuestionPoolingMode.ORDERED) {
+            return questionIds;
+        }
+        return Set.copyOf(SeededRandomization.selectQuestions(questionPool,
+                questionPoolingMode,
+                numberOfRandomlySelectedQuestions,
+                questionId -> adaptiveWeights.getOrDefault(questionId, 1.0),
+                SeededRandomization.seed(userId, assessmentId, completedAttempts)));
+    }
+
+    /**
+     * Checks that all completed questions are part of the question pool of the quiz.
+     *
+     * @param completedQuestions the completed questions
+     * @throws EntityNotFoundException if a question is not part of the question pool
+     */
+    public void validateQuestionsExist(final List<QuestionCompletedInput> completedQuestions) {
+        for (final QuestionCompletedInput completedQuestion : completedQuestions) {
+            if (!questionIds.contains(completedQuestion.getQuestionId())) {
+                throw new EntityNotFoundException(MessageFormat.format(
+                        "Question with id {0} not found in quiz with id {1}.",
+                        completedQuestion.getQuestionId(), assessmentId));
+            }
+        }
+    }
+
+    /**
+     * Scores a quiz completion.
+     *
+     * @param input  the completion of the quiz
+     * @param userId the user that completed the quiz
+     * @return the feedback for the user and the progress event to publish
+     */
+    public GradedQuizCompletion grade(final QuizCompletedInput input, final UUID userId) {
+        // count the number of questions that were answered correctly
+        final long numbCorrectAnswers = count(input.getCompletedQuestions(), QuestionCompletedInput::getCorrect);
+
+        final boolean success = numbCorrectAnswers >= requiredCorrectAnswers;
+        final double correctness = calculateCorrectness(numbCorrectAnswers);
+        final int hintsUsed = countAsInt(input.getCompletedQuestions(), QuestionCompletedInput::getUsedHint);
+        final List<Response> responses = new ArrayList<>();
+        for (final QuestionCompletedInput question : input.getCompletedQuestions()) {
+            final float answer = question.getCorrect() ? 1 : 0;
+            responses.add(new Response(question.getQuestionId(), answer));
+        }
+
+        final ContentProgressedEvent userProgressLogEvent = ContentProgressedEvent.builder()
+                .userId(userId)
+                .contentId(assessmentId)
+                .hintsUsed(hintsUsed)
+                .success(success)
+                .timeToComplete(null)
+                .contentType(ContentProgressedEvent.ContentType.QUIZ)
+                .correctness(correctness)
+                .responses(responses)
+                .build();
+        final QuizCompletionFeedback feedback = QuizCompletionFeedback.builder()
+                .setSuccess(success)
+                .setCorrectness(correctness)
+                .setHintsUsed(hintsUsed)
+                .build();
+        return new GradedQuizCompletion(feedback, userProgressLogEvent);
+    }
+
+    /**
+     * Calculates the correctness value for the quiz
+     *
+     * @param correctAnswers number of correct answers
+     * @return calculated correctness value
+     */
+    public double calculateCorrectness(final double correctAnswers) {
+        if (correctAnswers == 0.0) {
+            // prevent division by zero
+            return correctAnswers;
+        }
+
+        // in RANDOM and ADAPTIVE mode, the number of questions is not the size of the question pool
+        // but the number of randomly selected questions
+        if (questionPoolingMode != QuestionPoolingMode.ORDERED && numberOfRandomlySelectedQuestions != null) {
+
+            if (numberOfRandomlySelectedQuestions == 0) {
+                // prevent division by zero
+                return 1.0;
+            }
+
+            return correctAnswers / numberOfRandomlySelectedQuestions;
+
+        } else if (questionPoolSize == 0) {
+            return 1.0;
+        } else {
+            return correctAnswers / questionPoolSize;
+        }
+    }
+
+    /**
+     * A scored quiz completion.
+     *
+     * @param feedback the feedback that is returned to the user
+     * @param event    the progress event that is published
+     */
+    public record GradedQuizCompletion(QuizCompletionFeedback feedback, ContentProgressedEvent event) {
+    }
+}
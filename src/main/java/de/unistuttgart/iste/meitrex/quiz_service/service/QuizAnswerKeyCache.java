@@ -0,0 +1,125 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of {@link QuizAnswerKey}s, keyed by assessment id.
+ * <p>
+ * Like in the {@link QuizDtoCache}, every entry stores the version of the quiz it was created from, and an entry is
+ * only returned if its version matches the current version of the quiz. Completions are therefore never scored
+ * against a stale answer key, even if the quiz was modified by another instance of the service. Looking up the
+ * version is a single-row query, the question pool is not read. Additionally, entries are invalidated after a
+ * transaction that modified or deleted a quiz on this instance is committed. The time to live only releases the
+ * memory of entries that are no longer used, it is not needed for correctness.
+ * <p>
+ * The compiled {@link QuestionAnswerKey}s of the questions of a quiz are cached separately, with the same bounds
+ * and versioned in the same way, because they require loading the questions and are only needed for completions
+ * with submitted answers.
+ * <p>
+ * Hit and miss rates, evictions, and the size are exposed as metrics under the names "quiz_answer_key_cache"
+ * and "question_answer_key_cache".
+ */
+@Component
+public class QuizAnswerKeyCache {
+
+    static final String CACHE_NAME = "quiz_answer_key_cache";
+    static final String QUESTION_CACHE_NAME = "question_answer_key_cache";
+
+    private final Cache<UUID, QuizAnswerKey> cache;
+    private final Cache<UUID, CachedQuestionAnswerKeys> questionAnswerKeyCache;
+
+    public QuizAnswerKeyCache(final MeterRegistry meterRegistry,
+                              @Value("${quiz_service.quiz-answer-key-cache.maximum-size:10000}") final long maximumSize,
+                              @Value("${quiz_service.quiz-answer-key-cache.time-to-live:PT30S}") final Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.questionAnswerKeyCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, questionAnswerKeyCache, QUESTION_CACHE_NAME);
+    }
+
+    public Optional<QuizAnswerKey> get(final UUID assessmentId) {
+        return Optional.ofNullable(cache.getIfPresent(assessmentId));
+    }
+
+    /**
+     * Returns the cached answer key of the quiz with the given id if it was created from the given version of the
+     * quiz, otherwise loads and caches the answer key.
+     * Exceptions of the loader are propagated and nothing is cached.
+     *
+     * @param assessmentId the id of the quiz
+     * @param version      the current version of the quiz
+     * @param loader       loads the answer key if it is not cached or outdated
+     * @return the answer key of the quiz
+     */
+    public QuizAnswerKey get(final UUID assessmentId,
+                             final long version,
+                             final Function<UUID, QuizAnswerKey> loader) {
+        final QuizAnswerKey cachedAnswerKey = cache.getIfPresent(assessmentId);
+        if (cachedAnswerKey != null && cachedAnswerKey.version() == version) {
+            return cachedAnswerKey;
+        }
+        final QuizAnswerKey answerKey = loader.apply(assessmentId);
+        cache.put(assessmentId, answerKey);
+        return answerKey;
+    }
+
+    /**
+     * Returns the cached answer keys of the questions of the quiz with the given id, keyed by question id,
+     * if they were cached for the given version of the quiz, otherwise loads and caches them.
+     * The loader is called after the version was looked up, so the loaded answer keys are at least as recent
+     * as the given version.
+     *
+     * @param assessmentId the id of the quiz
+     * @param version      the current version of the quiz
+     * @param loader       loads the answer keys if they are not cached or outdated
+     * @return the answer keys of the questions of the quiz
+     */
+    public Map<UUID, QuestionAnswerKey> getQuestionAnswerKeys(final UUID assessmentId,
+                                                             final long version,
+                                                             final Function<UUID, Map<UUID, QuestionAnswerKey>> loader) {
+        final CachedQuestionAnswerKeys cachedAnswerKeys = questionAnswerKeyCache.getIfPresent(assessmentId);
+        if (cachedAnswerKeys != null && cachedAnswerKeys.version() == version) {
+            return cachedAnswerKeys.answerKeys();
+        }
+        final Map<UUID, QuestionAnswerKey> answerKeys = loader.apply(assessmentId);
+        questionAnswerKeyCache.put(assessmentId, new CachedQuestionAnswerKeys(version, answerKeys));
+        return answerKeys;
+    }
+
+    public void put(final QuizAnswerKey answerKey) {
+        cache.put(answerKey.assessmentId(), answerKey);
+    }
+
+    public void invalidate(final UUID assessmentId) {
+        cache.invalidate(assessmentId);
+        questionAnswerKeyCache.invalidate(assessmentId);
+    }
+
+    public void invalidateAll(final Collection<UUID> assessmentIds) {
+        cache.invalidateAll(assessmentIds);
+        questionAnswerKeyCache.invalidateAll(assessmentIds);
+    }
+
+    private record CachedQuestionAnswerKeys(long version, Map<UUID, QuestionAnswerKey> answerKeys) {
+    }
+}
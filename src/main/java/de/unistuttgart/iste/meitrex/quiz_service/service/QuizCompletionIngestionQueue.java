@@ -0,0 +1,212 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.ContentProgressedEvent;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory queue of scored quiz completions whose statistics and progress events still have to be stored.
+ * <p>
+ * The queue, and with it the worker thread, only exists if {@code quiz_service.quiz-completion.mode} is set to
+ * {@link QuizCompletionService.IngestionMode#ASYNCHRONOUS}. In the default synchronous mode, completions are stored
+ * in the request transaction and no worker is started.
+ * <p>
+ * A background worker takes the completions from the queue and stores up to batch-size completions in a single
+ * transaction: the statistics are appended to the statistics log and the progress events are written to the
+ * {@link EventOutbox}. If a batch fails, its completions are retried one by one, so a single faulty completion
+ * does not discard the others. Completions that fail individually are logged and dropped.
+ * <p>
+ * Backpressure: if the queue is full, {@link #enqueue} blocks for at most the configured enqueue timeout and
+ * then rejects the completion, so the caller can report an error to the user instead of losing the completion
+ * silently.
+ * <p>
+ * Durability: the queue is lossy. Accepted completions only exist in memory until their batch is committed.
+ * On shutdown, the worker is stopped and all queued completions are stored before the application exits.
+ * If the process is killed or crashes, queued completions are lost, although the user already received
+ * the feedback.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "quiz_service.quiz-completion.mode", havingValue = "ASYNCHRONOUS")
+public class QuizCompletionIngestionQueue {
+
+    private static final String METRIC_PREFIX = "quiz_service.quiz_completion_queue.";
+
+    private final QuestionStatisticService questionStatisticService;
+    private final EventOutbox eventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+
+    private final BlockingQueue<QuizCompletion> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter storedCounter;
+    private final Counter failedCounter;
+
+    public QuizCompletionIngestionQueue(
+            final QuestionStatisticService questionStatisticService,
+            final EventOutbox eventOutbox,
+            final TransactionTemplate transactionTemplate,
+            final MeterRegistry meterRegistry,
+            @Value("${quiz_service.quiz-completion.queue.capacity:10000}") final int capacity,
+            @Value("${quiz_service.quiz-completion.queue.batch-size:100}") final int batchSize,
+            @Value("${quiz_service.quiz-completion.queue.enqueue-timeout:PT1S}") final Duration enqueueTimeout) {
+        this.questionStatisticService = questionStatisticService;
+        this.eventOutbox = eventOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.enqueueTimeout = enqueueTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.acceptedCounter = completionCounter(meterRegistry, "accepted", "Quiz completions that were queued");
+        this.rejectedCounter = completionCounter(meterRegistry, "rejected",
+                "Quiz completions that were rejected because the queue was full");
+        this.storedCounter = completionCounter(meterRegistry, "stored", "Quiz completions that were stored");
+        this.failedCounter = completionCounter(meterRegistry, "failed",
+                "Quiz completions that could not be stored and were dropped");
+        Gauge.builder(METRIC_PREFIX + "size", queue, BlockingQueue::size)
+                .description("Quiz completions waiting in the queue")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::processQueue, "quiz-completion-ingestion");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Adds a scored quiz completion to the queue, waiting for free space for at most the enqueue timeout.
+     *
+     * @param completion the completion to store
+     * @throws QueueFullException if the queue is still full after the enqueue timeout
+     */
+    public void enqueue(final QuizCompletion completion) {
+        final boolean accepted;
+        try {
+            accepted = running && queue.offer(completion, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueueFullException();
+        }
+        if (!accepted) {
+            rejectedCounter.increment();
+            throw new QueueFullException();
+        }
+        acceptedCounter.increment();
+    }
+
+    private void processQueue() {
+        while (running) {
+            try {
+                final QuizCompletion first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                final List<QuizCompletion> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                storeBatch(batch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void storeBatch(final List<QuizCompletion> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::store));
+            storedCounter.increment(batch.size());
+        } catch (final Exception batchException) {
+            log.warn("Failed to store batch of {} quiz completions, retrying them one by one", batch.size(),
+                    batchException);
+            for (final QuizCompletion completion : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> store(completion));
+                    storedCounter.increment();
+                } catch (final Exception e) {
+                    log.error("Failed to store completion of quiz {} by user {}, dropping it",
+                            completion.quizId(), completion.userId(), e);
+                    failedCounter.increment();
+                }
+            }
+        }
+    }
+
+    private void store(final QuizCompletion completion) {
+        questionStatisticService.logCompletedQuestions(completion.quizId(), completion.userId(),
+                completion.completedQuestions());
+        eventOutbox.notifyUserWorkedOnContent(completion.event());
+    }
+
+    /**
+     * Stops the worker and stores all completions that are still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        // the worker finishes its current batch and stops after at most one poll interval
+        running = false;
+        try {
+            worker.join(Duration.ofSeconds(10).toMillis());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final List<QuizCompletion> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += batchSize) {
+            storeBatch(remaining.subList(i, Math.min(i + batchSize, remaining.size())));
+        }
+    }
+
+    private static Counter completionCounter(final MeterRegistry meterRegistry,
+                                             final String result,
+                                             final String description) {
+        return Counter.builder(METRIC_PREFIX + "completions")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A scored quiz completion whose statistics and progress event still have to be stored.
+     *
+     * @param quizId             the id of the completed quiz
+     * @param userId             the id of the user who completed the quiz
+     * @param completedQuestions the completed questions, used for the statistics
+     * @param event              the progress event to publish
+     */
+    public record QuizCompletion(UUID quizId,
+                                 UUID userId,
+                                 List<QuestionCompletedInput> completedQuestions,
+                                 ContentProgressedEvent event) {
+    }
+
+    /**
+     * Thrown if a completion cannot be queued because the queue is full.
+     */
+    public static class QueueFullException extends RuntimeException {
+        public QueueFullException() {
+            super("Too many quiz completions are being processed at the moment, please try again later.");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletionFeedback;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Handles completions of quizzes by users.
+ * <p>
+ * In {@link IngestionMode#SYNCHRONOUS} mode, the statistics are stored and the progress event is written to the
+ * outbox in the request transaction, see {@link QuizService#publishProgress}.
+ * In {@link IngestionMode#ASYNCHRONOUS} mode, the completion is validated and scored against the cached
+ * {@link QuizAnswerKey} of the quiz and the feedback is returned immediately. Storing the statistics and the
+ * progress event is deferred to the {@link QuizCompletionIngestionQueue}, so the request thread only executes
+ * two single-row statements if the answer key is cached and the quiz is in {@link QuestionPoolingMode#ORDERED} mode:
+ * the version lookup of the quiz, see {@link QuizAnswerKeyCache}, and the upsert of the completed attempt.
+ * Completions that are still queued are lost if the process crashes, so asynchronous mode is opt-in.
+ * The completed attempt is counted synchronously in both modes before the feedback is returned, see
+ * {@link QuestionStatisticService#addCompletedAttempt}, so the next attempt of the user is shown and graded
+ * with the same selection of questions even if the completion is still queued.
+ * <p>
+ * In both modes, completed questions that were not selected for the current attempt of the user are ignored
+ * first, see {@link #ignoreQuestionsOutsideSelection}. Completed questions with a submitted answer are then graded
+ * against the cached {@link QuestionAnswerKey}s of the quiz, see {@link #gradeSubmittedAnswers}. If answers are
+ * required, the correctness stated by the client is only accepted for self-assessment questions.
+ */
+@Service
+public class QuizCompletionService {
+
+    private final QuizService quizService;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuestionStatisticService questionStatisticService;
+    private final QuizCompletionIngestionQueue ingestionQueue;
+    private final IngestionMode ingestionMode;
+    private final boolean requireAnswers;
+
+    public QuizCompletionService(final QuizService quizService,
+                                 final QuizAnswerKeyCache quizAnswerKeyCache,
+                                 final QuestionStatisticService questionStatisticService,
+                                 final Optional<QuizCompletionIngestionQueue> ingestionQueue,
+                                 @Value("${quiz_service.quiz-completion.mode:SYNCHRONOUS}") final IngestionMode ingestionMode,
+                                 @Value("${quiz_service.quiz-completion.require-answers:false}") final boolean requireAnswers) {
+        if (ingestionMode == IngestionMode.ASYNCHRONOUS && ingestionQueue.isEmpty()) {
+            throw new IllegalStateException("Asynchronous quiz completion ingestion requires the ingestion queue, "
+                                            + "set quiz_service.quiz-completion.mode=ASYNCHRONOUS");
+        }
+        this.quizService = quizService;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.questionStatisticService = questionStatisticService;
+        // only present in asynchronous mode
+        this.ingestionQueue = ingestionQueue.orElse(null);
+        this.ingestionMode = ingestionMode;
+        this.requireAnswers = requireAnswers;
+    }
+
+    /**
+     * Returns the answer key of the quiz with the given id, from the cache if it was created from the current
+     * version of the quiz.
+     *
+     * @param quizId the id of the quiz
+     * @return the answer key of the quiz
+     * @throws EntityNotFoundException if the quiz does not exist
+     */
+    public QuizAnswerKey requireAnswerKey(final UUID quizId) {
+        return quizAnswerKeyCache.get(quizId, quizService.requireVersion(quizId), quizService::loadAnswerKey);
+    }
+
+    /**
+     * Stores the completion of a quiz by a user and returns the feedback for the user.
+     *
+     * @param input  the completion of the quiz
+     * @param userId the user that completed the quiz
+     * @return the feedback for the user
+     * @throws QuizCompletionIngestionQueue.QueueFullException in asynchronous mode, if the completion
+     *                                                         could not be queued
+     */
+    public QuizCompletionFeedback logQuizCompleted(final QuizCompletedInput input, final UUID userId) {
+        return logQuizCompleted(input, requireAnswerKey(input.getQuizId()), userId);
+    }
+
+    /**
+     * Stores the completion of a quiz by a user and returns the feedback for the user,
+     * see {@link #logQuizCompleted(QuizCompletedInput, UUID)}.
+     *
+     * @param input     the completion of the quiz
+     * @param answerKey the current answer key of the quiz, see {@link #requireAnswerKey}
+     * @param userId    the user that completed the quiz
+     * @return the feedback for the user
+     */
+    public QuizCompletionFeedback logQuizCompleted(final QuizCompletedInput input,
+                                                   final QuizAnswerKey answerKey,
+                                                   final UUID userId) {
+        answerKey.validateQuestionsExist(input.getCompletedQuestions());
+
+        ignoreQuestionsOutsideSelection(input, answerKey, userId);
+        gradeSubmittedAnswers(input, answerKey);
+
+        if (ingestionMode == IngestionMode.SYNCHRONOUS) {
+            return quizService.publishProgress(input, userId);
+        }
+
+        final QuizAnswerKey.GradedQuizCompletion gradedCompletion = answerKey.grade(input, userId);
+        ingestionQueue.enqueue(new QuizCompletionIngestionQueue.QuizCompletion(
+                answerKey.assessmentId(),
+                userId,
+                input.getCompletedQuestions(),
+                gradedCompletion.event()));
+        // not deferred to the queue, otherwise the next attempt would be shown with the questions
+        // of the completed attempt until the completion is stored
+        questionStatisticService.addCompletedAttempt(userId, answerKey.assessmentId());
+
+        return gradedCompletion.feedback();
+    }
+
+    /**
+     * Removes the completed questions that were not selected for the current attempt of the user from the input,
+     * see {@link QuizService#findSelectedQuestionIds}. In {@link QuestionPoolingMode#RANDOM} and
+     * {@link QuestionPoolingMode#ADAPTIVE} mode, a user could otherwise answer more or easier questions of the
+     * question pool than were shown. The ignored questions are neither graded nor counted in the statistics.
+     * <p>
+     * The selection that was stored when the attempt was shown is used, so the questions that were shown are never
+     * ignored, even if the question pool or the statistics of the questions changed in the meantime.
+     *
+     * @param input     the completion of the quiz, modified in place
+     * @param answerKey the answer key of the quiz
+     * @param userId    the user that completed the quiz
+     */
+    void ignoreQuestionsOutsideSelection(final QuizCompletedInput input,
+                                         final QuizAnswerKey answerKey,
+                                         final UUID userId) {
+        if (answerKey.questionPoolingMode() == QuestionPoolingMode.ORDERED) {
+            return;
+        }
+        final Set<UUID> selectedQuestionIds = quizService.findSelectedQuestionIds(answerKey, userId);
+        input.setCompletedQuestions(input.getCompletedQuestions().stream()
+                .filter(completedQuestion -> selectedQuestionIds.contains(completedQuestion.getQuestionId()))
+                .toList());
+    }
+
+    /**
+     * Grades the completed questions that contain a submitted answer and overwrites the correctness stated by the
+     * client with the result. Self-assessment questions cannot be graded, so their correctness is kept.
+     * If answers are required, see {@code quiz_service.quiz-completion.require-answers}, completed questions without
+     * a submitted answer are rejected unless they are self-assessment questions, so clients cannot state the
+     * correctness of gradable questions themselves.
+     * The answer keys of the questions are only loaded if at least one answer was submitted or answers are required,
+     * and they are taken from the cache only if they were cached for the version of the given answer key of the quiz.
+     *
+     * @param input     the completion of the quiz, modified in place
+     * @param answerKey the answer key of the quiz, its version is the current version of the quiz
+     * @throws EntityNotFoundException if an answer was submitted for a question that is not part of the quiz
+     * @throws ValidationException     if neither the correctness nor a gradable answer is given, or if answers are
+     *                                 required and no answer is given for a question that is not a self-assessment
+     *                                 question
+     */
+    void gradeSubmittedAnswers(final QuizCompletedInput input, final QuizAnswerKey answerKey) {
+        Map<UUID, QuestionAnswerKey> answerKeys = null;
+
+        for (final QuestionCompletedInput completedQuestion : input.getCompletedQuestions()) {
+            if (completedQuestion.getAnswer() != null || requireAnswers) {
+                if (answerKeys == null) {
+                    answerKeys = quizAnswerKeyCache.getQuestionAnswerKeys(input.getQuizId(), answerKey.version(),
+                            quizService::loadQuestionAnswerKeys);
+                }
+                final QuestionAnswerKey questionAnswerKey = answerKeys.get(completedQuestion.getQuestionId());
+                if (questionAnswerKey == null) {
+                    throw new EntityNotFoundException(MessageFormat.format(
+                            "Question with id {0} not found in quiz with id {1}.",
+                            completedQuestion.getQuestionId(), input.getQuizId()));
+                }
+                if (completedQuestion.getAnswer() != null) {
+                    questionAnswerKey.grade(completedQuestion.getAnswer()).ifPresent(completedQuestion::setCorrect);
+                } else if (questionAnswerKey.isGradable()) {
+                    throw new ValidationException("An answer must be given for question "
+                                                  + completedQuestion.getQuestionId()
+                                                  + ", the correctness is only accepted for self-assessment questions");
+                }
+            }
+
+            if (completedQuestion.getCorrect() == null) {
+                throw new ValidationException("Either the correctness or a gradable answer must be given for question "
+                                              + completedQuestion.getQuestionId());
+            }
+        }
+    }
+
+    public enum IngestionMode {
+        /**
+         * Completions are stored in the request transaction.
+         */
+        SYNCHRONOUS,
+        /**
+         * Completions are scored against the cached answer key and stored in the background.
+         */
+        ASYNCHRONOUS
+    }
+}
@@ -0,0 +1,85 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.unistuttgart.iste.meitrex.generated.dto.Quiz;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded cache of mapped quiz DTOs, keyed by assessment id.
+ * <p>
+ * Only the immutable part of a quiz is cached, see {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuizMapper#entityToCacheableDto}.
+ * Cached quizzes are shared and must never be modified or returned to clients. Per-request randomization creates
+ * a deep copy of a cached quiz, see {@link de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuizMapper#randomize}.
+ * <p>
+ * Every entry stores the version of the quiz it was created from. An entry is only returned if its version
+ * matches the current version of the quiz, so stale entries are never returned, even if the quiz
+ * was modified by another instance of the service. Additionally, entries are invalidated when a quiz
+ * is modified or deleted by this instance.
+ * <p>
+ * The size of the cache is limited by the total number of cached questions. Hit and miss rates, evictions, and the
+ * size are exposed as metrics under the name "quiz_dto_cache".
+ */
+@Component
+public class QuizDtoCache {
+
+    static final String CACHE_NAME = "quiz_dto_cache";
+
+    private final Cache<UUID, CachedQuiz> cache;
+
+    public QuizDtoCache(final MeterRegistry meterRegistry,
+                        @Value("${quiz_service.quiz-dto-cache.maximum-questions:100000}") final long maximumQuestions) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumQuestions)
+                // a quiz without questions still has a weight of 1
+                .weigher((final UUID assessmentId, final CachedQuiz cachedQuiz)
+                        -> 1 + cachedQuiz.quiz().getQuestionPool().size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached quiz with the given id if it was cached with the given version.
+     *
+     * @param assessmentId the id of the quiz
+     * @param version      the current version of the quiz
+     * @return the cached quiz, or an empty optional if the quiz is not cached or the cached quiz is outdated
+     */
+    public Optional<Quiz> get(final UUID assessmentId, final long version) {
+        final CachedQuiz cachedQuiz = cache.getIfPresent(assessmentId);
+        if (cachedQuiz == null || cachedQuiz.version() != version) {
+            return Optional.empty();
+        }
+        return Optional.of(cachedQuiz.quiz());
+    }
+
+    /**
+     * Caches the given quiz. The quiz must not be modified afterward.
+     *
+     * @param assessmentId the id of the quiz
+     * @param version      the version of the entity the quiz was mapped from
+     * @param quiz         the immutable part of the mapped quiz
+     */
+    public void put(final UUID assessmentId, final long version, final Quiz quiz) {
+        cache.put(assessmentId, new CachedQuiz(version, quiz));
+    }
+
+    public void invalidate(final UUID assessmentId) {
+        cache.invalidate(assessmentId);
+    }
+
+    public void invalidateAll(final Collection<UUID> assessmentIds) {
+        cache.invalidateAll(assessmentIds);
+    }
+
+    private record CachedQuiz(long version, Quiz quiz) {
+    }
+}
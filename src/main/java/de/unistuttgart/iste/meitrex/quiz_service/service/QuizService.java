@@ -3,8 +3,12 @@ package de.unistuttgart.iste.meitrex.quiz_service.service;
 
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuizMapper;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.SeededRandomization;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizAttemptSelection;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizGradingHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionRepository;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
-import de.unistuttgart.iste.meitrex.common.dapr.TopicPublisher;
 import de.unistuttgart.iste.meitrex.common.event.*;
 import de.unistuttgart.iste.meitrex.common.exception.IncompleteEventMessageException;
 import de.unistuttgart.iste.meitrex.generated.dto.*;
@@ -16,14 +20,14 @@ import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
-
-import static de.unistuttgart.iste.meitrex.common.util.MeitrexCollectionUtils.count;
-import static de.unistuttgart.iste.meitrex.common.util.MeitrexCollectionUtils.countAsInt;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,24 +35,150 @@ import static de.unistuttgart.iste.meitrex.common.util.MeitrexCollectionUtils.co
 @Slf4j
 public class QuizService {
 
+    /**
+     * Maximum number of ids per statement of {@link #deleteQuizzesInBulk}.
+     */
+    static final int BULK_DELETE_CHUNK_SIZE = 1000;
+
     private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
     private final QuizMapper quizMapper;
     private final QuizValidator quizValidator;
-    private final TopicPublisher topicPublisher;
+    private final EventOutbox eventOutbox;
+    private final QuestionStatisticService questionStatisticService;
+    private final QuizDtoCache quizDtoCache;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final AssessmentContentMutationPublisher assessmentContentMutationPublisher;
+    private final TaskInformationGenerator taskInformationGenerator;
 
     /**
-     * Returns all quizzes for the given assessment ids.
-     * If an assessment id does not exist, the corresponding quiz is null.
+     * Returns the headers of the quizzes with the given assessment ids for the given user, in a single query
+     * and without loading the questions of the quizzes, see {@link QuizRepository#findHeadersByAssessmentIdIn}.
+     * The questions are loaded separately with {@link #findRandomizedQuizzes}, only if they are requested.
      *
      * @param assessmentIds the assessment ids
-     * @return the (nullable) quizzes
+     * @param userId        the id of the user the quizzes are shown to
+     * @return the headers of the existing quizzes, by assessment id
      */
-    public List<Quiz> findQuizzesByAssessmentIds(final List<UUID> assessmentIds) {
-        return assessmentIds.stream()
-                .map(quizRepository::findById)
-                // map to dto or null if the quiz does not exist
-                .map(optionalQuiz -> optionalQuiz.map(quizMapper::entityToDto).orElse(null))
+    public Map<UUID, QuizHeader> findQuizHeadersByAssessmentIds(final Collection<UUID> assessmentIds,
+                                                                final UUID userId) {
+        if (assessmentIds.isEmpty()) {
+            return Map.of();
+        }
+        return quizRepository.findHeadersByAssessmentIdIn(new HashSet<>(assessmentIds), userId).stream()
+                .collect(Collectors.toMap(QuizHeader::assessmentId, Function.identity()));
+    }
+
+    /**
+     * Returns the complete quizzes of the given headers, randomized for the current attempt of the given user.
+     * <p>
+     * Mapped quizzes are taken from the {@link QuizDtoCache} if the version of their header is up-to-date.
+     * All other quizzes are loaded in a fixed number of queries, see {@link QuizRepository#findAllByIdWithQuestions}.
+     * Every returned quiz is randomized with a seed derived from the user, the quiz and the number of completed
+     * attempts of the user in the header, see {@link SeededRandomization}.
+     * <p>
+     * In {@link QuestionPoolingMode#RANDOM} and {@link QuestionPoolingMode#ADAPTIVE} mode, the selected questions
+     * depend on the question pool and, in ADAPTIVE mode, on the statistics of all users, both of which can change
+     * while an attempt is in progress. The questions are therefore selected once per attempt, in ADAPTIVE mode from
+     * the precomputed statistics of the questions, see {@link #loadAdaptiveWeights}, and stored with the attempt,
+     * see {@link QuestionStatisticService#saveSelectedQuestionIds}. Afterwards, the attempt is shown with the
+     * stored selection until it is completed, and it is graded against the same selection,
+     * see {@link #findSelectedQuestionIds}.
+     *
+     * @param headers the headers of the quizzes, see {@link #findQuizHeadersByAssessmentIds}
+     * @param userId  the id of the user the quizzes are shown to
+     * @return the randomized quizzes, by assessment id. Quizzes that were deleted in the meantime are omitted.
+     */
+    public Map<UUID, Quiz> findRandomizedQuizzes(final Collection<QuizHeader> headers, final UUID userId) {
+        final Map<UUID, Quiz> quizzesById = HashMap.newHashMap(headers.size());
+        final Set<UUID> notCachedIds = new HashSet<>();
+
+        for (final QuizHeader header : headers) {
+            quizDtoCache.get(header.assessmentId(), header.version())
+                    .ifPresentOrElse(
+                            quiz -> quizzesById.put(header.assessmentId(), quiz),
+                            () -> notCachedIds.add(header.assessmentId()));
+        }
+
+        if (!notCachedIds.isEmpty()) {
+            for (final QuizEntity entity : quizRepository.findAllByIdWithQuestions(notCachedIds)) {
+                final Quiz quiz = quizMapper.entityToCacheableDto(entity);
+                quizDtoCache.put(entity.getAssessmentId(), entity.getVersion(), quiz);
+                quizzesById.put(entity.getAssessmentId(), quiz);
+            }
+        }
+
+        // the weights are only needed for attempts without stored selection
+        final Map<UUID, Double> adaptiveWeights = loadAdaptiveWeights(headers.stream()
+                .filter(header -> header.selectedQuestionIds() == null)
+                .map(header -> quizzesById.get(header.assessmentId()))
+                .filter(Objects::nonNull)
+                .toList(), userId);
+
+        final Map<UUID, Quiz> result = HashMap.newHashMap(quizzesById.size());
+        for (final QuizHeader header : headers) {
+            final Quiz quiz = quizzesById.get(header.assessmentId());
+            if (quiz == null) {
+                continue;
+            }
+            final long seed = SeededRandomization.seed(userId, header.assessmentId(), header.completedAttempts());
+            if (!storesSelection(quiz.getQuestionPoolingMode())) {
+                result.put(header.assessmentId(), quizMapper.randomize(quiz, seed, adaptiveWeights));
+                continue;
+            }
+            List<UUID> selectedQuestionIds = header.selectedQuestionIds();
+            if (selectedQuestionIds == null) {
+                selectedQuestionIds = questionStatisticService.saveSelectedQuestionIds(userId,
+                        header.assessmentId(),
+                        header.completedAttempts(),
+                        SeededRandomization.selectQuestions(
+                                quiz.getQuestionPool().stream().map(Question::getItemId).toList(),
+                                quiz.getQuestionPoolingMode(),
+                                quiz.getNumberOfRandomlySelectedQuestions(),
+                                questionId -> adaptiveWeights.getOrDefault(questionId, 1.0),
+                                seed));
+            }
+            result.put(header.assessmentId(), quizMapper.randomizeWithSelection(quiz, seed, selectedQuestionIds));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the quizzes with the given assessment ids including their questions, for quizzes returned by
+     * mutations without questions, see {@link #removeQuestion}. Like the quizzes returned by other mutations,
+     * see {@link #modifyQuiz}, they are randomized with a random seed.
+     * All quizzes are loaded in a fixed number of queries, see {@link QuizRepository#findAllByIdWithQuestions}.
+     *
+     * @param assessmentIds the assessment ids
+     * @return the quizzes, by assessment id. Quizzes that were deleted in the meantime are omitted.
+     */
+    public Map<UUID, Quiz> findQuizzesWithQuestions(final Collection<UUID> assessmentIds) {
+        if (assessmentIds.isEmpty()) {
+            return Map.of();
+        }
+        return quizRepository.findAllByIdWithQuestions(new HashSet<>(assessmentIds)).stream()
+                .collect(Collectors.toMap(QuizEntity::getAssessmentId, quizMapper::entityToDto));
+    }
+
+    /**
+     * Whether the selected questions of the attempts of a quiz with the given mode are stored, because they
+     * could not be reproduced from the seed of the attempt when the attempt is graded.
+     */
+    private static boolean storesSelection(final QuestionPoolingMode questionPoolingMode) {
+        return questionPoolingMode != QuestionPoolingMode.ORDERED;
+    }
+
+    /**
+     * Loads the adaptive weights of the questions of all given quizzes in {@link QuestionPoolingMode#ADAPTIVE} mode
+     * at once, see {@link QuestionStatisticService#getAdaptiveWeights}. Nothing is loaded if no quiz is adaptive.
+     */
+    private Map<UUID, Double> loadAdaptiveWeights(final Collection<Quiz> quizzes, final UUID userId) {
+        final List<UUID> questionIds = quizzes.stream()
+                .filter(quiz -> quiz.getQuestionPoolingMode() == QuestionPoolingMode.ADAPTIVE)
+                .flatMap(quiz -> quiz.getQuestionPool().stream())
+                .map(Question::getItemId)
                 .toList();
+        return questionStatisticService.getAdaptiveWeights(userId, questionIds);
     }
 
     /**
@@ -74,16 +204,19 @@ public class QuizService {
     }
 
     /**
-     * Deletes a quiz.
+     * Deletes a quiz. The quiz is not loaded, it is deleted like the quizzes of a content-changed event,
+     * see {@link #deleteQuizzesInBulk}.
      *
      * @param id the id of the quiz to delete
      * @return the id of the deleted quiz if the deletion was successful
      * @throws EntityNotFoundException if the quiz does not exist
      */
     public UUID deleteQuiz(final UUID id) {
-        requireQuizExists(id);
-        publishQuizDeletion(id);
-        quizRepository.deleteById(id);
+        if (!quizRepository.existsById(id)) {
+            throw new EntityNotFoundException("Quiz with id " + id + " not found");
+        }
+        deleteQuizzesInBulk(List.of(id));
+        invalidateCachesAfterCommit(List.of(id));
 
         return id;
     }
@@ -267,15 +400,18 @@ public class QuizService {
                                     final I input,
                                     final UUID questionId,
                                     final Function<I, ? extends QuestionEntity> mapping) {
-        return modifyQuiz(quizId, entity -> {
-            final QuestionEntity questionEntity = getQuestionInQuizById(entity, questionId);
+        return modifyQuiz(quizId, entity -> updateQuestion(entity, input, questionId, mapping));
+    }
 
-            final int indexOfQuestion = entity.getQuestionPool().indexOf(questionEntity);
+    private <I> void updateQuestion(final QuizEntity entity,
+                                    final I input,
+                                    final UUID questionId,
+                                    final Function<I, ? extends QuestionEntity> mapping) {
+        final QuestionEntity questionEntity = getQuestionInQuizById(entity, questionId);
 
-            final QuestionEntity newQuestionEntity = mapping.apply(input);
-            newQuestionEntity.setNumber(questionEntity.getNumber());
-            entity.getQuestionPool().set(indexOfQuestion, newQuestionEntity);
-        });
+        final QuestionEntity newQuestionEntity = mapping.apply(input);
+        newQuestionEntity.setNumber(questionEntity.getNumber());
+        entity.replaceQuestion(questionEntity, newQuestionEntity);
     }
 
     /**
@@ -294,37 +430,54 @@ public class QuizService {
                                  final I input,
                                  final Integer questionNumber,
                                  final Function<I, QuestionEntity> mapping) {
-        return modifyQuiz(quizId, entity -> {
-            // use the given number or assign a new one
-            final int number = Optional.ofNullable(questionNumber)
-                    .orElseGet(() -> assignNumber(entity));
+        return modifyQuiz(quizId, entity -> addQuestion(entity, input, questionNumber, mapping));
+    }
+
+    private <I> void addQuestion(final QuizEntity entity,
+                                 final I input,
+                                 final Integer questionNumber,
+                                 final Function<I, QuestionEntity> mapping) {
+        // use the given number or assign a new one
+        final int number = Optional.ofNullable(questionNumber)
+                .orElseGet(() -> assignNumber(entity));
 
-            quizValidator.checkNumberIsUnique(entity, number);
+        quizValidator.checkNumberIsUnique(entity, number);
 
-            final QuestionEntity questionEntity = mapping.apply(input);
-            questionEntity.setNumber(number);
-            entity.getQuestionPool().add(questionEntity);
-        });
+        final QuestionEntity questionEntity = mapping.apply(input);
+        questionEntity.setNumber(number);
+        entity.addQuestion(questionEntity);
     }
 
     /**
      * Removes a question from a quiz.
+     * <p>
+     * Neither the question pool nor the removed question is loaded: the question is deleted and the following
+     * questions are renumbered with set-based statements in the current transaction. The returned quiz only
+     * contains the scalar fields, its questions are loaded if they are requested, see
+     * {@link de.unistuttgart.iste.meitrex.quiz_service.controller.QuizQuestionsController}.
      *
      * @param quizId the id of the quiz
      * @param number the number of the question to remove
-     * @return the modified quiz
+     * @return the modified quiz, without questions
      * @throws EntityNotFoundException if the quiz does not exist
      */
     public Quiz removeQuestion(final UUID quizId, final int number) {
-        return modifyQuiz(quizId, entity -> {
-            final QuestionEntity questionEntity = getQuestionInQuizByNumber(entity, number);
-            entity.getQuestionPool().remove(questionEntity);
-            publishItemChangeEvent(questionEntity.getItemId());
-            // decrease the number of all questions with a higher number
-            entity.getQuestionPool().stream()
-                    .filter(q -> q.getNumber() > number)
-                    .forEach(q -> q.setNumber(q.getNumber() - 1));
-        });
+        // the scalar fields are not modified, so the header can be read before the modification
+        final QuizGradingHeader header = quizRepository.findGradingHeaderById(quizId)
+                .orElseThrow(() -> new EntityNotFoundException("Quiz with id " + quizId + " not found"));
+        final UUID questionId = quizRepository.findQuestionIdByNumber(quizId, number)
+                .orElseThrow(() -> new EntityNotFoundException(MessageFormat.format(
+                        "Question with number {0} not found in quiz with id {1}.", number, quizId)));
+
+        questionRepository.removeFromQuestionPool(questionId);
+        deleteDataOfQuestions(List.of(questionId));
+        questionRepository.deleteAllByIdWithElementCollections(List.of(questionId));
+        publishItemDeletionEvents(List.of(questionId));
+        // decrease the number of all questions with a higher number
+        questionRepository.decrementNumbersAfter(quizId, number);
+
+        quizRepository.incrementVersion(quizId);
+        return afterSetBasedModification(header);
     }
 
     /**
@@ -337,19 +490,107 @@ public class QuizService {
      * @throws EntityNotFoundException if the quiz does not exist
      */
     public Quiz switchQuestions(final UUID quizId, final int firstNumber, final int secondNumber) {
-        return modifyQuiz(quizId, entity -> {
-            final QuestionEntity firstQuestionEntity = getQuestionInQuizByNumber(entity, firstNumber);
-            final QuestionEntity secondQuestionEntity = getQuestionInQuizByNumber(entity, secondNumber);
+        return modifyQuiz(quizId, entity -> switchQuestions(entity, firstNumber, secondNumber));
+    }
+
+    private void switchQuestions(final QuizEntity entity, final int firstNumber, final int secondNumber) {
+        final QuestionEntity firstQuestionEntity = getQuestionInQuizByNumber(entity, firstNumber);
+        final QuestionEntity secondQuestionEntity = getQuestionInQuizByNumber(entity, secondNumber);
+
+        entity.switchQuestions(firstQuestionEntity, secondQuestionEntity);
+    }
+
+    /**
+     * Applies a batch of question operations to a quiz, in the given order.
+     * <p>
+     * All operations are validated with {@link QuizValidator#validateQuestionOperationInput} before the quiz is
+     * loaded. They are then applied to the same quiz entity, which is saved once, and only a single
+     * {@link AssessmentContentMutatedEvent} is published. If an operation fails, e.g., because a question does not
+     * exist, the exception rolls back the transaction, so none of the operations is applied.
+     *
+     * @param quizId     the id of the quiz
+     * @param operations the operations to apply
+     * @return the modified quiz
+     * @throws EntityNotFoundException if the quiz or a referenced question does not exist
+     * @throws ValidationException     if an operation is invalid
+     */
+    public Quiz applyQuestionOperations(final UUID quizId, final List<QuestionOperationInput> operations) {
+        operations.forEach(quizValidator::validateQuestionOperationInput);
 
-            firstQuestionEntity.setNumber(secondNumber);
-            secondQuestionEntity.setNumber(firstNumber);
+        return modifyQuiz(quizId, entity -> {
+            final List<UUID> removedQuestionIds = new ArrayList<>();
+            for (final QuestionOperationInput operation : operations) {
+                applyQuestionOperation(entity, operation, removedQuestionIds);
+            }
 
-            final int indexOfFirstQuestion = entity.getQuestionPool().indexOf(firstQuestionEntity);
-            final int indexOfSecondQuestion = entity.getQuestionPool().indexOf(secondQuestionEntity);
-            Collections.swap(entity.getQuestionPool(), indexOfFirstQuestion, indexOfSecondQuestion);
+            deleteDataOfQuestions(removedQuestionIds);
+            publishItemDeletionEvents(removedQuestionIds);
         });
     }
 
+    private void applyQuestionOperation(final QuizEntity entity,
+                                        final QuestionOperationInput operation,
+                                        final List<UUID> removedQuestionIds) {
+        if (operation.getAddMultipleChoiceQuestion() != null) {
+            final CreateMultipleChoiceQuestionInput input = operation.getAddMultipleChoiceQuestion();
+            addQuestion(entity, input, input.getNumber(), quizMapper::multipleChoiceQuestionInputToEntity);
+        } else if (operation.getUpdateMultipleChoiceQuestion() != null) {
+            final UpdateMultipleChoiceQuestionInput input = operation.getUpdateMultipleChoiceQuestion();
+            updateQuestion(entity, input, input.getItemId(), quizMapper::multipleChoiceQuestionInputToEntity);
+        } else if (operation.getAddClozeQuestion() != null) {
+            final CreateClozeQuestionInput input = operation.getAddClozeQuestion();
+            addQuestion(entity, input, input.getNumber(), quizMapper::clozeQuestionInputToEntity);
+        } else if (operation.getUpdateClozeQuestion() != null) {
+            final UpdateClozeQuestionInput input = operation.getUpdateClozeQuestion();
+            updateQuestion(entity, input, input.getItemId(), quizMapper::clozeQuestionInputToEntity);
+        } else if (operation.getAddAssociationQuestion() != null) {
+            final CreateAssociationQuestionInput input = operation.getAddAssociationQuestion();
+            addQuestion(entity, input, input.getNumber(), quizMapper::associationQuestionInputToEntity);
+        } else if (operation.getUpdateAssociationQuestion() != null) {
+            final UpdateAssociationQuestionInput input = operation.getUpdateAssociationQuestion();
+            updateQuestion(entity, input, input.getItemId(), quizMapper::associationQuestionInputToEntity);
+        } else if (operation.getAddExactAnswerQuestion() != null) {
+            final CreateExactAnswerQuestionInput input = operation.getAddExactAnswerQuestion();
+            addQuestion(entity, input, input.getNumber(), quizMapper::exactAnswerQuestionInputToEntity);
+        } else if (operation.getUpdateExactAnswerQuestion() != null) {
+            final UpdateExactAnswerQuestionInput input = operation.getUpdateExactAnswerQuestion();
+            updateQuestion(entity, input, input.getItemId(), quizMapper::exactAnswerQuestionInputToEntity);
+        } else if (operation.getAddNumericQuestion() != null) {
+            final CreateNumericQuestionInput input = operation.getAddNumericQuestion();
+            addQuestion(entity, input, input.getNumber(), quizMapper::numericQuestionInputToEntity);
+        } else if (operation.getUpdateNumericQuestion() != null) {
+            final UpdateNumericQuestionInput input = operation.getUpdateNumericQuestion();
+            updateQuestion(entity, input, input.getItemId(), quizMapper::numericQuestionInputToEntity);
+        } else if (operation.getAddSelfAssessmentQuestion() != null) {
+            final CreateSelfAssessmentQuestionInput input = operation.getAddSelfAssessmentQuestion();
+            addQuestion(entity, input, input.getNumber(), quizMapper::selfAssessmentQuestionInputToEntity);
+        } else if (operation.getUpdateSelfAssessmentQuestion() != null) {
+            final UpdateSelfAssessmentQuestionInput input = operation.getUpdateSelfAssessmentQuestion();
+            updateQuestion(entity, input, input.getItemId(), quizMapper::selfAssessmentQuestionInputToEntity);
+        } else if (operation.getRemoveQuestion() != null) {
+            removedQuestionIds.add(removeQuestion(entity, operation.getRemoveQuestion()));
+        } else if (operation.getSwitchQuestions() != null) {
+            final SwitchQuestionsInput input = operation.getSwitchQuestions();
+            switchQuestions(entity, input.getFirstNumber(), input.getSecondNumber());
+        }
+    }
+
+    /**
+     * Removes the question with the given number from the loaded quiz entity and decrements the numbers
+     * of the following questions. Used by batches, in which the question pool is loaded anyway.
+     *
+     * @return the id of the removed question
+     */
+    private UUID removeQuestion(final QuizEntity entity, final int number) {
+        final QuestionEntity questionEntity = getQuestionInQuizByNumber(entity, number);
+        entity.removeQuestion(questionEntity);
+        // decrease the number of all questions with a higher number
+        entity.getQuestionPool().stream()
+                .filter(q -> q.getNumber() > number)
+                .forEach(q -> q.setNumber(q.getNumber() - 1));
+        return questionEntity.getItemId();
+    }
+
     public Quiz setRequiredCorrectAnswers(final UUID quizId, final int requiredCorrectAnswers) {
         return modifyQuiz(quizId, entity -> entity.setRequiredCorrectAnswers(requiredCorrectAnswers));
     }
@@ -377,6 +618,13 @@ public class QuizService {
     /**
      * Modifies a quiz by applying the given modifier to the quiz entity
      * and saves the modified entity to the database.
+     * The version of the quiz is incremented and the cached DTO of the quiz is invalidated after the commit.
+     * An {@link AssessmentContentMutatedEvent} is stored in the outbox in the same transaction,
+     * see {@link AssessmentContentMutationPublisher}.
+     * <p>
+     * The version is incremented atomically before the quiz is loaded, see {@link QuizRepository#incrementVersion}.
+     * The update locks the row of the quiz, so concurrent modifications of the same quiz are serialized
+     * and each of them results in a distinct version.
      *
      * @param quiz     the quiz to modify
      * @param modifier the modifier to apply to the quiz entity
@@ -384,22 +632,36 @@ public class QuizService {
      * @throws EntityNotFoundException if the quiz does not exist
      */
     private Quiz modifyQuiz(final UUID quiz, final Consumer<QuizEntity> modifier) {
+        quizRepository.incrementVersion(quiz);
         final QuizEntity entity = requireQuizExists(quiz);
 
         modifier.accept(entity);
 
         final QuizEntity savedEntity = quizRepository.save(entity);
+        invalidateCachesAfterCommit(List.of(savedEntity.getAssessmentId()));
 
-        topicPublisher.notifyAssessmentContentMutated(new AssessmentContentMutatedEvent(
-                entity.getCourseId(),
-                entity.getAssessmentId(),
-                AssessmentType.QUIZ,
-                generateTaskInformation(savedEntity)
-        ));
+        assessmentContentMutationPublisher.scheduleEvent(savedEntity.getAssessmentId());
 
         return quizMapper.entityToDto(savedEntity);
     }
 
+    /**
+     * Counterpart of {@link #modifyQuiz} for modifications that were applied with set-based statements
+     * instead of through the quiz entity. The version of the quiz must already be incremented.
+     * Invalidates the caches after the commit and stores the {@link AssessmentContentMutatedEvent} in the outbox.
+     * The question pool is not loaded again, the modified quiz is returned without questions.
+     *
+     * @param header the header of the modified quiz
+     * @return the modified quiz as DTO, without questions
+     */
+    private Quiz afterSetBasedModification(final QuizGradingHeader header) {
+        invalidateCachesAfterCommit(List.of(header.assessmentId()));
+
+        assessmentContentMutationPublisher.scheduleEvent(header.assessmentId());
+
+        return quizMapper.headerToDto(header);
+    }
+
     private int assignNumber(final QuizEntity entity) {
         if (entity.getQuestionPool().isEmpty()) {
             return 1;
@@ -409,9 +671,7 @@ public class QuizService {
     }
 
     private QuestionEntity getQuestionInQuizById(final QuizEntity quizEntity, final UUID questionId) {
-        return quizEntity.getQuestionPool().stream()
-                .filter(q -> q.getItemId().equals(questionId))
-                .findFirst()
+        return quizEntity.findQuestionById(questionId)
                 .orElseThrow(() ->
                         new EntityNotFoundException(MessageFormat.format(
                                 "Question with id {0} not found in quiz with id {1}.",
@@ -419,9 +679,7 @@ public class QuizService {
     }
 
     private QuestionEntity getQuestionInQuizByNumber(final QuizEntity quizEntity, final int number) {
-        return quizEntity.getQuestionPool().stream()
-                .filter(q -> q.getNumber() == number)
-                .findFirst()
+        return quizEntity.findQuestionByNumber(number)
                 .orElseThrow(() ->
                         new EntityNotFoundException(MessageFormat.format(
                                 "Question with number {0} not found in quiz with id {1}.",
@@ -442,8 +700,81 @@ public class QuizService {
             return;
         }
 
-        // delete all found quizzes
-        quizRepository.deleteAllById(dto.getContentIds());
+        // delete all found quizzes and the data stored for their questions
+        deleteQuizzesInBulk(dto.getContentIds());
+        invalidateCachesAfterCommit(List.copyOf(dto.getContentIds()));
+    }
+
+    /**
+     * Invalidates the cached DTOs and answer keys of the given quizzes after the current transaction is committed.
+     * If they were invalidated before the commit, a concurrent request could cache the old state of a quiz again,
+     * and the {@link QuizAnswerKeyCache}, which does not check versions, would return it until it expires.
+     * Without an active transaction, the caches are invalidated immediately.
+     *
+     * @param assessmentIds the ids of the modified or deleted quizzes
+     */
+    private void invalidateCachesAfterCommit(final Collection<UUID> assessmentIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateCaches(assessmentIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateCaches(assessmentIds);
+            }
+        });
+    }
+
+    private void invalidateCaches(final Collection<UUID> assessmentIds) {
+        quizDtoCache.invalidateAll(assessmentIds);
+        quizAnswerKeyCache.invalidateAll(assessmentIds);
+    }
+
+    /**
+     * Deletes the quizzes with the given ids together with their questions and the data stored for the questions,
+     * and publishes the deletion of the questions as items.
+     * <p>
+     * Instead of loading the quizzes and cascading the deletion row by row, every table is cleaned with one
+     * set-based statement per chunk of {@value #BULK_DELETE_CHUNK_SIZE} ids. Chunking keeps the number of bind
+     * parameters per statement bounded, also when a whole course is deleted. Ids of non-existing quizzes are ignored.
+     * The item deletions of a chunk of questions are stored as a single outbox event.
+     *
+     * @param assessmentIds the ids of the quizzes to delete
+     */
+    private void deleteQuizzesInBulk(final List<UUID> assessmentIds) {
+        for (final List<UUID> quizChunk : chunks(assessmentIds)) {
+            final List<UUID> questionIds = quizRepository.findQuestionIdsByAssessmentIdIn(quizChunk);
+            quizRepository.deleteQuestionPoolsByAssessmentIdIn(quizChunk);
+            questionStatisticService.deleteAttemptsOfQuizzes(quizChunk);
+
+            for (final List<UUID> questionChunk : chunks(questionIds)) {
+                deleteDataOfQuestions(questionChunk);
+                questionRepository.deleteAllByIdWithElementCollections(questionChunk);
+                publishItemDeletionEvents(questionChunk);
+            }
+
+            quizRepository.deleteQuizRowsByAssessmentIdIn(quizChunk);
+        }
+    }
+
+    private static <T> List<List<T>> chunks(final List<T> list) {
+        final List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + BULK_DELETE_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Deletes the data that is stored separately from the given questions,
+     * i.e., their statistics and their stored task information.
+     *
+     * @param questionIds the ids of the deleted questions
+     */
+    private void deleteDataOfQuestions(final Collection<UUID> questionIds) {
+        questionStatisticService.deleteStatisticsOfQuestions(questionIds);
+        taskInformationGenerator.deleteTaskInformationOfQuestions(questionIds);
     }
 
     /**
@@ -467,249 +798,134 @@ public class QuizService {
      * @return quiz that was worked on
      */
     public QuizCompletionFeedback publishProgress(final QuizCompletedInput input, final UUID userId) {
-        final QuizEntity quizEntity = requireQuizExists(input.getQuizId());
-
-        updateQuestionStatistics(input, userId, quizEntity);
+        final QuizAnswerKey answerKey = quizAnswerKeyCache.get(input.getQuizId(), requireVersion(input.getQuizId()),
+                this::loadAnswerKey);
 
-        // count the number of questions that were answered correctly
-        final long numbCorrectAnswers = count(input.getCompletedQuestions(), QuestionCompletedInput::getCorrect);
+        updateQuestionStatistics(input, userId, answerKey);
 
-        final boolean success = numbCorrectAnswers >= quizEntity.getRequiredCorrectAnswers();
-        final double correctness = calculateCorrectness(numbCorrectAnswers, quizEntity);
-        final int hintsUsed = countAsInt(input.getCompletedQuestions(), QuestionCompletedInput::getUsedHint);
-        List<Response> responses = new ArrayList<Response>();
-        for (QuestionCompletedInput question : input.getCompletedQuestions()) {
-            float answer = 0;
-            if (question.getCorrect()) {
-                answer = 1;
-            }
-            Response response = new Response(question.getQuestionId(), answer);
-
-            responses.add(response);
-        }
-        // create new user progress event message
-        final ContentProgressedEvent userProgressLogEvent = ContentProgressedEvent.builder()
-                .userId(userId)
-                .contentId(quizEntity.getAssessmentId())
-                .hintsUsed(hintsUsed)
-                .success(success)
-                .timeToComplete(null)
-                .contentType(ContentProgressedEvent.ContentType.QUIZ)
-                .correctness(correctness)
-                .responses(responses)
-                .build();
+        final QuizAnswerKey.GradedQuizCompletion gradedCompletion = answerKey.grade(input, userId);
 
         // publish new user progress event message
-        topicPublisher.notifyUserWorkedOnContent(userProgressLogEvent);
-        return QuizCompletionFeedback.builder()
-                .setSuccess(success)
-                .setCorrectness(correctness)
-                .setHintsUsed(hintsUsed)
-                .build();
+        eventOutbox.notifyUserWorkedOnContent(gradedCompletion.event());
+        return gradedCompletion.feedback();
     }
 
     /**
-     * Method that updates Statistics for a question. Any changes are discarded if any of the received question IDs do not exist.
+     * Returns the ids of the questions that were selected for the current attempt of the user, i.e., the questions
+     * returned by {@link #findRandomizedQuizzes} for the user.
+     * <p>
+     * In {@link QuestionPoolingMode#RANDOM} and {@link QuestionPoolingMode#ADAPTIVE} mode, the selection stored
+     * with the attempt is returned, so questions added to or removed from the question pool in the meantime do not
+     * change it. Only if no selection is stored, e.g., for an attempt shown before selections were stored, it is
+     * recomputed from the current question pool, the number of completed attempts of the user and, in ADAPTIVE
+     * mode, the current adaptive weights of the questions, see {@link QuizAnswerKey#selectedQuestionIds}.
      *
-     * @param input      Object containing the IDs of the answered questions and their correctness
-     * @param userId     ID of user completing the quiz
-     * @param quizEntity quiz, questions are a part of
+     * @param answerKey the answer key of the quiz
+     * @param userId    the id of the user
+     * @return the ids of the selected questions, all questions in {@link QuestionPoolingMode#ORDERED} mode
      */
-    private void updateQuestionStatistics(final QuizCompletedInput input, final UUID userId, final QuizEntity quizEntity) {
-
-        for (final QuestionCompletedInput completedQuestion : input.getCompletedQuestions()) {
-
-            // find question in quiz. throws an exception if question can not be found
-            final QuestionEntity questionEntity = getQuestionInQuizById(quizEntity, completedQuestion.getQuestionId());
-            final int index = quizEntity.getQuestionPool().indexOf(questionEntity);
-
-            // create new Question Statistic
-            final QuestionStatisticEntity newQuestionStatistic = QuestionStatisticEntity.builder()
-                    .questionId(questionEntity.getItemId())
-                    .userId(userId)
-                    .answeredCorrectly(completedQuestion.getCorrect())
-                    .build();
-
-            questionEntity.getQuestionStatistics().add(newQuestionStatistic);
-
-            //overwrite outdated question
-            quizEntity.getQuestionPool().set(index, questionEntity);
+    public Set<UUID> findSelectedQuestionIds(final QuizAnswerKey answerKey, final UUID userId) {
+        if (answerKey.questionPoolingMode() == QuestionPoolingMode.ORDERED) {
+            return answerKey.questionIds();
+        }
+        final Optional<QuizAttemptSelection> attempt
+                = questionStatisticService.findCurrentAttempt(userId, answerKey.assessmentId());
+        final List<UUID> storedSelection = attempt.map(QuizAttemptSelection::selectedQuestionIds).orElse(null);
+        if (storesSelection(answerKey.questionPoolingMode()) && storedSelection != null) {
+            return Set.copyOf(storedSelection);
         }
 
-        //persist changes
-        quizRepository.save(quizEntity);
-
+        final long completedAttempts = attempt.map(QuizAttemptSelection::completedAttempts).orElse(0L);
+        final Map<UUID, Double> adaptiveWeights = answerKey.questionPoolingMode() == QuestionPoolingMode.ADAPTIVE
+                ? questionStatisticService.getAdaptiveWeights(userId, answerKey.questionPool())
+                : Map.of();
+        return answerKey.selectedQuestionIds(userId, completedAttempts, adaptiveWeights);
     }
 
     /**
-     * Calculates the correctness value for a quiz
+     * Returns the current version of the quiz with the given id, without loading the quiz.
+     * Used to detect outdated entries of the {@link QuizAnswerKeyCache}.
      *
-     * @param correctAnswers number of correct answers
-     * @param quizEntity     quizEntity source
-     * @return calculated correctness value
+     * @param quizId the id of the quiz
+     * @return the current version of the quiz
+     * @throws EntityNotFoundException if the quiz does not exist
      */
-    protected double calculateCorrectness(final double correctAnswers, final QuizEntity quizEntity) {
-        if (correctAnswers == 0.0) {
-            // prevent division by zero
-            return correctAnswers;
-        }
-
-        // in RANDOM mode, the number of questions is not the size of the question pool
-        // but the number of randomly selected questions
-        if (quizEntity.getQuestionPoolingMode().equals(QuestionPoolingMode.RANDOM)
-                && quizEntity.getNumberOfRandomlySelectedQuestions() != null) {
+    public long requireVersion(final UUID quizId) {
+        return quizRepository.findVersionById(quizId)
+                .orElseThrow(() -> new EntityNotFoundException("Quiz with id " + quizId + " not found"));
+    }
 
-            if (quizEntity.getNumberOfRandomlySelectedQuestions() == 0) {
-                // prevent division by zero
-                return 1.0;
-            }
+    /**
+     * Loads the answer key of the quiz with the given id, used to score completions of the quiz.
+     * Only the scalar fields of the quiz and the ids of its questions are queried,
+     * the quiz and its questions are not loaded.
+     *
+     * @param quizId the id of the quiz
+     * @return the answer key of the quiz
+     * @throws EntityNotFoundException if the quiz does not exist
+     */
+    public QuizAnswerKey loadAnswerKey(final UUID quizId) {
+        final QuizGradingHeader header = quizRepository.findGradingHeaderById(quizId)
+                .orElseThrow(() -> new EntityNotFoundException("Quiz with id " + quizId + " not found"));
+        return QuizAnswerKey.of(header, quizRepository.findQuestionIdsByAssessmentIdIn(List.of(quizId)));
+    }
 
-            return correctAnswers / quizEntity.getNumberOfRandomlySelectedQuestions();
+    /**
+     * Loads the questions of the quiz with the given id and compiles their answer keys,
+     * used to grade submitted answers.
+     *
+     * @param quizId the id of the quiz
+     * @return the answer keys of the questions of the quiz, keyed by question id
+     * @throws EntityNotFoundException if the quiz does not exist
+     */
+    public Map<UUID, QuestionAnswerKey> loadQuestionAnswerKeys(final UUID quizId) {
+        final QuizEntity quizEntity = quizRepository.findAllByIdWithQuestions(List.of(quizId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Quiz with id " + quizId + " not found"));
 
-        } else if (quizEntity.getQuestionPool().isEmpty()) {
-            return 1.0;
-        } else {
-            return correctAnswers / quizEntity.getQuestionPool().size();
+        final Map<UUID, QuestionAnswerKey> answerKeys = new HashMap<>();
+        for (final QuestionEntity question : quizEntity.getQuestionPool()) {
+            answerKeys.put(question.getItemId(), QuestionAnswerKey.of(question));
         }
-
+        return Map.copyOf(answerKeys);
     }
 
-    private void publishQuizDeletion(UUID quizId) {
-        Optional<QuizEntity> quizEntity = quizRepository.findById(quizId);
-        if (quizEntity.isPresent()) {
-            QuizEntity quiz = quizEntity.get();
-            List<QuestionEntity> questionPool = quiz.getQuestionPool();
-            for (QuestionEntity question : questionPool) {
-                publishItemChangeEvent(question.getItemId());
-            }
+    /**
+     * Method that updates Statistics for a question. Any changes are discarded if any of the received question IDs do not exist.
+     * <p>
+     * The statistics are appended to the statistics log and the completed attempt of the user is counted,
+     * the quiz itself is not modified.
+     *
+     * @param input     Object containing the IDs of the answered questions and their correctness
+     * @param userId    ID of user completing the quiz
+     * @param answerKey answer key of the quiz, questions are a part of
+     */
+    private void updateQuestionStatistics(final QuizCompletedInput input, final UUID userId, final QuizAnswerKey answerKey) {
+        // throws an exception if a question can not be found
+        answerKey.validateQuestionsExist(input.getCompletedQuestions());
 
-        }
+        questionStatisticService.logCompletedQuestions(answerKey.assessmentId(), userId, input.getCompletedQuestions());
+        questionStatisticService.addCompletedAttempt(userId, answerKey.assessmentId());
     }
 
-    /***
-     * helper function, that creates a ItemChange Event and publish it, when a flashcard was deleted
-     * @param itemId the id of the item
-     */
-    private void publishItemChangeEvent(final UUID itemId) {
-        topicPublisher.notifyItemChanges(itemId, CrudOperation.DELETE);
-    }
-
-    /**
-     * Helper method which generates task information for the given quiz.
-     * @param quiz The quiz for which to generate task information.
-     * @return Returns a list containing the task information.
-     */
-    private List<AssessmentContentMutatedEvent.TaskInformation> generateTaskInformation(final QuizEntity quiz) {
-        final List<AssessmentContentMutatedEvent.TaskInformation> results
-                = new ArrayList<>(quiz.getQuestionPool().size());
-
-        for(final QuestionEntity question : quiz.getQuestionPool()) {
-            final StringBuilder sb = new StringBuilder();
-            switch (question) {
-                case final AssociationQuestionEntity associationQuestion:
-                    sb.append("Task: Associate each item with the correct partner item.\n\n");
-
-                    printHint(sb, associationQuestion);
-
-                    sb.append("Question: ");
-                    sb.append(associationQuestion.getText());
-                    sb.append("\n");
-                    for(final AssociationEmbeddable association : associationQuestion.getCorrectAssociations()) {
-                        sb.append(association.getLeft());
-                        sb.append(" - ");
-                        sb.append(association.getRight());
-                        sb.append("\n");
-                    }
-                    break;
-                case final ClozeQuestionEntity clozeQuestion:
-                    sb.append("Task: Fill in the blanks in the text with the correct terms.\n\n");
-
-                    printHint(sb, clozeQuestion);
-
-                    for(final ClozeElementEmbeddable clozeItem : clozeQuestion.getClozeElements().stream()
-                            .sorted(Comparator.comparing(ClozeElementEmbeddable::getPosition)).toList()) {
-                        switch(clozeItem.getType()) {
-                            case TEXT -> sb.append(clozeItem.getText());
-                            case BLANK -> sb.append(clozeItem.getCorrectAnswer());
-                        }
-                    }
-                    break;
-                case final ExactAnswerQuestionEntity exactAnswerQuestion:
-                    sb.append("Task: Answer the question.\n\n");
-
-                    printHint(sb, exactAnswerQuestion);
-
-                    sb.append("Question: ");
-                    sb.append(exactAnswerQuestion.getText());
-                    sb.append("\n");
-                    for(final String correctAnswer : exactAnswerQuestion.getCorrectAnswers()) {
-                        sb.append("Correct Answer: ");
-                        sb.append(correctAnswer);
-                        sb.append("\n");
-                    }
-                    break;
-                case final MultipleChoiceQuestionEntity multipleChoiceQuestion:
-                    sb.append("Task: Choose the correct answer(s).\n\n");
-
-                    printHint(sb, multipleChoiceQuestion);
-
-                    sb.append("Question: ");
-                    sb.append(multipleChoiceQuestion.getText());
-                    sb.append("\n");
-                    for(final MultipleChoiceAnswerEmbeddable answer : multipleChoiceQuestion.getAnswers()) {
-                        if(!answer.isCorrect())
-                            continue;
-
-                        sb.append("Correct Answer: ");
-                        sb.append(answer.getAnswerText());
-                        sb.append("\n");
-                    }
-                    break;
-                case final NumericQuestionEntity numericQuestionEntity:
-                    sb.append("Task: Find the correct number/value to the question.\n\n");
-
-                    printHint(sb, numericQuestionEntity);
-
-                    sb.append("Question: ");
-                    sb.append(numericQuestionEntity.getText());
-                    sb.append("\n");
-
-                    sb.append("Correct Answer: ");
-                    sb.append(numericQuestionEntity.getCorrectAnswer());
-                    break;
-                case final SelfAssessmentQuestionEntity selfAssessmentQuestionEntity:
-                    sb.append("Task: Find a free-form answer to the question and self-assess its correctness.\n\n");
-
-                    printHint(sb, selfAssessmentQuestionEntity);
-
-                    sb.append("Question: ");
-                    sb.append(selfAssessmentQuestionEntity.getText());
-                    sb.append("\n");
-
-                    sb.append("Correct Answer: ");
-                    sb.append(selfAssessmentQuestionEntity.getSolutionSuggestion());
-                    break;
-                default:
-                    // throw if we encounter a question type we don't know
-                    throw new IllegalArgumentException(
-                            "Unknown question type could not be converted to textual representation: "
-                                    + question.getType());
-            }
-            results.add(new AssessmentContentMutatedEvent.TaskInformation(question.getItemId(), sb.toString().trim()));
-        }
-
-        return results;
+    /**
+     * Calculates the correctness value for a quiz
+     *
+     * @param correctAnswers number of correct answers
+     * @param answerKey      answer key of the quiz
+     * @return calculated correctness value
+     * @see QuizAnswerKey#calculateCorrectness(double)
+     */
+    protected double calculateCorrectness(final double correctAnswers, final QuizAnswerKey answerKey) {
+        return answerKey.calculateCorrectness(correctAnswers);
     }
 
     /**
-     * Helper method to print the hint of a question to a StringBuilder, used to generate the textual representation
-     * of a question.
+     * Publishes the deletion of the given questions as items, with a single event for all of them.
+     *
+     * @param itemIds the ids of the deleted questions
      */
-    private void printHint(StringBuilder sb, QuestionEntity question) {
-        if(question.getHint() != null) {
-            sb.append("Hint: ");
-            sb.append(question.getHint());
-            sb.append("\n\n");
-        }
+    private void publishItemDeletionEvents(final Collection<UUID> itemIds) {
+        eventOutbox.notifyItemsChanged(itemIds, CrudOperation.DELETE);
     }
 }
@@ -0,0 +1,252 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.validation.QuizValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Exports and imports all quizzes of a course in the NDJSON format, i.e., one JSON object per line and quiz,
+ * used to copy question banks between courses.
+ * <p>
+ * A line contains the quiz entity with all questions and their element collections. Questions are distinguished
+ * by their type, see {@link QuestionEntityMixIn}. The version of a quiz is not exported, imported quizzes start
+ * with version 0.
+ * <p>
+ * Neither direction holds the whole course in memory: the export pages through the quizzes of the course by id,
+ * loading and writing a fixed number of quizzes at a time, and the import reads the input stream quiz by quiz,
+ * flushing the inserts in JDBC batches.
+ */
+@Service
+@Transactional
+public class QuizTransferService {
+
+    /**
+     * Number of quizzes that are loaded at once during the export.
+     */
+    static final int EXPORT_CHUNK_SIZE = 100;
+    /**
+     * Number of quizzes after which the import flushes and clears the persistence context.
+     */
+    static final int IMPORT_FLUSH_INTERVAL = 50;
+
+    private final QuizRepository quizRepository;
+    private final EntityManager entityManager;
+    private final QuizValidator quizValidator;
+    private final AssessmentContentMutationPublisher assessmentContentMutationPublisher;
+    private final TransactionTemplate exportTransactionTemplate;
+    private final ObjectWriter quizWriter;
+    private final ObjectReader quizReader;
+
+    public QuizTransferService(final QuizRepository quizRepository,
+                               final EntityManager entityManager,
+                               final QuizValidator quizValidator,
+                               final AssessmentContentMutationPublisher assessmentContentMutationPublisher,
+                               final PlatformTransactionManager transactionManager,
+                               final ObjectMapper objectMapper) {
+        this.quizRepository = quizRepository;
+        this.entityManager = entityManager;
+        this.quizValidator = quizValidator;
+        this.assessmentContentMutationPublisher = assessmentContentMutationPublisher;
+        this.exportTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.exportTransactionTemplate.setReadOnly(true);
+
+        final ObjectMapper transferObjectMapper = objectMapper.copy()
+                .addMixIn(QuizEntity.class, QuizEntityMixIn.class)
+                .addMixIn(QuestionEntity.class, QuestionEntityMixIn.class);
+        // the streams are owned by the caller
+        this.quizWriter = transferObjectMapper.writerFor(QuizEntity.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.quizReader = transferObjectMapper.readerFor(QuizEntity.class)
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    /**
+     * Writes all quizzes of the given course to the output stream, one quiz per line, ordered by their id.
+     * <p>
+     * Every chunk of quizzes is loaded and serialized in its own read-only transaction, which is completed before
+     * the chunk is written, so a slow reader does not hold a transaction open. Quizzes that are created while the
+     * course is exported are exported if their id follows the last exported id.
+     *
+     * @param courseId     the id of the course
+     * @param outputStream the stream to write to, is not closed
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public void exportCourse(final UUID courseId, final OutputStream outputStream) throws IOException {
+        UUID lastExportedId = QuizRepository.FIRST_ASSESSMENT_ID;
+        while (true) {
+            final ExportedChunk chunk = exportChunk(courseId, lastExportedId);
+            if (chunk.assessmentIds().isEmpty()) {
+                return;
+            }
+            outputStream.write(chunk.content());
+            outputStream.flush();
+
+            if (chunk.assessmentIds().size() < EXPORT_CHUNK_SIZE) {
+                return;
+            }
+            lastExportedId = chunk.assessmentIds().getLast();
+        }
+    }
+
+    private ExportedChunk exportChunk(final UUID courseId, final UUID after) throws IOException {
+        try {
+            return exportTransactionTemplate.execute(status -> {
+                final List<UUID> assessmentIds = quizRepository.findAssessmentIdsByCourseIdAfter(courseId, after,
+                        Limit.of(EXPORT_CHUNK_SIZE));
+                final Map<UUID, QuizEntity> quizzesById = new HashMap<>();
+                for (final QuizEntity quiz : quizRepository.findAllByIdWithQuestions(assessmentIds)) {
+                    quizzesById.put(quiz.getAssessmentId(), quiz);
+                }
+
+                final ByteArrayOutputStream content = new ByteArrayOutputStream();
+                try {
+                    // in the order of the database, which the next chunk continues
+                    for (final UUID assessmentId : assessmentIds) {
+                        final QuizEntity quiz = quizzesById.get(assessmentId);
+                        if (quiz != null) {
+                            quizWriter.writeValue(content, quiz);
+                            content.write('\n');
+                        }
+                    }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new ExportedChunk(assessmentIds, content.toByteArray());
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Imports the quizzes of the input stream, in the format written by {@link #exportCourse}, into the given course.
+     * <p>
+     * The quizzes and questions are imported with new, random ids, so a course can also be copied within the same
+     * deployment. Every quiz is validated like a quiz created by the mutations,
+     * see {@link QuizValidator#validateImportedQuiz}.
+     * The quizzes are imported in a single transaction, i.e., either all or none of them are imported.
+     *
+     * @param courseId    the id of the course to import the quizzes into
+     * @param inputStream the stream to read from, is not closed
+     * @return the exported and the new ids of the imported quizzes and their questions, in the order of the input
+     * @throws IOException         if reading from the stream fails or the input is not valid JSON
+     * @throws ValidationException if a quiz is incomplete or invalid
+     */
+    public List<ImportedQuiz> importCourse(final UUID courseId, final InputStream inputStream) throws IOException {
+        final List<ImportedQuiz> importedQuizzes = new ArrayList<>();
+
+        try (final MappingIterator<QuizEntity> quizzes = quizReader.readValues(inputStream)) {
+            while (quizzes.hasNextValue()) {
+                final QuizEntity quiz = quizzes.nextValue();
+                validateImportedQuiz(quiz);
+
+                importedQuizzes.add(assignNewIds(quiz));
+                quiz.setCourseId(courseId);
+                quiz.setVersion(0);
+                entityManager.persist(quiz);
+
+                if (importedQuizzes.size() % IMPORT_FLUSH_INTERVAL == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        importedQuizzes.forEach(importedQuiz ->
+                assessmentContentMutationPublisher.scheduleEvent(importedQuiz.assessmentId()));
+        return importedQuizzes;
+    }
+
+    private void validateImportedQuiz(final QuizEntity quiz) {
+        if (quiz.getAssessmentId() == null) {
+            throw new ValidationException("Imported quiz has no assessment id");
+        }
+        final Set<UUID> itemIds = new HashSet<>();
+        for (final QuestionEntity question : quiz.getQuestionPool()) {
+            if (question.getItemId() == null || !itemIds.add(question.getItemId())) {
+                throw new ValidationException("Question of imported quiz " + quiz.getAssessmentId()
+                                              + " has no or a duplicate item id");
+            }
+        }
+        try {
+            quizValidator.validateImportedQuiz(quiz);
+        } catch (final ValidationException e) {
+            throw new ValidationException("Imported quiz " + quiz.getAssessmentId() + " is invalid: " + e.getMessage(), e);
+        }
+    }
+
+    private static ImportedQuiz assignNewIds(final QuizEntity quiz) {
+        final UUID exportedAssessmentId = quiz.getAssessmentId();
+        quiz.setAssessmentId(UUID.randomUUID());
+
+        final Map<UUID, UUID> itemIds = LinkedHashMap.newLinkedHashMap(quiz.getQuestionPool().size());
+        for (final QuestionEntity question : quiz.getQuestionPool()) {
+            final UUID newItemId = UUID.randomUUID();
+            itemIds.put(question.getItemId(), newItemId);
+            question.setItemId(newItemId);
+        }
+        return new ImportedQuiz(exportedAssessmentId, quiz.getAssessmentId(), itemIds);
+    }
+
+    /**
+     * The ids of an imported quiz and its questions.
+     *
+     * @param exportedAssessmentId the id of the quiz in the input
+     * @param assessmentId         the id of the imported quiz
+     * @param itemIds              the ids of the questions in the input, mapped to the ids of the imported questions
+     */
+    public record ImportedQuiz(UUID exportedAssessmentId, UUID assessmentId, Map<UUID, UUID> itemIds) {
+    }
+
+    private record ExportedChunk(List<UUID> assessmentIds, byte[] content) {
+    }
+
+    /**
+     * Excludes the version from the transfer format. Unknown properties are ignored,
+     * so exports of newer versions of this service can still be imported.
+     */
+    @JsonIgnoreProperties(value = "version", ignoreUnknown = true)
+    private abstract static class QuizEntityMixIn {
+    }
+
+    /**
+     * Serializes the question type, which is already a property of every question, as type id,
+     * so that the question subtypes can be deserialized. Derived properties are not exported.
+     */
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type", visible = true)
+    @JsonSubTypes({
+            @JsonSubTypes.Type(value = MultipleChoiceQuestionEntity.class, name = "MULTIPLE_CHOICE"),
+            @JsonSubTypes.Type(value = ClozeQuestionEntity.class, name = "CLOZE"),
+            @JsonSubTypes.Type(value = AssociationQuestionEntity.class, name = "ASSOCIATION"),
+            @JsonSubTypes.Type(value = ExactAnswerQuestionEntity.class, name = "EXACT_ANSWER"),
+            @JsonSubTypes.Type(value = NumericQuestionEntity.class, name = "NUMERIC"),
+            @JsonSubTypes.Type(value = SelfAssessmentQuestionEntity.class, name = "SELF_ASSESSMENT")
+    })
+    @JsonIgnoreProperties(value = "numberOfCorrectAnswers", ignoreUnknown = true)
+    private abstract static class QuestionEntityMixIn {
+    }
+}
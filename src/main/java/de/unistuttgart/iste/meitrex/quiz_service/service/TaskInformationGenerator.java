@@ -0,0 +1,296 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.AssessmentContentMutatedEvent;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionTaskInformationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the textual representation of the questions of a quiz,
+ * which is sent with the {@link AssessmentContentMutatedEvent}.
+ * <p>
+ * The rendered text of every question is stored together with a hash of the content it was rendered from,
+ * see {@link QuestionTaskInformationEntity}. Only questions whose content hash changed are rendered again,
+ * the text of all other questions is taken from the stored copy.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskInformationGenerator {
+
+    /**
+     * Part of every content hash. Must be changed whenever the rendered format changes,
+     * so that all stored texts are rendered again.
+     */
+    private static final long RENDER_FORMAT_VERSION = 1;
+
+    private final QuestionTaskInformationRepository questionTaskInformationRepository;
+
+    /**
+     * Generates task information for the given quiz. Only questions whose content changed since the last
+     * generation are rendered, and only their stored texts are updated.
+     *
+     * @param quiz The quiz for which to generate task information.
+     * @return Returns a list containing the task information.
+     */
+    public List<AssessmentContentMutatedEvent.TaskInformation> generateTaskInformation(final QuizEntity quiz) {
+        final List<QuestionEntity> questions = quiz.getQuestionPool();
+        if (questions.isEmpty()) {
+            return List.of();
+        }
+
+        final Map<UUID, QuestionTaskInformationEntity> storedById = questionTaskInformationRepository
+                .findAllById(questions.stream().map(QuestionEntity::getItemId).toList())
+                .stream()
+                .collect(Collectors.toMap(QuestionTaskInformationEntity::getItemId, Function.identity()));
+
+        final List<AssessmentContentMutatedEvent.TaskInformation> results = new ArrayList<>(questions.size());
+        for (final QuestionEntity question : questions) {
+            final byte[] contentHash = contentHash(question);
+            final QuestionTaskInformationEntity stored = storedById.get(question.getItemId());
+
+            final String text;
+            if (stored != null && Arrays.equals(stored.getContentHash(), contentHash)) {
+                text = stored.getText();
+            } else {
+                text = renderTaskInformation(question);
+                questionTaskInformationRepository.upsert(question.getItemId(), contentHash, text);
+            }
+            results.add(new AssessmentContentMutatedEvent.TaskInformation(question.getItemId(), text));
+        }
+
+        return results;
+    }
+
+    /**
+     * Deletes the stored task information of the given questions, used when the questions are deleted.
+     *
+     * @param questionIds the ids of the deleted questions
+     */
+    public void deleteTaskInformationOfQuestions(final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        questionTaskInformationRepository.deleteAllByIdInBatch(questionIds);
+    }
+
+    /**
+     * Renders the textual representation of a single question.
+     *
+     * @param question the question to render
+     * @return the textual representation of the question
+     */
+    public String renderTaskInformation(final QuestionEntity question) {
+        final StringBuilder sb = new StringBuilder();
+        switch (question) {
+            case final AssociationQuestionEntity associationQuestion:
+                sb.append("Task: Associate each item with the correct partner item.\n\n");
+
+                printHint(sb, associationQuestion);
+
+                sb.append("Question: ");
+                sb.append(associationQuestion.getText());
+                sb.append("\n");
+                for(final AssociationEmbeddable association : associationQuestion.getCorrectAssociations()) {
+                    sb.append(association.getLeft());
+                    sb.append(" - ");
+                    sb.append(association.getRight());
+                    sb.append("\n");
+                }
+                break;
+            case final ClozeQuestionEntity clozeQuestion:
+                sb.append("Task: Fill in the blanks in the text with the correct terms.\n\n");
+
+                printHint(sb, clozeQuestion);
+
+                for(final ClozeElementEmbeddable clozeItem : clozeQuestion.getClozeElements().stream()
+                        .sorted(Comparator.comparing(ClozeElementEmbeddable::getPosition)).toList()) {
+                    switch(clozeItem.getType()) {
+                        case TEXT -> sb.append(clozeItem.getText());
+                        case BLANK -> sb.append(clozeItem.getCorrectAnswer());
+                    }
+                }
+                break;
+            case final ExactAnswerQuestionEntity exactAnswerQuestion:
+                sb.append("Task: Answer the question.\n\n");
+
+                printHint(sb, exactAnswerQuestion);
+
+                sb.append("Question: ");
+                sb.append(exactAnswerQuestion.getText());
+                sb.append("\n");
+                for(final String correctAnswer : exactAnswerQuestion.getCorrectAnswers()) {
+                    sb.append("Correct Answer: ");
+                    sb.append(correctAnswer);
+                    sb.append("\n");
+                }
+                break;
+            case final MultipleChoiceQuestionEntity multipleChoiceQuestion:
+                sb.append("Task: Choose the correct answer(s).\n\n");
+
+                printHint(sb, multipleChoiceQuestion);
+
+                sb.append("Question: ");
+                sb.append(multipleChoiceQuestion.getText());
+                sb.append("\n");
+                for(final MultipleChoiceAnswerEmbeddable answer : multipleChoiceQuestion.getAnswers()) {
+                    if(!answer.isCorrect())
+                        continue;
+
+                    sb.append("Correct Answer: ");
+                    sb.append(answer.getAnswerText());
+                    sb.append("\n");
+                }
+                break;
+            case final NumericQuestionEntity numericQuestionEntity:
+                sb.append("Task: Find the correct number/value to the question.\n\n");
+
+                printHint(sb, numericQuestionEntity);
+
+                sb.append("Question: ");
+                sb.append(numericQuestionEntity.getText());
+                sb.append("\n");
+
+                sb.append("Correct Answer: ");
+                sb.append(numericQuestionEntity.getCorrectAnswer());
+                break;
+            case final SelfAssessmentQuestionEntity selfAssessmentQuestionEntity:
+                sb.append("Task: Find a free-form answer to the question and self-assess its correctness.\n\n");
+
+                printHint(sb, selfAssessmentQuestionEntity);
+
+                sb.append("Question: ");
+                sb.append(selfAssessmentQuestionEntity.getText());
+                sb.append("\n");
+
+                sb.append("Correct Answer: ");
+                sb.append(selfAssessmentQuestionEntity.getSolutionSuggestion());
+                break;
+            default:
+                // throw if we encounter a question type we don't know
+                throw new IllegalArgumentException(
+                        "Unknown question type could not be converted to textual representation: "
+                                + question.getType());
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Calculates a hash over all properties of a question that are part of its textual representation,
+     * see {@link #renderTaskInformation(QuestionEntity)}. This is cheaper than rendering the question,
+     * as the text is not built.
+     * <p>
+     * The hash is a SHA-256 digest of the UTF-8 encoded properties, each prefixed with its length, so different
+     * contents practically never share a hash and the stored text of a changed question is always rendered again.
+     *
+     * @param question the question
+     * @return the content hash of the question, 32 bytes
+     */
+    public byte[] contentHash(final QuestionEntity question) {
+        final ContentHasher hasher = new ContentHasher()
+                .add(RENDER_FORMAT_VERSION)
+                .add(question.getType())
+                .add(question.getHint());
+
+        switch (question) {
+            case final AssociationQuestionEntity associationQuestion -> {
+                hasher.add(associationQuestion.getText());
+                for (final AssociationEmbeddable association : associationQuestion.getCorrectAssociations()) {
+                    hasher.add(association.getLeft());
+                    hasher.add(association.getRight());
+                }
+            }
+            case final ClozeQuestionEntity clozeQuestion -> {
+                for (final ClozeElementEmbeddable clozeElement : clozeQuestion.getClozeElements()) {
+                    hasher.add(clozeElement.getPosition());
+                    hasher.add(clozeElement.getType());
+                    hasher.add(clozeElement.getText());
+                    hasher.add(clozeElement.getCorrectAnswer());
+                }
+            }
+            case final ExactAnswerQuestionEntity exactAnswerQuestion -> {
+                hasher.add(exactAnswerQuestion.getText());
+                for (final String correctAnswer : exactAnswerQuestion.getCorrectAnswers()) {
+                    hasher.add(correctAnswer);
+                }
+            }
+            case final MultipleChoiceQuestionEntity multipleChoiceQuestion -> {
+                hasher.add(multipleChoiceQuestion.getText());
+                for (final MultipleChoiceAnswerEmbeddable answer : multipleChoiceQuestion.getAnswers()) {
+                    hasher.add(answer.getAnswerText());
+                    hasher.add(answer.isCorrect());
+                }
+            }
+            case final NumericQuestionEntity numericQuestion -> {
+                hasher.add(numericQuestion.getText());
+                hasher.add(numericQuestion.getCorrectAnswer());
+            }
+            case final SelfAssessmentQuestionEntity selfAssessmentQuestion -> {
+                hasher.add(selfAssessmentQuestion.getText());
+                hasher.add(selfAssessmentQuestion.getSolutionSuggestion());
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown question type could not be converted to textual representation: " + question.getType());
+        }
+
+        return hasher.digest();
+    }
+
+    /**
+     * Incrementally computes the SHA-256 digest of a sequence of property values. The digest is persisted, so every
+     * value is encoded by its string representation, which is stable across JVMs, and enums are encoded by name.
+     */
+    private static final class ContentHasher {
+        private final MessageDigest digest;
+
+        ContentHasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (final NoSuchAlgorithmException e) {
+                // every Java platform is required to support SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+
+        ContentHasher add(final Object value) {
+            if (value == null) {
+                // distinct from every length prefix of a non-null value
+                digest.update(intToBytes(-1));
+                return this;
+            }
+            final String string = value instanceof final Enum<?> enumValue ? enumValue.name() : String.valueOf(value);
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            // the length prefix keeps the boundaries between values, e.g., "ab" + "c" differs from "a" + "bc"
+            digest.update(intToBytes(bytes.length));
+            digest.update(bytes);
+            return this;
+        }
+
+        byte[] digest() {
+            return digest.digest();
+        }
+
+        private static byte[] intToBytes(final int value) {
+            return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+        }
+    }
+
+    /**
+     * Helper method to print the hint of a question to a StringBuilder, used to generate the textual representation
+     * of a question.
+     */
+    private void printHint(StringBuilder sb, QuestionEntity question) {
+        if(question.getHint() != null) {
+            sb.append("Hint: ");
+            sb.append(question.getHint());
+            sb.append("\n\n");
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package de.unistuttgart.iste.meitrex.quiz_service.validation;
 
-import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.quiz_service.service.AnswerMatcher;
 import de.unistuttgart.iste.meitrex.generated.dto.*;
 import jakarta.validation.ValidationException;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static de.unistuttgart.iste.meitrex.generated.dto.ClozeElementType.BLANK;
 import static de.unistuttgart.iste.meitrex.generated.dto.ClozeElementType.TEXT;
@@ -25,7 +30,11 @@ public class QuizValidator {
     }
 
     private void validateAtLeastOneAnswerCorrect(final List<MultipleChoiceAnswerInput> answers) {
-        if (answers.stream().noneMatch(MultipleChoiceAnswerInput::getCorrect)) {
+        validateAtLeastOneAnswerCorrect(answers.stream().map(MultipleChoiceAnswerInput::getCorrect));
+    }
+
+    private void validateAtLeastOneAnswerCorrect(final Stream<Boolean> correctFlags) {
+        if (correctFlags.noneMatch(Boolean.TRUE::equals)) {
             throw new ValidationException("At least one answer must be correct");
         }
     }
@@ -39,29 +48,37 @@ public class QuizValidator {
     }
 
     private void validateClozeElements(final List<ClozeElementInput> clozeElements) {
-        if (clozeElements.stream().map(ClozeElementInput::getType).noneMatch(BLANK::equals)) {
+        validateContainsBlank(clozeElements.stream().map(ClozeElementInput::getType));
+        clozeElements.forEach(clozeElement -> validateClozeElement(clozeElement.getType(),
+                clozeElement.getText(), clozeElement.getCorrectAnswer(), clozeElement.getFeedback()));
+    }
+
+    private void validateContainsBlank(final Stream<ClozeElementType> types) {
+        if (types.noneMatch(BLANK::equals)) {
             throw new ValidationException("Cloze quiz most contain at least one blank");
         }
-        clozeElements.forEach(this::validateClozeElement);
     }
 
-    private void validateClozeElement(final ClozeElementInput clozeElement) {
-        if (clozeElement.getType() == BLANK) {
-            if (clozeElement.getCorrectAnswer() == null) {
+    private void validateClozeElement(final ClozeElementType type,
+                                      final String text,
+                                      final String correctAnswer,
+                                      final String feedback) {
+        if (type == BLANK) {
+            if (correctAnswer == null) {
                 throw new ValidationException("correct answer is required for cloze blank elements");
             }
-            if (clozeElement.getText() != null) {
+            if (text != null) {
                 throw new ValidationException("text is not allowed for cloze blank elements");
             }
         }
-        if (clozeElement.getType() == TEXT) {
-            if (clozeElement.getCorrectAnswer() != null) {
+        if (type == TEXT) {
+            if (correctAnswer != null) {
                 throw new ValidationException("correct answer is not allowed for text elements");
             }
-            if (clozeElement.getText() == null) {
+            if (text == null) {
                 throw new ValidationException("text is required for cloze text elements");
             }
-            if (clozeElement.getFeedback() != null) {
+            if (feedback != null) {
                 throw new ValidationException("text elements cannot have feedback");
             }
         }
@@ -76,9 +93,11 @@ public class QuizValidator {
     }
 
     private void validateSidesUnique(final List<AssociationInput> associationInputs) {
-        final List<String> leftSide = associationInputs.stream().map(AssociationInput::getLeft).toList();
-        final List<String> rightSide = associationInputs.stream().map(AssociationInput::getRight).toList();
+        validateSidesUnique(associationInputs.stream().map(AssociationInput::getLeft).toList(),
+                associationInputs.stream().map(AssociationInput::getRight).toList());
+    }
 
+    private void validateSidesUnique(final List<String> leftSide, final List<String> rightSide) {
         final long leftSideDistinctCount = leftSide.stream().distinct().count();
         final long rightSideDistinctCount = rightSide.stream().distinct().count();
 
@@ -88,6 +107,101 @@ public class QuizValidator {
         }
     }
 
+    /**
+     * Validates a question operation of a batch, i.e., checks that exactly one operation is set
+     * and validates the input of the operation like the corresponding single mutation.
+     *
+     * @param input the question operation
+     * @throws ValidationException if not exactly one operation is set or the operation input is invalid
+     */
+    public void validateQuestionOperationInput(final QuestionOperationInput input) {
+        final long numberOfOperations = Stream.of(
+                        input.getAddMultipleChoiceQuestion(), input.getUpdateMultipleChoiceQuestion(),
+                        input.getAddClozeQuestion(), input.getUpdateClozeQuestion(),
+                        input.getAddAssociationQuestion(), input.getUpdateAssociationQuestion(),
+                        input.getAddExactAnswerQuestion(), input.getUpdateExactAnswerQuestion(),
+                        input.getAddNumericQuestion(), input.getUpdateNumericQuestion(),
+                        input.getAddSelfAssessmentQuestion(), input.getUpdateSelfAssessmentQuestion(),
+                        input.getRemoveQuestion(), input.getSwitchQuestions())
+                .filter(Objects::nonNull)
+                .count();
+        if (numberOfOperations != 1) {
+            throw new ValidationException("Exactly one operation must be set per question operation, but "
+                                          + numberOfOperations
+                                          + " are set.");
+        }
+
+        if (input.getAddMultipleChoiceQuestion() != null) {
+            validateCreateMultipleChoiceQuestionInput(input.getAddMultipleChoiceQuestion());
+        } else if (input.getUpdateMultipleChoiceQuestion() != null) {
+            validateUpdateMultipleChoiceQuestionInput(input.getUpdateMultipleChoiceQuestion());
+        } else if (input.getAddClozeQuestion() != null) {
+            validateCreateClozeQuestionInput(input.getAddClozeQuestion());
+        } else if (input.getUpdateClozeQuestion() != null) {
+            validateUpdateClozeQuestionInput(input.getUpdateClozeQuestion());
+        } else if (input.getAddAssociationQuestion() != null) {
+            validateCreateAssociationQuestionInput(input.getAddAssociationQuestion());
+        } else if (input.getUpdateAssociationQuestion() != null) {
+            validateUpdateAssociationQuestionInput(input.getUpdateAssociationQuestion());
+        }
+    }
+
+    /**
+     * Validates a quiz that is imported as a whole, see
+     * {@link de.unistuttgart.iste.meitrex.quiz_service.service.QuizTransferService#importCourse},
+     * with the same rules as the mutations that create the quiz and its questions.
+     *
+     * @param quizEntity the imported quiz, not yet persisted
+     * @throws ValidationException if the quiz or one of its questions is invalid
+     */
+    public void validateImportedQuiz(final QuizEntity quizEntity) {
+        if (quizEntity.getRequiredCorrectAnswers() < 0) {
+            throw new ValidationException("Required correct answers must not be negative");
+        }
+        final Integer numberOfRandomlySelectedQuestions = quizEntity.getNumberOfRandomlySelectedQuestions();
+        if (numberOfRandomlySelectedQuestions != null && numberOfRandomlySelectedQuestions < 0) {
+            throw new ValidationException("Number of randomly selected questions must not be negative");
+        }
+
+        final Set<Integer> numbers = new HashSet<>();
+        for (final QuestionEntity question : quizEntity.getQuestionPool()) {
+            if (!numbers.add(question.getNumber())) {
+                throw new ValidationException("Question number must be unique, but the number "
+                                              + question.getNumber()
+                                              + " is used twice.");
+            }
+            validateImportedQuestion(question);
+        }
+    }
+
+    private void validateImportedQuestion(final QuestionEntity question) {
+        switch (question) {
+            case MultipleChoiceQuestionEntity multipleChoice -> validateAtLeastOneAnswerCorrect(
+                    multipleChoice.getAnswers().stream().map(MultipleChoiceAnswerEmbeddable::isCorrect));
+            case ClozeQuestionEntity cloze -> {
+                validateContainsBlank(cloze.getClozeElements().stream().map(ClozeElementEmbeddable::getType));
+                cloze.getClozeElements().forEach(clozeElement -> validateClozeElement(clozeElement.getType(),
+                        clozeElement.getText(), clozeElement.getCorrectAnswer(), clozeElement.getFeedback()));
+                validateMaximumEditDistance(cloze.getMaximumEditDistance());
+            }
+            case AssociationQuestionEntity association -> validateSidesUnique(
+                    association.getCorrectAssociations().stream().map(AssociationEmbeddable::getLeft).toList(),
+                    association.getCorrectAssociations().stream().map(AssociationEmbeddable::getRight).toList());
+            case ExactAnswerQuestionEntity exactAnswer -> validateMaximumEditDistance(exactAnswer.getMaximumEditDistance());
+            default -> {
+                // no further constraints
+            }
+        }
+    }
+
+    private void validateMaximumEditDistance(final int maximumEditDistance) {
+        if (maximumEditDistance < 0 || maximumEditDistance > AnswerMatcher.MAX_EDIT_DISTANCE) {
+            throw new ValidationException("Maximum edit distance must be between 0 and "
+                                          + AnswerMatcher.MAX_EDIT_DISTANCE
+                                          + ", but is " + maximumEditDistance);
+        }
+    }
+
     /**
      * Checks if the question number is unique in the quiz
      *
@@ -96,7 +210,7 @@ public class QuizValidator {
      * @throws ValidationException if the question number is not unique
      */
     public void checkNumberIsUnique(final QuizEntity quizEntity, final int questionNumber) {
-        if (quizEntity.getQuestionPool().stream().anyMatch(q -> q.getNumber() == questionNumber)) {
+        if (quizEntity.containsQuestionNumber(questionNumber)) {
             throw new ValidationException("Question number must be unique, but the number "
                                           + questionNumber
                                           + " is already used.");
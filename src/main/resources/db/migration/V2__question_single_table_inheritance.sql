@@ -0,0 +1,67 @@
+-- Migrates the question hierarchy from TABLE_PER_CLASS to SINGLE_TABLE inheritance.
+--
+-- Before, each question type was stored in its own table and every load of a question pool resulted in a
+-- UNION ALL over all of these tables. Afterwards, all questions are stored in the "question" table and
+-- distinguished by the "dtype" discriminator column.
+--
+-- The schema itself is managed by Hibernate, which runs after the migrations. Fresh databases do not contain
+-- the old tables, in which case only the index is created (if the join table already exists).
+DO
+$$
+BEGIN
+    IF to_regclass('question') IS NOT NULL AND to_regclass('multiple_choice_question') IS NOT NULL THEN
+
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS dtype VARCHAR(31);
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS text TEXT;
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS show_blanks_list BOOLEAN;
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS case_sensitive BOOLEAN;
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS feedback TEXT;
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS correct_answer FLOAT(53);
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS tolerance FLOAT(53);
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS solution_suggestion TEXT;
+
+        UPDATE question SET dtype = 'Question' WHERE dtype IS NULL;
+
+        INSERT INTO question (dtype, item_id, number, type, hint, text)
+        SELECT 'MultipleChoiceQuestion', item_id, number, type, hint, text
+        FROM multiple_choice_question;
+
+        INSERT INTO question (dtype, item_id, number, type, hint, show_blanks_list)
+        SELECT 'ClozeQuestion', item_id, number, type, hint, show_blanks_list
+        FROM cloze_question;
+
+        INSERT INTO question (dtype, item_id, number, type, hint, text)
+        SELECT 'AssociationQuestion', item_id, number, type, hint, text
+        FROM association_question;
+
+        INSERT INTO question (dtype, item_id, number, type, hint, text, case_sensitive, feedback)
+        SELECT 'ExactAnswerQuestion', item_id, number, type, hint, text, case_sensitive, feedback
+        FROM exact_answer_question;
+
+        INSERT INTO question (dtype, item_id, number, type, hint, text, correct_answer, tolerance, feedback)
+        SELECT 'NumericQuestion', item_id, number, type, hint, text, correct_answer, tolerance, feedback
+        FROM numeric_question;
+
+        INSERT INTO question (dtype, item_id, number, type, hint, text, solution_suggestion)
+        SELECT 'SelfAssessmentQuestion', item_id, number, type, hint, text, solution_suggestion
+        FROM self_assessment_question;
+
+        ALTER TABLE question ALTER COLUMN dtype SET NOT NULL;
+
+        -- CASCADE also drops the foreign keys of the element collection tables,
+        -- Hibernate recreates them referencing the "question" table
+        DROP TABLE multiple_choice_question CASCADE;
+        DROP TABLE cloze_question CASCADE;
+        DROP TABLE association_question CASCADE;
+        DROP TABLE exact_answer_question CASCADE;
+        DROP TABLE numeric_question CASCADE;
+        DROP TABLE self_assessment_question CASCADE;
+
+    END IF;
+
+    IF to_regclass('quiz_question_pool') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_quiz_question_pool_quiz_assessment_id
+            ON quiz_question_pool (quiz_assessment_id);
+    END IF;
+END
+$$;
@@ -0,0 +1,42 @@
+-- Creates the precomputed per-question and per-user answer aggregates and backfills them from the
+-- question statistic log. Afterwards, the aggregates are maintained incrementally by the service.
+--
+-- The schema itself is managed by Hibernate, which runs after the migrations. Fresh databases do not contain
+-- the statistic log yet, in which case nothing is done and Hibernate creates the aggregate tables.
+DO
+$$
+BEGIN
+    IF to_regclass('question_statistic') IS NOT NULL AND to_regclass('question_aggregate') IS NULL THEN
+
+        CREATE TABLE user_question_aggregate
+        (
+            user_id          UUID   NOT NULL,
+            question_id      UUID   NOT NULL,
+            attempts         BIGINT NOT NULL,
+            correct_attempts BIGINT NOT NULL,
+            PRIMARY KEY (user_id, question_id)
+        );
+        CREATE INDEX idx_user_question_aggregate_question_id ON user_question_aggregate (question_id);
+
+        CREATE TABLE question_aggregate
+        (
+            question_id      UUID PRIMARY KEY,
+            attempts         BIGINT NOT NULL,
+            correct_attempts BIGINT NOT NULL,
+            distinct_users   BIGINT NOT NULL
+        );
+
+        INSERT INTO user_question_aggregate (user_id, question_id, attempts, correct_attempts)
+        SELECT user_id, question_id, COUNT(*), COUNT(*) FILTER (WHERE answered_correctly)
+        FROM question_statistic
+        WHERE user_id IS NOT NULL AND question_id IS NOT NULL
+        GROUP BY user_id, question_id;
+
+        INSERT INTO question_aggregate (question_id, attempts, correct_attempts, distinct_users)
+        SELECT question_id, SUM(attempts), SUM(correct_attempts), COUNT(*)
+        FROM user_question_aggregate
+        GROUP BY question_id;
+
+    END IF;
+END
+$$;
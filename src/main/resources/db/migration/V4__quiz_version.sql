@@ -0,0 +1,10 @@
+-- Adds the version column to existing quizzes. Hibernate cannot add a NOT NULL column to a non-empty table
+-- without a default value. Fresh databases do not contain the quiz table yet, in which case nothing is done.
+DO
+$$
+BEGIN
+    IF to_regclass('quiz') IS NOT NULL THEN
+        ALTER TABLE quiz ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+    END IF;
+END
+$$;
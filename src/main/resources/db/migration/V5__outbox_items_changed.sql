@@ -0,0 +1,10 @@
+-- Hibernate generates a check constraint for the values of the event type enum when it creates the outbox table,
+-- but does not update it for new values. Drops the constraint, so ITEMS_CHANGED events can be stored.
+DO
+$$
+BEGIN
+    IF to_regclass('outbox_event') IS NOT NULL THEN
+        ALTER TABLE outbox_event DROP CONSTRAINT IF EXISTS outbox_event_event_type_check;
+    END IF;
+END
+$$;
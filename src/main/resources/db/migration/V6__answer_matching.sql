@@ -0,0 +1,10 @@
+-- Adds the answer matching options of exact answer and cloze questions. Existing questions keep matching exactly.
+DO
+$$
+BEGIN
+    IF to_regclass('question') IS NOT NULL THEN
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS ignore_spelling_variants BOOLEAN DEFAULT FALSE;
+        ALTER TABLE question ADD COLUMN IF NOT EXISTS maximum_edit_distance INTEGER DEFAULT 0;
+    END IF;
+END
+$$;
@@ -0,0 +1,10 @@
+-- Hibernate generates a check constraint for the ordinal values of the question pooling mode when it creates the quiz
+-- table, but does not update it for new values. Drops the constraint, so quizzes can use the ADAPTIVE mode.
+DO
+$$
+BEGIN
+    IF to_regclass('quiz') IS NOT NULL THEN
+        ALTER TABLE quiz DROP CONSTRAINT IF EXISTS quiz_question_pooling_mode_check;
+    END IF;
+END
+$$;
@@ -0,0 +1,17 @@
+-- Adds the columns for coalesced events and for claims of the outbox relay to existing outbox tables.
+-- Hibernate cannot add NOT NULL columns to a non-empty table without a default value.
+-- Pending ASSESSMENT_CONTENT_MUTATED events contain the generated event as payload and are published as before.
+DO
+$$
+BEGIN
+    IF to_regclass('outbox_event') IS NOT NULL THEN
+        ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS coalescing_key UUID;
+        ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS revision INTEGER NOT NULL DEFAULT 0;
+        ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP WITH TIME ZONE;
+        ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS published_items INTEGER NOT NULL DEFAULT 0;
+        IF to_regclass('uk_outbox_event_coalescing_key') IS NULL THEN
+            ALTER TABLE outbox_event ADD CONSTRAINT uk_outbox_event_coalescing_key UNIQUE (coalescing_key);
+        END IF;
+    END IF;
+END
+$$;
@@ -0,0 +1,19 @@
+-- Replaces the 64-bit content hash of the stored task information by a SHA-256 digest.
+-- The stored texts are only a cache of the rendered questions, so they are deleted and rendered again
+-- with the new hash on the next modification of their quiz. Fresh databases do not contain the table yet,
+-- in which case nothing is done.
+DO
+$$
+BEGIN
+    IF to_regclass('question_task_information') IS NOT NULL
+        AND EXISTS (SELECT 1
+                    FROM information_schema.columns
+                    WHERE table_name = 'question_task_information'
+                      AND column_name = 'content_hash'
+                      AND data_type = 'bigint') THEN
+        DELETE FROM question_task_information;
+        ALTER TABLE question_task_information DROP COLUMN content_hash;
+        ALTER TABLE question_task_information ADD COLUMN content_hash BYTEA NOT NULL;
+    END IF;
+END
+$$;
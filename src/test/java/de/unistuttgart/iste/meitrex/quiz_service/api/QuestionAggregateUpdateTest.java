@@ -0,0 +1,82 @@
+package de.unistuttgart.iste.meitrex.quiz_service.api;
+
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.MockTestPublisherConfiguration;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.UserQuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionAggregateRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuestionStatisticService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@GraphQlApiTest
+@ContextConfiguration(classes = MockTestPublisherConfiguration.class)
+class QuestionAggregateUpdateTest {
+
+    @Autowired
+    private QuestionStatisticService questionStatisticService;
+    @Autowired
+    private QuestionAggregateRepository questionAggregateRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Given two users
+     * When they complete questions, one of them twice and with a question answered twice in one completion
+     * Then the aggregates of the questions and of the users count every attempt and every user once
+     */
+    @Test
+    @Transactional
+    void testCompletedQuestionsAreAggregated() {
+        final UUID quizId = UUID.randomUUID();
+        final UUID firstUserId = UUID.randomUUID();
+        final UUID secondUserId = UUID.randomUUID();
+        final UUID firstQuestionId = UUID.randomUUID();
+        final UUID secondQuestionId = UUID.randomUUID();
+
+        questionStatisticService.logCompletedQuestions(quizId, firstUserId, List.of(
+                completedQuestion(secondQuestionId, true),
+                completedQuestion(firstQuestionId, false),
+                completedQuestion(secondQuestionId, false)));
+        questionStatisticService.logCompletedQuestions(quizId, firstUserId, List.of(
+                completedQuestion(firstQuestionId, true)));
+        questionStatisticService.logCompletedQuestions(quizId, secondUserId, List.of(
+                completedQuestion(firstQuestionId, true),
+                completedQuestion(secondQuestionId, true)));
+        entityManager.clear();
+
+        assertThat(questionAggregateRepository.findById(firstQuestionId).orElseThrow(),
+                is(new QuestionAggregateEntity(firstQuestionId, 3, 2, 2)));
+        assertThat(questionAggregateRepository.findById(secondQuestionId).orElseThrow(),
+                is(new QuestionAggregateEntity(secondQuestionId, 3, 2, 2)));
+
+        final List<UserQuestionAggregateEntity> userAggregates = questionAggregateRepository
+                .findUserAggregates(firstUserId, List.of(firstQuestionId, secondQuestionId));
+        assertThat(userAggregates.size(), is(2));
+        for (final UserQuestionAggregateEntity userAggregate : userAggregates) {
+            if (userAggregate.getQuestionId().equals(firstQuestionId)) {
+                assertThat(userAggregate, is(new UserQuestionAggregateEntity(firstUserId, firstQuestionId, 2, 1)));
+            } else {
+                assertThat(userAggregate, is(new UserQuestionAggregateEntity(firstUserId, secondQuestionId, 2, 1)));
+            }
+        }
+    }
+
+    private static QuestionCompletedInput completedQuestion(final UUID questionId, final boolean correct) {
+        return QuestionCompletedInput.builder()
+                .setQuestionId(questionId)
+                .setCorrect(correct)
+                .setUsedHint(false)
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package de.unistuttgart.iste.meitrex.quiz_service.api;
+
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.MockTestPublisherConfiguration;
+import de.unistuttgart.iste.meitrex.generated.dto.CreateSelfAssessmentQuestionInput;
+import de.unistuttgart.iste.meitrex.generated.dto.Question;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletionFeedback;
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuestionStatisticService;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizCompletionService;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+@GraphQlApiTest
+@ContextConfiguration(classes = MockTestPublisherConfiguration.class)
+class QuizAttemptSelectionTest {
+
+    @Autowired
+    private QuizRepository quizRepository;
+    @Autowired
+    private QuizService quizService;
+    @Autowired
+    private QuizCompletionService quizCompletionService;
+    @Autowired
+    private QuestionStatisticService questionStatisticService;
+
+    /**
+     * Given an ADAPTIVE quiz that was shown to a user
+     * When other users complete the quiz before the user submits the attempt, changing the adaptive weights
+     * Then the attempt is shown again with the same questions and all answers to the shown questions are graded
+     */
+    @Test
+    void testAdaptiveSelectionIsFrozenPerAttempt() {
+        final QuizEntity quiz = createQuiz(QuestionPoolingMode.ADAPTIVE);
+        final UUID userId = UUID.randomUUID();
+
+        final List<UUID> shownQuestionIds = showQuiz(quiz.getAssessmentId(), userId);
+
+        // other users answer the shown questions correctly and all other questions wrong,
+        // so the shown questions become the least likely ones to be selected
+        for (int i = 0; i < 20; i++) {
+            questionStatisticService.logCompletedQuestions(quiz.getAssessmentId(), UUID.randomUUID(),
+                    quiz.getQuestionPool().stream()
+                            .map(question -> completedQuestion(question.getItemId(),
+                                    shownQuestionIds.contains(question.getItemId())))
+                            .toList());
+        }
+
+        assertThat(showQuiz(quiz.getAssessmentId(), userId), is(shownQuestionIds));
+
+        final QuizCompletionFeedback feedback = quizCompletionService.logQuizCompleted(
+                completeQuestions(quiz.getAssessmentId(), shownQuestionIds), userId);
+
+        assertThat(feedback.getCorrectness(), is(1.0));
+        assertThat(feedback.getSuccess(), is(true));
+
+        // the next attempt gets a new selection
+        assertThat(showQuiz(quiz.getAssessmentId(), userId), is(not(shownQuestionIds)));
+    }
+
+    /**
+     * Given a RANDOM quiz that was shown to a user
+     * When questions are added to and removed from the question pool before the user submits the attempt
+     * Then the attempt is shown again with the same questions and all answers to the shown questions are graded
+     */
+    @Test
+    void testRandomSelectionIsFrozenPerAttempt() {
+        final QuizEntity quiz = createQuiz(QuestionPoolingMode.RANDOM);
+        final UUID userId = UUID.randomUUID();
+
+        final List<UUID> shownQuestionIds = showQuiz(quiz.getAssessmentId(), userId);
+
+        final QuestionEntity notShownQuestion = quiz.getQuestionPool().stream()
+                .filter(question -> !shownQuestionIds.contains(question.getItemId()))
+                .findFirst()
+                .orElseThrow();
+        quizService.removeQuestion(quiz.getAssessmentId(), notShownQuestion.getNumber());
+        quizService.addSelfAssessmentQuestion(quiz.getAssessmentId(), CreateSelfAssessmentQuestionInput.builder()
+                .setItemId(UUID.randomUUID())
+                .setNumber(1)
+                .setText("new question")
+                .setSolutionSuggestion("answer")
+                .build());
+
+        assertThat(showQuiz(quiz.getAssessmentId(), userId), is(shownQuestionIds));
+
+        final QuizCompletionFeedback feedback = quizCompletionService.logQuizCompleted(
+                completeQuestions(quiz.getAssessmentId(), shownQuestionIds), userId);
+
+        assertThat(feedback.getCorrectness(), is(1.0));
+        assertThat(feedback.getSuccess(), is(true));
+    }
+
+    private QuizEntity createQuiz(final QuestionPoolingMode questionPoolingMode) {
+        final List<QuestionEntity> questions = new ArrayList<>();
+        for (int number = 1; number <= 20; number++) {
+            questions.add(TestData.createSelfAssessmentQuestion(number, "question " + number, "answer"));
+        }
+        return quizRepository.save(QuizEntity.builder()
+                .assessmentId(UUID.randomUUID())
+                .courseId(UUID.randomUUID())
+                .questionPool(questions)
+                .questionPoolingMode(questionPoolingMode)
+                .numberOfRandomlySelectedQuestions(5)
+                .requiredCorrectAnswers(5)
+                .build());
+    }
+
+    private List<UUID> showQuiz(final UUID quizId, final UUID userId) {
+        final Collection<QuizHeader> headers = quizService
+                .findQuizHeadersByAssessmentIds(List.of(quizId), userId)
+                .values();
+        return quizService.findRandomizedQuizzes(headers, userId).get(quizId).getSelectedQuestions().stream()
+                .map(Question::getItemId)
+                .toList();
+    }
+
+    private static QuizCompletedInput completeQuestions(final UUID quizId, final List<UUID> questionIds) {
+        return QuizCompletedInput.builder()
+                .setQuizId(quizId)
+                .setCompletedQuestions(questionIds.stream()
+                        .map(questionId -> completedQuestion(questionId, true))
+                        .toList())
+                .build();
+    }
+
+    private static QuestionCompletedInput completedQuestion(final UUID questionId, final boolean correct) {
+        return QuestionCompletedInput.builder()
+                .setQuestionId(questionId)
+                .setCorrect(correct)
+                .setUsedHint(false)
+                .build();
+    }
+}
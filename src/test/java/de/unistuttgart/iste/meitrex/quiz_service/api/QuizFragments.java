@@ -26,6 +26,8 @@ public class QuizFragments {
                 }
                 ... on ClozeQuestion {
                     showBlanksList
+                    ignoreSpellingVariants
+                    maximumEditDistance
                     clozeElements {
                         ... on ClozeBlankElement {
                             correctAnswer
@@ -52,6 +54,8 @@ public class QuizFragments {
                     text
                     correctAnswers
                     caseSensitive
+                    ignoreSpellingVariants
+                    maximumEditDistance
                     feedback
                 }
                 ... on NumericQuestion {
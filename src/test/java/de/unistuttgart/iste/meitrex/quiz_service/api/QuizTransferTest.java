@@ -0,0 +1,178 @@
+package de.unistuttgart.iste.meitrex.quiz_service.api;
+
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.MockTestPublisherConfiguration;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.MultipleChoiceQuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizTransferService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ValidationException;
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.*;
+import static de.unistuttgart.iste.meitrex.quiz_service.matcher.QuestionEntityContentMatcher.hasSameContentExceptIdAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@GraphQlApiTest
+@ContextConfiguration(classes = MockTestPublisherConfiguration.class)
+class QuizTransferTest {
+
+    @Autowired
+    private QuizRepository quizRepository;
+    @Autowired
+    private QuizTransferService quizTransferService;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final UUID courseId = UUID.randomUUID();
+
+    /**
+     * Given a course with a quiz that contains every question type
+     * When the course is exported and the export is imported into another course
+     * Then a copy of the quiz with new ids and the same questions is created in the other course
+     */
+    @Test
+    @Transactional
+    void testExportAndImport() throws Exception {
+        final QuizEntity quizEntity = quizRepository.save(TestData.exampleQuizBuilder(courseId)
+                .questionPoolingMode(QuestionPoolingMode.RANDOM)
+                .numberOfRandomlySelectedQuestions(4)
+                .questionPool(List.of(
+                        createMultipleChoiceQuestion(1, "what is the capital of Germany?", "Berlin", "Paris"),
+                        createClozeQuestion(2, clozeText("The capital of France is"), clozeBlank("Paris")),
+                        createAssociationQuestion(3, association("Germany", "Berlin"), association("France", "Paris")),
+                        createExactAnswerQuestion(4, "what is the capital of Spain?", "Madrid"),
+                        createNumericQuestion(5, "how many states does Germany have?", 16),
+                        createSelfAssessmentQuestion(6, "what is the capital of Italy?", "Rome")))
+                .build());
+        // another course that is not exported
+        quizRepository.save(TestData.exampleQuizBuilder(UUID.randomUUID()).build());
+        final List<QuestionEntity> expectedQuestions = List.copyOf(quizEntity.getQuestionPool());
+        entityManager.flush();
+
+        final ByteArrayOutputStream export = new ByteArrayOutputStream();
+        quizTransferService.exportCourse(courseId, export);
+
+        final String exportedContent = export.toString(StandardCharsets.UTF_8);
+        assertThat(exportedContent.lines().toList(), hasSize(1));
+        assertThat(exportedContent, endsWith("\n"));
+
+        final UUID otherCourseId = UUID.randomUUID();
+        final List<QuizTransferService.ImportedQuiz> importedQuizzes = quizTransferService.importCourse(otherCourseId,
+                new ByteArrayInputStream(export.toByteArray()));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(importedQuizzes, hasSize(1));
+        final QuizTransferService.ImportedQuiz importedIds = importedQuizzes.get(0);
+        assertThat(importedIds.exportedAssessmentId(), is(quizEntity.getAssessmentId()));
+        assertThat(importedIds.assessmentId(), is(not(quizEntity.getAssessmentId())));
+        assertThat(List.copyOf(importedIds.itemIds().keySet()),
+                is(expectedQuestions.stream().map(QuestionEntity::getItemId).toList()));
+
+        final QuizEntity importedQuiz = quizRepository.findById(importedIds.assessmentId()).orElseThrow();
+        assertThat(importedQuiz.getCourseId(), is(otherCourseId));
+        assertThat(importedQuiz.getQuestionPoolingMode(), is(QuestionPoolingMode.RANDOM));
+        assertThat(importedQuiz.getNumberOfRandomlySelectedQuestions(), is(4));
+        assertThat(importedQuiz.getRequiredCorrectAnswers(), is(quizEntity.getRequiredCorrectAnswers()));
+        assertThat(importedQuiz.getVersion(), is(0L));
+        assertThat(importedQuiz.getQuestionPool().stream().map(QuestionEntity::getItemId).toList(),
+                is(List.copyOf(importedIds.itemIds().values())));
+        assertThat(importedQuiz.getQuestionPool(), contains(expectedQuestions.stream()
+                .<Matcher<? super QuestionEntity>>map(question -> hasSameContentExceptIdAs(question))
+                .toList()));
+        // the exported quiz is unchanged
+        assertThat(quizRepository.findById(quizEntity.getAssessmentId()).orElseThrow().getCourseId(), is(courseId));
+    }
+
+    /**
+     * Given a course with more quizzes than are exported at once
+     * When the course is exported
+     * Then every quiz is exported exactly once
+     */
+    @Test
+    @Transactional
+    void testExportInChunks() throws Exception {
+        final int numberOfQuizzes = 150;
+        for (int i = 0; i < numberOfQuizzes; i++) {
+            quizRepository.save(TestData.exampleQuizBuilder(courseId).build());
+        }
+        entityManager.flush();
+
+        final ByteArrayOutputStream export = new ByteArrayOutputStream();
+        quizTransferService.exportCourse(courseId, export);
+
+        final List<UUID> importedIds = quizTransferService.importCourse(UUID.randomUUID(),
+                        new ByteArrayInputStream(export.toByteArray())).stream()
+                .map(QuizTransferService.ImportedQuiz::exportedAssessmentId)
+                .toList();
+        assertThat(importedIds, hasSize(numberOfQuizzes));
+        assertThat(Set.copyOf(importedIds), hasSize(numberOfQuizzes));
+    }
+
+    /**
+     * Given a course with a quiz
+     * When the export of the course is imported into the same course while the quiz still exists
+     * Then a copy of the quiz is created
+     */
+    @Test
+    @Transactional
+    void testImportIntoSameCourse() throws Exception {
+        final QuizEntity quizEntity = quizRepository.save(TestData.exampleQuizBuilder(courseId)
+                .questionPool(List.of(createMultipleChoiceQuestion(1, "what is the capital of Germany?", "Berlin", "Paris")))
+                .build());
+        entityManager.flush();
+
+        final ByteArrayOutputStream export = new ByteArrayOutputStream();
+        quizTransferService.exportCourse(courseId, export);
+
+        final List<QuizTransferService.ImportedQuiz> importedQuizzes = quizTransferService.importCourse(courseId,
+                new ByteArrayInputStream(export.toByteArray()));
+        entityManager.flush();
+
+        assertThat(importedQuizzes, hasSize(1));
+        assertThat(importedQuizzes.get(0).assessmentId(), is(not(quizEntity.getAssessmentId())));
+        assertThat(quizRepository.findAllById(List.of(quizEntity.getAssessmentId(), importedQuizzes.get(0).assessmentId())),
+                hasSize(2));
+    }
+
+    /**
+     * Given an export with a multiple choice question without a correct answer
+     * When the export is imported
+     * Then the import is rejected
+     */
+    @Test
+    @Transactional
+    void testImportInvalidQuestion() throws Exception {
+        final MultipleChoiceQuestionEntity question
+                = createMultipleChoiceQuestion(1, "what is the capital of Germany?", "Berlin", "Paris");
+        question.getAnswers().forEach(answer -> answer.setCorrect(false));
+        quizRepository.save(TestData.exampleQuizBuilder(courseId).questionPool(List.of(question)).build());
+        entityManager.flush();
+
+        final ByteArrayOutputStream export = new ByteArrayOutputStream();
+        quizTransferService.exportCourse(courseId, export);
+
+        final ValidationException exception = assertThrows(ValidationException.class,
+                () -> quizTransferService.importCourse(courseId, new ByteArrayInputStream(export.toByteArray())));
+        assertThat(exception.getMessage(), containsString("At least one answer must be correct"));
+    }
+}
@@ -73,6 +73,8 @@ class MutateQuizAddExactAnswerQuestionTest {
                 .setText("question")
                 .setFeedback("feedback")
                 .setCaseSensitive(true)
+                .setIgnoreSpellingVariants(true)
+                .setMaximumEditDistance(2)
                 .setCorrectAnswers(List.of("a", "b"))
                 .build();
 
@@ -99,6 +101,12 @@ class MutateQuizAddExactAnswerQuestionTest {
                 .path("mutateQuiz._internal_noauth_addExactAnswerQuestion.questionPool[0].caseSensitive")
                 .entity(Boolean.class).isEqualTo(true)
 
+                .path("mutateQuiz._internal_noauth_addExactAnswerQuestion.questionPool[0].ignoreSpellingVariants")
+                .entity(Boolean.class).isEqualTo(true)
+
+                .path("mutateQuiz._internal_noauth_addExactAnswerQuestion.questionPool[0].maximumEditDistance")
+                .entity(Integer.class).isEqualTo(2)
+
                 .path("mutateQuiz._internal_noauth_addExactAnswerQuestion.questionPool[0].correctAnswers")
                 .entityList(String.class).contains("a", "b");
 
@@ -114,6 +122,8 @@ class MutateQuizAddExactAnswerQuestionTest {
         assertThat(exactAnswerQuestionEntity.getText(), is("question"));
         assertThat(exactAnswerQuestionEntity.getFeedback(), is("feedback"));
         assertThat(exactAnswerQuestionEntity.isCaseSensitive(), is(true));
+        assertThat(exactAnswerQuestionEntity.isIgnoreSpellingVariants(), is(true));
+        assertThat(exactAnswerQuestionEntity.getMaximumEditDistance(), is(2));
         assertThat(exactAnswerQuestionEntity.getCorrectAnswers(), hasSize(2));
         assertThat(exactAnswerQuestionEntity.getCorrectAnswers(), containsInAnyOrder("a", "b"));
 
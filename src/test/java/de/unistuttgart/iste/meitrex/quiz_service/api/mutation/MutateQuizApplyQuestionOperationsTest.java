@@ -0,0 +1,210 @@
+package de.unistuttgart.iste.meitrex.quiz_service.api.mutation;
+
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.InjectCurrentUserHeader;
+import de.unistuttgart.iste.meitrex.common.testutil.MockTestPublisherConfiguration;
+import de.unistuttgart.iste.meitrex.common.user_handling.LoggedInUser;
+import de.unistuttgart.iste.meitrex.generated.dto.*;
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import de.unistuttgart.iste.meitrex.quiz_service.api.QuizFragments;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.common.testutil.TestUsers.userWithMembershipInCourseWithId;
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.createMultipleChoiceQuestion;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@GraphQlApiTest
+@ContextConfiguration(classes = MockTestPublisherConfiguration.class)
+class MutateQuizApplyQuestionOperationsTest {
+
+    private static final String APPLY_QUESTION_OPERATIONS_MUTATION = QuizFragments.FRAGMENT_DEFINITION + """
+            mutation($id: UUID!, $operations: [QuestionOperationInput!]!) {
+                mutateQuiz(assessmentId: $id) {
+                    _internal_noauth_applyQuestionOperations(operations: $operations) {
+                        ...QuizAllFields
+                    }
+                }
+            }
+            """;
+
+    @Autowired
+    private QuizRepository quizRepository;
+    private final UUID courseId = UUID.randomUUID();
+
+    @InjectCurrentUserHeader
+    private final LoggedInUser loggedInUser = userWithMembershipInCourseWithId(courseId, LoggedInUser.UserRoleInCourse.ADMINISTRATOR);
+
+    /**
+     * Given a quiz with 2 questions
+     * When the "applyQuestionOperations" mutation is called with an add, a switch and a remove operation
+     * Then the operations are applied in order and the quiz is saved once
+     */
+    @Test
+    void testApplyQuestionOperations(final GraphQlTester graphQlTester) {
+        final QuizEntity quizEntity = saveQuizWithTwoQuestions();
+        final UUID firstQuestionId = quizEntity.getQuestionPool().get(0).getItemId();
+        final CreateMultipleChoiceQuestionInput addInput = createMultipleChoiceQuestionInput(true);
+
+        final List<QuestionOperationInput> operations = List.of(
+                QuestionOperationInput.builder().setAddMultipleChoiceQuestion(addInput).build(),
+                QuestionOperationInput.builder().setSwitchQuestions(SwitchQuestionsInput.builder()
+                        .setFirstNumber(1)
+                        .setSecondNumber(2)
+                        .build()).build(),
+                // removes the question that was the second question before the switch
+                QuestionOperationInput.builder().setRemoveQuestion(1).build());
+
+        final List<MultipleChoiceQuestion> questions = graphQlTester.document(APPLY_QUESTION_OPERATIONS_MUTATION)
+                .variable("id", quizEntity.getAssessmentId())
+                .variable("operations", operations)
+                .execute()
+                .path("mutateQuiz._internal_noauth_applyQuestionOperations.questionPool")
+                .entityList(MultipleChoiceQuestion.class)
+                .get();
+
+        assertThat(questions, hasSize(2));
+        assertThat(questions.get(0).getItemId(), is(firstQuestionId));
+        assertThat(questions.get(0).getNumber(), is(1));
+        assertThat(questions.get(1).getItemId(), is(addInput.getItemId()));
+        assertThat(questions.get(1).getNumber(), is(2));
+
+        final QuizEntity updatedQuiz = loadQuiz(quizEntity.getAssessmentId());
+        assertThat(questionIdsByNumber(updatedQuiz), contains(firstQuestionId, addInput.getItemId()));
+        assertThat(updatedQuiz.getVersion(), is(quizEntity.getVersion() + 1));
+    }
+
+    /**
+     * Given a quiz with 2 questions
+     * When the "applyQuestionOperations" mutation is called with a valid and an invalid operation
+     * Then an error is returned and none of the operations is applied
+     */
+    @Test
+    void testApplyQuestionOperationsInvalidOperation(final GraphQlTester graphQlTester) {
+        final QuizEntity quizEntity = saveQuizWithTwoQuestions();
+
+        final List<QuestionOperationInput> operations = List.of(
+                QuestionOperationInput.builder().setAddMultipleChoiceQuestion(createMultipleChoiceQuestionInput(true)).build(),
+                QuestionOperationInput.builder().setAddMultipleChoiceQuestion(createMultipleChoiceQuestionInput(false)).build());
+
+        graphQlTester.document(APPLY_QUESTION_OPERATIONS_MUTATION)
+                .variable("id", quizEntity.getAssessmentId())
+                .variable("operations", operations)
+                .execute()
+                .errors()
+                .satisfy(errors -> {
+                    assertThat(errors, hasSize(1));
+                    assertThat(errors.get(0).getMessage(), containsString("At least one answer must be correct"));
+                });
+
+        assertQuizUnchanged(quizEntity);
+    }
+
+    /**
+     * Given a quiz with 2 questions
+     * When the "applyQuestionOperations" mutation is called with an operation that sets two operations
+     * Then an error is returned and none of the operations is applied
+     */
+    @Test
+    void testApplyQuestionOperationsMultipleOperationsSet(final GraphQlTester graphQlTester) {
+        final QuizEntity quizEntity = saveQuizWithTwoQuestions();
+
+        final List<QuestionOperationInput> operations = List.of(
+                QuestionOperationInput.builder()
+                        .setAddMultipleChoiceQuestion(createMultipleChoiceQuestionInput(true))
+                        .setRemoveQuestion(1)
+                        .build());
+
+        graphQlTester.document(APPLY_QUESTION_OPERATIONS_MUTATION)
+                .variable("id", quizEntity.getAssessmentId())
+                .variable("operations", operations)
+                .execute()
+                .errors()
+                .satisfy(errors -> {
+                    assertThat(errors, hasSize(1));
+                    assertThat(errors.get(0).getMessage(), containsString("Exactly one operation must be set"));
+                });
+
+        assertQuizUnchanged(quizEntity);
+    }
+
+    /**
+     * Given a quiz with 2 questions
+     * When the "applyQuestionOperations" mutation is called with an add operation followed by
+     * the removal of a non-existing question
+     * Then an error is returned and the added question is rolled back
+     */
+    @Test
+    void testApplyQuestionOperationsRollback(final GraphQlTester graphQlTester) {
+        final QuizEntity quizEntity = saveQuizWithTwoQuestions();
+
+        final List<QuestionOperationInput> operations = List.of(
+                QuestionOperationInput.builder().setAddMultipleChoiceQuestion(createMultipleChoiceQuestionInput(true)).build(),
+                QuestionOperationInput.builder().setRemoveQuestion(4).build());
+
+        graphQlTester.document(APPLY_QUESTION_OPERATIONS_MUTATION)
+                .variable("id", quizEntity.getAssessmentId())
+                .variable("operations", operations)
+                .execute()
+                .errors()
+                .satisfy(errors -> {
+                    assertThat(errors, hasSize(1));
+                    assertThat(errors.get(0).getMessage(), containsString("Question with number 4 not found"));
+                });
+
+        assertQuizUnchanged(quizEntity);
+    }
+
+    private QuizEntity saveQuizWithTwoQuestions() {
+        return quizRepository.save(TestData.exampleQuizBuilder(courseId)
+                .questionPool(List.of(
+                        createMultipleChoiceQuestion(1, "what is the capital of Germany?", "Berlin", "Paris"),
+                        createMultipleChoiceQuestion(2, "what is the capital of France?", "Paris", "Madrid")))
+                .build());
+    }
+
+    private void assertQuizUnchanged(final QuizEntity quizEntity) {
+        final QuizEntity actualQuiz = loadQuiz(quizEntity.getAssessmentId());
+        assertThat(questionIdsByNumber(actualQuiz), is(questionIdsByNumber(quizEntity)));
+        assertThat(actualQuiz.getVersion(), is(quizEntity.getVersion()));
+    }
+
+    private QuizEntity loadQuiz(final UUID assessmentId) {
+        // loads the question pool without a surrounding transaction
+        return quizRepository.findAllByIdWithQuestions(List.of(assessmentId)).get(0);
+    }
+
+    private static List<UUID> questionIdsByNumber(final QuizEntity quizEntity) {
+        return quizEntity.getQuestionPool().stream()
+                .sorted(Comparator.comparingInt(QuestionEntity::getNumber))
+                .map(QuestionEntity::getItemId)
+                .toList();
+    }
+
+    private static CreateMultipleChoiceQuestionInput createMultipleChoiceQuestionInput(final boolean withCorrectAnswer) {
+        return CreateMultipleChoiceQuestionInput.builder()
+                .setItemId(UUID.randomUUID())
+                .setText("what is the capital of Spain?")
+                .setAnswers(List.of(
+                        MultipleChoiceAnswerInput.builder()
+                                .setAnswerText("Madrid")
+                                .setCorrect(withCorrectAnswer)
+                                .build(),
+                        MultipleChoiceAnswerInput.builder()
+                                .setAnswerText("Berlin")
+                                .setCorrect(false)
+                                .build()))
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package de.unistuttgart.iste.meitrex.quiz_service.api.mutation;
+
+import de.unistuttgart.iste.meitrex.common.dapr.TopicPublisher;
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.InjectCurrentUserHeader;
+import de.unistuttgart.iste.meitrex.common.testutil.MockTestPublisherConfiguration;
+import de.unistuttgart.iste.meitrex.common.user_handling.LoggedInUser;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.OutboxEventEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.OutboxEventRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.service.OutboxRelay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.common.testutil.TestUsers.userWithMembershipInCourseWithId;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@GraphQlApiTest
+@ContextConfiguration(classes = MockTestPublisherConfiguration.class)
+class MutateQuizAssessmentContentMutatedEventTest {
+
+    @Autowired
+    private TopicPublisher mockTopicPublisher;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    private final UUID courseId = UUID.randomUUID();
+
+    @InjectCurrentUserHeader
+    private final LoggedInUser loggedInUser = userWithMembershipInCourseWithId(courseId, LoggedInUser.UserRoleInCourse.ADMINISTRATOR);
+
+    /**
+     * Given a quiz
+     * When the quiz is modified twice by committed "mutateQuiz" mutations
+     * Then a single pending event for the quiz is stored in the outbox
+     * and the outbox relay publishes it and removes it from the outbox
+     */
+    @Test
+    void testModificationsArePublishedFromOutbox(final GraphQlTester graphQlTester) {
+        QuizEntity quizEntity = QuizEntity.builder()
+                .courseId(courseId)
+                .assessmentId(UUID.randomUUID())
+                .questionPoolingMode(QuestionPoolingMode.ORDERED)
+                .numberOfRandomlySelectedQuestions(1)
+                .requiredCorrectAnswers(1)
+                .questionPool(List.of(
+                        TestData.createMultipleChoiceQuestion(1, "what is the capital of Germany?", "Berlin", "Paris")))
+                .build();
+        quizEntity = quizRepository.save(quizEntity);
+        final UUID assessmentId = quizEntity.getAssessmentId();
+
+        final String query = """
+                mutation($id: UUID!, $requiredCorrectAnswers: Int!) {
+                    mutateQuiz(assessmentId: $id) {
+                        setRequiredCorrectAnswers(requiredCorrectAnswers: $requiredCorrectAnswers) { assessmentId }
+                    }
+                }
+                """;
+
+        for (int requiredCorrectAnswers = 1; requiredCorrectAnswers <= 2; requiredCorrectAnswers++) {
+            graphQlTester.document(query)
+                    .variable("id", assessmentId)
+                    .variable("requiredCorrectAnswers", requiredCorrectAnswers)
+                    .execute()
+                    .path("mutateQuiz.setRequiredCorrectAnswers.assessmentId").entity(UUID.class)
+                    .isEqualTo(assessmentId);
+        }
+
+        final List<OutboxEventEntity> pendingEvents = findPendingEvents(assessmentId);
+        assertThat(pendingEvents, hasSize(1));
+        assertThat(pendingEvents.get(0).getRevision(), is(1));
+        verify(mockTopicPublisher, never()).notifyAssessmentContentMutated(any());
+
+        outboxRelay.relayPendingEvents();
+
+        verify(mockTopicPublisher, times(1)).notifyAssessmentContentMutated(argThat(event ->
+                event.getAssessmentId().equals(assessmentId) && event.getCourseId().equals(courseId)));
+        assertThat(findPendingEvents(assessmentId), is(empty()));
+    }
+
+    private List<OutboxEventEntity> findPendingEvents(final UUID assessmentId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> assessmentId.equals(event.getCoalescingKey()))
+                .toList();
+    }
+}
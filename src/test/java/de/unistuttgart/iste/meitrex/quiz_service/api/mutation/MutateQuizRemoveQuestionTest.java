@@ -24,6 +24,7 @@ import java.util.UUID;
 import static de.unistuttgart.iste.meitrex.common.testutil.TestUsers.userWithMembershipInCourseWithId;
 import static de.unistuttgart.iste.meitrex.quiz_service.TestData.createMultipleChoiceQuestion;
 import static de.unistuttgart.iste.meitrex.quiz_service.matcher.MultipleChoiceQuestionDtoToEntityMatcher.matchesEntity;
+import static de.unistuttgart.iste.meitrex.quiz_service.matcher.QuestionEntityContentMatcher.hasSameContentAs;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -83,7 +84,7 @@ class MutateQuizRemoveQuestionTest {
         final QuizEntity newQuizEntity = quizRepository.findById(quizEntity.getAssessmentId()).orElseThrow();
         assertThat(newQuizEntity.getQuestionPool(), hasSize(2));
         assertThat(newQuizEntity.getQuestionPool(),
-                containsInAnyOrder(quizEntity.getQuestionPool().get(0), updatedQuestion));
+                containsInAnyOrder(hasSameContentAs(quizEntity.getQuestionPool().get(0)), hasSameContentAs(updatedQuestion)));
     }
 
     /**
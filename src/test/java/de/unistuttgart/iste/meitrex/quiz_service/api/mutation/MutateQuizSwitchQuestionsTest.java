@@ -26,6 +26,7 @@ import java.util.UUID;
 
 import static de.unistuttgart.iste.meitrex.common.testutil.TestUsers.userWithMembershipInCourseWithId;
 
+import static de.unistuttgart.iste.meitrex.quiz_service.matcher.QuestionEntityContentMatcher.hasSameContentAs;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -93,9 +94,9 @@ class MutateQuizSwitchQuestionsTest {
         final QuizEntity newQuizEntity = quizRepository.findById(quizEntity.getAssessmentId()).orElseThrow();
         assertThat(newQuizEntity.getQuestionPool(), hasSize(3));
 
-        assertThat(newQuizEntity.getQuestionPool().get(0), is(expectedFirstEntity));
-        assertThat(newQuizEntity.getQuestionPool().get(1), is(expectedSecondEntity));
-        assertThat(newQuizEntity.getQuestionPool().get(2), is(expectedThirdEntity));
+        assertThat(newQuizEntity.getQuestionPool().get(0), hasSameContentAs(expectedFirstEntity));
+        assertThat(newQuizEntity.getQuestionPool().get(1), hasSameContentAs(expectedSecondEntity));
+        assertThat(newQuizEntity.getQuestionPool().get(2), hasSameContentAs(expectedThirdEntity));
     }
 
     /**
@@ -17,12 +17,16 @@ import de.unistuttgart.iste.meitrex.quiz_service.TestData;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.service.OutboxRelay;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuizCompletionIngestionQueue;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.test.tester.HttpGraphQlTester;
 import org.springframework.test.annotation.Commit;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.transaction.TestTransaction;
 
 import java.util.List;
 import java.util.UUID;
@@ -30,8 +34,8 @@ import java.util.UUID;
 import static de.unistuttgart.iste.meitrex.common.testutil.TestUsers.userWithMembershipInCourseWithId;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.*;
 
 @GraphQlApiTest
 @ContextConfiguration(classes = MockTestPublisherConfiguration.class)
@@ -42,6 +46,12 @@ class MutationLogQuizCompletionTest {
 
     @Autowired
     private QuizRepository quizRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ObjectProvider<QuizCompletionIngestionQueue> ingestionQueue;
     private final UUID courseId = UUID.randomUUID();
 
     @InjectCurrentUserHeader
@@ -50,7 +60,8 @@ class MutationLogQuizCompletionTest {
     /**
      * Given a quiz
      * When the "logQuizCompletion" mutation is called with the quiz's assessment id
-     * Then the dapr topic publisher is called and the correct feedback is returned
+     * Then the correct feedback is returned and the dapr topic publisher is called by the outbox relay
+     * after the transaction was committed
      */
     @Test
     @Transactional
@@ -129,10 +140,25 @@ class MutationLogQuizCompletionTest {
                 .get();
 
         assertThat(actualFeedback, is(expectedQuizCompletionFeedback));
+        verify(mockTopicPublisher, never()).notifyUserWorkedOnContent(expectedUserProgressLogEvent);
+
+        TestTransaction.end();
+        outboxRelay.relayPendingEvents();
 
         verify(mockTopicPublisher, times(1))
                 .notifyUserWorkedOnContent(expectedUserProgressLogEvent);
 
     }
 
+    /**
+     * Given the default synchronous ingestion mode
+     * Then no ingestion queue is created and no ingestion worker thread is running
+     */
+    @Test
+    void testIngestionQueueIsNotStartedInSynchronousMode() {
+        assertThat(ingestionQueue.getIfAvailable(), is(nullValue()));
+        assertThat(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("quiz-completion-ingestion")), is(false));
+    }
+
 }
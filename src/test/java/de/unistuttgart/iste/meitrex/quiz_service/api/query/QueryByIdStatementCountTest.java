@@ -0,0 +1,170 @@
+package de.unistuttgart.iste.meitrex.quiz_service.api.query;
+
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.InjectCurrentUserHeader;
+import de.unistuttgart.iste.meitrex.common.user_handling.LoggedInUser;
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import de.unistuttgart.iste.meitrex.quiz_service.api.QuizFragments;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.common.testutil.TestUsers.userWithMembershipInCourseWithId;
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@GraphQlApiTest
+class QueryByIdStatementCountTest {
+
+    private static final String QUERY = QuizFragments.FRAGMENT_DEFINITION + """
+            query($ids: [UUID!]!) {
+                findQuizzesByAssessmentIds(assessmentIds: $ids) {
+                    ...QuizAllFields
+                }
+            }
+            """;
+
+    /**
+     * Number of statements needed to load any number of quizzes that are not cached:
+     * one for the headers of the quizzes, one for the quizzes and their question pools,
+     * and one for each element collection of the questions.
+     */
+    private static final long EXPECTED_STATEMENT_COUNT = 7;
+
+    /**
+     * Number of statements needed to load any number of cached quizzes, or any number of quizzes without
+     * requesting their questions: only the headers of the quizzes.
+     */
+    private static final long EXPECTED_STATEMENT_COUNT_CACHED = 1;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final UUID courseId = UUID.randomUUID();
+
+    @InjectCurrentUserHeader
+    private final LoggedInUser loggedInUser = userWithMembershipInCourseWithId(courseId, LoggedInUser.UserRoleInCourse.STUDENT);
+
+    /**
+     * Given a few and many quizzes with questions of all types
+     * When the "findQuizzesByAssessmentIds" query is executed for them
+     * Then the number of issued SQL statements is the same, independent of the number of quizzes
+     */
+    @Test
+    void testStatementCountIsIndependentOfNumberOfQuizzes(final GraphQlTester graphQlTester) {
+        final List<UUID> fewQuizIds = createQuizzes(2);
+        final List<UUID> manyQuizIds = createQuizzes(20);
+
+        final long statementsForFewQuizzes = countStatements(() -> executeQuery(graphQlTester, fewQuizIds));
+        final long statementsForManyQuizzes = countStatements(() -> executeQuery(graphQlTester, manyQuizIds));
+
+        assertThat(statementsForFewQuizzes, is(lessThanOrEqualTo(EXPECTED_STATEMENT_COUNT)));
+        assertThat(statementsForManyQuizzes, is(statementsForFewQuizzes));
+    }
+
+    /**
+     * Given quizzes that were already queried before
+     * When the "findQuizzesByAssessmentIds" query is executed for them again
+     * Then the quizzes are taken from the cache and only their headers are queried
+     */
+    @Test
+    void testCachedQuizzesAreNotLoadedAgain(final GraphQlTester graphQlTester) {
+        final List<UUID> quizIds = createQuizzes(5);
+        executeQuery(graphQlTester, quizIds);
+
+        final long statements = countStatements(() -> executeQuery(graphQlTester, quizIds));
+
+        assertThat(statements, is(EXPECTED_STATEMENT_COUNT_CACHED));
+    }
+
+    /**
+     * Given quizzes that were not queried before
+     * When the "findQuizzesByAssessmentIds" query is executed without requesting any questions
+     * Then only the headers of the quizzes are queried and the questions are not loaded
+     */
+    @Test
+    void testQuestionsAreOnlyLoadedWhenRequested(final GraphQlTester graphQlTester) {
+        final List<UUID> quizIds = createQuizzes(5);
+
+        final long statements = countStatements(() -> graphQlTester.document("""
+                        query($ids: [UUID!]!) {
+                            findQuizzesByAssessmentIds(assessmentIds: $ids) {
+                                assessmentId
+                                requiredCorrectAnswers
+                            }
+                        }
+                        """)
+                .variable("ids", quizIds)
+                .execute()
+                .path("findQuizzesByAssessmentIds[*].assessmentId").entityList(UUID.class).containsExactly(
+                        quizIds.toArray(UUID[]::new)));
+
+        assertThat(statements, is(EXPECTED_STATEMENT_COUNT_CACHED));
+    }
+
+    /**
+     * Given existing quizzes
+     * When the "findQuizzesByAssessmentIds" query is executed with ids in between that do not exist
+     * Then null is returned for the missing quizzes and the order of the requested ids is kept
+     */
+    @Test
+    void testOrderAndMissingQuizzesAreKept(final GraphQlTester graphQlTester) {
+        final List<UUID> quizIds = createQuizzes(2);
+        final UUID missingId = UUID.randomUUID();
+
+        graphQlTester.document(QUERY)
+                .variable("ids", List.of(quizIds.get(1), missingId, quizIds.get(0)))
+                .execute()
+                .path("findQuizzesByAssessmentIds[0].assessmentId").entity(UUID.class).isEqualTo(quizIds.get(1))
+                .path("findQuizzesByAssessmentIds[1]").valueIsNull()
+                .path("findQuizzesByAssessmentIds[2].assessmentId").entity(UUID.class).isEqualTo(quizIds.get(0));
+    }
+
+    private void executeQuery(final GraphQlTester graphQlTester, final List<UUID> quizIds) {
+        graphQlTester.document(QUERY)
+                .variable("ids", quizIds)
+                .execute()
+                .path("findQuizzesByAssessmentIds[*].questionPool[*]").entityList(Object.class)
+                .hasSize(quizIds.size() * 6);
+    }
+
+    private long countStatements(final Runnable runnable) {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        runnable.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<UUID> createQuizzes(final int count) {
+        final List<UUID> quizIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final QuizEntity quizEntity = TestData.exampleQuizBuilder(courseId)
+                    .questionPool(List.of(
+                            createMultipleChoiceQuestion(1, "question", "correct", "wrong"),
+                            createAssociationQuestion(2, association("A", "1"), association("B", "2")),
+                            createClozeQuestion(3, clozeText("text"), clozeBlank("answer")),
+                            createExactAnswerQuestion(4, "question", "answer"),
+                            createNumericQuestion(5, "question", 42),
+                            createSelfAssessmentQuestion(6, "question", "answer")))
+                    .build();
+            quizIds.add(quizRepository.save(quizEntity).getAssessmentId());
+        }
+        return quizIds;
+    }
+}
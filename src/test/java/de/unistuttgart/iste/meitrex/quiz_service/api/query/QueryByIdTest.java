@@ -145,6 +145,8 @@ class QueryByIdTest {
                         .setItemId(quizEntity.getQuestionPool().get(2).getItemId())
                         .setType(QuestionType.CLOZE)
                         .setShowBlanksList(true)
+                        .setIgnoreSpellingVariants(false)
+                        .setMaximumEditDistance(0)
                         .setAdditionalWrongAnswers(List.of("wrong1", "wrong2"))
                         .setClozeElements(List.of(
                                 ClozeTextElement.builder()
@@ -164,6 +166,8 @@ class QueryByIdTest {
                         .setText("question")
                         .setCorrectAnswers(List.of("answer"))
                         .setCaseSensitive(true)
+                        .setIgnoreSpellingVariants(false)
+                        .setMaximumEditDistance(0)
                         .setFeedback("feedback")
                         .build(),
                 NumericQuestion.builder()
@@ -0,0 +1,89 @@
+package de.unistuttgart.iste.meitrex.quiz_service.api.query;
+
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.InjectCurrentUserHeader;
+import de.unistuttgart.iste.meitrex.common.user_handling.LoggedInUser;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.service.QuestionStatisticService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import java.util.List;
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.common.testutil.TestUsers.userWithMembershipInCourseWithId;
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.*;
+
+@GraphQlApiTest
+class QueryQuestionStatisticsTest {
+
+    private static final String QUERY = """
+            query($id: UUID!) {
+                findQuizzesByAssessmentIds(assessmentIds: [$id]) {
+                    questionPool {
+                        statistics {
+                            attempts
+                            correctAttempts
+                            correctRate
+                            distinctUsers
+                        }
+                    }
+                }
+            }
+            """;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionStatisticService questionStatisticService;
+
+    private final UUID courseId = UUID.randomUUID();
+
+    @InjectCurrentUserHeader
+    private final LoggedInUser loggedInUser = userWithMembershipInCourseWithId(courseId, LoggedInUser.UserRoleInCourse.STUDENT);
+
+    /**
+     * Given a quiz with two questions, of which the first was answered three times by two users
+     * When the "statistics" field of the questions is queried
+     * Then the precomputed statistics are returned, and empty statistics for the unanswered question
+     */
+    @Test
+    void testQueryQuestionStatistics(final GraphQlTester graphQlTester) {
+        final QuizEntity quizEntity = quizRepository.save(TestData.exampleQuizBuilder(courseId)
+                .questionPool(List.of(
+                        createMultipleChoiceQuestion(1, "question", "correct", "wrong"),
+                        createExactAnswerQuestion(2, "question", "answer")))
+                .build());
+        final UUID answeredQuestionId = quizEntity.getQuestionPool().get(0).getItemId();
+        final UUID firstUserId = UUID.randomUUID();
+        final UUID secondUserId = UUID.randomUUID();
+
+        logAnswer(quizEntity.getAssessmentId(), firstUserId, answeredQuestionId, false);
+        logAnswer(quizEntity.getAssessmentId(), firstUserId, answeredQuestionId, true);
+        logAnswer(quizEntity.getAssessmentId(), secondUserId, answeredQuestionId, true);
+
+        graphQlTester.document(QUERY)
+                .variable("id", quizEntity.getAssessmentId())
+                .execute()
+                .path("findQuizzesByAssessmentIds[0].questionPool[0].statistics.attempts").entity(Integer.class).isEqualTo(3)
+                .path("findQuizzesByAssessmentIds[0].questionPool[0].statistics.correctAttempts").entity(Integer.class).isEqualTo(2)
+                .path("findQuizzesByAssessmentIds[0].questionPool[0].statistics.correctRate").entity(Double.class).isEqualTo(2.0 / 3)
+                .path("findQuizzesByAssessmentIds[0].questionPool[0].statistics.distinctUsers").entity(Integer.class).isEqualTo(2)
+                .path("findQuizzesByAssessmentIds[0].questionPool[1].statistics.attempts").entity(Integer.class).isEqualTo(0)
+                .path("findQuizzesByAssessmentIds[0].questionPool[1].statistics.correctRate").valueIsNull()
+                .path("findQuizzesByAssessmentIds[0].questionPool[1].statistics.distinctUsers").entity(Integer.class).isEqualTo(0);
+    }
+
+    private void logAnswer(final UUID quizId, final UUID userId, final UUID questionId, final boolean correct) {
+        questionStatisticService.logCompletedQuestions(quizId, userId, List.of(QuestionCompletedInput.builder()
+                .setQuestionId(questionId)
+                .setCorrect(correct)
+                .setUsedHint(false)
+                .build()));
+    }
+}
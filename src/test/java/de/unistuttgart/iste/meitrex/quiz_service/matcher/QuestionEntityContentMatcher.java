@@ -0,0 +1,138 @@
+package de.unistuttgart.iste.meitrex.quiz_service.matcher;
+
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.*;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Matcher for comparing the content of a {@link QuestionEntity} to the content of another {@link QuestionEntity}.
+ * <p>
+ * {@link QuestionEntity#equals} only compares the ids of the questions,
+ * this matcher compares all fields, including the element collections.
+ */
+public class QuestionEntityContentMatcher extends TypeSafeDiagnosingMatcher<QuestionEntity> {
+
+    private final QuestionEntity expected;
+    private final boolean compareIds;
+
+    public QuestionEntityContentMatcher(final QuestionEntity expected) {
+        this(expected, true);
+    }
+
+    private QuestionEntityContentMatcher(final QuestionEntity expected, final boolean compareIds) {
+        this.expected = expected;
+        this.compareIds = compareIds;
+    }
+
+    public static QuestionEntityContentMatcher hasSameContentAs(final QuestionEntity expected) {
+        return new QuestionEntityContentMatcher(expected);
+    }
+
+    /**
+     * Like {@link #hasSameContentAs}, but ignores the ids of the questions, e.g., to compare copied questions.
+     */
+    public static QuestionEntityContentMatcher hasSameContentExceptIdAs(final QuestionEntity expected) {
+        return new QuestionEntityContentMatcher(expected, false);
+    }
+
+    @Override
+    protected boolean matchesSafely(final QuestionEntity item, final Description mismatchDescription) {
+        if (item.getClass() != expected.getClass()) {
+            mismatchDescription.appendText("class was ").appendValue(item.getClass().getSimpleName());
+            return false;
+        }
+        return (!compareIds || matches("id", item.getItemId(), expected.getItemId(), mismatchDescription))
+               && matches("number", item.getNumber(), expected.getNumber(), mismatchDescription)
+               && matches("type", item.getType(), expected.getType(), mismatchDescription)
+               && matches("hint", item.getHint(), expected.getHint(), mismatchDescription)
+               && matchesTypeSpecificContent(item, mismatchDescription);
+    }
+
+    private boolean matchesTypeSpecificContent(final QuestionEntity item, final Description mismatchDescription) {
+        return switch (item) {
+            case final MultipleChoiceQuestionEntity question -> {
+                final MultipleChoiceQuestionEntity other = (MultipleChoiceQuestionEntity) expected;
+                yield matches("text", question.getText(), other.getText(), mismatchDescription)
+                      && matchesList("answers", question.getAnswers(), other.getAnswers(), mismatchDescription);
+            }
+            case final ClozeQuestionEntity question -> {
+                final ClozeQuestionEntity other = (ClozeQuestionEntity) expected;
+                yield matchesList("cloze elements", question.getClozeElements(), other.getClozeElements(),
+                        mismatchDescription)
+                      && matchesList("additional wrong answers", question.getAdditionalWrongAnswers(),
+                        other.getAdditionalWrongAnswers(), mismatchDescription)
+                      && matches("showBlanksList", question.isShowBlanksList(), other.isShowBlanksList(),
+                        mismatchDescription)
+                      && matches("ignoreSpellingVariants", question.isIgnoreSpellingVariants(),
+                        other.isIgnoreSpellingVariants(), mismatchDescription)
+                      && matches("maximumEditDistance", question.getMaximumEditDistance(),
+                        other.getMaximumEditDistance(), mismatchDescription);
+            }
+            case final AssociationQuestionEntity question -> {
+                final AssociationQuestionEntity other = (AssociationQuestionEntity) expected;
+                yield matches("text", question.getText(), other.getText(), mismatchDescription)
+                      && matchesList("correct associations", question.getCorrectAssociations(),
+                        other.getCorrectAssociations(), mismatchDescription);
+            }
+            case final ExactAnswerQuestionEntity question -> {
+                final ExactAnswerQuestionEntity other = (ExactAnswerQuestionEntity) expected;
+                yield matches("text", question.getText(), other.getText(), mismatchDescription)
+                      && matchesList("correct answers", question.getCorrectAnswers(), other.getCorrectAnswers(),
+                        mismatchDescription)
+                      && matches("caseSensitive", question.isCaseSensitive(), other.isCaseSensitive(),
+                        mismatchDescription)
+                      && matches("ignoreSpellingVariants", question.isIgnoreSpellingVariants(),
+                        other.isIgnoreSpellingVariants(), mismatchDescription)
+                      && matches("maximumEditDistance", question.getMaximumEditDistance(),
+                        other.getMaximumEditDistance(), mismatchDescription)
+                      && matches("feedback", question.getFeedback(), other.getFeedback(), mismatchDescription);
+            }
+            case final NumericQuestionEntity question -> {
+                final NumericQuestionEntity other = (NumericQuestionEntity) expected;
+                yield matches("text", question.getText(), other.getText(), mismatchDescription)
+                      && matches("correct answer", question.getCorrectAnswer(), other.getCorrectAnswer(),
+                        mismatchDescription)
+                      && matches("tolerance", question.getTolerance(), other.getTolerance(), mismatchDescription)
+                      && matches("feedback", question.getFeedback(), other.getFeedback(), mismatchDescription);
+            }
+            case final SelfAssessmentQuestionEntity question -> {
+                final SelfAssessmentQuestionEntity other = (SelfAssessmentQuestionEntity) expected;
+                yield matches("text", question.getText(), other.getText(), mismatchDescription)
+                      && matches("solution suggestion", question.getSolutionSuggestion(),
+                        other.getSolutionSuggestion(), mismatchDescription);
+            }
+            default -> true;
+        };
+    }
+
+    private static boolean matches(final String field,
+                                   final Object actual,
+                                   final Object expected,
+                                   final Description mismatchDescription) {
+        if (!Objects.equals(actual, expected)) {
+            mismatchDescription.appendText(field + " was ").appendValue(actual);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean matchesList(final String field,
+                                       final List<?> actual,
+                                       final List<?> expected,
+                                       final Description mismatchDescription) {
+        // copy the lists, as the equals of the persistent collections of hibernate is identity based
+        return matches(field,
+                actual == null ? null : new ArrayList<>(actual),
+                expected == null ? null : new ArrayList<>(expected),
+                mismatchDescription);
+    }
+
+    @Override
+    public void describeTo(final Description description) {
+        description.appendText("question with the same content as ").appendValue(expected);
+    }
+}
@@ -0,0 +1,39 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.quiz_service.matcher.QuestionEntityContentMatcher.hasSameContentAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class QuestionEntityTest {
+
+    @Test
+    void testQuestionsWithSameIdAreEqualIndependentOfContent() {
+        final UUID itemId = UUID.randomUUID();
+        final QuestionEntity question = TestData.createMultipleChoiceQuestion(1, "question", "correct", "wrong");
+        question.setItemId(itemId);
+        final QuestionEntity modifiedQuestion = TestData.createMultipleChoiceQuestion(2, "other", "a", "b");
+        modifiedQuestion.setItemId(itemId);
+
+        assertThat(question, is(modifiedQuestion));
+        assertThat(question.hashCode(), is(modifiedQuestion.hashCode()));
+        assertThat(question, not(hasSameContentAs(modifiedQuestion)));
+    }
+
+    @Test
+    void testQuestionsWithoutIdAreOnlyEqualToThemselves() {
+        final QuestionEntity question = TestData.createMultipleChoiceQuestion(1, "question", "correct", "wrong");
+        question.setItemId(null);
+        final QuestionEntity sameContent = TestData.createMultipleChoiceQuestion(1, "question", "correct", "wrong");
+        sameContent.setItemId(null);
+
+        assertThat(question, is(question));
+        assertThat(question, is(not(sameContent)));
+        assertThat(question, hasSameContentAs(sameContent));
+    }
+}
@@ -0,0 +1,114 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.entity;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class QuizEntityTest {
+
+    @Test
+    void testFindQuestions() {
+        final QuizEntity quiz = createQuiz(5);
+        final QuestionEntity third = quiz.getQuestionPool().get(2);
+
+        assertThat(quiz.findQuestionById(third.getItemId()), is(Optional.of(third)));
+        assertThat(quiz.findQuestionByNumber(3), is(Optional.of(third)));
+        assertThat(quiz.findQuestionById(UUID.randomUUID()), is(Optional.empty()));
+        assertThat(quiz.findQuestionByNumber(6), is(Optional.empty()));
+        assertThat(quiz.containsQuestionNumber(5), is(true));
+        assertThat(quiz.containsQuestionNumber(6), is(false));
+    }
+
+    @Test
+    void testIndexStaysConsistentAcrossModifications() {
+        final QuizEntity quiz = createQuiz(5);
+        final QuestionEntity first = quiz.getQuestionPool().get(0);
+        final QuestionEntity second = quiz.getQuestionPool().get(1);
+
+        final QuestionEntity added = createQuestion(6);
+        quiz.addQuestion(added);
+        assertThat(quiz.findQuestionByNumber(6), is(Optional.of(added)));
+        assertThat(quiz.findQuestionById(added.getItemId()), is(Optional.of(added)));
+
+        quiz.switchQuestions(first, second);
+        assertThat(quiz.getQuestionPool().get(0), is(sameInstance(second)));
+        assertThat(quiz.findQuestionByNumber(1).orElseThrow(), is(sameInstance(second)));
+        assertThat(quiz.findQuestionByNumber(2).orElseThrow(), is(sameInstance(first)));
+        assertThat(quiz.findQuestionById(first.getItemId()).orElseThrow().getNumber(), is(2));
+
+        final QuestionEntity replacement = createQuestion(2);
+        quiz.replaceQuestion(first, replacement);
+        assertThat(quiz.findQuestionById(first.getItemId()), is(Optional.empty()));
+        assertThat(quiz.findQuestionByNumber(2).orElseThrow(), is(sameInstance(replacement)));
+
+        quiz.removeQuestion(second);
+        assertThat(quiz.findQuestionById(second.getItemId()), is(Optional.empty()));
+        assertThat(quiz.findQuestionById(added.getItemId()).orElseThrow(), is(sameInstance(added)));
+        assertThat(quiz.getQuestionPool(), hasSize(5));
+    }
+
+    @Test
+    void testDirectModificationsOfQuestionPoolAreDetected() {
+        final QuizEntity quiz = createQuiz(3);
+        final QuestionEntity first = quiz.getQuestionPool().get(0);
+        final QuestionEntity second = quiz.getQuestionPool().get(1);
+        // build the index
+        quiz.findQuestionByNumber(1);
+
+        // outdated hits are detected
+        quiz.getQuestionPool().remove(0);
+        assertThat(quiz.findQuestionById(first.getItemId()), is(Optional.empty()));
+        assertThat(quiz.findQuestionByNumber(2), is(Optional.of(second)));
+
+        // changes of the size are detected
+        final QuestionEntity added = createQuestion(4);
+        quiz.getQuestionPool().add(added);
+        assertThat(quiz.findQuestionByNumber(4), is(Optional.of(added)));
+
+        // replaced question pools are detected
+        quiz.setQuestionPool(new ArrayList<>(List.of(first)));
+        assertThat(quiz.findQuestionByNumber(1), is(Optional.of(first)));
+        assertThat(quiz.findQuestionByNumber(4), is(Optional.empty()));
+    }
+
+    @Test
+    void testQuestionsWithoutIdAreFoundAfterIdIsAssigned() {
+        final QuizEntity quiz = createQuiz(2);
+        final QuestionEntity added = createQuestion(3);
+        added.setItemId(null);
+        quiz.addQuestion(added);
+
+        // e.g., assigned when the quiz is saved
+        added.setItemId(UUID.randomUUID());
+
+        assertThat(quiz.findQuestionById(added.getItemId()), is(Optional.of(added)));
+    }
+
+    private static QuizEntity createQuiz(final int numberOfQuestions) {
+        final List<QuestionEntity> questions = new ArrayList<>();
+        for (int number = 1; number <= numberOfQuestions; number++) {
+            questions.add(createQuestion(number));
+        }
+        return QuizEntity.builder()
+                .assessmentId(UUID.randomUUID())
+                .questionPool(questions)
+                .build();
+    }
+
+    private static QuestionEntity createQuestion(final int number) {
+        return SelfAssessmentQuestionEntity.builder()
+                .itemId(UUID.randomUUID())
+                .number(number)
+                .type(QuestionType.SELF_ASSESSMENT)
+                .text("question " + number)
+                .solutionSuggestion("solution")
+                .build();
+    }
+}
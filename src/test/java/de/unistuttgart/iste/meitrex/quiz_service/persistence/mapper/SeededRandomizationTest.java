@@ -0,0 +1,84 @@
+package de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SeededRandomizationTest {
+
+    private final List<Integer> pool = IntStream.range(0, 100).boxed().toList();
+
+    @Test
+    void testSampleIsReproducible() {
+        final List<Integer> first = SeededRandomization.sample(pool, 10, new SplittableRandom(42));
+        final List<Integer> second = SeededRandomization.sample(pool, 10, new SplittableRandom(42));
+
+        assertThat(second, is(first));
+    }
+
+    @Test
+    void testSampleHasNoDuplicates() {
+        for (int seed = 0; seed < 100; seed++) {
+            final List<Integer> sample = SeededRandomization.sample(pool, 30, new SplittableRandom(seed));
+
+            assertThat(sample, hasSize(30));
+            assertThat(new HashSet<>(sample), hasSize(30));
+            assertThat(pool, hasItems(sample.toArray(Integer[]::new)));
+        }
+    }
+
+    @Test
+    void testSampleOfWholePoolIsPermutation() {
+        final List<Integer> sample = SeededRandomization.sample(pool, pool.size(), new SplittableRandom(7));
+
+        assertThat(sample, containsInAnyOrder(pool.toArray(Integer[]::new)));
+        assertThat(sample, is(not(pool)));
+    }
+
+    @Test
+    void testWeightedSampleIsReproducibleAndHasNoDuplicates() {
+        final List<Integer> first = SeededRandomization.weightedSample(pool, 30, i -> i + 1, new SplittableRandom(42));
+        final List<Integer> second = SeededRandomization.weightedSample(pool, 30, i -> i + 1, new SplittableRandom(42));
+
+        assertThat(second, is(first));
+        assertThat(new HashSet<>(first), hasSize(30));
+        assertThat(SeededRandomization.weightedSample(pool, 0, i -> 1, new SplittableRandom(42)), is(empty()));
+    }
+
+    @Test
+    void testWeightedSamplePrefersHeavyElements() {
+        // the second half of the pool is ten times as likely to be drawn first
+        int heavyFirst = 0;
+        for (int seed = 0; seed < 1000; seed++) {
+            final List<Integer> sample = SeededRandomization.weightedSample(pool, 5,
+                    i -> i < 50 ? 1 : 10, new SplittableRandom(seed));
+            if (sample.get(0) >= 50) {
+                heavyFirst++;
+            }
+        }
+
+        // expected share is 10/11
+        assertThat(heavyFirst, is(greaterThan(850)));
+    }
+
+    @Test
+    void testSeedDependsOnUserQuizAndAttempt() {
+        final UUID userId = UUID.randomUUID();
+        final UUID quizId = UUID.randomUUID();
+        final long seed = SeededRandomization.seed(userId, quizId, 0);
+
+        assertThat(SeededRandomization.seed(userId, quizId, 0), is(seed));
+        assertThat(SeededRandomization.seed(userId, quizId, 1), is(not(seed)));
+        assertThat(SeededRandomization.seed(UUID.randomUUID(), quizId, 0), is(not(seed)));
+        assertThat(SeededRandomization.seed(userId, UUID.randomUUID(), 0), is(not(seed)));
+        // user and quiz are not interchangeable
+        assertThat(SeededRandomization.seed(quizId, userId, 0), is(not(seed)));
+    }
+}
@@ -0,0 +1,77 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnswerMatcherTest {
+
+    @Test
+    void testExactMatching() {
+        final AnswerMatcher matcher = AnswerMatcher.compile(List.of("Madrid", "Ma  drid"),
+                new AnswerMatcher.Options(true, false, 0));
+
+        assertThat(matcher.matches(" Madrid\n"), is(true));
+        assertThat(matcher.matches("Ma drid"), is(true));
+        assertThat(matcher.matches("madrid"), is(false));
+        assertThat(matcher.matches("Madri"), is(false));
+    }
+
+    @Test
+    void testEditDistance() {
+        final AnswerMatcher matcher = AnswerMatcher.compile(List.of("photosynthesis", "photo"),
+                new AnswerMatcher.Options(false, false, 2));
+
+        // substitution
+        assertThat(matcher.matches("fotosynthesis"), is(true));
+        // deletion and insertion
+        assertThat(matcher.matches("Photosynthesiss"), is(true));
+        assertThat(matcher.matches("photosynthsis"), is(true));
+        // transposition counts as two substitutions
+        assertThat(matcher.matches("phootsynthesis"), is(true));
+        assertThat(matcher.matches("fotosinthesys"), is(false));
+        // matches the shorter accepted answer
+        assertThat(matcher.matches("phot"), is(true));
+        assertThat(matcher.matches("ph"), is(false));
+        assertThat(matcher.matches(""), is(false));
+    }
+
+    @Test
+    void testEditDistanceOfEmptyAnswer() {
+        final AnswerMatcher matcher = AnswerMatcher.compile(List.of("ab"), new AnswerMatcher.Options(true, false, 2));
+
+        assertThat(matcher.matches(""), is(true));
+        assertThat(matcher.matches("xyz"), is(false));
+    }
+
+    @Test
+    void testSpellingVariants() {
+        final AnswerMatcher matcher = AnswerMatcher.compile(List.of("Müller", "Straße", "Père"),
+                new AnswerMatcher.Options(false, true, 0));
+
+        assertThat(matcher.matches("Mueller"), is(true));
+        assertThat(matcher.matches("MÜLLER"), is(true));
+        assertThat(matcher.matches("Strasse"), is(true));
+        assertThat(matcher.matches("pere"), is(true));
+        assertThat(matcher.matches("Muller"), is(false));
+    }
+
+    @Test
+    void testSpellingVariantsAreNotIgnoredByDefault() {
+        final AnswerMatcher matcher = AnswerMatcher.compile(List.of("Müller"), new AnswerMatcher.Options(false, false, 0));
+
+        assertThat(matcher.matches("Mueller"), is(false));
+        assertThat(matcher.matches("müller"), is(true));
+    }
+
+    @Test
+    void testInvalidEditDistance() {
+        assertThrows(IllegalArgumentException.class, () -> new AnswerMatcher.Options(false, false, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AnswerMatcher.Options(false, false, AnswerMatcher.MAX_EDIT_DISTANCE + 1));
+    }
+}
@@ -0,0 +1,97 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.AssessmentContentMutatedEvent;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionTaskInformationRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+class AssessmentContentMutationPublisherTest {
+
+    private static final Duration QUIET_WINDOW = Duration.ofSeconds(2);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(30);
+
+    private final QuizRepository quizRepository = Mockito.mock(QuizRepository.class);
+    private final EventOutbox eventOutbox = Mockito.mock(EventOutbox.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AssessmentContentMutationPublisher publisher = new AssessmentContentMutationPublisher(
+            quizRepository,
+            new TaskInformationGenerator(Mockito.mock(QuestionTaskInformationRepository.class)),
+            eventOutbox,
+            Mockito.mock(PlatformTransactionManager.class),
+            meterRegistry,
+            QUIET_WINDOW,
+            MAX_DELAY);
+
+    @Test
+    void testModificationsArePostponedInOutbox() {
+        final UUID assessmentId = UUID.randomUUID();
+        when(eventOutbox.scheduleAssessmentContentMutated(assessmentId, QUIET_WINDOW, MAX_DELAY))
+                .thenReturn(false, true, true);
+
+        for (int i = 0; i < 3; i++) {
+            publisher.scheduleEvent(assessmentId);
+        }
+
+        verify(eventOutbox, times(3)).scheduleAssessmentContentMutated(assessmentId, QUIET_WINDOW, MAX_DELAY);
+        assertThat(counter("suppressed"), is(2.0));
+        assertThat(counter("published"), is(0.0));
+    }
+
+    @Test
+    void testCreateEventFromCurrentQuiz() {
+        final QuizEntity quiz = mockQuiz();
+
+        final Optional<AssessmentContentMutatedEvent> event = publisher.createEvent(quiz.getAssessmentId());
+
+        assertThat(event.isPresent(), is(true));
+        assertThat(event.get().getAssessmentId(), is(quiz.getAssessmentId()));
+        assertThat(event.get().getCourseId(), is(quiz.getCourseId()));
+        // only counted when the relay published the event
+        assertThat(counter("published"), is(0.0));
+
+        publisher.recordPublished();
+
+        assertThat(counter("published"), is(1.0));
+    }
+
+    @Test
+    void testNoEventIsCreatedForDeletedQuiz() {
+        when(quizRepository.findAllByIdWithQuestions(any())).thenReturn(List.of());
+
+        final Optional<AssessmentContentMutatedEvent> event = publisher.createEvent(UUID.randomUUID());
+
+        assertThat(event.isPresent(), is(false));
+        assertThat(counter("published"), is(0.0));
+    }
+
+    private QuizEntity mockQuiz() {
+        final QuizEntity quiz = QuizEntity.builder()
+                .assessmentId(UUID.randomUUID())
+                .courseId(UUID.randomUUID())
+                .questionPool(new ArrayList<>())
+                .questionPoolingMode(QuestionPoolingMode.ORDERED)
+                .build();
+        when(quizRepository.findAllByIdWithQuestions(List.of(quiz.getAssessmentId()))).thenReturn(List.of(quiz));
+        return quiz;
+    }
+
+    private double counter(final String result) {
+        return meterRegistry.get("quiz_service.assessment_content_mutated.events").tag("result", result).counter().count();
+    }
+}
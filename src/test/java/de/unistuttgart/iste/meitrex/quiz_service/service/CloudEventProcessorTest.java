@@ -0,0 +1,118 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.exception.IncompleteEventMessageException;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.ProcessedCloudEventEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.ProcessedCloudEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+class CloudEventProcessorTest {
+
+    private static final String TOPIC = "content-changed";
+
+    private final ProcessedCloudEventRepository processedCloudEventRepository
+            = Mockito.mock(ProcessedCloudEventRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CloudEventProcessor cloudEventProcessor = new CloudEventProcessor(processedCloudEventRepository,
+            new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+            meterRegistry,
+            1,
+            1,
+            Duration.ofDays(7));
+
+    @AfterEach
+    void tearDown() {
+        cloudEventProcessor.shutdown();
+    }
+
+    @Test
+    void testProcessedEventIsRecorded() throws Exception {
+        final CloudEventProcessor.EventHandler handler = Mockito.mock(CloudEventProcessor.EventHandler.class);
+
+        final CloudEventProcessor.Result result = cloudEventProcessor.process(TOPIC, "event-1", handler).get();
+
+        assertThat(result, is(CloudEventProcessor.Result.PROCESSED));
+        verify(handler).handle();
+        final ArgumentCaptor<ProcessedCloudEventEntity> captor = ArgumentCaptor.forClass(ProcessedCloudEventEntity.class);
+        verify(processedCloudEventRepository).save(captor.capture());
+        assertThat(captor.getValue().getEventId(), is("event-1"));
+        assertThat(captor.getValue().getTopic(), is(TOPIC));
+        assertThat(handlerCount("processed"), is(1L));
+    }
+
+    @Test
+    void testRedeliveredEventIsSkipped() throws Exception {
+        final CloudEventProcessor.EventHandler handler = Mockito.mock(CloudEventProcessor.EventHandler.class);
+        when(processedCloudEventRepository.existsById("event-1")).thenReturn(true);
+
+        final CloudEventProcessor.Result result = cloudEventProcessor.process(TOPIC, "event-1", handler).get();
+
+        assertThat(result, is(CloudEventProcessor.Result.DUPLICATE));
+        verify(handler, never()).handle();
+        verify(processedCloudEventRepository, never()).save(any());
+    }
+
+    @Test
+    void testFailedEventIsNotRecorded() throws Exception {
+        final CloudEventProcessor.Result result = cloudEventProcessor.process(TOPIC, "event-1", () -> {
+            throw new IllegalStateException("database unavailable");
+        }).get();
+
+        assertThat(result, is(CloudEventProcessor.Result.FAILED));
+        verify(processedCloudEventRepository, never()).save(any());
+        assertThat(handlerCount("failed"), is(1L));
+    }
+
+    @Test
+    void testIncompleteEventIsDropped() throws Exception {
+        final CloudEventProcessor.Result result = cloudEventProcessor.process(TOPIC, "event-1", () -> {
+            throw new IncompleteEventMessageException(IncompleteEventMessageException.ERROR_INCOMPLETE_MESSAGE);
+        }).get();
+
+        assertThat(result, is(CloudEventProcessor.Result.DROPPED));
+        verify(processedCloudEventRepository, never()).save(any());
+    }
+
+    @Test
+    void testEventIsRejectedIfQueueIsFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // occupies the only thread
+        final CompletableFuture<CloudEventProcessor.Result> running = cloudEventProcessor.process(TOPIC, "event-1", () -> {
+            started.countDown();
+            release.await();
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        // fills the queue
+        final CompletableFuture<CloudEventProcessor.Result> queued
+                = cloudEventProcessor.process(TOPIC, "event-2", () -> {});
+        assertThat(meterRegistry.get("quiz_service.pubsub.queue.size").gauge().value(), is(1.0));
+
+        final CloudEventProcessor.Result rejected = cloudEventProcessor.process(TOPIC, "event-3", () -> {}).get();
+
+        assertThat(rejected, is(CloudEventProcessor.Result.REJECTED));
+        release.countDown();
+        assertThat(running.get(), is(CloudEventProcessor.Result.PROCESSED));
+        assertThat(queued.get(), is(CloudEventProcessor.Result.PROCESSED));
+        assertThat(handlerCount("rejected"), is(1L));
+    }
+
+    private long handlerCount(final String result) {
+        return meterRegistry.get("quiz_service.pubsub.handler").tag("result", result).timer().count();
+    }
+}
@@ -0,0 +1,251 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.unistuttgart.iste.meitrex.common.dapr.TopicPublisher;
+import de.unistuttgart.iste.meitrex.common.event.AssessmentContentMutatedEvent;
+import de.unistuttgart.iste.meitrex.common.event.AssessmentType;
+import de.unistuttgart.iste.meitrex.common.event.CrudOperation;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.OutboxEventEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.OutboxStatus;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private final OutboxEventRepository outboxEventRepository = Mockito.mock(OutboxEventRepository.class);
+    private final TopicPublisher topicPublisher = Mockito.mock(TopicPublisher.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AssessmentContentMutationPublisher assessmentContentMutationPublisher
+            = Mockito.mock(AssessmentContentMutationPublisher.class);
+
+    private final EventOutbox eventOutbox = new EventOutbox(outboxEventRepository, objectMapper);
+    private final OutboxRelay outboxRelay = new OutboxRelay(outboxEventRepository,
+            topicPublisher,
+            objectMapper,
+            assessmentContentMutationPublisher,
+            Mockito.mock(PlatformTransactionManager.class),
+            meterRegistry,
+            10,
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(30));
+
+    @Test
+    void testPublishedEventIsDeleted() {
+        final UUID itemId = UUID.randomUUID();
+        final OutboxEventEntity event = storeItemChangedEvent(itemId);
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.deletePublished(event.getId(), 0)).thenReturn(1);
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(0, null));
+
+        outboxRelay.relayPendingEvents();
+
+        verify(topicPublisher).notifyItemChanges(itemId, CrudOperation.DELETE);
+        verify(outboxEventRepository).deletePublished(event.getId(), 0);
+        verify(outboxEventRepository, never()).releaseClaim(any());
+        assertThat(event.getClaimedUntil(), is(notNullValue()));
+        assertThat(counter("published"), is(1.0));
+        assertThat(counter("failed"), is(0.0));
+    }
+
+    @Test
+    void testItemsChangedEventIsPublishedPerItem() {
+        final List<UUID> itemIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        eventOutbox.notifyItemsChanged(itemIds, CrudOperation.DELETE);
+        final ArgumentCaptor<OutboxEventEntity> captor = ArgumentCaptor.forClass(OutboxEventEntity.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        final OutboxEventEntity event = captor.getValue();
+        assertThat(event.getEventType(), is(OutboxEventEntity.EventType.ITEMS_CHANGED));
+
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.deletePublished(event.getId(), 0)).thenReturn(1);
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(0, null));
+
+        outboxRelay.relayPendingEvents();
+
+        final var inOrder = inOrder(topicPublisher);
+        for (final UUID itemId : itemIds) {
+            inOrder.verify(topicPublisher).notifyItemChanges(itemId, CrudOperation.DELETE);
+        }
+        verify(outboxEventRepository).deletePublished(event.getId(), 0);
+        assertThat(counter("published"), is(1.0));
+    }
+
+    @Test
+    void testItemsChangedEventContinuesWithFirstUnpublishedItem() {
+        final List<UUID> itemIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        eventOutbox.notifyItemsChanged(itemIds, CrudOperation.DELETE);
+        final ArgumentCaptor<OutboxEventEntity> captor = ArgumentCaptor.forClass(OutboxEventEntity.class);
+        verify(outboxEventRepository).save(captor.capture());
+        final OutboxEventEntity event = captor.getValue();
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(1, event.getCreatedAt()));
+        doThrow(new IllegalStateException("sidecar unavailable"))
+                .when(topicPublisher).notifyItemChanges(itemIds.get(1), CrudOperation.DELETE);
+
+        outboxRelay.relayPendingEvents();
+
+        verify(outboxEventRepository).recordFailedAttempt(eq(event.getId()), eq(1), any(), any(), eq(1));
+        verify(outboxEventRepository, never()).deletePublished(any(), anyInt());
+
+        // the retry starts with the second item
+        event.setPublishedItems(1);
+        event.setAttempts(1);
+        doNothing().when(topicPublisher).notifyItemChanges(any(), any());
+        when(outboxEventRepository.deletePublished(event.getId(), 0)).thenReturn(1);
+
+        outboxRelay.relayPendingEvents();
+
+        verify(topicPublisher, times(1)).notifyItemChanges(itemIds.get(0), CrudOperation.DELETE);
+        verify(topicPublisher, times(2)).notifyItemChanges(itemIds.get(1), CrudOperation.DELETE);
+        verify(topicPublisher, times(1)).notifyItemChanges(itemIds.get(2), CrudOperation.DELETE);
+        verify(outboxEventRepository).deletePublished(event.getId(), 0);
+    }
+
+    @Test
+    void testAssessmentContentMutatedEventIsGeneratedWhenPublished() {
+        final UUID assessmentId = UUID.randomUUID();
+        final OutboxEventEntity event = coalescedEvent(assessmentId, 3);
+        final AssessmentContentMutatedEvent generatedEvent = new AssessmentContentMutatedEvent(
+                UUID.randomUUID(), assessmentId, AssessmentType.QUIZ, List.of());
+        when(assessmentContentMutationPublisher.createEvent(assessmentId)).thenReturn(Optional.of(generatedEvent));
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.deletePublished(event.getId(), 3)).thenReturn(1);
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(0, null));
+
+        outboxRelay.relayPendingEvents();
+
+        verify(topicPublisher).notifyAssessmentContentMutated(generatedEvent);
+        verify(assessmentContentMutationPublisher).recordPublished();
+        verify(outboxEventRepository).deletePublished(event.getId(), 3);
+    }
+
+    @Test
+    void testFailedAssessmentContentMutatedEventIsNotCountedAsPublished() {
+        final UUID assessmentId = UUID.randomUUID();
+        final OutboxEventEntity event = coalescedEvent(assessmentId, 0);
+        final AssessmentContentMutatedEvent generatedEvent = new AssessmentContentMutatedEvent(
+                UUID.randomUUID(), assessmentId, AssessmentType.QUIZ, List.of());
+        when(assessmentContentMutationPublisher.createEvent(assessmentId)).thenReturn(Optional.of(generatedEvent));
+        doThrow(new IllegalStateException("sidecar unavailable"))
+                .when(topicPublisher).notifyAssessmentContentMutated(generatedEvent);
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(1, event.getCreatedAt()));
+
+        outboxRelay.relayPendingEvents();
+
+        verify(assessmentContentMutationPublisher, never()).recordPublished();
+        verify(outboxEventRepository, never()).deletePublished(any(), anyInt());
+    }
+
+    @Test
+    void testEventPostponedWhilePublishedIsReleased() {
+        final UUID assessmentId = UUID.randomUUID();
+        final OutboxEventEntity event = coalescedEvent(assessmentId, 0);
+        when(assessmentContentMutationPublisher.createEvent(assessmentId)).thenReturn(Optional.of(
+                new AssessmentContentMutatedEvent(UUID.randomUUID(), assessmentId, AssessmentType.QUIZ, List.of())));
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        // the revision was incremented by a modification in the meantime
+        when(outboxEventRepository.deletePublished(event.getId(), 0)).thenReturn(0);
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(1, event.getCreatedAt()));
+
+        outboxRelay.relayPendingEvents();
+
+        verify(outboxEventRepository).releaseClaim(event.getId());
+    }
+
+    @Test
+    void testNoAssessmentContentMutatedEventForDeletedQuiz() {
+        final UUID assessmentId = UUID.randomUUID();
+        final OutboxEventEntity event = coalescedEvent(assessmentId, 0);
+        when(assessmentContentMutationPublisher.createEvent(assessmentId)).thenReturn(Optional.empty());
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.deletePublished(event.getId(), 0)).thenReturn(1);
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(0, null));
+
+        outboxRelay.relayPendingEvents();
+
+        verify(topicPublisher, never()).notifyAssessmentContentMutated(any());
+        verify(assessmentContentMutationPublisher, never()).recordPublished();
+        verify(outboxEventRepository).deletePublished(event.getId(), 0);
+    }
+
+    @Test
+    void testNoItemsChangedEventWithoutItems() {
+        eventOutbox.notifyItemsChanged(List.of(), CrudOperation.DELETE);
+
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    @Test
+    void testFailedEventIsRetriedWithBackoff() {
+        final UUID itemId = UUID.randomUUID();
+        final OutboxEventEntity event = storeItemChangedEvent(itemId);
+        when(outboxEventRepository.lockDueEvents(any(), eq(10))).thenReturn(List.of(event));
+        when(outboxEventRepository.getStatus()).thenReturn(new OutboxStatus(1, event.getCreatedAt()));
+        doThrow(new IllegalStateException("sidecar unavailable"))
+                .when(topicPublisher).notifyItemChanges(any(), any());
+
+        final OffsetDateTime before = OffsetDateTime.now();
+        outboxRelay.relayPendingEvents();
+
+        final ArgumentCaptor<OffsetDateTime> nextAttemptAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        final ArgumentCaptor<String> lastError = ArgumentCaptor.forClass(String.class);
+        verify(outboxEventRepository).recordFailedAttempt(eq(event.getId()), eq(1), nextAttemptAt.capture(),
+                lastError.capture(), eq(0));
+        verify(outboxEventRepository, never()).deletePublished(any(), anyInt());
+        assertThat(nextAttemptAt.getValue(), is(greaterThanOrEqualTo(before.plusSeconds(1))));
+        assertThat(lastError.getValue(), containsString("sidecar unavailable"));
+        assertThat(counter("failed"), is(1.0));
+        assertThat(meterRegistry.get("quiz_service.outbox.pending").gauge().value(), is(1.0));
+    }
+
+    @Test
+    void testBackoffIsCapped() {
+        assertThat(outboxRelay.backoff(1), is(Duration.ofSeconds(1)));
+        assertThat(outboxRelay.backoff(2), is(Duration.ofSeconds(2)));
+        assertThat(outboxRelay.backoff(5), is(Duration.ofSeconds(16)));
+        assertThat(outboxRelay.backoff(6), is(Duration.ofSeconds(30)));
+        assertThat(outboxRelay.backoff(1000), is(Duration.ofSeconds(30)));
+    }
+
+    private OutboxEventEntity storeItemChangedEvent(final UUID itemId) {
+        eventOutbox.notifyItemChanges(itemId, CrudOperation.DELETE);
+        final ArgumentCaptor<OutboxEventEntity> captor = ArgumentCaptor.forClass(OutboxEventEntity.class);
+        verify(outboxEventRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static OutboxEventEntity coalescedEvent(final UUID assessmentId, final int revision) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        return OutboxEventEntity.builder()
+                .id(UUID.randomUUID())
+                .eventType(OutboxEventEntity.EventType.ASSESSMENT_CONTENT_MUTATED)
+                .payload(assessmentId.toString())
+                .coalescingKey(assessmentId)
+                .revision(revision)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    private double counter(final String result) {
+        return meterRegistry.get("quiz_service.outbox.events").tag("result", result).counter().count();
+    }
+}
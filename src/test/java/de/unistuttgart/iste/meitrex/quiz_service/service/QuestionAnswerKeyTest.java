@@ -0,0 +1,147 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.SubmittedAnswerInput;
+import de.unistuttgart.iste.meitrex.generated.dto.SubmittedAssociationInput;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.ClozeQuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.ExactAnswerQuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.MultipleChoiceAnswerEmbeddable;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.MultipleChoiceQuestionEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class QuestionAnswerKeyTest {
+
+    @Test
+    void testGradeMultipleChoice() {
+        final MultipleChoiceQuestionEntity question = createMultipleChoiceQuestion(1, "text", "correct");
+        question.setAnswers(List.of(
+                new MultipleChoiceAnswerEmbeddable("correct", true, null),
+                new MultipleChoiceAnswerEmbeddable("wrong", false, null),
+                new MultipleChoiceAnswerEmbeddable("also correct", true, null)));
+        final QuestionAnswerKey answerKey = QuestionAnswerKey.of(question);
+
+        assertThat(answerKey.grade(selectedAnswers(2, 0)), is(Optional.of(true)));
+        assertThat(answerKey.grade(selectedAnswers(0)), is(Optional.of(false)));
+        assertThat(answerKey.grade(selectedAnswers(0, 1)), is(Optional.of(false)));
+        assertThat(answerKey.grade(selectedAnswers(0, 0)), is(Optional.of(false)));
+        assertThat(answerKey.grade(selectedAnswers(0, 3)), is(Optional.of(false)));
+        assertThat(answerKey.grade(new SubmittedAnswerInput()), is(Optional.of(false)));
+    }
+
+    @Test
+    void testGradeCloze() {
+        final QuestionAnswerKey answerKey = QuestionAnswerKey.of(createClozeQuestion(1,
+                clozeText("The capital of France is "), clozeBlank("Paris"),
+                clozeText(", the capital of Germany is "), clozeBlank("Berlin")));
+
+        assertThat(answerKey.grade(blankAnswers("Paris", "Berlin")), is(Optional.of(true)));
+        assertThat(answerKey.grade(blankAnswers("  paris ", "BERLIN")), is(Optional.of(true)));
+        assertThat(answerKey.grade(blankAnswers("Berlin", "Paris")), is(Optional.of(false)));
+        assertThat(answerKey.grade(blankAnswers("Paris")), is(Optional.of(false)));
+    }
+
+    @Test
+    void testGradeClozeWithTypos() {
+        final ClozeQuestionEntity question = createClozeQuestion(1,
+                clozeText("The capital of France is "), clozeBlank("Paris"),
+                clozeText(", the capital of Germany is "), clozeBlank("Berlin"));
+        question.setMaximumEditDistance(1);
+        final QuestionAnswerKey answerKey = QuestionAnswerKey.of(question);
+
+        assertThat(answerKey.grade(blankAnswers("Pariss", "Berlni")), is(Optional.of(false)));
+        assertThat(answerKey.grade(blankAnswers("Pariss", "berln")), is(Optional.of(true)));
+        // each blank is matched against its own correct answer only
+        assertThat(answerKey.grade(blankAnswers("Berlin", "Paris")), is(Optional.of(false)));
+    }
+
+    @Test
+    void testGradeAssociation() {
+        final QuestionAnswerKey answerKey = QuestionAnswerKey.of(createAssociationQuestion(1,
+                association("Germany", "Berlin"), association("France", "Paris")));
+
+        assertThat(answerKey.grade(associations("France", "Paris", "Germany", "Berlin")), is(Optional.of(true)));
+        assertThat(answerKey.grade(associations("France", "Berlin", "Germany", "Paris")), is(Optional.of(false)));
+        assertThat(answerKey.grade(associations("France", "Paris", "France", "Paris")), is(Optional.of(false)));
+        assertThat(answerKey.grade(associations("France", "Paris")), is(Optional.of(false)));
+    }
+
+    @Test
+    void testGradeExactAnswer() {
+        final ExactAnswerQuestionEntity question = createExactAnswerQuestion(1, "text", "Madrid");
+        question.setCorrectAnswers(List.of("Madrid", "Ma  drid"));
+        final QuestionAnswerKey caseSensitiveKey = QuestionAnswerKey.of(question);
+        question.setCaseSensitive(false);
+        final QuestionAnswerKey caseInsensitiveKey = QuestionAnswerKey.of(question);
+
+        assertThat(caseSensitiveKey.grade(text(" Madrid\n")), is(Optional.of(true)));
+        assertThat(caseSensitiveKey.grade(text("ma drid")), is(Optional.of(false)));
+        assertThat(caseSensitiveKey.grade(text("Ma drid")), is(Optional.of(true)));
+        assertThat(caseInsensitiveKey.grade(text("MADRID")), is(Optional.of(true)));
+        assertThat(caseInsensitiveKey.grade(text("Barcelona")), is(Optional.of(false)));
+        assertThat(caseInsensitiveKey.grade(new SubmittedAnswerInput()), is(Optional.of(false)));
+    }
+
+    @Test
+    void testGradeExactAnswerWithSpellingVariantsAndTypos() {
+        final ExactAnswerQuestionEntity question = createExactAnswerQuestion(1, "text", "Zürich");
+        question.setCaseSensitive(false);
+        question.setIgnoreSpellingVariants(true);
+        question.setMaximumEditDistance(1);
+        final QuestionAnswerKey answerKey = QuestionAnswerKey.of(question);
+
+        assertThat(answerKey.grade(text("Zuerich")), is(Optional.of(true)));
+        assertThat(answerKey.grade(text("zuerch")), is(Optional.of(true)));
+        assertThat(answerKey.grade(text("Zurich")), is(Optional.of(true)));
+        assertThat(answerKey.grade(text("Zurch")), is(Optional.of(false)));
+    }
+
+    @Test
+    void testGradeNumeric() {
+        // tolerance of 1
+        final QuestionAnswerKey answerKey = QuestionAnswerKey.of(createNumericQuestion(1, "text", 16));
+
+        assertThat(answerKey.grade(number(16)), is(Optional.of(true)));
+        assertThat(answerKey.grade(number(15)), is(Optional.of(true)));
+        assertThat(answerKey.grade(number(17)), is(Optional.of(true)));
+        assertThat(answerKey.grade(number(17.01)), is(Optional.of(false)));
+        assertThat(answerKey.grade(new SubmittedAnswerInput()), is(Optional.of(false)));
+    }
+
+    @Test
+    void testSelfAssessmentIsNotGraded() {
+        final QuestionAnswerKey answerKey = QuestionAnswerKey.of(createSelfAssessmentQuestion(1, "text", "answer"));
+
+        assertThat(answerKey.grade(text("answer")), is(Optional.empty()));
+    }
+
+    private static SubmittedAnswerInput selectedAnswers(final Integer... selectedAnswers) {
+        return SubmittedAnswerInput.builder().setSelectedAnswers(List.of(selectedAnswers)).build();
+    }
+
+    private static SubmittedAnswerInput blankAnswers(final String... blankAnswers) {
+        return SubmittedAnswerInput.builder().setBlankAnswers(List.of(blankAnswers)).build();
+    }
+
+    private static SubmittedAnswerInput associations(final String... leftAndRightSides) {
+        final List<SubmittedAssociationInput> associations = new ArrayList<>();
+        for (int i = 0; i < leftAndRightSides.length; i += 2) {
+            associations.add(new SubmittedAssociationInput(leftAndRightSides[i], leftAndRightSides[i + 1]));
+        }
+        return SubmittedAnswerInput.builder().setAssociations(associations).build();
+    }
+
+    private static SubmittedAnswerInput text(final String text) {
+        return SubmittedAnswerInput.builder().setText(text).build();
+    }
+
+    private static SubmittedAnswerInput number(final double number) {
+        return SubmittedAnswerInput.builder().setNumber(number).build();
+    }
+}
@@ -0,0 +1,98 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.UserQuestionAggregateEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionAggregateRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionStatisticRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+class QuestionStatisticServiceTest {
+
+    private final QuestionStatisticRepository questionStatisticRepository = Mockito.mock(QuestionStatisticRepository.class);
+    private final QuestionAggregateRepository questionAggregateRepository = Mockito.mock(QuestionAggregateRepository.class);
+    private final QuizAttemptRepository quizAttemptRepository = Mockito.mock(QuizAttemptRepository.class);
+    private final QuestionStatisticService questionStatisticService = new QuestionStatisticService(
+            questionStatisticRepository, questionAggregateRepository, quizAttemptRepository);
+
+    @Test
+    void testCompletedQuestionsAreAddedToAggregatesWithSingleStatement() {
+        final UUID userId = UUID.randomUUID();
+        final UUID quizId = UUID.randomUUID();
+        final UUID firstQuestionId = new UUID(0, 1);
+        final UUID secondQuestionId = new UUID(0, 2);
+        // in reverse order and with a question answered twice
+        final List<QuestionCompletedInput> completedQuestions = List.of(
+                completedQuestion(secondQuestionId, true),
+                completedQuestion(firstQuestionId, false),
+                completedQuestion(secondQuestionId, false));
+
+        questionStatisticService.logCompletedQuestions(quizId, userId, completedQuestions);
+
+        verify(questionStatisticRepository).saveAll(anyList());
+        verify(questionAggregateRepository, times(1)).addAttempts(userId,
+                new UUID[]{firstQuestionId, secondQuestionId},
+                new Integer[]{1, 2},
+                new Integer[]{0, 1});
+        // the completed attempt is counted separately, see QuestionStatisticService#addCompletedAttempt
+        verifyNoInteractions(quizAttemptRepository);
+    }
+
+    @Test
+    void testAdaptiveWeightPrefersDifficultAndUnmasteredQuestions() {
+        final UUID userId = UUID.randomUUID();
+        final UUID questionId = UUID.randomUUID();
+        final QuestionAggregateEntity easy = new QuestionAggregateEntity(questionId, 100, 95, 50);
+        final QuestionAggregateEntity hard = new QuestionAggregateEntity(questionId, 100, 5, 50);
+        final UserQuestionAggregateEntity mastered = new UserQuestionAggregateEntity(userId, questionId, 10, 10);
+        final UserQuestionAggregateEntity failed = new UserQuestionAggregateEntity(userId, questionId, 10, 0);
+
+        final double unknown = QuestionStatisticService.adaptiveWeight(null, null);
+
+        assertThat(unknown, is(1.0));
+        assertThat(QuestionStatisticService.adaptiveWeight(hard, null), is(greaterThan(unknown)));
+        assertThat(QuestionStatisticService.adaptiveWeight(easy, null), is(lessThan(unknown)));
+        assertThat(QuestionStatisticService.adaptiveWeight(null, failed), is(greaterThan(unknown)));
+        assertThat(QuestionStatisticService.adaptiveWeight(null, mastered), is(lessThan(unknown)));
+        assertThat(QuestionStatisticService.adaptiveWeight(easy, mastered), is(greaterThan(0.25)));
+        assertThat(QuestionStatisticService.adaptiveWeight(hard, failed), is(lessThan(2.25)));
+    }
+
+    @Test
+    void testAdaptiveWeightsOnlyReadPrecomputedAggregates() {
+        final UUID userId = UUID.randomUUID();
+        final UUID answeredQuestionId = UUID.randomUUID();
+        final UUID newQuestionId = UUID.randomUUID();
+        final List<UUID> questionIds = List.of(answeredQuestionId, newQuestionId);
+        when(questionAggregateRepository.findAllById(questionIds))
+                .thenReturn(List.of(new QuestionAggregateEntity(answeredQuestionId, 10, 2, 5)));
+        when(questionAggregateRepository.findUserAggregates(userId, questionIds))
+                .thenReturn(List.of(new UserQuestionAggregateEntity(userId, answeredQuestionId, 3, 0)));
+
+        final Map<UUID, Double> weights = questionStatisticService.getAdaptiveWeights(userId, questionIds);
+
+        assertThat(weights.keySet(), containsInAnyOrder(answeredQuestionId, newQuestionId));
+        assertThat(weights.get(newQuestionId), is(1.0));
+        assertThat(weights.get(answeredQuestionId), is(greaterThan(1.0)));
+        // the statistics log is never scanned
+        verifyNoInteractions(questionStatisticRepository);
+    }
+
+    private static QuestionCompletedInput completedQuestion(final UUID questionId, final boolean correct) {
+        return QuestionCompletedInput.builder()
+                .setQuestionId(questionId)
+                .setCorrect(correct)
+                .setUsedHint(false)
+                .build();
+    }
+}
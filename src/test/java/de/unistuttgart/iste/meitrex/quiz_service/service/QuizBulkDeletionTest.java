@@ -0,0 +1,84 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.ContentChangeEvent;
+import de.unistuttgart.iste.meitrex.common.event.CrudOperation;
+import de.unistuttgart.iste.meitrex.common.testutil.GraphQlApiTest;
+import de.unistuttgart.iste.meitrex.common.testutil.MockTestPublisherConfiguration;
+import de.unistuttgart.iste.meitrex.quiz_service.TestData;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests the set-based deletion of quizzes against the schema generated by Hibernate,
+ * i.e., that the native statements reference the right tables and columns.
+ */
+@GraphQlApiTest
+@ContextConfiguration(classes = MockTestPublisherConfiguration.class)
+class QuizBulkDeletionTest {
+
+    @Autowired
+    private QuizRepository quizRepository;
+    @Autowired
+    private QuizService quizService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Given three quizzes that contain every question type
+     * When a content-changed event deletes two of the quizzes and an unrelated content
+     * Then the quizzes, their questions and all element collections are deleted, the other quiz is kept
+     */
+    @Test
+    void testDeleteQuizzesWhenQuizContentIsDeleted() {
+        final QuizEntity firstQuiz = quizRepository.save(createQuizWithAllQuestionTypes());
+        final QuizEntity secondQuiz = quizRepository.save(createQuizWithAllQuestionTypes());
+        final QuizEntity otherQuiz = quizRepository.save(createQuizWithAllQuestionTypes());
+
+        quizService.deleteQuizzesWhenQuizContentIsDeleted(ContentChangeEvent.builder()
+                .contentIds(List.of(firstQuiz.getAssessmentId(), UUID.randomUUID(), secondQuiz.getAssessmentId()))
+                .operation(CrudOperation.DELETE)
+                .build());
+
+        assertThat(quizRepository.findAll().stream().map(QuizEntity::getAssessmentId).toList(),
+                is(List.of(otherQuiz.getAssessmentId())));
+        // only the rows of the remaining quiz are left
+        final QuizEntity remainingQuiz = quizRepository.findAllByIdWithQuestions(List.of(otherQuiz.getAssessmentId())).get(0);
+        assertThat(remainingQuiz.getQuestionPool(), hasSize(6));
+        assertThat(countRows("question"), is(6));
+        assertThat(countRows("quiz_question_pool"), is(6));
+        assertThat(countRows("multiple_choice_question_answers"), is(2));
+        assertThat(countRows("cloze_question_cloze_elements"), is(3));
+        assertThat(countRows("cloze_question_additional_wrong_answers"), is(2));
+        assertThat(countRows("association_question_correct_associations"), is(2));
+        assertThat(countRows("exact_answer_question_correct_answers"), is(1));
+    }
+
+    private int countRows(final String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static QuizEntity createQuizWithAllQuestionTypes() {
+        return TestData.exampleQuizBuilder(UUID.randomUUID())
+                .questionPool(List.of(
+                        createMultipleChoiceQuestion(1, "what is the capital of Germany?", "Berlin", "Paris"),
+                        createClozeQuestion(2, clozeText("This is an example text with a "), clozeBlank("blank"), clozeText(".")),
+                        createAssociationQuestion(3, association("left1", "right1"), association("left2", "right2")),
+                        createExactAnswerQuestion(4, "question text", "answer text"),
+                        createNumericQuestion(5, "question text", 42),
+                        createSelfAssessmentQuestion(6, "question text", "answer text")))
+                .build();
+    }
+}
@@ -0,0 +1,407 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.ContentProgressedEvent;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletedInput;
+import de.unistuttgart.iste.meitrex.generated.dto.QuizCompletionFeedback;
+import de.unistuttgart.iste.meitrex.generated.dto.SubmittedAnswerInput;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.NumericQuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.SelfAssessmentQuestionEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.createNumericQuestion;
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.createSelfAssessmentQuestion;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class QuizCompletionServiceTest {
+
+    private final QuizService quizService = Mockito.mock(QuizService.class);
+    private final QuestionStatisticService questionStatisticService = Mockito.mock(QuestionStatisticService.class);
+    private final EventOutbox eventOutbox = Mockito.mock(EventOutbox.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QuizAnswerKeyCache quizAnswerKeyCache
+            = new QuizAnswerKeyCache(meterRegistry, 100, Duration.ofSeconds(30));
+
+    private QuizCompletionIngestionQueue ingestionQueue;
+
+    @AfterEach
+    void tearDown() {
+        if (ingestionQueue != null) {
+            ingestionQueue.shutdown();
+        }
+    }
+
+    @Test
+    void testSynchronousCompletionIsStoredWithoutQueue() {
+        final QuizCompletionService quizCompletionService = new QuizCompletionService(quizService,
+                quizAnswerKeyCache, questionStatisticService, Optional.empty(), QuizCompletionService.IngestionMode.SYNCHRONOUS, false);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        when(quizService.loadAnswerKey(answerKey.assessmentId())).thenReturn(answerKey);
+        final UUID userId = UUID.randomUUID();
+        final QuizCompletedInput input = createInput(answerKey, true, false);
+        final QuizCompletionFeedback expectedFeedback = QuizCompletionFeedback.builder()
+                .setSuccess(false)
+                .setCorrectness(0.5)
+                .setHintsUsed(0)
+                .build();
+        when(quizService.publishProgress(input, userId)).thenReturn(expectedFeedback);
+
+        final QuizCompletionFeedback feedback = quizCompletionService.logQuizCompleted(input, userId);
+
+        assertThat(feedback, is(expectedFeedback));
+        verify(quizService, times(1)).publishProgress(input, userId);
+        verifyNoInteractions(questionStatisticService, eventOutbox);
+    }
+
+    @Test
+    void testAsynchronousModeRequiresQueue() {
+        assertThrows(IllegalStateException.class, () -> new QuizCompletionService(quizService,
+                quizAnswerKeyCache, questionStatisticService, Optional.empty(), QuizCompletionService.IngestionMode.ASYNCHRONOUS, false));
+    }
+
+    @Test
+    void testAsynchronousCompletionIsScoredAndStoredInBackground() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        when(quizService.loadAnswerKey(answerKey.assessmentId())).thenReturn(answerKey);
+        final UUID userId = UUID.randomUUID();
+        final QuizCompletedInput input = createInput(answerKey, true, false);
+
+        final QuizCompletionFeedback feedback = quizCompletionService.logQuizCompleted(input, userId);
+
+        assertThat(feedback.getSuccess(), is(true));
+        assertThat(feedback.getCorrectness(), is(0.5));
+        verify(quizService, never()).publishProgress(any(), any());
+
+        verify(questionStatisticService, timeout(2000))
+                .logCompletedQuestions(answerKey.assessmentId(), userId, input.getCompletedQuestions());
+        final ArgumentCaptor<ContentProgressedEvent> captor = ArgumentCaptor.forClass(ContentProgressedEvent.class);
+        verify(eventOutbox, timeout(2000)).notifyUserWorkedOnContent(captor.capture());
+        assertThat(captor.getValue().getUserId(), is(userId));
+        assertThat(captor.getValue().getContentId(), is(answerKey.assessmentId()));
+    }
+
+    @Test
+    void testAsynchronousCompletionCountsAttemptBeforeReturning() throws InterruptedException {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        when(quizService.loadAnswerKey(answerKey.assessmentId())).thenReturn(answerKey);
+        final UUID userId = UUID.randomUUID();
+        // block the worker, so the completion is not stored before the feedback is returned
+        final CountDownLatch workerBlocked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBlocked.await();
+            return null;
+        }).when(questionStatisticService).logCompletedQuestions(any(), any(), any());
+
+        try {
+            quizCompletionService.logQuizCompleted(createInput(answerKey, true, false), userId);
+
+            verify(questionStatisticService).addCompletedAttempt(userId, answerKey.assessmentId());
+            verify(eventOutbox, never()).notifyUserWorkedOnContent(any());
+        } finally {
+            workerBlocked.countDown();
+        }
+    }
+
+    @Test
+    void testAnswerKeyIsCached() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        when(quizService.loadAnswerKey(answerKey.assessmentId())).thenReturn(answerKey);
+
+        quizCompletionService.requireAnswerKey(answerKey.assessmentId());
+        quizCompletionService.requireAnswerKey(answerKey.assessmentId());
+
+        verify(quizService, times(1)).loadAnswerKey(answerKey.assessmentId());
+    }
+
+    @Test
+    void testOutdatedAnswerKeyIsReloaded() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final UUID quizId = UUID.randomUUID();
+        final QuizAnswerKey outdatedAnswerKey = createAnswerKey(quizId, 1);
+        final QuizAnswerKey currentAnswerKey = createAnswerKey(quizId, 2);
+        when(quizService.loadAnswerKey(quizId)).thenReturn(outdatedAnswerKey, currentAnswerKey);
+        when(quizService.requireVersion(quizId)).thenReturn(1L);
+        assertThat(quizCompletionService.requireAnswerKey(quizId), is(outdatedAnswerKey));
+
+        // the quiz was modified, e.g., by another instance, without invalidating the cache of this instance
+        when(quizService.requireVersion(quizId)).thenReturn(2L);
+
+        assertThat(quizCompletionService.requireAnswerKey(quizId), is(currentAnswerKey));
+        assertThat(quizCompletionService.requireAnswerKey(quizId), is(currentAnswerKey));
+        verify(quizService, times(2)).loadAnswerKey(quizId);
+    }
+
+    @Test
+    void testOutdatedQuestionAnswerKeysAreReloaded() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final NumericQuestionEntity question = createNumericQuestion(1, "how many states does Germany have?", 16);
+        final NumericQuestionEntity modifiedQuestion = createNumericQuestion(1, "how many states does Germany have?", 20);
+        modifiedQuestion.setItemId(question.getItemId());
+        final UUID quizId = UUID.randomUUID();
+        when(quizService.loadQuestionAnswerKeys(quizId)).thenReturn(
+                Map.of(question.getItemId(), QuestionAnswerKey.of(question)),
+                Map.of(question.getItemId(), QuestionAnswerKey.of(modifiedQuestion)));
+
+        final QuizCompletedInput input = QuizCompletedInput.builder()
+                .setQuizId(quizId)
+                .setCompletedQuestions(List.of(QuestionCompletedInput.builder()
+                        .setQuestionId(question.getItemId())
+                        .setAnswer(SubmittedAnswerInput.builder().setNumber(20.0).build())
+                        .setUsedHint(false)
+                        .build()))
+                .build();
+        quizCompletionService.gradeSubmittedAnswers(input, createAnswerKey(quizId, 1));
+        assertThat(input.getCompletedQuestions().get(0).getCorrect(), is(false));
+
+        // graded against the answer keys of the current version, not the cached ones
+        input.getCompletedQuestions().get(0).setCorrect(null);
+        quizCompletionService.gradeSubmittedAnswers(input, createAnswerKey(quizId, 2));
+        assertThat(input.getCompletedQuestions().get(0).getCorrect(), is(true));
+        verify(quizService, times(2)).loadQuestionAnswerKeys(quizId);
+    }
+
+    @Test
+    void testUnknownQuestionIsRejectedBeforeQueueing() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        when(quizService.loadAnswerKey(answerKey.assessmentId())).thenReturn(answerKey);
+        final QuizCompletedInput input = QuizCompletedInput.builder()
+                .setQuizId(answerKey.assessmentId())
+                .setCompletedQuestions(List.of(QuestionCompletedInput.builder()
+                        .setQuestionId(UUID.randomUUID())
+                        .setCorrect(true)
+                        .setUsedHint(false)
+                        .build()))
+                .build();
+
+        assertThrows(EntityNotFoundException.class,
+                () -> quizCompletionService.logQuizCompleted(input, UUID.randomUUID()));
+        assertThat(meterRegistry.get("quiz_service.quiz_completion_queue.completions")
+                .tag("result", "accepted").counter().count(), is(0.0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testQuestionOutsideSelectionIsIgnored() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final List<UUID> questionIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        final QuizAnswerKey answerKey = new QuizAnswerKey(UUID.randomUUID(), UUID.randomUUID(), 2,
+                QuestionPoolingMode.RANDOM, 2, 3, Set.copyOf(questionIds), questionIds, 0);
+        final UUID userId = UUID.randomUUID();
+        when(quizService.loadAnswerKey(answerKey.assessmentId())).thenReturn(answerKey);
+        when(quizService.findSelectedQuestionIds(answerKey, userId)).thenReturn(Set.of(questionIds.get(0), questionIds.get(1)));
+        // the user answers all questions of the pool, although only two of them were shown
+        final QuizCompletedInput input = QuizCompletedInput.builder()
+                .setQuizId(answerKey.assessmentId())
+                .setCompletedQuestions(IntStream.range(0, 3)
+                        .mapToObj(i -> QuestionCompletedInput.builder()
+                                .setQuestionId(questionIds.get(i))
+                                .setCorrect(i > 0)
+                                .setUsedHint(false)
+                                .build())
+                        .toList())
+                .build();
+
+        final QuizCompletionFeedback feedback = quizCompletionService.logQuizCompleted(input, userId);
+
+        // only the answer to the second question counts
+        assertThat(feedback.getSuccess(), is(false));
+        assertThat(feedback.getCorrectness(), is(0.5));
+        final ArgumentCaptor<List<QuestionCompletedInput>> captor = ArgumentCaptor.forClass(List.class);
+        verify(questionStatisticService, timeout(2000))
+                .logCompletedQuestions(eq(answerKey.assessmentId()), eq(userId), captor.capture());
+        assertThat(captor.getValue().stream().map(QuestionCompletedInput::getQuestionId).toList(),
+                is(List.of(questionIds.get(0), questionIds.get(1))));
+    }
+
+    @Test
+    void testCompletionIsRejectedIfQueueIsFull() {
+        final QuizCompletionService quizCompletionService = createService(1);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        when(quizService.loadAnswerKey(answerKey.assessmentId())).thenReturn(answerKey);
+        // block the worker, so the queue fills up
+        doAnswer(invocation -> {
+            Thread.sleep(1000);
+            return null;
+        }).when(questionStatisticService).logCompletedQuestions(any(), any(), any());
+
+        assertThrows(QuizCompletionIngestionQueue.QueueFullException.class, () -> {
+            for (int i = 0; i < 3; i++) {
+                quizCompletionService.logQuizCompleted(createInput(answerKey, true, true), UUID.randomUUID());
+            }
+        });
+        assertThat(meterRegistry.get("quiz_service.quiz_completion_queue.completions")
+                .tag("result", "rejected").counter().count(), is(1.0));
+    }
+
+    @Test
+    void testSubmittedAnswersAreGradedByTheService() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final NumericQuestionEntity numericQuestion = createNumericQuestion(1, "how many states does Germany have?", 16);
+        final SelfAssessmentQuestionEntity selfAssessmentQuestion = createSelfAssessmentQuestion(2, "text", "answer");
+        final QuizAnswerKey answerKey = createAnswerKey();
+        final UUID quizId = answerKey.assessmentId();
+        when(quizService.loadQuestionAnswerKeys(quizId)).thenReturn(Map.of(
+                numericQuestion.getItemId(), QuestionAnswerKey.of(numericQuestion),
+                selfAssessmentQuestion.getItemId(), QuestionAnswerKey.of(selfAssessmentQuestion)));
+
+        for (int i = 0; i < 2; i++) {
+            final QuizCompletedInput input = QuizCompletedInput.builder()
+                    .setQuizId(quizId)
+                    .setCompletedQuestions(List.of(
+                            // the client claims the wrong answer to be correct
+                            QuestionCompletedInput.builder()
+                                    .setQuestionId(numericQuestion.getItemId())
+                                    .setCorrect(true)
+                                    .setAnswer(SubmittedAnswerInput.builder().setNumber(20.0).build())
+                                    .setUsedHint(false)
+                                    .build(),
+                            QuestionCompletedInput.builder()
+                                    .setQuestionId(selfAssessmentQuestion.getItemId())
+                                    .setCorrect(true)
+                                    .setAnswer(SubmittedAnswerInput.builder().setText("answer").build())
+                                    .setUsedHint(false)
+                                    .build()))
+                    .build();
+
+            quizCompletionService.gradeSubmittedAnswers(input, answerKey);
+
+            assertThat(input.getCompletedQuestions().get(0).getCorrect(), is(false));
+            // self-assessment questions keep the correctness stated by the user
+            assertThat(input.getCompletedQuestions().get(1).getCorrect(), is(true));
+        }
+        // the answer keys are cached
+        verify(quizService, times(1)).loadQuestionAnswerKeys(quizId);
+    }
+
+    @Test
+    void testCompletionWithoutCorrectnessAndAnswerIsRejected() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        final QuizCompletedInput input = createInput(answerKey, true);
+        input.getCompletedQuestions().get(0).setCorrect(null);
+
+        assertThrows(ValidationException.class, () -> quizCompletionService.gradeSubmittedAnswers(input, answerKey));
+        verify(quizService, never()).loadQuestionAnswerKeys(any());
+    }
+
+    @Test
+    void testCorrectnessWithoutAnswerIsRejectedIfAnswersAreRequired() {
+        final QuizCompletionService quizCompletionService = createService(10, true);
+        final NumericQuestionEntity numericQuestion = createNumericQuestion(1, "how many states does Germany have?", 16);
+        final SelfAssessmentQuestionEntity selfAssessmentQuestion = createSelfAssessmentQuestion(2, "text", "answer");
+        final QuizAnswerKey answerKey = createAnswerKey();
+        when(quizService.loadQuestionAnswerKeys(answerKey.assessmentId())).thenReturn(Map.of(
+                numericQuestion.getItemId(), QuestionAnswerKey.of(numericQuestion),
+                selfAssessmentQuestion.getItemId(), QuestionAnswerKey.of(selfAssessmentQuestion)));
+
+        // the correctness of a self-assessment question is still taken from the client
+        final QuizCompletedInput selfAssessed = QuizCompletedInput.builder()
+                .setQuizId(answerKey.assessmentId())
+                .setCompletedQuestions(List.of(
+                        QuestionCompletedInput.builder()
+                                .setQuestionId(numericQuestion.getItemId())
+                                .setAnswer(SubmittedAnswerInput.builder().setNumber(16.0).build())
+                                .setUsedHint(false)
+                                .build(),
+                        QuestionCompletedInput.builder()
+                                .setQuestionId(selfAssessmentQuestion.getItemId())
+                                .setCorrect(true)
+                                .setUsedHint(false)
+                                .build()))
+                .build();
+        quizCompletionService.gradeSubmittedAnswers(selfAssessed, answerKey);
+        assertThat(selfAssessed.getCompletedQuestions().get(0).getCorrect(), is(true));
+        assertThat(selfAssessed.getCompletedQuestions().get(1).getCorrect(), is(true));
+
+        // the client claims a gradable question to be correct without submitting the answer
+        final QuizCompletedInput clientGraded = QuizCompletedInput.builder()
+                .setQuizId(answerKey.assessmentId())
+                .setCompletedQuestions(List.of(QuestionCompletedInput.builder()
+                        .setQuestionId(numericQuestion.getItemId())
+                        .setCorrect(true)
+                        .setUsedHint(false)
+                        .build()))
+                .build();
+        assertThrows(ValidationException.class,
+                () -> quizCompletionService.gradeSubmittedAnswers(clientGraded, answerKey));
+    }
+
+    @Test
+    void testCorrectnessWithoutAnswerIsAcceptedByDefault() {
+        final QuizCompletionService quizCompletionService = createService(10);
+        final QuizAnswerKey answerKey = createAnswerKey();
+        final QuizCompletedInput input = createInput(answerKey, true);
+
+        quizCompletionService.gradeSubmittedAnswers(input, answerKey);
+
+        assertThat(input.getCompletedQuestions().get(0).getCorrect(), is(true));
+        verify(quizService, never()).loadQuestionAnswerKeys(any());
+    }
+
+    private QuizCompletionService createService(final int queueCapacity) {
+        return createService(queueCapacity, false);
+    }
+
+    private QuizCompletionService createService(final int queueCapacity, final boolean requireAnswers) {
+        ingestionQueue = new QuizCompletionIngestionQueue(questionStatisticService,
+                eventOutbox,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                meterRegistry,
+                queueCapacity,
+                10,
+                Duration.ofMillis(50));
+        return new QuizCompletionService(quizService, quizAnswerKeyCache, questionStatisticService,
+                Optional.of(ingestionQueue),
+                QuizCompletionService.IngestionMode.ASYNCHRONOUS,
+                requireAnswers);
+    }
+
+    private static QuizAnswerKey createAnswerKey() {
+        return createAnswerKey(UUID.randomUUID(), 0);
+    }
+
+    private static QuizAnswerKey createAnswerKey(final UUID quizId, final long version) {
+        final List<UUID> questionIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        return new QuizAnswerKey(quizId, UUID.randomUUID(), 1, QuestionPoolingMode.ORDERED, null, 2,
+                Set.copyOf(questionIds), questionIds, version);
+    }
+
+    private static QuizCompletedInput createInput(final QuizAnswerKey answerKey, final boolean... correct) {
+        final List<UUID> questionIds = List.copyOf(answerKey.questionIds());
+        return QuizCompletedInput.builder()
+                .setQuizId(answerKey.assessmentId())
+                .setCompletedQuestions(IntStream.range(0, correct.length)
+                        .mapToObj(i -> QuestionCompletedInput.builder()
+                                .setQuestionId(questionIds.get(i))
+                                .setCorrect(correct[i])
+                                .setUsedHint(false)
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.generated.dto.*;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuestionMapper;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuizMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class QuizDtoCacheTest {
+
+    private final QuizDtoCache quizDtoCache = new QuizDtoCache(new SimpleMeterRegistry(), 1000);
+    private final QuizMapper quizMapper = new QuizMapper(Mappers.getMapper(QuestionMapper.class));
+
+    @Test
+    void testCachedQuizIsOnlyReturnedForMatchingVersion() {
+        final Quiz quiz = createQuiz(List.of());
+        quizDtoCache.put(quiz.getAssessmentId(), 3, quiz);
+
+        assertThat(quizDtoCache.get(quiz.getAssessmentId(), 3), is(Optional.of(quiz)));
+        assertThat(quizDtoCache.get(quiz.getAssessmentId(), 4), is(Optional.empty()));
+    }
+
+    @Test
+    void testInvalidate() {
+        final Quiz quiz = createQuiz(List.of());
+        quizDtoCache.put(quiz.getAssessmentId(), 0, quiz);
+
+        quizDtoCache.invalidate(quiz.getAssessmentId());
+
+        assertThat(quizDtoCache.get(quiz.getAssessmentId(), 0), is(Optional.empty()));
+    }
+
+    @Test
+    void testRandomizeDoesNotModifyCachedQuiz() {
+        final ClozeQuestion clozeQuestion = ClozeQuestion.builder()
+                .setItemId(UUID.randomUUID())
+                .setNumber(1)
+                .setType(QuestionType.CLOZE)
+                .setShowBlanksList(true)
+                .setClozeElements(List.of())
+                .setAdditionalWrongAnswers(List.of("a", "b", "c"))
+                .setAllBlanks(List.of("a", "b", "c", "d", "e", "f", "g", "h"))
+                .build();
+        final Quiz quiz = createQuiz(List.of(clozeQuestion));
+        quizDtoCache.put(quiz.getAssessmentId(), 0, quiz);
+
+        final Quiz randomized = quizMapper.randomize(quiz);
+
+        assertThat(randomized, is(not(sameInstance(quiz))));
+        assertThat(quiz.getSelectedQuestions(), is(nullValue()));
+        assertThat(clozeQuestion.getAllBlanks(), contains("a", "b", "c", "d", "e", "f", "g", "h"));
+        final ClozeQuestion randomizedQuestion = (ClozeQuestion) randomized.getQuestionPool().get(0);
+        assertThat(randomizedQuestion, is(not(sameInstance(clozeQuestion))));
+        assertThat(randomizedQuestion.getAllBlanks(), containsInAnyOrder("a", "b", "c", "d", "e", "f", "g", "h"));
+        assertThat(randomized.getSelectedQuestions(), contains(randomizedQuestion));
+    }
+
+    @Test
+    void testRandomizeCopiesQuestionsWithoutRandomizedFields() {
+        final MultipleChoiceQuestion multipleChoiceQuestion = MultipleChoiceQuestion.builder()
+                .setItemId(UUID.randomUUID())
+                .setNumber(1)
+                .setType(QuestionType.MULTIPLE_CHOICE)
+                .setText("question")
+                .setNumberOfCorrectAnswers(1)
+                .setAnswers(List.of(MultipleChoiceAnswer.builder()
+                        .setAnswerText("answer")
+                        .setCorrect(true)
+                        .build()))
+                .build();
+        final Quiz quiz = createQuiz(List.of(multipleChoiceQuestion));
+        quizDtoCache.put(quiz.getAssessmentId(), 0, quiz);
+
+        final Quiz randomized = quizMapper.randomize(quiz);
+        final MultipleChoiceQuestion randomizedQuestion = (MultipleChoiceQuestion) randomized.getQuestionPool().get(0);
+        randomizedQuestion.setText("modified");
+        randomizedQuestion.getAnswers().get(0).setAnswerText("modified");
+
+        assertThat(randomizedQuestion, is(not(sameInstance(multipleChoiceQuestion))));
+        final MultipleChoiceQuestion cachedQuestion = (MultipleChoiceQuestion) quizDtoCache
+                .get(quiz.getAssessmentId(), 0).orElseThrow().getQuestionPool().get(0);
+        assertThat(cachedQuestion.getText(), is("question"));
+        assertThat(cachedQuestion.getAnswers().get(0).getAnswerText(), is("answer"));
+    }
+
+    @Test
+    void testRandomizeWithSameSeedIsReproducible() {
+        final List<Question> questionPool = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            questionPool.add(ClozeQuestion.builder()
+                    .setItemId(UUID.randomUUID())
+                    .setNumber(i)
+                    .setType(QuestionType.CLOZE)
+                    .setShowBlanksList(true)
+                    .setClozeElements(List.of())
+                    .setAdditionalWrongAnswers(List.of())
+                    .setAllBlanks(List.of("a", "b", "c", "d", "e", "f", "g", "h"))
+                    .build());
+        }
+        final Quiz quiz = createQuiz(questionPool);
+        quiz.setQuestionPoolingMode(QuestionPoolingMode.RANDOM);
+        quiz.setNumberOfRandomlySelectedQuestions(5);
+
+        final Quiz first = quizMapper.randomize(quiz, 42);
+        final Quiz second = quizMapper.randomize(quiz, 42);
+
+        assertThat(first.getSelectedQuestions(), hasSize(5));
+        assertThat(second.getSelectedQuestions(), is(first.getSelectedQuestions()));
+        assertThat(second.getQuestionPool(), is(first.getQuestionPool()));
+    }
+
+    private static Quiz createQuiz(final List<Question> questionPool) {
+        return Quiz.builder()
+                .setAssessmentId(UUID.randomUUID())
+                .setCourseId(UUID.randomUUID())
+                .setQuestionPool(questionPool)
+                .setQuestionPoolingMode(QuestionPoolingMode.ORDERED)
+                .setRequiredCorrectAnswers(1)
+                .build();
+    }
+}
@@ -3,27 +3,46 @@ package de.unistuttgart.iste.meitrex.quiz_service.service;
 
 import de.unistuttgart.iste.meitrex.quiz_service.TestData;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.MultipleChoiceQuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionAggregateEntity;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionEntity;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionStatisticEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuestionMapper;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.mapper.QuizMapper;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizAttemptSelection;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizGradingHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.projection.QuizHeader;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionAggregateRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionStatisticRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionTaskInformationRepository;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizAttemptRepository;
 import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuizRepository;
 import de.unistuttgart.iste.meitrex.quiz_service.validation.QuizValidator;
-import de.unistuttgart.iste.meitrex.common.dapr.TopicPublisher;
 import de.unistuttgart.iste.meitrex.common.event.*;
 import de.unistuttgart.iste.meitrex.common.exception.IncompleteEventMessageException;
 import de.unistuttgart.iste.meitrex.generated.dto.*;
 
+import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
+import org.mapstruct.factory.Mappers;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -32,24 +51,30 @@ import static org.mockito.Mockito.*;
 class QuizServiceTest {
 
     private final QuizRepository quizRepository = Mockito.mock(QuizRepository.class);
+    private final QuestionRepository questionRepository = Mockito.mock(QuestionRepository.class);
 
-    private final QuizMapper quizMapper = new QuizMapper(new ModelMapper());
+    private final QuizMapper quizMapper = new QuizMapper(Mappers.getMapper(QuestionMapper.class));
     private final QuizValidator quizValidator = new QuizValidator();
-    private final TopicPublisher topicPublisher = Mockito.mock(TopicPublisher.class);
-    private final QuizService quizService = new QuizService(quizRepository, quizMapper, quizValidator, topicPublisher);
+    private final EventOutbox eventOutbox = Mockito.mock(EventOutbox.class);
+    private final QuestionStatisticRepository questionStatisticRepository = Mockito.mock(QuestionStatisticRepository.class);
+    private final QuestionAggregateRepository questionAggregateRepository = Mockito.mock(QuestionAggregateRepository.class);
+    private final QuizAttemptRepository quizAttemptRepository = Mockito.mock(QuizAttemptRepository.class);
+    private final QuestionStatisticService questionStatisticService
+            = new QuestionStatisticService(questionStatisticRepository, questionAggregateRepository, quizAttemptRepository);
+    private final QuizDtoCache quizDtoCache = new QuizDtoCache(new SimpleMeterRegistry(), 1000);
+    private final QuizAnswerKeyCache quizAnswerKeyCache
+            = new QuizAnswerKeyCache(new SimpleMeterRegistry(), 1000, Duration.ofSeconds(30));
+    private final AssessmentContentMutationPublisher assessmentContentMutationPublisher
+            = Mockito.mock(AssessmentContentMutationPublisher.class);
+    private final QuizService quizService = new QuizService(quizRepository, questionRepository, quizMapper, quizValidator, eventOutbox,
+            questionStatisticService, quizDtoCache, quizAnswerKeyCache, assessmentContentMutationPublisher,
+            new TaskInformationGenerator(Mockito.mock(QuestionTaskInformationRepository.class)));
 
     @Test
     void removeContentIdsTest() {
         //init
         final UUID assessmentId = UUID.randomUUID();
-
-        final QuizEntity quizEntity = QuizEntity.builder()
-                .assessmentId(assessmentId)
-                .questionPool(new ArrayList<>())
-                .questionPoolingMode(QuestionPoolingMode.ORDERED)
-                .requiredCorrectAnswers(0)
-                .numberOfRandomlySelectedQuestions(0)
-                .build();
+        final List<UUID> questionIds = List.of(UUID.randomUUID(), UUID.randomUUID());
 
         final ContentChangeEvent contentChangeEvent = ContentChangeEvent.builder()
                 .contentIds(List.of(assessmentId))
@@ -57,12 +82,42 @@ class QuizServiceTest {
                 .build();
 
         //mock repository
-        when(quizRepository.findAllById(contentChangeEvent.getContentIds())).thenReturn(List.of(quizEntity));
+        when(quizRepository.findQuestionIdsByAssessmentIdIn(List.of(assessmentId))).thenReturn(questionIds);
 
         // invoke method under test
         assertDoesNotThrow(() -> quizService.deleteQuizzesWhenQuizContentIsDeleted(contentChangeEvent));
 
-        verify(quizRepository, times(1)).deleteAllById(any());
+        // the quizzes are deleted with set-based statements, without loading them
+        final var inOrder = inOrder(quizRepository, questionRepository);
+        inOrder.verify(quizRepository).deleteQuestionPoolsByAssessmentIdIn(List.of(assessmentId));
+        inOrder.verify(questionRepository).deleteAllByIdWithElementCollections(questionIds);
+        inOrder.verify(quizRepository).deleteQuizRowsByAssessmentIdIn(List.of(assessmentId));
+        verify(questionStatisticRepository).deleteAllByQuestionIdIn(questionIds);
+        verify(quizAttemptRepository).deleteAllByQuizIdIn(List.of(assessmentId));
+        verify(eventOutbox).notifyItemsChanged(questionIds, CrudOperation.DELETE);
+        verify(quizRepository, never()).findAllById(any());
+        verify(quizRepository, never()).deleteAllById(any());
+    }
+
+    @Test
+    void removeContentIdsInChunksTest() {
+        final List<UUID> assessmentIds = new ArrayList<>();
+        for (int i = 0; i < QuizService.BULK_DELETE_CHUNK_SIZE + 1; i++) {
+            assessmentIds.add(UUID.randomUUID());
+        }
+
+        final ContentChangeEvent contentChangeEvent = ContentChangeEvent.builder()
+                .contentIds(assessmentIds)
+                .operation(CrudOperation.DELETE)
+                .build();
+
+        when(quizRepository.findQuestionIdsByAssessmentIdIn(any())).thenReturn(List.of());
+
+        assertDoesNotThrow(() -> quizService.deleteQuizzesWhenQuizContentIsDeleted(contentChangeEvent));
+
+        verify(quizRepository).deleteQuizRowsByAssessmentIdIn(assessmentIds.subList(0, QuizService.BULK_DELETE_CHUNK_SIZE));
+        verify(quizRepository).deleteQuizRowsByAssessmentIdIn(List.of(assessmentIds.get(QuizService.BULK_DELETE_CHUNK_SIZE)));
+        verify(questionRepository, never()).deleteAllByIdWithElementCollections(any());
     }
 
     @Test
@@ -76,12 +131,12 @@ class QuizServiceTest {
                 .build();
 
         //mock repository
-        when(quizRepository.findAllById(contentChangeEvent.getContentIds())).thenReturn(new ArrayList<>());
+        when(quizRepository.findQuestionIdsByAssessmentIdIn(contentChangeEvent.getContentIds())).thenReturn(new ArrayList<>());
 
         // invoke method under test
         assertDoesNotThrow(() -> quizService.deleteQuizzesWhenQuizContentIsDeleted(contentChangeEvent));
 
-        verify(quizRepository, times(1)).deleteAllById(any());
+        verify(quizRepository, times(1)).deleteQuizRowsByAssessmentIdIn(contentChangeEvent.getContentIds());
     }
 
     @Test
@@ -191,18 +246,97 @@ class QuizServiceTest {
                 .setCorrectness(2.0 / quizEntity.getNumberOfRandomlySelectedQuestions())
                 .build();
         //mock repository
-        when(quizRepository.findById(assessmentId)).thenReturn(Optional.of(quizEntity));
-        doNothing().when(topicPublisher).notifyUserWorkedOnContent(any());
-        when(quizRepository.save(any())).thenReturn(quizEntity);
+        mockGradingProjection(quizEntity);
+        doNothing().when(eventOutbox).notifyUserWorkedOnContent(any());
 
         // invoke method under test
         final QuizCompletionFeedback actualFeedback = quizService.publishProgress(quizCompletedInput, userId);
 
         assertThat(actualFeedback, is(expectedQuizCompletionFeedback));
 
-        verify(quizRepository, times(1)).findById(assessmentId);
-        verify(quizRepository, times(1)).save(any());
-        verify(topicPublisher, times(1)).notifyUserWorkedOnContent(expectedUserProgressLogEvent);
+        // only the grading projection is queried, the quiz itself is not loaded
+        verify(quizRepository, times(1)).findGradingHeaderById(assessmentId);
+        verify(quizRepository, never()).findById(any());
+        // statistics are appended to the log, the quiz itself is not saved
+        verify(quizRepository, never()).save(any());
+        verifyStatisticsLogged(assessmentId, userId, quizCompletedInput);
+        verify(eventOutbox, times(1)).notifyUserWorkedOnContent(expectedUserProgressLogEvent);
+    }
+
+    @Test
+    void findSelectedQuestionIdsMatchesRandomizedQuizTest() {
+        final UUID userId = UUID.randomUUID();
+        final List<QuestionEntity> questions = new ArrayList<>();
+        for (int number = 1; number <= 10; number++) {
+            questions.add(TestData.createMultipleChoiceQuestion(number, "question " + number, "correct", "wrong"));
+        }
+        final UUID difficultQuestionId = questions.get(7).getItemId();
+        when(quizAttemptRepository.saveSelectedQuestionIdsIfAbsent(eq(userId), any(), eq(3L), any())).thenReturn(1);
+        when(questionAggregateRepository.findAllById(any()))
+                .thenReturn(List.of(new QuestionAggregateEntity(difficultQuestionId, 100, 1, 50)));
+
+        for (final QuestionPoolingMode mode : List.of(QuestionPoolingMode.RANDOM, QuestionPoolingMode.ADAPTIVE)) {
+            final QuizEntity quizEntity = QuizEntity.builder()
+                    .assessmentId(UUID.randomUUID())
+                    .courseId(UUID.randomUUID())
+                    .questionPool(questions)
+                    .questionPoolingMode(mode)
+                    .numberOfRandomlySelectedQuestions(3)
+                    .build();
+            final QuizHeader header = new QuizHeader(quizEntity.getAssessmentId(), quizEntity.getCourseId(),
+                    quizEntity.getRequiredCorrectAnswers(), mode, 3, 0, 3, null);
+            when(quizRepository.findAllByIdWithQuestions(Set.of(quizEntity.getAssessmentId())))
+                    .thenReturn(List.of(quizEntity));
+
+            // the questions shown to the user
+            final Quiz shownQuiz = quizService.findRandomizedQuizzes(List.of(header), userId)
+                    .get(quizEntity.getAssessmentId());
+            final List<UUID> shownQuestionIds = shownQuiz.getSelectedQuestions().stream()
+                    .map(Question::getItemId)
+                    .toList();
+
+            // the selection is stored with the attempt
+            final ArgumentCaptor<UUID[]> selectionCaptor = ArgumentCaptor.forClass(UUID[].class);
+            verify(quizAttemptRepository).saveSelectedQuestionIdsIfAbsent(eq(userId),
+                    eq(quizEntity.getAssessmentId()), eq(3L), selectionCaptor.capture());
+            assertThat(List.of(selectionCaptor.getValue()), is(shownQuestionIds));
+            when(quizAttemptRepository.findSelection(userId, quizEntity.getAssessmentId()))
+                    .thenReturn(Optional.of(new QuizAttemptSelection(3, shownQuestionIds)));
+
+            assertThat(shownQuestionIds.size(), is(3));
+            assertThat(quizService.findSelectedQuestionIds(QuizAnswerKey.of(quizEntity), userId),
+                    is(Set.copyOf(shownQuestionIds)));
+        }
+    }
+
+    @Test
+    void storedAdaptiveSelectionIsShownWithoutLoadingWeightsTest() {
+        final UUID userId = UUID.randomUUID();
+        final List<QuestionEntity> questions = new ArrayList<>();
+        for (int number = 1; number <= 10; number++) {
+            questions.add(TestData.createMultipleChoiceQuestion(number, "question " + number, "correct", "wrong"));
+        }
+        final QuizEntity quizEntity = QuizEntity.builder()
+                .assessmentId(UUID.randomUUID())
+                .courseId(UUID.randomUUID())
+                .questionPool(questions)
+                .questionPoolingMode(QuestionPoolingMode.ADAPTIVE)
+                .numberOfRandomlySelectedQuestions(3)
+                .build();
+        final List<UUID> storedSelection = List.of(questions.get(9).getItemId(),
+                questions.get(2).getItemId(),
+                questions.get(5).getItemId());
+        final QuizHeader header = new QuizHeader(quizEntity.getAssessmentId(), quizEntity.getCourseId(),
+                quizEntity.getRequiredCorrectAnswers(), QuestionPoolingMode.ADAPTIVE, 3, 0, 1, storedSelection);
+        when(quizRepository.findAllByIdWithQuestions(Set.of(quizEntity.getAssessmentId())))
+                .thenReturn(List.of(quizEntity));
+
+        final Quiz shownQuiz = quizService.findRandomizedQuizzes(List.of(header), userId)
+                .get(quizEntity.getAssessmentId());
+
+        assertThat(shownQuiz.getSelectedQuestions().stream().map(Question::getItemId).toList(), is(storedSelection));
+        verifyNoInteractions(questionAggregateRepository);
+        verify(quizAttemptRepository, never()).saveSelectedQuestionIdsIfAbsent(any(), any(), anyLong(), any());
     }
 
     @Test
@@ -263,25 +397,27 @@ class QuizServiceTest {
                 .build();
 
         //mock repository
-        when(quizRepository.findById(assessmentId)).thenReturn(Optional.of(quizEntity));
-        when(quizRepository.save(any())).thenReturn(quizEntity);
-        doNothing().when(topicPublisher).notifyUserWorkedOnContent(any());
+        mockGradingProjection(quizEntity);
+        doNothing().when(eventOutbox).notifyUserWorkedOnContent(any());
 
         // invoke method under test
         final QuizCompletionFeedback actualFeedback = quizService.publishProgress(quizCompletedInput, userId);
 
         assertThat(actualFeedback, is(expectedQuizCompletionFeedback));
 
-        verify(quizRepository, times(1)).findById(assessmentId);
-        verify(quizRepository, times(1)).save(any());
-        verify(topicPublisher, times(1)).notifyUserWorkedOnContent(expectedUserProgressLogEvent);
+        // only the grading projection is queried, the quiz itself is not loaded
+        verify(quizRepository, times(1)).findGradingHeaderById(assessmentId);
+        verify(quizRepository, never()).findById(any());
+        verify(quizRepository, never()).save(any());
+        verifyStatisticsLogged(assessmentId, userId, quizCompletedInput);
+        verify(eventOutbox, times(1)).notifyUserWorkedOnContent(expectedUserProgressLogEvent);
 
     }
 
     @Test
     void testCalculateCorrectnessEdgeCases() {
 
-        final var actualWithZeroCorrectAnswers = quizService.calculateCorrectness(0.0, QuizEntity.builder().build());
+        final var actualWithZeroCorrectAnswers = quizService.calculateCorrectness(0.0, QuizAnswerKey.of(QuizEntity.builder().build()));
         assertThat(actualWithZeroCorrectAnswers, is(0.0));
 
         final var quizEntityWithZeroQuestions = QuizEntity.builder()
@@ -289,7 +425,7 @@ class QuizServiceTest {
                 .questionPoolingMode(QuestionPoolingMode.ORDERED)
                 .build();
 
-        final var actualWithZeroQuestions = quizService.calculateCorrectness(1.0, quizEntityWithZeroQuestions);
+        final var actualWithZeroQuestions = quizService.calculateCorrectness(1.0, QuizAnswerKey.of(quizEntityWithZeroQuestions));
         assertThat(actualWithZeroQuestions, is(1.0));
 
         final var quizEntityWithRandomlySelectedQuestionsZero = QuizEntity.builder()
@@ -298,7 +434,7 @@ class QuizServiceTest {
                 .numberOfRandomlySelectedQuestions(0)
                 .build();
         final var actualWithRandomlySelectedQuestionsZero
-                = quizService.calculateCorrectness(1.0, quizEntityWithRandomlySelectedQuestionsZero);
+                = quizService.calculateCorrectness(1.0, QuizAnswerKey.of(quizEntityWithRandomlySelectedQuestionsZero));
 
         assertThat(actualWithRandomlySelectedQuestionsZero, is(1.0));
 
@@ -310,9 +446,156 @@ class QuizServiceTest {
                 .build();
 
         final var actualWithRandomlySelectedQuestionsNull
-                = quizService.calculateCorrectness(1.0, quizEntityWithRandomlySelectedQuestionsNull);
+                = quizService.calculateCorrectness(1.0, QuizAnswerKey.of(quizEntityWithRandomlySelectedQuestionsNull));
 
         assertThat(actualWithRandomlySelectedQuestionsNull, is(0.5));
     }
 
+    @Test
+    void removeQuestionRenumbersWithoutLoadingQuestionPoolTest() {
+        final UUID quizId = UUID.randomUUID();
+        final UUID questionId = UUID.randomUUID();
+        final QuizGradingHeader header = new QuizGradingHeader(quizId, UUID.randomUUID(), 1,
+                QuestionPoolingMode.ORDERED, null, 0);
+
+        when(quizRepository.findGradingHeaderById(quizId)).thenReturn(Optional.of(header));
+        when(quizRepository.findQuestionIdByNumber(quizId, 2)).thenReturn(Optional.of(questionId));
+
+        final Quiz quiz = quizService.removeQuestion(quizId, 2);
+
+        final var inOrder = inOrder(questionRepository, quizRepository);
+        inOrder.verify(questionRepository).removeFromQuestionPool(questionId);
+        inOrder.verify(questionRepository).deleteAllByIdWithElementCollections(List.of(questionId));
+        inOrder.verify(questionRepository).decrementNumbersAfter(quizId, 2);
+        inOrder.verify(quizRepository).incrementVersion(quizId);
+        // neither the removed question nor the question pool is loaded
+        verify(questionRepository, never()).deleteById(any());
+        verify(quizRepository, never()).findById(any());
+        verify(quizRepository, never()).findAllByIdWithQuestions(any());
+        verify(quizRepository, never()).save(any());
+        verify(assessmentContentMutationPublisher).scheduleEvent(quizId);
+        assertThat(quiz.getAssessmentId(), is(quizId));
+        assertThat(quiz.getQuestionPool(), is(nullValue()));
+    }
+
+    @Test
+    void removeQuestionNonExistingNumberTest() {
+        final UUID quizId = UUID.randomUUID();
+        when(quizRepository.findGradingHeaderById(quizId)).thenReturn(Optional.of(new QuizGradingHeader(quizId,
+                UUID.randomUUID(), 1, QuestionPoolingMode.ORDERED, null, 0)));
+        when(quizRepository.findQuestionIdByNumber(quizId, 3)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> quizService.removeQuestion(quizId, 3));
+        verifyNoInteractions(questionRepository);
+    }
+
+    @Test
+    void modifyQuizIncrementsVersionAtomicallyTest() {
+        final UUID quizId = UUID.randomUUID();
+        final QuizEntity quizEntity = QuizEntity.builder()
+                .assessmentId(quizId)
+                .questionPool(new ArrayList<>())
+                .version(3)
+                .build();
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quizEntity));
+        when(quizRepository.save(quizEntity)).thenReturn(quizEntity);
+
+        quizService.setRequiredCorrectAnswers(quizId, 1);
+
+        // the version is incremented by the database before the quiz is loaded, not by the entity
+        final var inOrder = inOrder(quizRepository);
+        inOrder.verify(quizRepository).incrementVersion(quizId);
+        inOrder.verify(quizRepository).findById(quizId);
+        inOrder.verify(quizRepository).save(quizEntity);
+        assertThat(quizEntity.getVersion(), is(3L));
+        assertThat(quizEntity.getRequiredCorrectAnswers(), is(1));
+    }
+
+    @Test
+    void deleteQuizWithoutLoadingQuizTest() {
+        final UUID quizId = UUID.randomUUID();
+        final List<UUID> questionIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(quizRepository.existsById(quizId)).thenReturn(true);
+        when(quizRepository.findQuestionIdsByAssessmentIdIn(List.of(quizId))).thenReturn(questionIds);
+
+        assertThat(quizService.deleteQuiz(quizId), is(quizId));
+
+        verify(quizRepository, times(1)).findQuestionIdsByAssessmentIdIn(List.of(quizId));
+        verify(questionRepository).deleteAllByIdWithElementCollections(questionIds);
+        verify(quizRepository).deleteQuizRowsByAssessmentIdIn(List.of(quizId));
+        // a single event for all questions
+        verify(eventOutbox, times(1)).notifyItemsChanged(questionIds, CrudOperation.DELETE);
+        verify(eventOutbox, never()).notifyItemChanges(any(), any());
+        verify(quizRepository, never()).findById(any());
+        verify(quizRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void cachesAreInvalidatedAfterCommitTest() {
+        final UUID quizId = UUID.randomUUID();
+        final QuizAnswerKey answerKey = new QuizAnswerKey(quizId, UUID.randomUUID(), 1, QuestionPoolingMode.ORDERED,
+                null, 0, Set.of(), List.of(), 0);
+        quizAnswerKeyCache.put(answerKey);
+        when(quizRepository.existsById(quizId)).thenReturn(true);
+        when(quizRepository.findQuestionIdsByAssessmentIdIn(List.of(quizId))).thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            quizService.deleteQuiz(quizId);
+
+            // not invalidated before the commit, a concurrent request could cache the old state again otherwise
+            assertThat(quizAnswerKeyCache.get(quizId), is(Optional.of(answerKey)));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(quizAnswerKeyCache.get(quizId), is(Optional.empty()));
+    }
+
+    @Test
+    void deleteNonExistingQuizTest() {
+        final UUID quizId = UUID.randomUUID();
+        when(quizRepository.existsById(quizId)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> quizService.deleteQuiz(quizId));
+        verify(quizRepository, never()).deleteQuizRowsByAssessmentIdIn(any());
+        verifyNoInteractions(eventOutbox);
+    }
+
+    private void mockGradingProjection(final QuizEntity quizEntity) {
+        when(quizRepository.findGradingHeaderById(quizEntity.getAssessmentId())).thenReturn(Optional.of(
+                new QuizGradingHeader(quizEntity.getAssessmentId(),
+                        quizEntity.getCourseId(),
+                        quizEntity.getRequiredCorrectAnswers(),
+                        quizEntity.getQuestionPoolingMode(),
+                        quizEntity.getNumberOfRandomlySelectedQuestions(),
+                        quizEntity.getVersion())));
+        when(quizRepository.findVersionById(quizEntity.getAssessmentId()))
+                .thenReturn(Optional.of(quizEntity.getVersion()));
+        when(quizRepository.findQuestionIdsByAssessmentIdIn(List.of(quizEntity.getAssessmentId())))
+                .thenReturn(quizEntity.getQuestionPool().stream().map(QuestionEntity::getItemId).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyStatisticsLogged(final UUID quizId, final UUID userId, final QuizCompletedInput input) {
+        final ArgumentCaptor<List<QuestionStatisticEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(questionStatisticRepository, times(1)).saveAll(captor.capture());
+
+        final List<QuestionStatisticEntity> statistics = captor.getValue();
+        assertThat(statistics.size(), is(input.getCompletedQuestions().size()));
+        for (int i = 0; i < statistics.size(); i++) {
+            final QuestionCompletedInput completedQuestion = input.getCompletedQuestions().get(i);
+            assertThat(statistics.get(i).getQuestionId(), is(completedQuestion.getQuestionId()));
+            assertThat(statistics.get(i).getQuizId(), is(quizId));
+            assertThat(statistics.get(i).getUserId(), is(userId));
+            assertThat(statistics.get(i).isAnsweredCorrectly(), is(completedQuestion.getCorrect()));
+        }
+        // the aggregates are updated with a single statement
+        verify(questionAggregateRepository, times(1)).addAttempts(eq(userId), any(), any(), any());
+        // the next attempt of the user is randomized differently
+        verify(quizAttemptRepository).addCompletedAttempt(userId, quizId);
+    }
+
 }
\ No newline at end of file
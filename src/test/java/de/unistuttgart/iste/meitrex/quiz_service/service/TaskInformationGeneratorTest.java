@@ -0,0 +1,100 @@
+package de.unistuttgart.iste.meitrex.quiz_service.service;
+
+import de.unistuttgart.iste.meitrex.common.event.AssessmentContentMutatedEvent;
+import de.unistuttgart.iste.meitrex.generated.dto.QuestionPoolingMode;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuestionTaskInformationEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.QuizEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.entity.SelfAssessmentQuestionEntity;
+import de.unistuttgart.iste.meitrex.quiz_service.persistence.repository.QuestionTaskInformationRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static de.unistuttgart.iste.meitrex.quiz_service.TestData.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+class TaskInformationGeneratorTest {
+
+    private final QuestionTaskInformationRepository repository = Mockito.mock(QuestionTaskInformationRepository.class);
+    private final TaskInformationGenerator taskInformationGenerator = new TaskInformationGenerator(repository);
+
+    @Test
+    void testAllQuestionsAreRenderedWithoutStoredTaskInformation() {
+        final QuizEntity quiz = createQuiz();
+
+        final List<AssessmentContentMutatedEvent.TaskInformation> result
+                = taskInformationGenerator.generateTaskInformation(quiz);
+
+        assertThat(result, hasSize(2));
+        for (int i = 0; i < result.size(); i++) {
+            final var question = quiz.getQuestionPool().get(i);
+            final String expectedText = taskInformationGenerator.renderTaskInformation(question);
+            assertThat(result.get(i), is(new AssessmentContentMutatedEvent.TaskInformation(question.getItemId(), expectedText)));
+            verify(repository).upsert(question.getItemId(), taskInformationGenerator.contentHash(question), expectedText);
+        }
+    }
+
+    @Test
+    void testOnlyChangedQuestionsAreRenderedAgain() {
+        final QuizEntity quiz = createQuiz();
+        final var unchangedQuestion = quiz.getQuestionPool().get(0);
+        final var changedQuestion = (SelfAssessmentQuestionEntity) quiz.getQuestionPool().get(1);
+        when(repository.findAllById(any())).thenReturn(List.of(
+                new QuestionTaskInformationEntity(unchangedQuestion.getItemId(),
+                        taskInformationGenerator.contentHash(unchangedQuestion), "stored text"),
+                new QuestionTaskInformationEntity(changedQuestion.getItemId(),
+                        taskInformationGenerator.contentHash(changedQuestion), "outdated text")));
+
+        changedQuestion.setSolutionSuggestion("new solution");
+        final List<AssessmentContentMutatedEvent.TaskInformation> result
+                = taskInformationGenerator.generateTaskInformation(quiz);
+
+        assertThat(result.get(0), is(new AssessmentContentMutatedEvent.TaskInformation(
+                unchangedQuestion.getItemId(), "stored text")));
+        assertThat(result.get(1), is(new AssessmentContentMutatedEvent.TaskInformation(
+                changedQuestion.getItemId(), taskInformationGenerator.renderTaskInformation(changedQuestion))));
+        verify(repository, never()).upsert(eq(unchangedQuestion.getItemId()), any(), any());
+        verify(repository, times(1)).upsert(eq(changedQuestion.getItemId()), any(), any());
+    }
+
+    @Test
+    void testContentHashIgnoresNumber() {
+        final var question = createSelfAssessmentQuestion(1, "question", "answer");
+        final byte[] hash = taskInformationGenerator.contentHash(question);
+
+        question.setNumber(2);
+
+        assertThat(taskInformationGenerator.contentHash(question), is(hash));
+    }
+
+    @Test
+    void testContentHashDistinguishesContentsWithEqualStringHashCodes() {
+        // "Aa" and "BB" have the same String#hashCode
+        final var question = createSelfAssessmentQuestion(1, "Aa", "answer");
+        final var otherQuestion = createSelfAssessmentQuestion(1, "BB", "answer");
+        // the boundaries between the properties are part of the hash
+        final var shiftedQuestion = createSelfAssessmentQuestion(1, "Aaan", "swer");
+
+        final byte[] hash = taskInformationGenerator.contentHash(question);
+
+        assertThat(hash.length, is(32));
+        assertThat(taskInformationGenerator.contentHash(otherQuestion), is(not(hash)));
+        assertThat(taskInformationGenerator.contentHash(shiftedQuestion), is(not(hash)));
+    }
+
+    private static QuizEntity createQuiz() {
+        return QuizEntity.builder()
+                .assessmentId(UUID.randomUUID())
+                .courseId(UUID.randomUUID())
+                .questionPool(new ArrayList<>(List.of(
+                        createMultipleChoiceQuestion(1, "question", "correct", "wrong"),
+                        createSelfAssessmentQuestion(2, "question", "answer"))))
+                .questionPoolingMode(QuestionPoolingMode.ORDERED)
+                .build();
+    }
+}